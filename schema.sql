@@ -17,7 +17,9 @@ CREATE TABLE STATUS (
 CREATE TABLE BATCH (
 	BATCH_ID CHAR(36) NOT NULL PRIMARY KEY,       -- A unique ID for each batch.
 	CREATE_TIME TIMESTAMP NOT NULL,               -- The time this record was created.
-	PAYLOAD LONGTEXT                              -- The raw data that is being integrated.
+	PAYLOAD LONGTEXT,                             -- The raw data that is being integrated, when it isn't compressed.
+	PAYLOAD_CODEC VARCHAR(10),                    -- How PAYLOAD_COMPRESSED is compressed. NULL when the data is in PAYLOAD.
+	PAYLOAD_COMPRESSED LONGBLOB                   -- The raw data that is being integrated, when it is compressed.
 );
 
 -- -----------------------------------------------------
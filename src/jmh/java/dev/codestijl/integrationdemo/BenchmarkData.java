@@ -0,0 +1,146 @@
+package dev.codestijl.integrationdemo;
+
+import dev.codestijl.integrationdemo.common.IdUtils;
+import dev.codestijl.integrationdemo.dao.KeyMode;
+import dev.codestijl.integrationdemo.entity.Album;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+/**
+ * Data for the benchmarks. The albums come from large-file.json in the test resources. Payloads larger than the file
+ * repeat its albums, so the benchmarks can scale past it.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public final class BenchmarkData {
+
+    private static final String LARGE_FILE = "/large-file.json";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final String INSERT_BATCH_SQL = "INSERT INTO STAGE.BATCH (BATCH_ID, CREATE_TIME, PAYLOAD) VALUES (?, ?, ?)";
+
+    private static final List<JsonNode> SOURCE_ALBUMS = readSourceAlbums();
+
+    /**
+     * Returns a JSON array of albums, like the file LOAD-BATCH loads.
+     *
+     * @param albums The number of albums in the array.
+     * @return The JSON array.
+     */
+    public static String payload(final int albums) {
+
+        final ArrayNode arrayNode = OBJECT_MAPPER.createArrayNode();
+        for (int i = 0; i < albums; i++) {
+            arrayNode.add(SOURCE_ALBUMS.get(i % SOURCE_ALBUMS.size()));
+        }
+
+        return arrayNode.toString();
+    }
+
+    /**
+     * Returns Albums as they are when LOAD-ALBUM reads them, before they are processed.
+     *
+     * @param albums The number of Albums to return.
+     * @return The Albums.
+     */
+    public static List<Album> albums(final int albums) {
+
+        final List<Album> result = new ArrayList<>(albums);
+        for (int i = 0; i < albums; i++) {
+            result.add(toAlbum(SOURCE_ALBUMS.get(i % SOURCE_ALBUMS.size())));
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates a new, empty, in-memory H2 database with the staging and core schemas. Each call creates a separate
+     * database. The DataSource is pooled like the application's, and should be closed when the benchmark is done.
+     *
+     * @return The DataSource of the new database.
+     */
+    public static HikariDataSource newDataSource() {
+
+        return newDataSource(KeyMode.CHAR);
+    }
+
+    /**
+     * Creates a new, empty, in-memory H2 database with the staging and core schemas, keyed with CHAR(36) or
+     * BINARY(16). Each call creates a separate database. The DataSource is pooled like the application's, and
+     * should be closed when the benchmark is done.
+     *
+     * @param keyMode How the tables store their IDs.
+     * @return The DataSource of the new database.
+     */
+    public static HikariDataSource newDataSource(final KeyMode keyMode) {
+
+        final HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(String.format("jdbc:h2:mem:%s;DB_CLOSE_DELAY=-1", IdUtils.newId()));
+        dataSource.setUsername("sa");
+
+        final ResourceDatabasePopulator populator = keyMode == KeyMode.BINARY
+                ? new ResourceDatabasePopulator(new ClassPathResource("binary-key-schema.sql"), new ClassPathResource("binary-key-data.sql"))
+                : new ResourceDatabasePopulator(new ClassPathResource("integration-schema.sql"), new ClassPathResource("integration-data.sql"));
+        DatabasePopulatorUtils.execute(populator, dataSource);
+
+        return dataSource;
+    }
+
+    /**
+     * Adds a batch to the BATCH table.
+     *
+     * @param jdbcTemplate The JdbcTemplate of the database to add the batch to.
+     * @param payload The payload of the batch.
+     * @return The ID of the batch.
+     */
+    public static UUID newBatch(final JdbcTemplate jdbcTemplate, final String payload) {
+
+        final UUID batchId = IdUtils.newId();
+        jdbcTemplate.update(INSERT_BATCH_SQL, KeyMode.of(jdbcTemplate.getDataSource()).parameter(batchId), Timestamp.from(Instant.now()), payload);
+
+        return batchId;
+    }
+
+    private static Album toAlbum(final JsonNode jsonNode) {
+
+        try {
+            return OBJECT_MAPPER.treeToValue(jsonNode, Album.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<JsonNode> readSourceAlbums() {
+
+        try (InputStream inputStream = BenchmarkData.class.getResourceAsStream(LARGE_FILE)) {
+
+            final List<JsonNode> albums = new ArrayList<>();
+            OBJECT_MAPPER.readTree(inputStream).forEach(albums::add);
+            return albums;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private BenchmarkData() {
+        // Intentionally empty.
+    }
+}
@@ -0,0 +1,223 @@
+package dev.codestijl.integrationdemo;
+
+import dev.codestijl.integrationdemo.generator.CatalogGenerator;
+import dev.codestijl.integrationdemo.generator.CatalogSpec;
+import dev.codestijl.integrationdemo.generator.CatalogStats;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.util.StringUtils;
+
+/**
+ * Runs the whole job end to end against an in-memory H2 database in MySQL mode for every combination of the sweep,
+ * and writes a JSON report of the wall time, rows per second, peak heap, and GC pauses of each step. Each run is in
+ * a new JVM, started by JobBenchmarkRun, so the heap and the GCs of one run don't spill into the next.
+ *
+ * <p>The payloads are made by the CatalogGenerator. To have some of the albums already in CORE, a first batch from
+ * the same seed is loaded into CORE before the job runs, and the share of the payload that repeats it is set with
+ * --existing-shares. The sweep options are comma separated lists.</p>
+ *
+ * <ul>
+ *     <li>--albums The number of albums in the payload. Defaults to 1000,10000.</li>
+ *     <li>--commit-intervals The commit interval of LOAD-ALBUM and LOAD-CORE. Defaults to 10,100,1000.</li>
+ *     <li>--existing-shares The share of the albums, from 0 to 1, that are already in CORE. Defaults to 0,0.5.</li>
+ *     <li>--seed The seed of the catalogs. Defaults to 1.</li>
+ *     <li>--jvm-args The space separated arguments of the JVMs the job runs in, like -Xmx1g.</li>
+ *     <li>--work-dir Where to put the catalogs and the logs of each run. Defaults to build/tmp/job-benchmark.</li>
+ *     <li>--out Where to write the report. Defaults to build/reports/job-benchmark.json.</li>
+ * </ul>
+ *
+ * <p>Options that start with integration. are passed on to the application, like
+ * --integration.load-core.lookup-mode=UPSERT, except for the commit intervals, which are set by the sweep.</p>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public final class JobBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobBenchmark.class);
+
+    private static final String APPLICATION_PREFIX = "integration.";
+
+    private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final Path workDir;
+    private final long seed;
+    private final List<String> jvmArgs;
+    private final List<String> applicationArgs;
+    // The sweep runs on one thread.
+    @SuppressWarnings("PMD.UseConcurrentHashMap")
+    private final Map<Path, CatalogStats> catalogs = new HashMap<>();
+
+    private int runs;
+
+    private JobBenchmark(final Path workDir, final long seed, final List<String> jvmArgs, final List<String> applicationArgs) {
+
+        this.workDir = workDir;
+        this.seed = seed;
+        this.jvmArgs = jvmArgs;
+        this.applicationArgs = applicationArgs;
+    }
+
+    /**
+     * Runs the sweep and writes the report. See the class comment for the options.
+     *
+     * @param args The command line arguments.
+     * @throws IOException If a catalog, run, or the report can't be written.
+     * @throws InterruptedException If interrupted while waiting for a run.
+     */
+    public static void main(final String[] args) throws IOException, InterruptedException {
+
+        final SimpleCommandLinePropertySource options = new SimpleCommandLinePropertySource(args);
+
+        final List<Long> albums = list(option(options, "albums", "1000,10000"), Long::valueOf);
+        final List<Integer> commitIntervals = list(option(options, "commit-intervals", "10,100,1000"), Integer::valueOf);
+        final List<Double> existingShares = list(option(options, "existing-shares", "0,0.5"), Double::valueOf);
+        final long seed = Long.parseLong(option(options, "seed", "1"));
+        final List<String> jvmArgs = Arrays.asList(StringUtils.tokenizeToStringArray(option(options, "jvm-args", ""), " "));
+        final Path workDir = Files.createDirectories(Path.of(option(options, "work-dir", "build/tmp/job-benchmark")));
+        final Path out = Path.of(option(options, "out", "build/reports/job-benchmark.json"));
+
+        final List<String> applicationArgs = Arrays.stream(options.getPropertyNames())
+                .filter(name -> name.startsWith(APPLICATION_PREFIX))
+                .map(name -> String.format("--%s=%s", name, options.getProperty(name)))
+                .collect(Collectors.toList());
+
+        final ObjectNode report = OBJECT_MAPPER.createObjectNode();
+        report.put("createTime", Instant.now().toString());
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("seed", seed);
+        report.set("jvmArgs", OBJECT_MAPPER.valueToTree(jvmArgs));
+        report.set("applicationArgs", OBJECT_MAPPER.valueToTree(applicationArgs));
+        final ArrayNode points = report.putArray("points");
+
+        final JobBenchmark jobBenchmark = new JobBenchmark(workDir, seed, jvmArgs, applicationArgs);
+        for (final long albumCount : albums) {
+            for (final double existingShare : existingShares) {
+                for (final int commitInterval : commitIntervals) {
+                    points.add(jobBenchmark.run(albumCount, existingShare, commitInterval));
+                }
+            }
+        }
+
+        Files.createDirectories(out.toAbsolutePath().getParent());
+        OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(out.toFile(), report);
+        logger.info(String.format("Wrote the report of %,d runs to %s.", points.size(), out));
+    }
+
+    private ObjectNode run(final long albums, final double existingShare, final int commitInterval) throws IOException, InterruptedException {
+
+        this.runs++;
+        final Path payload = this.workDir.resolve(String.format("payload-%d-%s.json", albums, existingShare));
+        final Path result = this.workDir.resolve(String.format("run-%d.json", this.runs));
+        final Path log = this.workDir.resolve(String.format("run-%d.log", this.runs));
+
+        final ObjectNode point = OBJECT_MAPPER.createObjectNode();
+        point.put("albums", albums);
+        point.put("existingShare", existingShare);
+        point.put("commitInterval", commitInterval);
+        point.set("catalog", OBJECT_MAPPER.valueToTree(this.catalog(payload, albums, 1, existingShare)));
+        point.put("payloadBytes", Files.size(payload));
+
+        final List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(this.jvmArgs);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(JobBenchmarkRun.class.getName());
+        command.add("--payload=" + payload);
+        command.add("--result=" + result);
+        if (existingShare > 0) {
+            final Path core = this.workDir.resolve(String.format("core-%d.json", albums));
+            this.catalog(core, albums, 0, 0);
+            command.add("--core=" + core);
+        }
+        command.add("--integration.load-album.commit-interval=" + commitInterval);
+        command.add("--integration.load-core.commit-interval=" + commitInterval);
+        command.addAll(this.applicationArgs);
+
+        logger.info(String.format("Run %d: %,d albums, %.0f%% in CORE, commit interval %,d.", this.runs, albums,
+                existingShare * 100, commitInterval));
+
+        Files.deleteIfExists(result);
+        final int exitCode = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start().waitFor();
+        point.put("exitCode", exitCode);
+        point.put("log", log.toString());
+
+        if (Files.exists(result)) {
+            final JsonNode metrics = OBJECT_MAPPER.readTree(result.toFile());
+            point.setAll((ObjectNode) metrics);
+            metrics.get("steps").forEach(JobBenchmark::logStep);
+        } else {
+            logger.warn(String.format("Run %d failed with exit code %d. See %s.", this.runs, exitCode, log));
+        }
+
+        return point;
+    }
+
+    private CatalogStats catalog(final Path path, final long albums, final int batch, final double duplicateAcrossBatchRate) throws IOException {
+
+        // The same catalog is used by every commit interval, so each is only generated once.
+        final CatalogStats generated = this.catalogs.get(path);
+        if (Objects.nonNull(generated)) {
+            return generated;
+        }
+
+        final CatalogSpec spec = CatalogSpec.builder()
+                .setSeed(this.seed)
+                .setAlbums(albums)
+                .setBatch(batch)
+                .setDuplicateAcrossBatchRate(duplicateAcrossBatchRate)
+                .build();
+
+        final CatalogStats stats;
+        try (OutputStream outputStream = Files.newOutputStream(path)) {
+            stats = new CatalogGenerator(spec).generate(outputStream);
+        }
+
+        this.catalogs.put(path, stats);
+        return stats;
+    }
+
+    private static void logStep(final JsonNode step) {
+
+        logger.info(String.format("  %-14s %-10s %,8d ms %,10d rows/s %,6d MB peak heap %,4d GC pauses (%,d ms)",
+                step.get("name").asText(), step.get("status").asText(), step.get("wallMillis").asLong(),
+                step.get("rowsPerSecond").asLong(), step.get("peakHeapBytes").asLong() / BYTES_PER_MEGABYTE,
+                step.get("gcPauses").asLong(), step.get("gcPauseMillis").asLong()));
+    }
+
+    private static String option(final SimpleCommandLinePropertySource options, final String name, final String defaultValue) {
+
+        return Objects.requireNonNullElse(options.getProperty(name), defaultValue);
+    }
+
+    private static <T> List<T> list(final String values, final Function<String, T> parser) {
+
+        return Arrays.stream(StringUtils.commaDelimitedListToStringArray(values))
+                .map(String::trim)
+                .map(parser)
+                .collect(Collectors.toList());
+    }
+}
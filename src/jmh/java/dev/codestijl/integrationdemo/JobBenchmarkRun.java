@@ -0,0 +1,203 @@
+package dev.codestijl.integrationdemo;
+
+import dev.codestijl.integrationdemo.common.IdUtils;
+import dev.codestijl.integrationdemo.dao.CoreAlbumDao;
+import dev.codestijl.integrationdemo.entity.Album;
+import dev.codestijl.integrationdemo.entity.CoreAlbum;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.step.AbstractStep;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.util.Assert;
+
+/**
+ * Runs the job once against an in-memory H2 database in MySQL mode and writes the metrics of each step to a JSON
+ * file. JobBenchmark runs this in a new JVM for each point of its sweep, so no run is affected by the ones before it.
+ *
+ * <p>The database is created from the same schema.sql and data.sql as the real one. Before the job runs, the albums
+ * of another catalog can be loaded into CORE so that some of the albums the job loads are already there. Options that
+ * aren't listed here are passed on to the application, so any of its settings can be changed.</p>
+ *
+ * <ul>
+ *     <li>--payload=&lt;file&gt; The catalog the job loads. Required.</li>
+ *     <li>--result=&lt;file&gt; Where to write the metrics. Required.</li>
+ *     <li>--core=&lt;file&gt; A catalog to load into CORE before the job runs.</li>
+ *     <li>--schema=&lt;file&gt; The schema to create. Defaults to schema.sql.</li>
+ *     <li>--data=&lt;file&gt; The data to load after the schema. Defaults to data.sql.</li>
+ * </ul>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+// This sets up a database and an application, and needs the classes of both.
+@SuppressWarnings("PMD.ExcessiveImports")
+public final class JobBenchmarkRun {
+
+    private static final String JOB_NAME = "INTEGRATION-DEMO";
+    private static final String URL = "jdbc:h2:mem:job-benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final String USERNAME = "sa";
+
+    private static final int CORE_CHUNK_SIZE = 1000;
+    private static final int GTIN_14_LENGTH = 14;
+    private static final int NAME_MAX_LENGTH = 100;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * Registers a StepMetricsListener with every step of the job.
+     *
+     * @author darren
+     * @since 1.0.0
+     */
+    private static final class StepMetricsRegistrar implements BeanPostProcessor {
+
+        private final StepMetricsListener stepMetricsListener;
+
+        private StepMetricsRegistrar(final StepMetricsListener stepMetricsListener) {
+
+            this.stepMetricsListener = stepMetricsListener;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+
+            if (bean instanceof AbstractStep) {
+                ((AbstractStep) bean).registerStepExecutionListener(this.stepMetricsListener);
+            }
+
+            return bean;
+        }
+    }
+
+    /**
+     * Runs the job and writes its metrics. See the class comment for the options.
+     *
+     * @param args The command line arguments.
+     * @throws IOException If the catalogs can't be read or the metrics can't be written.
+     */
+    public static void main(final String[] args) throws IOException {
+
+        final SimpleCommandLinePropertySource options = new SimpleCommandLinePropertySource(args);
+        final String payload = options.getProperty("payload");
+        final String result = options.getProperty("result");
+        Assert.hasText(payload, "--payload=<file> is required.");
+        Assert.hasText(result, "--result=<file> is required.");
+
+        final DataSource dataSource = new DriverManagerDataSource(URL, USERNAME, "");
+        DatabasePopulatorUtils.execute(new ResourceDatabasePopulator(
+                new FileSystemResource(Objects.requireNonNullElse(options.getProperty("schema"), "schema.sql")),
+                new FileSystemResource(Objects.requireNonNullElse(options.getProperty("data"), "data.sql"))), dataSource);
+
+        final ObjectNode metrics = OBJECT_MAPPER.createObjectNode();
+
+        final String core = options.getProperty("core");
+        final long coreStart = System.nanoTime();
+        metrics.put("coreAlbums", Objects.isNull(core) ? 0 : loadCore(new JdbcTemplate(dataSource), Path.of(core)));
+        metrics.put("coreLoadMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - coreStart));
+
+        final StepMetricsListener stepMetricsListener = new StepMetricsListener(OBJECT_MAPPER);
+        final SpringApplication application = new SpringApplication(IntegrationDemoApplication.class);
+        application.addInitializers(context -> context.getBeanFactory().addBeanPostProcessor(new StepMetricsRegistrar(stepMetricsListener)));
+
+        final long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = application.run(Stream.concat(Stream.of(
+                "--spring.config.location=" + applicationProperties(),
+                "--spring.datasource.url=" + URL,
+                "--spring.datasource.username=" + USERNAME,
+                "--spring.datasource.initialization-mode=never",
+                "--integration.load-batch.file-path=file:" + Path.of(payload).toAbsolutePath()), Stream.of(args)).toArray(String[]::new))) {
+
+            metrics.put("runMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+            final JobExecution jobExecution = lastJobExecution(context.getBean(JobExplorer.class));
+            metrics.put("status", jobExecution.getStatus().toString());
+            metrics.put("jobMillis", jobExecution.getEndTime().getTime() - jobExecution.getStartTime().getTime());
+            metrics.set("steps", stepMetricsListener.getSteps());
+        }
+
+        OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(Path.of(result).toFile(), metrics);
+    }
+
+    private static long loadCore(final JdbcTemplate jdbcTemplate, final Path core) throws IOException {
+
+        final CoreAlbumDao coreAlbumDao = new CoreAlbumDao(jdbcTemplate);
+        final List<CoreAlbum> chunk = new ArrayList<>(CORE_CHUNK_SIZE);
+        long loaded = 0;
+
+        // Albums that CORE would have turned away are left out, and names are cut to fit.
+        try (MappingIterator<Album> albums = OBJECT_MAPPER.readerFor(Album.class).readValues(core.toFile())) {
+            while (albums.hasNext()) {
+                final Album album = albums.next();
+                if (Objects.nonNull(album.getGtin14()) && album.getGtin14().length() == GTIN_14_LENGTH) {
+                    chunk.add(toCoreAlbum(album));
+                }
+                if (chunk.size() == CORE_CHUNK_SIZE) {
+                    loaded += coreAlbumDao.insert(chunk);
+                    chunk.clear();
+                }
+            }
+        }
+
+        return loaded + (chunk.isEmpty() ? 0 : coreAlbumDao.insert(chunk));
+    }
+
+    private static CoreAlbum toCoreAlbum(final Album album) {
+
+        return new CoreAlbum().setAlbumId(IdUtils.newId())
+                .setGtin14(album.getGtin14())
+                .setAlbumName(truncate(album.getAlbumName()))
+                .setArtistName(truncate(album.getArtist()))
+                .setSourceAlbumId(IdUtils.newId());
+    }
+
+    private static String truncate(final String name) {
+
+        return name.length() > NAME_MAX_LENGTH ? name.substring(0, NAME_MAX_LENGTH) : name;
+    }
+
+    private static JobExecution lastJobExecution(final JobExplorer jobExplorer) {
+
+        final JobInstance jobInstance = jobExplorer.getLastJobInstance(JOB_NAME);
+        Assert.notNull(jobInstance, "The job didn't run.");
+
+        return jobExplorer.getLastJobExecution(jobInstance);
+    }
+
+    private static String applicationProperties() throws MalformedURLException {
+
+        // The test resources are on the benchmark classpath too, and have their own application.properties. The
+        // application's is the one next to its jobs.xml, which the test resources don't have.
+        final URL jobs = IntegrationDemoApplication.class.getResource("/jobs.xml");
+        Assert.notNull(jobs, "jobs.xml is not on the classpath.");
+
+        return new URL(jobs, "application.properties").toString();
+    }
+
+    private JobBenchmarkRun() {
+        // Intentionally empty.
+    }
+}
@@ -0,0 +1,144 @@
+package dev.codestijl.integrationdemo;
+
+import dev.codestijl.integrationdemo.loadbatch.BatchTasklet;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+
+/**
+ * Measures each step of a job: its wall time, the rows it wrote per second, the peak heap, and the garbage
+ * collection pauses while it ran. The pauses come from the JVM's GC notifications, so the longest pause is known as
+ * well as the total.
+ *
+ * <p>The peak heap is the sum of the peaks of the heap's memory pools. The pools don't all peak at once, so it can be
+ * a little more than the heap ever held. The steps of a partition run at the same time as each other, so only the
+ * step that manages them is measured.</p>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class StepMetricsListener implements StepExecutionListener, NotificationListener {
+
+    // Spring Batch names the steps of a partition after the step they run, the separator, and the partition.
+    private static final String PARTITION_SEPARATOR = ":";
+
+    private static final double MILLIS_PER_SECOND = 1000.0;
+
+    private final ArrayNode steps;
+    private final List<MemoryPoolMXBean> heapPools;
+
+    private final AtomicLong gcPauses = new AtomicLong();
+    private final AtomicLong gcPauseMillis = new AtomicLong();
+    private final AtomicLong maxGcPauseMillis = new AtomicLong();
+
+    private long start;
+
+    /**
+     * Creates a new StepMetricsListener and starts listening for garbage collections.
+     *
+     * @param objectMapper The ObjectMapper to create the metrics with.
+     */
+    public StepMetricsListener(final ObjectMapper objectMapper) {
+
+        this.steps = objectMapper.createArrayNode();
+        this.heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .collect(Collectors.toList());
+
+        for (final GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter) {
+                ((NotificationEmitter) collector).addNotificationListener(this, null, null);
+            }
+        }
+    }
+
+    /**
+     * Returns the metrics of each step that has finished, in the order they ran.
+     *
+     * @return The metrics of the steps.
+     */
+    public ArrayNode getSteps() {
+
+        return this.steps;
+    }
+
+    @Override
+    public void beforeStep(final StepExecution stepExecution) {
+
+        if (isPartition(stepExecution)) {
+            return;
+        }
+
+        this.heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        this.gcPauses.set(0);
+        this.gcPauseMillis.set(0);
+        this.maxGcPauseMillis.set(0);
+        this.start = System.nanoTime();
+    }
+
+    @Override
+    public ExitStatus afterStep(final StepExecution stepExecution) {
+
+        if (isPartition(stepExecution)) {
+            return stepExecution.getExitStatus();
+        }
+
+        final long wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.start);
+        final double seconds = Math.max(wallMillis, 1) / MILLIS_PER_SECOND;
+
+        final ObjectNode step = this.steps.addObject();
+        step.put("name", stepExecution.getStepName());
+        step.put("status", stepExecution.getStatus().toString());
+        step.put("wallMillis", wallMillis);
+        step.put("readCount", stepExecution.getReadCount());
+        step.put("writeCount", stepExecution.getWriteCount());
+        step.put("rowsPerSecond", Math.round(stepExecution.getWriteCount() / seconds));
+        if (stepExecution.getExecutionContext().containsKey(BatchTasklet.BYTES_PER_SECOND_KEY)) {
+            step.put("bytesPerSecond", stepExecution.getExecutionContext().getLong(BatchTasklet.BYTES_PER_SECOND_KEY));
+        }
+        step.put("peakHeapBytes", this.heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum());
+        step.put("gcPauses", this.gcPauses.get());
+        step.put("gcPauseMillis", this.gcPauseMillis.get());
+        step.put("maxGcPauseMillis", this.maxGcPauseMillis.get());
+
+        return stepExecution.getExitStatus();
+    }
+
+    @Override
+    public void handleNotification(final Notification notification, final Object handback) {
+
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+
+        final long duration = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData())
+                .getGcInfo().getDuration();
+
+        this.gcPauses.incrementAndGet();
+        this.gcPauseMillis.addAndGet(duration);
+        this.maxGcPauseMillis.accumulateAndGet(duration, Math::max);
+    }
+
+    private static boolean isPartition(final StepExecution stepExecution) {
+
+        return stepExecution.getStepName().contains(PARTITION_SEPARATOR);
+    }
+}
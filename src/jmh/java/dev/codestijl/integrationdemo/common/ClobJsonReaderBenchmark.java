@@ -0,0 +1,91 @@
+package dev.codestijl.integrationdemo.common;
+
+import dev.codestijl.integrationdemo.BenchmarkData;
+import dev.codestijl.integrationdemo.entity.Album;
+
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+
+/**
+ * Benchmarks ClobJsonReader reading every album in a payload, from the query to the last Album.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ClobJsonReaderBenchmark {
+
+    private static final String SELECT_SQL = "SELECT PAYLOAD FROM STAGE.BATCH WHERE BATCH_ID = ?";
+
+    /**
+     * The number of albums in the payload.
+     */
+    @Param({"100", "2000", "20000"})
+    public int payloadSize;
+
+    private HikariDataSource dataSource;
+    private PreparedStatementSetter batchIdSetter;
+    private StepExecution stepExecution;
+
+    /**
+     * Loads the payload into a new database.
+     */
+    @Setup
+    public void loadPayload() {
+
+        this.dataSource = BenchmarkData.newDataSource();
+        final UUID batchId = BenchmarkData.newBatch(new JdbcTemplate(this.dataSource), BenchmarkData.payload(this.payloadSize));
+        this.batchIdSetter = (ps) -> ps.setString(1, batchId.toString());
+        this.stepExecution = new StepExecution("LOAD-ALBUM", new JobExecution(1L));
+    }
+
+    /**
+     * Closes the database.
+     */
+    @TearDown
+    public void closeDatabase() {
+
+        this.dataSource.close();
+    }
+
+    /**
+     * Reads every Album in the payload.
+     *
+     * @param blackhole Consumes the Albums.
+     * @return The number of Albums read.
+     * @throws Exception Any error reading the Albums.
+     */
+    @Benchmark
+    // The benchmark propagates the signature of read().
+    @SuppressWarnings("PMD.SignatureDeclareThrowsException")
+    public int read(final Blackhole blackhole) throws Exception {
+
+        final ClobJsonReader<Album> clobJsonReader = new ClobJsonReader<>(this.dataSource, SELECT_SQL, Album.class, this.batchIdSetter);
+
+        clobJsonReader.beforeStep(this.stepExecution);
+
+        int albums = 0;
+        for (Album album = clobJsonReader.read(); Objects.nonNull(album); album = clobJsonReader.read()) {
+            blackhole.consume(album);
+            albums++;
+        }
+
+        clobJsonReader.afterStep(this.stepExecution);
+
+        return albums;
+    }
+}
@@ -0,0 +1,67 @@
+package dev.codestijl.integrationdemo.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks CollectionUtils turning lists of errors into the text saved in the ALBUM_ERROR table.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CollectionUtilsBenchmark {
+
+    // This is the length of the ERROR_TEXT column.
+    private static final int MAX_LENGTH = 1000;
+
+    /**
+     * The number of errors in the list.
+     */
+    @Param({"3", "30", "300"})
+    public int size;
+
+    private List<String> errors;
+
+    /**
+     * Makes the list of errors.
+     */
+    @Setup
+    public void makeErrors() {
+
+        this.errors = new ArrayList<>(this.size);
+        for (int i = 0; i < this.size; i++) {
+            this.errors.add(String.format("Error %d: Album name must be 100 characters or fewer.", i));
+        }
+    }
+
+    /**
+     * Returns the list as a String.
+     *
+     * @return The list as a String.
+     */
+    @Benchmark
+    public String asString() {
+
+        return CollectionUtils.asString(this.errors);
+    }
+
+    /**
+     * Returns the list as a String short enough for the ERROR_TEXT column.
+     *
+     * @return The list as a String.
+     */
+    @Benchmark
+    public String asStringMaxLength() {
+
+        return CollectionUtils.asString(this.errors, MAX_LENGTH);
+    }
+}
@@ -0,0 +1,59 @@
+package dev.codestijl.integrationdemo.common;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks IdUtils making new IDs with each IdStrategy, on one thread and on as many threads as LOAD-CORE uses.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class IdUtilsBenchmark {
+
+    /**
+     * How the IDs are made.
+     */
+    @Param({"RANDOM", "TIME_ORDERED"})
+    public IdStrategy strategy;
+
+    /**
+     * Sets the strategy IdUtils uses.
+     */
+    @Setup
+    public void setStrategy() {
+
+        IdUtils.setStrategy(this.strategy);
+    }
+
+    /**
+     * Makes a new ID.
+     *
+     * @return The new ID.
+     */
+    @Benchmark
+    public UUID newId() {
+
+        return IdUtils.newId();
+    }
+
+    /**
+     * Makes a new ID while other threads are making them too.
+     *
+     * @return The new ID.
+     */
+    @Benchmark
+    @Threads(4)
+    public UUID newIdContended() {
+
+        return IdUtils.newId();
+    }
+}
@@ -0,0 +1,175 @@
+package dev.codestijl.integrationdemo.dao;
+
+import dev.codestijl.integrationdemo.BenchmarkData;
+import dev.codestijl.integrationdemo.common.IdUtils;
+import dev.codestijl.integrationdemo.entity.Album;
+import dev.codestijl.integrationdemo.entity.CoreAlbum;
+import dev.codestijl.integrationdemo.entity.Song;
+import dev.codestijl.integrationdemo.entity.Status;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Benchmarks the batch inserts of AlbumDao, SongDao, and CoreAlbumDao into an in-memory H2 database. Each insert
+ * is a chunk, run in its own transaction the way Spring Batch runs a chunk. AlbumDao and SongDao are run with each
+ * InsertMode; CoreAlbumDao only has the one.
+ *
+ * <p>Every row needs a new key, so each insert first gives its rows new IDs from a counter. That is much cheaper
+ * than the insert, and cheaper than IdUtils, so it barely shows up in the results. The tables are emptied after each
+ * iteration so they don't grow across the whole run.</p>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DaoInsertBenchmark {
+
+    // The GTIN-14s are CHAR(14), so they are padded out to full length.
+    private static final long GTIN_BASE = 10_000_000_000_000L;
+
+    private static final int ROWS_PER_INSERT = 100;
+    private static final int MAX_INSERT_PARAMETERS = 65_535;
+
+    private static final String DELETE_SONGS_SQL = "DELETE FROM STAGE.SONG";
+    private static final String DELETE_ALBUMS_SQL = "DELETE FROM STAGE.ALBUM WHERE ALBUM_ID <> ?";
+    private static final String DELETE_CORE_ALBUMS_SQL = "DELETE FROM CORE.CT_ALBUM";
+
+    /**
+     * The number of rows in a chunk.
+     */
+    @Param({"10", "100", "1000"})
+    public int chunkSize;
+
+    /**
+     * How AlbumDao and SongDao send the rows to the DB.
+     */
+    @Param({"BATCH", "MULTI_ROW", "BULK_LOAD"})
+    public InsertMode insertMode;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    private AlbumDao albumDao;
+    private SongDao songDao;
+    private CoreAlbumDao coreAlbumDao;
+
+    private UUID parentAlbumId;
+    private List<Album> albums;
+    private List<Song> songs;
+    private List<CoreAlbum> coreAlbums;
+
+    private long sequence;
+
+    /**
+     * Creates the database and the chunks of rows to insert.
+     */
+    @Setup
+    public void createDatabase() {
+
+        this.dataSource = BenchmarkData.newDataSource();
+        this.jdbcTemplate = new JdbcTemplate(this.dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(this.dataSource));
+
+        this.albumDao = new AlbumDao(this.jdbcTemplate, this.insertMode, ROWS_PER_INSERT, MAX_INSERT_PARAMETERS);
+        this.songDao = new SongDao(this.jdbcTemplate, this.insertMode, ROWS_PER_INSERT, MAX_INSERT_PARAMETERS);
+        this.coreAlbumDao = new CoreAlbumDao(this.jdbcTemplate, SqlDialect.of(this.dataSource));
+
+        final UUID batchId = BenchmarkData.newBatch(this.jdbcTemplate, "[]");
+
+        this.albums = BenchmarkData.albums(this.chunkSize);
+        this.albums.forEach(album -> album.setBatchId(batchId).setStatus(Status.PENDING));
+
+        // Songs need an album to belong to, which is kept when the tables are emptied.
+        final Album parentAlbum = this.albums.get(0);
+        this.parentAlbumId = IdUtils.newId();
+        this.albumDao.insert(List.of(parentAlbum.setAlbumId(this.parentAlbumId)));
+
+        this.songs = this.albums.stream()
+                .map(album -> new Song().setAlbumId(this.parentAlbumId).setSongName(album.getAlbumName()))
+                .collect(Collectors.toList());
+        this.coreAlbums = this.albums.stream()
+                .map(album -> new CoreAlbum().setAlbumName(album.getAlbumName())
+                        .setArtistName(album.getArtist())
+                        .setSourceAlbumId(this.parentAlbumId))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Empties the tables.
+     */
+    @TearDown(Level.Iteration)
+    public void emptyTables() {
+
+        this.jdbcTemplate.update(DELETE_SONGS_SQL);
+        this.jdbcTemplate.update(DELETE_ALBUMS_SQL, this.parentAlbumId.toString());
+        this.jdbcTemplate.update(DELETE_CORE_ALBUMS_SQL);
+    }
+
+    /**
+     * Closes the database.
+     */
+    @TearDown
+    public void closeDatabase() {
+
+        this.dataSource.close();
+    }
+
+    /**
+     * Inserts a chunk of Albums with AlbumDao.
+     *
+     * @return The number of rows inserted.
+     */
+    @Benchmark
+    public int insertAlbums() {
+
+        this.albums.forEach(album -> album.setAlbumId(this.nextId()));
+        return this.transactionTemplate.execute(status -> this.albumDao.insert(this.albums));
+    }
+
+    /**
+     * Inserts a chunk of Songs with SongDao.
+     *
+     * @return The number of rows inserted.
+     */
+    @Benchmark
+    public int insertSongs() {
+
+        this.songs.forEach(song -> song.setSongId(this.nextId()));
+        return this.transactionTemplate.execute(status -> this.songDao.insert(this.songs));
+    }
+
+    /**
+     * Inserts a chunk of CoreAlbums with CoreAlbumDao.
+     *
+     * @return The number of rows inserted.
+     */
+    @Benchmark
+    public int insertCoreAlbums() {
+
+        this.coreAlbums.forEach(coreAlbum -> {
+            final long next = this.sequence++;
+            coreAlbum.setAlbumId(new UUID(0L, next)).setGtin14(Long.toString(GTIN_BASE + next));
+        });
+        return this.transactionTemplate.execute(status -> this.coreAlbumDao.insert(this.coreAlbums));
+    }
+
+    private UUID nextId() {
+
+        return new UUID(0L, this.sequence++);
+    }
+}
@@ -0,0 +1,119 @@
+package dev.codestijl.integrationdemo.dao;
+
+import dev.codestijl.integrationdemo.BenchmarkData;
+import dev.codestijl.integrationdemo.common.IdStrategy;
+import dev.codestijl.integrationdemo.entity.Album;
+import dev.codestijl.integrationdemo.entity.Song;
+import dev.codestijl.integrationdemo.entity.Status;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Benchmarks inserting chunks of Songs into STAGE.SONG with IDs from each IdStrategy, the way LOAD-ALBUM makes and
+ * inserts them. Each chunk is given new IDs before it is inserted, so the time to make them is part of the result,
+ * and the table is only emptied after each iteration, so later chunks are inserted into an index that already holds
+ * the earlier ones.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SongIdBenchmark {
+
+    private static final int ROWS_PER_INSERT = 100;
+    private static final int MAX_INSERT_PARAMETERS = 65_535;
+
+    private static final String DELETE_SONGS_SQL = "DELETE FROM STAGE.SONG";
+
+    /**
+     * How the IDs are made.
+     */
+    @Param({"RANDOM", "TIME_ORDERED"})
+    public IdStrategy strategy;
+
+    /**
+     * How the tables store the IDs.
+     */
+    @Param({"CHAR", "BINARY"})
+    public KeyMode keyMode;
+
+    /**
+     * The number of rows in a chunk.
+     */
+    @Param({"100", "1000"})
+    public int chunkSize;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    private SongDao songDao;
+    private List<Song> songs;
+
+    /**
+     * Creates the database, the album the Songs belong to, and the chunk of Songs to insert.
+     */
+    @Setup
+    public void createDatabase() {
+
+        this.dataSource = BenchmarkData.newDataSource(this.keyMode);
+        this.jdbcTemplate = new JdbcTemplate(this.dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(this.dataSource));
+
+        final AlbumDao albumDao = new AlbumDao(this.jdbcTemplate);
+        this.songDao = new SongDao(this.jdbcTemplate, InsertMode.BATCH, ROWS_PER_INSERT, MAX_INSERT_PARAMETERS);
+
+        final UUID batchId = BenchmarkData.newBatch(this.jdbcTemplate, "[]");
+        final List<Album> albums = BenchmarkData.albums(this.chunkSize);
+        final UUID albumId = this.strategy.newId();
+        albumDao.insert(List.of(albums.get(0).setAlbumId(albumId).setBatchId(batchId).setStatus(Status.PENDING)));
+
+        this.songs = albums.stream()
+                .map(album -> new Song().setAlbumId(albumId).setSongName(album.getAlbumName()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Empties the SONG table.
+     */
+    @TearDown(Level.Iteration)
+    public void emptySongs() {
+
+        this.jdbcTemplate.update(DELETE_SONGS_SQL);
+    }
+
+    /**
+     * Closes the database.
+     */
+    @TearDown
+    public void closeDatabase() {
+
+        this.dataSource.close();
+    }
+
+    /**
+     * Gives a chunk of Songs new IDs and inserts them with SongDao.
+     *
+     * @return The number of rows inserted.
+     */
+    @Benchmark
+    public int insertSongs() {
+
+        this.songs.forEach(song -> song.setSongId(this.strategy.newId()));
+        return this.transactionTemplate.execute(status -> this.songDao.insert(this.songs));
+    }
+}
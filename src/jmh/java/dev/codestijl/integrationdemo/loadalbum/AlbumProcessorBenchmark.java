@@ -0,0 +1,62 @@
+package dev.codestijl.integrationdemo.loadalbum;
+
+import dev.codestijl.integrationdemo.BenchmarkData;
+import dev.codestijl.integrationdemo.common.IdUtils;
+import dev.codestijl.integrationdemo.entity.Album;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+
+/**
+ * Benchmarks AlbumProcessor processing a chunk of Albums.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AlbumProcessorBenchmark {
+
+    /**
+     * The number of Albums in a chunk.
+     */
+    @Param({"10", "100", "1000"})
+    public int chunkSize;
+
+    private List<Album> albums;
+    private AlbumProcessor albumProcessor;
+
+    /**
+     * Reads the chunk of Albums.
+     */
+    @Setup
+    public void readAlbums() {
+
+        this.albums = BenchmarkData.albums(this.chunkSize);
+        this.albumProcessor = new AlbumProcessor(IdUtils.newId());
+        this.albumProcessor.beforeStep(new StepExecution("LOAD-ALBUM", new JobExecution(1L)));
+    }
+
+    /**
+     * Processes every Album in the chunk. Processing an Album again just gives it new IDs, so the same chunk can be
+     * processed over and over.
+     *
+     * @param blackhole Consumes the processed Albums.
+     */
+    @Benchmark
+    public void process(final Blackhole blackhole) {
+
+        for (final Album album : this.albums) {
+            blackhole.consume(this.albumProcessor.process(album));
+        }
+    }
+}
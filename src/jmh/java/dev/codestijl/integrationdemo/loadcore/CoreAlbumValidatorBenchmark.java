@@ -0,0 +1,71 @@
+package dev.codestijl.integrationdemo.loadcore;
+
+import dev.codestijl.integrationdemo.BenchmarkData;
+import dev.codestijl.integrationdemo.common.IdUtils;
+import dev.codestijl.integrationdemo.common.ValidationException;
+import dev.codestijl.integrationdemo.entity.CoreAlbum;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks CoreAlbumValidator validating a chunk of CoreAlbums. The CoreAlbums are made from the albums in
+ * large-file.json, so the chunk has the same mix of valid and invalid albums the job sees.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CoreAlbumValidatorBenchmark {
+
+    /**
+     * The number of CoreAlbums in a chunk.
+     */
+    @Param({"10", "100", "1000"})
+    public int chunkSize;
+
+    private final CoreAlbumValidator coreAlbumValidator = new CoreAlbumValidator();
+
+    private List<CoreAlbum> coreAlbums;
+
+    /**
+     * Makes the chunk of CoreAlbums.
+     */
+    @Setup
+    public void makeCoreAlbums() {
+
+        this.coreAlbums = BenchmarkData.albums(this.chunkSize).stream()
+                .map(album -> new CoreAlbum().setAlbumId(IdUtils.newId())
+                        .setGtin14(album.getGtin14())
+                        .setAlbumName(album.getAlbumName())
+                        .setArtistName(album.getArtist())
+                        .setSourceAlbumId(IdUtils.newId()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Validates every CoreAlbum in the chunk.
+     *
+     * @param blackhole Consumes the errors of the invalid CoreAlbums.
+     */
+    @Benchmark
+    public void validate(final Blackhole blackhole) {
+
+        for (final CoreAlbum coreAlbum : this.coreAlbums) {
+            try {
+                this.coreAlbumValidator.validate(coreAlbum);
+            } catch (ValidationException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+}
@@ -2,27 +2,92 @@ package dev.codestijl.integrationdemo;
 
 import javax.sql.DataSource;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.configuration.annotation.DefaultBatchConfigurer;
-import org.springframework.stereotype.Component;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.explore.support.JobExplorerFactoryBean;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.JobRepositoryFactoryBean;
+import org.springframework.util.Assert;
 
 /**
- * Configures the batch environment. Since this is just a
- * sample application, I'm not persisting the Spring
- * batch metadata anywhere. This class will configure
- * the environment to use an in-memory map to maintain
- * job information.
+ * Configures the batch environment. By default the Spring Batch metadata isn't persisted anywhere, and the
+ * environment uses an in-memory map to maintain job information.
+ *
+ * <p>With a {@link JobRepositoryType} of JDBC the metadata is kept in the tables of job-repository-schema.sql, in
+ * their own JOBS schema. The steps then run each chunk in a transaction on the DataSource, so the chunk's inserts and
+ * the step's updated counts and ExecutionContext are committed together, once per chunk. A job that fails can be
+ * restarted from its last commit by running it again with its batchId.</p>
  *
  * @author darren
  * @since 1.0.0
  */
-@Component
 public class BatchConfig extends DefaultBatchConfigurer {
 
+    private static final Logger logger = LoggerFactory.getLogger(BatchConfig.class);
+
+    // Each run creates its own job instance, keyed by a new batchId, so two runs never race to create the same one
+    // and the default of SERIALIZABLE would only hold locks on the JOBS tables for nothing.
+    private static final String CREATE_ISOLATION = "ISOLATION_READ_COMMITTED";
+
+    private final DataSource dataSource;
+    private final String tablePrefix;
+
+    /**
+     * Creates a new BatchConfig.
+     *
+     * @param dataSource The DataSource to keep the metadata in when the repository type is JDBC.
+     * @param repositoryType Where to keep the metadata.
+     * @param tablePrefix The prefix of the names of the metadata tables, including their schema, like JOBS.BATCH_.
+     */
+    public BatchConfig(final DataSource dataSource, final JobRepositoryType repositoryType, final String tablePrefix) {
+
+        super();
+
+        Assert.notNull(dataSource, "Data source cannot be null.");
+        Assert.notNull(repositoryType, "Job repository type cannot be null.");
+        Assert.hasText(tablePrefix, "Table prefix cannot be empty.");
+
+        this.dataSource = dataSource;
+        this.tablePrefix = tablePrefix;
+
+        if (repositoryType == JobRepositoryType.JDBC) {
+            super.setDataSource(dataSource);
+            logger.info(String.format("Keeping the job metadata in the %s tables.", tablePrefix));
+        }
+    }
+
     @Override
-    public void setDataSource(final DataSource dataSource) {
+    public final void setDataSource(final DataSource dataSource) {
+
+        // Intentionally empty. The DataSource is only given
+        // to the configurer, in the constructor, when the
+        // repository type is JDBC. Without it, Spring uses
+        // the in-memory storage of job information.
+    }
+
+    @Override
+    protected JobRepository createJobRepository() throws Exception {
+
+        final JobRepositoryFactoryBean factory = new JobRepositoryFactoryBean();
+        factory.setDataSource(this.dataSource);
+        factory.setTransactionManager(this.getTransactionManager());
+        factory.setTablePrefix(this.tablePrefix);
+        factory.setIsolationLevelForCreate(CREATE_ISOLATION);
+        factory.afterPropertiesSet();
+
+        return factory.getObject();
+    }
+
+    @Override
+    protected JobExplorer createJobExplorer() throws Exception {
+
+        final JobExplorerFactoryBean factory = new JobExplorerFactoryBean();
+        factory.setDataSource(this.dataSource);
+        factory.setTablePrefix(this.tablePrefix);
+        factory.afterPropertiesSet();
 
-        // Intentionally empty. Not persisting the DataSource
-        // will trigger Spring to use the in-memory storage
-        // of job information.
+        return factory.getObject();
     }
 }
@@ -23,7 +23,8 @@ public class BatchIdParameterGenerator implements JobParametersIncrementer {
     @Override
     public JobParameters getNext(final JobParameters parameters) {
 
-        final String batchId = IdUtils.newId();
+        // Job parameters are strings, so this is one of the few places an ID is turned into one.
+        final String batchId = IdUtils.newId().toString();
         logger.info(String.format("Generated '%s' as batch ID.", batchId));
 
         return new JobParametersBuilder().addString("batchId", batchId).toJobParameters();
@@ -0,0 +1,122 @@
+package dev.codestijl.integrationdemo;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * Deletes the old instances of a job from the JDBC job repository when the job ends, along with their executions,
+ * parameters, and ExecutionContexts, keeping only the newest ones. Every run of the job is a new instance, so without
+ * this the JOBS tables, and the queries Spring Batch runs against them as each job starts, grow with every run.
+ *
+ * <p>Each kind of row is deleted with one JDBC batch over all the instances being pruned, and all of them in one
+ * transaction. A failure to prune is logged rather than failing the job; the rows are pruned the next time.</p>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class JobRepositoryPruner implements JobExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobRepositoryPruner.class);
+
+    private static final String INSTANCES_SQL = "SELECT JOB_INSTANCE_ID FROM %sJOB_INSTANCE WHERE JOB_NAME = ? ORDER BY JOB_INSTANCE_ID DESC";
+
+    private static final String EXECUTIONS_OF_INSTANCE = "SELECT JOB_EXECUTION_ID FROM %1$sJOB_EXECUTION WHERE JOB_INSTANCE_ID = ?";
+
+    // Children before parents, so no foreign key is ever broken.
+    private static final List<String> DELETE_SQL = List.of(
+            "DELETE FROM %1$sSTEP_EXECUTION_CONTEXT WHERE STEP_EXECUTION_ID IN (SELECT STEP_EXECUTION_ID FROM %1$sSTEP_EXECUTION " +
+                    "WHERE JOB_EXECUTION_ID IN (" + EXECUTIONS_OF_INSTANCE + "))",
+            "DELETE FROM %1$sSTEP_EXECUTION WHERE JOB_EXECUTION_ID IN (" + EXECUTIONS_OF_INSTANCE + ")",
+            "DELETE FROM %1$sJOB_EXECUTION_CONTEXT WHERE JOB_EXECUTION_ID IN (" + EXECUTIONS_OF_INSTANCE + ")",
+            "DELETE FROM %1$sJOB_EXECUTION_PARAMS WHERE JOB_EXECUTION_ID IN (" + EXECUTIONS_OF_INSTANCE + ")",
+            "DELETE FROM %1$sJOB_EXECUTION WHERE JOB_INSTANCE_ID = ?",
+            "DELETE FROM %1$sJOB_INSTANCE WHERE JOB_INSTANCE_ID = ?");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JobRepositoryType repositoryType;
+    private final String instancesSql;
+    private final List<String> deleteSql;
+    private final int keepInstances;
+
+    /**
+     * Creates a new JobRepositoryPruner.
+     *
+     * @param dataSource The DataSource the job repository keeps the metadata in.
+     * @param repositoryType Where the job repository keeps the metadata. Nothing is pruned unless it is JDBC.
+     * @param tablePrefix The prefix of the names of the metadata tables, including their schema, like JOBS.BATCH_.
+     * @param keepInstances The number of the newest instances of the job to keep. 0 keeps them all.
+     */
+    public JobRepositoryPruner(final DataSource dataSource, final JobRepositoryType repositoryType, final String tablePrefix,
+                               final int keepInstances) {
+
+        Assert.notNull(dataSource, "Data source cannot be null.");
+        Assert.notNull(repositoryType, "Job repository type cannot be null.");
+        Assert.hasText(tablePrefix, "Table prefix cannot be empty.");
+        Assert.isTrue(keepInstances >= 0, "Instances to keep cannot be negative.");
+
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.repositoryType = repositoryType;
+        this.instancesSql = String.format(INSTANCES_SQL, tablePrefix);
+        this.deleteSql = DELETE_SQL.stream().map(sql -> String.format(sql, tablePrefix)).collect(Collectors.toList());
+        this.keepInstances = keepInstances;
+    }
+
+    @Override
+    public void beforeJob(final JobExecution jobExecution) {
+
+        // Intentionally empty. Old instances are pruned when the job ends.
+    }
+
+    @Override
+    public void afterJob(final JobExecution jobExecution) {
+
+        if (this.repositoryType != JobRepositoryType.JDBC || this.keepInstances == 0) {
+            return;
+        }
+
+        final String jobName = jobExecution.getJobInstance().getJobName();
+
+        try {
+            final int pruned = this.prune(jobName);
+            logger.info(String.format("Pruned %,d old instances of %s from the job repository.", pruned, jobName));
+        } catch (final DataAccessException e) {
+            logger.warn(String.format("Unable to prune the old instances of %s from the job repository.", jobName), e);
+        }
+    }
+
+    /**
+     * Deletes all but the newest instances of a job, along with their executions, parameters, and ExecutionContexts.
+     *
+     * @param jobName The name of the job.
+     * @return The number of instances deleted.
+     */
+    public int prune(final String jobName) {
+
+        final List<Long> instanceIds = this.jdbcTemplate.queryForList(this.instancesSql, Long.class, jobName);
+        if (instanceIds.size() <= this.keepInstances) {
+            return 0;
+        }
+
+        final List<Object[]> oldInstances = instanceIds.subList(this.keepInstances, instanceIds.size()).stream()
+                .map(instanceId -> new Object[] {instanceId})
+                .collect(Collectors.toList());
+
+        this.transactionTemplate.executeWithoutResult(status ->
+                this.deleteSql.forEach(sql -> this.jdbcTemplate.batchUpdate(sql, oldInstances)));
+
+        return oldInstances.size();
+    }
+}
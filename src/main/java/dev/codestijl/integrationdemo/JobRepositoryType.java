@@ -0,0 +1,14 @@
+package dev.codestijl.integrationdemo;
+
+/**
+ * Where Spring Batch keeps the job metadata: the executions of each job and step and their ExecutionContexts. This is
+ * picked with integration.job-repository.type.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public enum JobRepositoryType {
+
+    MAP,        // In maps in memory. Nothing outlives the run, so a failed job can't be restarted where it stopped.
+    JDBC        // In the tables of the JOBS schema, written in the same transaction as the chunk they describe.
+}
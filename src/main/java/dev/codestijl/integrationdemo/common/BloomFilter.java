@@ -0,0 +1,137 @@
+package dev.codestijl.integrationdemo.common;
+
+import org.springframework.util.Assert;
+
+/**
+ * A Bloom filter of primitive longs. A Bloom filter can say a value is definitely not in a set or that it might be,
+ * using far less memory than the set itself. The chance that it says a value might be there when it isn't is the
+ * false positive rate, which is chosen when the filter is created.
+ *
+ * <p>This class is not thread safe.</p>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class BloomFilter {
+
+    private static final double LN_2 = Math.log(2);
+
+    // Used to get a second, independent hash out of each value.
+    private static final long SECOND_HASH_SEED = 0x9e3779b97f4a7c15L;
+
+    private final long[] words;
+    private final long bitCount;
+    private final int hashCount;
+
+    private long insertions;
+
+    /**
+     * Constructs a new BloomFilter.
+     *
+     * @param bitCount The number of bits in the filter.
+     * @param hashCount The number of bits set for each value.
+     */
+    public BloomFilter(final long bitCount, final int hashCount) {
+
+        Assert.isTrue(bitCount > 0, "Bit count must be positive.");
+        Assert.isTrue(hashCount > 0, "Hash count must be positive.");
+
+        this.words = new long[Math.toIntExact((bitCount + Long.SIZE - 1) / Long.SIZE)];
+        this.bitCount = (long) this.words.length * Long.SIZE;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * Creates a BloomFilter sized to hold a number of values with a false positive rate.
+     *
+     * @param expectedInsertions The number of values that will be put in the filter.
+     * @param falsePositiveRate The chance, from 0 to 1 exclusive, that the filter says a value might be there
+     *                          when it isn't once it holds the expected number of values.
+     * @return The BloomFilter.
+     */
+    public static BloomFilter create(final long expectedInsertions, final double falsePositiveRate) {
+
+        Assert.isTrue(falsePositiveRate > 0 && falsePositiveRate < 1, "False positive rate must be between 0 and 1.");
+
+        final long values = Math.max(1, expectedInsertions);
+        final long bitCount = (long) Math.ceil(-values * Math.log(falsePositiveRate) / (LN_2 * LN_2));
+        final int hashCount = (int) Math.max(1, Math.round((double) bitCount / values * LN_2));
+
+        return new BloomFilter(bitCount, hashCount);
+    }
+
+    /**
+     * Adds a value to the filter.
+     *
+     * @param value The value to add.
+     */
+    public void put(final long value) {
+
+        final long hash1 = LongHashing.mix(value);
+        final long hash2 = LongHashing.mix(value ^ SECOND_HASH_SEED);
+
+        for (int hash = 0; hash < this.hashCount; hash++) {
+            final long bit = this.bitFor(hash1, hash2, hash);
+            this.words[(int) (bit >>> 6)] |= 1L << bit;
+        }
+
+        this.insertions++;
+    }
+
+    /**
+     * Returns if a value might be in the filter.
+     *
+     * @param value The value to look for.
+     * @return False if the value is definitely not in the filter; true if it might be.
+     */
+    public boolean mightContain(final long value) {
+
+        final long hash1 = LongHashing.mix(value);
+        final long hash2 = LongHashing.mix(value ^ SECOND_HASH_SEED);
+
+        for (int hash = 0; hash < this.hashCount; hash++) {
+            final long bit = this.bitFor(hash1, hash2, hash);
+            if ((this.words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the false positive rate to expect given the number of values put in the filter so far.
+     *
+     * @return The expected false positive rate, from 0 to 1.
+     */
+    public double getExpectedFalsePositiveRate() {
+
+        return Math.pow(1 - Math.exp(-(double) this.hashCount * this.insertions / this.bitCount), this.hashCount);
+    }
+
+    /**
+     * Returns the number of values put in the filter.
+     *
+     * @return The number of values put in the filter.
+     */
+    public long getInsertions() {
+
+        return this.insertions;
+    }
+
+    /**
+     * Returns the number of bits in the filter.
+     *
+     * @return The number of bits in the filter.
+     */
+    public long getBitCount() {
+
+        return this.bitCount;
+    }
+
+    // Combines the two hashes into as many as needed, as described by Kirsch and Mitzenmacher.
+    private long bitFor(final long hash1, final long hash2, final int hash) {
+
+        return ((hash1 + hash * hash2) & Long.MAX_VALUE) % this.bitCount;
+    }
+}
@@ -0,0 +1,256 @@
+package dev.codestijl.integrationdemo.common;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import lombok.Getter;
+import org.springframework.util.Assert;
+
+/**
+ * A cache that holds a bounded number of entries for a bounded amount of time. When the cache is full, the least
+ * recently used entry is evicted to make room for a new one. Entries older than the time to live are never returned
+ * and are removed as they are found. The cache keeps statistics on how well it is working so that it can be sized.
+ *
+ * <p>All the methods in this class are thread safe.</p>
+ *
+ * @param <K> The type of the keys in the cache.
+ * @param <V> The type of the values in the cache.
+ * @author darren
+ * @since 1.0.0
+ */
+// All access to the map is synchronized on the lock.
+@SuppressWarnings("PMD.UseConcurrentHashMap")
+public class BoundedCache<K, V> {
+
+    private final int maxSize;
+    private final Duration timeToLive;
+    private final Clock clock;
+
+    // Access ordered, so the first entry is always the least recently used.
+    private final Map<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Object lock = new Object();
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    /**
+     * A value in the cache and when it expires.
+     *
+     * @param <V> The type of the value.
+     * @author darren
+     * @since 1.0.0
+     */
+    private static final class Entry<V> {
+
+        private final V value;
+        private final Instant expiresAt;
+
+        private Entry(final V value, final Instant expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * A point in time snapshot of how the cache has been used.
+     *
+     * @author darren
+     * @since 1.0.0
+     */
+    @Getter
+    public static final class Statistics {
+
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long expirations;
+        private final int size;
+
+        private Statistics(final long hits, final long misses, final long evictions, final long expirations, final int size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.size = size;
+        }
+
+        /**
+         * Returns the share of lookups that were found in the cache.
+         *
+         * @return The share of lookups that were found in the cache, from 0 to 1.
+         */
+        public double getHitRate() {
+
+            final long lookups = this.hits + this.misses;
+            return lookups == 0 ? 0 : (double) this.hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+
+            return String.format("%,d hits, %,d misses (%.1f%% hit rate), %,d evicted, %,d expired, %,d entries",
+                    this.hits, this.misses, this.getHitRate() * 100, this.evictions, this.expirations, this.size);
+        }
+    }
+
+    /**
+     * Constructs a new BoundedCache.
+     *
+     * @param maxSize The most entries the cache will hold. Pass 0 to turn the cache off.
+     * @param timeToLiveSeconds How long, in seconds, an entry will stay in the cache after it is added.
+     */
+    public BoundedCache(final int maxSize, final long timeToLiveSeconds) {
+
+        this(maxSize, Duration.ofSeconds(timeToLiveSeconds), Clock.systemUTC());
+    }
+
+    /**
+     * Constructs a new BoundedCache.
+     *
+     * @param maxSize The most entries the cache will hold. Pass 0 to turn the cache off.
+     * @param timeToLive How long an entry will stay in the cache after it is added.
+     * @param clock The Clock to use to tell when entries have expired.
+     */
+    public BoundedCache(final int maxSize, final Duration timeToLive, final Clock clock) {
+
+        Assert.isTrue(maxSize >= 0, "Max size cannot be negative.");
+        Assert.notNull(timeToLive, "Time to live cannot be null.");
+        Assert.notNull(clock, "Clock cannot be null.");
+
+        this.maxSize = maxSize;
+        this.timeToLive = timeToLive;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns a cache that never holds anything.
+     *
+     * @param <K> The type of the keys in the cache.
+     * @param <V> The type of the values in the cache.
+     * @return A cache that never holds anything.
+     */
+    public static <K, V> BoundedCache<K, V> disabled() {
+
+        return new BoundedCache<>(0, Duration.ZERO, Clock.systemUTC());
+    }
+
+    /**
+     * Returns the value in the cache for a key.
+     *
+     * @param key The key to look for.
+     * @return The value for the key or empty if the key is not in the cache or has expired.
+     */
+    public Optional<V> get(final K key) {
+
+        synchronized (this.lock) {
+            final Entry<V> entry = this.entries.get(key);
+
+            if (Objects.isNull(entry)) {
+                this.misses++;
+                return Optional.empty();
+            }
+
+            if (this.isExpired(entry)) {
+                this.entries.remove(key);
+                this.expirations++;
+                this.misses++;
+                return Optional.empty();
+            }
+
+            this.hits++;
+            return Optional.of(entry.value);
+        }
+    }
+
+    /**
+     * Adds a value to the cache, replacing any value already there for the key. If the cache is full, the
+     * least recently used entry will be evicted.
+     *
+     * @param key The key for the value.
+     * @param value The value to add.
+     */
+    public void put(final K key, final V value) {
+
+        Assert.notNull(value, "Value cannot be null.");
+
+        if (this.maxSize == 0) {
+            return;
+        }
+
+        synchronized (this.lock) {
+            this.entries.put(key, new Entry<>(value, this.clock.instant().plus(this.timeToLive)));
+
+            final Iterator<Map.Entry<K, Entry<V>>> iterator = this.entries.entrySet().iterator();
+            while (this.entries.size() > this.maxSize) {
+
+                final Entry<V> eldest = iterator.next().getValue();
+                iterator.remove();
+
+                if (this.isExpired(eldest)) {
+                    this.expirations++;
+                } else {
+                    this.evictions++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes a key from the cache.
+     *
+     * @param key The key to remove.
+     */
+    public void remove(final K key) {
+
+        synchronized (this.lock) {
+            this.entries.remove(key);
+        }
+    }
+
+    /**
+     * Removes everything from the cache. This does not reset the statistics.
+     */
+    public void clear() {
+
+        synchronized (this.lock) {
+            this.entries.clear();
+        }
+    }
+
+    /**
+     * Returns the number of entries in the cache. This can include entries that have expired but have not been removed.
+     *
+     * @return The number of entries in the cache.
+     */
+    public int size() {
+
+        synchronized (this.lock) {
+            return this.entries.size();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the statistics for the cache.
+     *
+     * @return A snapshot of the statistics for the cache.
+     */
+    public Statistics getStatistics() {
+
+        synchronized (this.lock) {
+            return new Statistics(this.hits, this.misses, this.evictions, this.expirations, this.entries.size());
+        }
+    }
+
+    private boolean isExpired(final Entry<V> entry) {
+
+        return !this.clock.instant().isBefore(entry.expiresAt);
+    }
+}
@@ -1,22 +1,32 @@
 package dev.codestijl.integrationdemo.common;
 
+import dev.codestijl.integrationdemo.jfr.ClobRowRecorder;
+
 import java.io.IOException;
 import java.sql.*;
 import java.util.Objects;
 import javax.sql.DataSource;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.ExitStatus;
 import org.springframework.batch.core.StepExecution;
 import org.springframework.batch.core.StepExecutionListener;
-import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemStreamSupport;
 import org.springframework.jdbc.core.PreparedStatementSetter;
 import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 
 /**
  * Class that can be used as an ItemReader for tables that have a CLOB that is storing JSON data. It will
@@ -24,27 +34,60 @@ import org.springframework.util.Assert;
  * multiple records of objects, but, if a row contains a JSON array, each element of the array will be retuned
  * individually.
  *
+ * <p>The query can also return the name of a PayloadCodec and a BLOB as its second and third columns. For rows where
+ * the codec is set to something other than NONE, the BLOB is decompressed straight into the parser instead of
+ * reading the CLOB. Rows without a codec are read from the CLOB as always.</p>
+ *
+ * <p>Each row is recorded as a ClobRowEvent when a JFR recording is running.</p>
+ *
+ * <p>The reader is restartable. At every commit it saves the row it is in and the records it has read from that row
+ * in the step's ExecutionContext. When the step is restarted, the rows before that one are skipped without reading
+ * their data, and the records already read from it are skipped without deserializing them. The first row is read by
+ * the first call to read(), once open() has had the chance to set where to start.</p>
+ *
  * @param <T> The type of object being stored in the JSON array.
  */
-public class ClobJsonReader<T> implements ItemReader<T>, StepExecutionListener {
+// The reader holds the state of the query, the row being parsed, where to restart, and the counts for the step. The
+// ItemStream methods that make it restartable push it over the limits, but it is still one reader.
+@SuppressWarnings({"PMD.TooManyMethods", "PMD.TooManyFields", "PMD.GodClass"})
+public class ClobJsonReader<T> extends ItemStreamSupport implements ItemStreamReader<T>, StepExecutionListener {
 
     private static final Logger logger = LoggerFactory.getLogger(ClobJsonReader.class);
 
+    private static final int CODEC_COLUMN_COUNT = 3;
+
+    private static final String ROW_KEY = "row";
+    private static final String RECORD_KEY = "record";
+
+    // An ObjectMapper is thread safe once it's configured, and sharing one lets all the readers share its caches.
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     private final String sql;
     private final DataSource dataSource;
     private final PreparedStatementSetter preparedStatementSetter;
-    private final Class<? extends T> clazz;
+    private final ObjectReader objectReader;
 
     private Connection connection;
     private PreparedStatement preparedStatement;
     private ResultSet resultSet;
     private Clob clob;
+    private Blob blob;
+    private JsonParser parser;
     private MappingIterator<T> mappingIterator;
 
+    private boolean hasCodecColumns;
+
     private boolean hasResult;
 
     private int rowsRead;
     private int recordsRead;
+    private int rowRecordsRead;
+
+    // Where a restarted step picks up: the row the last run stopped in, and the records it read from that row.
+    private int restartRow;
+    private int restartRecords;
+
+    private final ClobRowRecorder clobRowRecorder = new ClobRowRecorder();
 
     /**
      * Error thrown when this class can't be configured.
@@ -92,7 +135,8 @@ public class ClobJsonReader<T> implements ItemReader<T>, StepExecutionListener {
      *
      * @param dataSource The DataSource to use to run queries.
      * @param sql The SQL to run to obtain a cursor with JSON data. This query should return only one column: the column
-     *            tha contains the CLOB.  This query can contain any number of bind variables. These should be set
+     *            tha contains the CLOB. If the data can be compressed, it should also return the codec and the BLOB
+     *            as described above. This query can contain any number of bind variables. These should be set
      *            by the PreparedStatementSetter passed in the preparedStatementSetter parameter. This query can return
      *            any number of rows.
      * @param clazz The concrete class instance of the type this reader will return.
@@ -101,15 +145,79 @@ public class ClobJsonReader<T> implements ItemReader<T>, StepExecutionListener {
     public ClobJsonReader(final DataSource dataSource, final String sql, final Class<? extends T> clazz,
                           final PreparedStatementSetter preparedStatementSetter) {
 
+        this(dataSource, sql, objectReaderFor(notNull(clazz)), preparedStatementSetter);
+    }
+
+    /**
+     * Constructs a new ClobJsonReader that parses with an ObjectReader that has already been configured. This
+     * overloading should be used to change how the JSON is parsed, such as to ignore unknown properties. The
+     * ObjectReader can be shared with other readers.
+     *
+     * @param dataSource The DataSource to use to run queries.
+     * @param sql The SQL to run to obtain a cursor with JSON data. See the notes on the other constructor for
+     *            requirements for the SQL.
+     * @param objectReader The ObjectReader to parse the JSON with. It must be for the type this reader will return.
+     * @param preparedStatementSetter The PreparedStatementSetter that sets the bind variables when executing the
+     *                                query. This can be null if the SQL has no bind variables.
+     */
+    public ClobJsonReader(final DataSource dataSource, final String sql, final ObjectReader objectReader,
+                          final PreparedStatementSetter preparedStatementSetter) {
+
+        super();
+
         Assert.notNull(dataSource, "DataSource cannot be null.");
         Assert.notNull(sql, "SQL cannot be null");
-        Assert.notNull(clazz, "Concrete class cannot be null");
+        Assert.notNull(objectReader, "ObjectReader cannot be null");
         // preparedStatementSetter can by null.
 
         this.dataSource = dataSource;
         this.sql = sql;
-        this.clazz = clazz;
+        this.objectReader = objectReader;
         this.preparedStatementSetter = preparedStatementSetter;
+
+        this.setName(ClassUtils.getShortName(ClobJsonReader.class));
+    }
+
+    /**
+     * Returns an ObjectReader for a class with the default settings.
+     *
+     * @param clazz The class to read.
+     * @return An ObjectReader for the class.
+     */
+    public static ObjectReader objectReaderFor(final Class<?> clazz) {
+
+        return OBJECT_MAPPER.readerFor(clazz);
+    }
+
+    /**
+     * Returns an ObjectReader for a class with the settings that are most often changed. ObjectReaders are immutable
+     * and thread safe, so the one returned can be shared by any number of readers.
+     *
+     * @param clazz The class to read.
+     * @param failOnUnknownProperties If a property in the JSON that isn't in the class should fail the read. When
+     *                                this is false, the property is ignored.
+     * @param readFeatures The JSON read features to turn on, such as ALLOW_TRAILING_COMMA. This can be empty.
+     * @return An ObjectReader for the class.
+     */
+    public static ObjectReader objectReaderFor(final Class<?> clazz, final boolean failOnUnknownProperties,
+                                               final JsonReadFeature... readFeatures) {
+
+        Assert.notNull(readFeatures, "Read features cannot be null.");
+
+        ObjectReader objectReader = objectReaderFor(clazz);
+        for (final JsonReadFeature readFeature : readFeatures) {
+            // The parser is configured by the JsonParser.Feature each JsonReadFeature stands for.
+            objectReader = objectReader.with(readFeature.mappedFeature());
+        }
+
+        return failOnUnknownProperties ? objectReader.with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                : objectReader.without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    private static <C> Class<C> notNull(final Class<C> clazz) {
+
+        Assert.notNull(clazz, "Concrete class cannot be null");
+        return clazz;
     }
 
     @Override
@@ -123,6 +231,7 @@ public class ClobJsonReader<T> implements ItemReader<T>, StepExecutionListener {
         // If there's data left in the iterator, return it.
         if (this.mappingIterator.hasNext()) {
             this.recordsRead++;
+            this.rowRecordsRead++;
             return this.mappingIterator.next();
         }
 
@@ -137,6 +246,9 @@ public class ClobJsonReader<T> implements ItemReader<T>, StepExecutionListener {
 
         this.rowsRead = 0;
         this.recordsRead = 0;
+        this.rowRecordsRead = 0;
+        this.restartRow = 0;
+        this.restartRecords = 0;
 
         try {
 
@@ -151,22 +263,38 @@ public class ClobJsonReader<T> implements ItemReader<T>, StepExecutionListener {
                 this.preparedStatementSetter.setValues(this.preparedStatement);
             }
 
-            // Run the query.
+            // Run the query. The first row is read by the first call to read().
             this.resultSet = this.preparedStatement.executeQuery();
-
-            // Set the data up for a read.
-            this.advanceToNextRecord();
+            this.hasCodecColumns = returnsCodecColumns(this.resultSet);
+            this.hasResult = true;
+            this.mappingIterator = MappingIterator.emptyIterator();
         } catch (SQLException e) {
 
             e.forEach(error -> logger.error(e.getLocalizedMessage()));
             throw (ClobReaderConfigurationException) new ClobReaderConfigurationException("Unable to extract data from CLOB.").initCause(e);
-        } catch (IOException e) {
+        }
+    }
 
-            logger.error(e.getLocalizedMessage());
-            throw (ClobReaderConfigurationException) new ClobReaderConfigurationException("Unable to extract data from CLOB.").initCause(e);
+    @Override
+    public void open(final ExecutionContext executionContext) {
+
+        // Only a restarted step has a position saved.
+        if (executionContext.containsKey(this.getExecutionContextKey(ROW_KEY))) {
+
+            this.restartRow = executionContext.getInt(this.getExecutionContextKey(ROW_KEY));
+            this.restartRecords = executionContext.getInt(this.getExecutionContextKey(RECORD_KEY));
+
+            logger.info(String.format("Restarting after record %,d of row %,d.", this.restartRecords, this.restartRow));
         }
     }
 
+    @Override
+    public void update(final ExecutionContext executionContext) {
+
+        executionContext.putInt(this.getExecutionContextKey(ROW_KEY), this.rowsRead);
+        executionContext.putInt(this.getExecutionContextKey(RECORD_KEY), this.rowRecordsRead);
+    }
+
     private void advanceToNextRecord() throws SQLException, IOException {
 
         logger.debug("Reading next record.");
@@ -174,19 +302,40 @@ public class ClobJsonReader<T> implements ItemReader<T>, StepExecutionListener {
         // Release the CLOB.
         this.freeClob();
 
+        // The row that was being parsed is done.
+        if (this.hasResult && this.rowsRead > 0) {
+            this.clobRowRecorder.end(this.recordsRead);
+        }
+
         // Read the next row from the cursor.
-        this.hasResult = this.resultSet.next();
+        this.hasResult = this.nextRow();
 
         if (this.hasResult) {
 
             logger.debug("Next record available.");
             this.rowsRead++;
+            this.rowRecordsRead = 0;
 
             // Set up the data to return.
+            final PayloadCodec payloadCodec = this.hasCodecColumns ? PayloadCodec.of(this.resultSet.getString(2)) : PayloadCodec.NONE;
+            final int toSkip = this.rowsRead == this.restartRow ? this.restartRecords : 0;
+            this.restartRow = 0;
+
             this.clob = resultSet.getClob(1);
 
-            final ObjectMapper objectMapper = new ObjectMapper();
-            this.mappingIterator = objectMapper.readerFor(this.clazz).readValues(clob.getCharacterStream());
+            if (payloadCodec == PayloadCodec.NONE) {
+                this.parser = this.objectReader.createParser(clob.getCharacterStream());
+            } else {
+                // Jackson reads the JSON's bytes and works out their encoding itself.
+                this.blob = resultSet.getBlob(3);
+                this.parser = this.objectReader.createParser(payloadCodec.decompress(blob.getBinaryStream()));
+            }
+            this.mappingIterator = this.readValues(toSkip);
+
+            // Finding the size of the payload isn't free, so it's only done when the row is recorded.
+            if (this.clobRowRecorder.begin(this.rowsRead, payloadCodec.name(), this.recordsRead)) {
+                this.clobRowRecorder.setSize(payloadCodec == PayloadCodec.NONE ? this.clob.length() : this.blob.length());
+            }
         } else {
 
             logger.debug("At end of results.");
@@ -195,11 +344,53 @@ public class ClobJsonReader<T> implements ItemReader<T>, StepExecutionListener {
         }
     }
 
+    // Moves to the next row of the cursor. A restarted step skips the rows the last run finished without reading their
+    // data.
+    private boolean nextRow() throws SQLException {
+
+        boolean hasRow = this.resultSet.next();
+        while (hasRow && this.rowsRead + 1 < this.restartRow) {
+            this.rowsRead++;
+            hasRow = this.resultSet.next();
+        }
+
+        return hasRow;
+    }
+
+    // Returns an iterator over the values of a row, after skipping the first of them by their tokens, without
+    // deserializing them. The values are the elements of an array at the root, as they are for a MappingIterator that
+    // reads from a stream. The iterator leaves the parser open, so it is closed by freeClob() when the row is done.
+    private MappingIterator<T> readValues(final int toSkip) throws IOException {
+
+        this.rowRecordsRead = toSkip;
+
+        JsonToken token = this.parser.nextToken();
+        if (token == JsonToken.START_ARRAY) {
+            token = this.parser.nextToken();
+        }
+
+        for (int skipped = 0; skipped < toSkip && token != null && token != JsonToken.END_ARRAY; skipped++) {
+            this.parser.skipChildren();
+            token = this.parser.nextToken();
+        }
+
+        if (token == null || token == JsonToken.END_ARRAY) {
+            return MappingIterator.emptyIterator();
+        }
+
+        return this.objectReader.readValues(this.parser);
+    }
+
     @Override
     public ExitStatus afterStep(final StepExecution stepExecution) {
 
         logger.info(String.format("%,d records read from %,d rows in the table.", this.recordsRead, this.rowsRead));
 
+        // If the step stopped before the reader ran out, the last row is done too.
+        if (this.hasResult && this.rowsRead > 0) {
+            this.clobRowRecorder.end(this.recordsRead);
+        }
+
         // Try and close everything. At this point, if we get errors, just log them.
         this.freeClob();
         JdbcUtils.closeResultSet(this.resultSet);
@@ -212,12 +403,37 @@ public class ClobJsonReader<T> implements ItemReader<T>, StepExecutionListener {
     private void freeClob() {
 
         try {
+            if (Objects.nonNull(this.mappingIterator)) {
+                this.mappingIterator.close();
+            }
+            // Closing the parser closes the Reader or stream under it too.
+            if (Objects.nonNull(this.parser)) {
+                this.parser.close();
+            }
             if (Objects.nonNull(this.clob)) {
                 this.clob.free();
             }
+            if (Objects.nonNull(this.blob)) {
+                this.blob.free();
+            }
         } catch (SQLException e) {
 
             e.forEach(error -> logger.error(e.getLocalizedMessage()));
+        } catch (IOException e) {
+
+            logger.error(e.getLocalizedMessage());
         }
     }
+
+    /**
+     * Returns if a query returns the codec and BLOB columns of data that can be compressed.
+     *
+     * @param resultSet The results of the query.
+     * @return True if the query returns the codec and BLOB columns.
+     * @throws SQLException If the columns of the query can't be read.
+     */
+    public static boolean returnsCodecColumns(final ResultSet resultSet) throws SQLException {
+
+        return resultSet.getMetaData().getColumnCount() >= CODEC_COLUMN_COUNT;
+    }
 }
@@ -0,0 +1,101 @@
+package dev.codestijl.integrationdemo.common;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A map keyed by GTIN-14. GTIN-14s that are 14 decimal digits are stored as longs in a LongIntHashMap that points
+ * at the value's position in a list, so no key is boxed. Anything else falls back to a HashMap of Strings.
+ *
+ * <p>Null values are allowed, so use containsKey to tell a missing key from a key mapped to null.</p>
+ *
+ * <p>This class is not thread safe.</p>
+ *
+ * @param <V> The type of the values in the map.
+ * @author darren
+ * @since 1.0.0
+ */
+// Instances are never shared between threads.
+@SuppressWarnings("PMD.UseConcurrentHashMap")
+public class GtinMap<V> {
+
+    private static final int MISSING = -1;
+
+    private final LongIntHashMap positions = new LongIntHashMap(MISSING);
+    private final List<V> values = new ArrayList<>();
+    private final Map<String, V> notEncodable = new HashMap<>();
+
+    /**
+     * Adds a value to the map, replacing any value already there for the GTIN-14.
+     *
+     * @param gtin14 The GTIN-14 to key the value by.
+     * @param value The value to add. This can be null.
+     */
+    public void put(final String gtin14, final V value) {
+
+        final long key = GtinUtils.encode(gtin14);
+        if (key == GtinUtils.NOT_ENCODABLE) {
+            this.notEncodable.put(gtin14, value);
+            return;
+        }
+
+        final int position = this.positions.get(key);
+        if (position == MISSING) {
+            this.positions.put(key, this.values.size());
+            this.values.add(value);
+        } else {
+            this.values.set(position, value);
+        }
+    }
+
+    /**
+     * Returns the value for a GTIN-14.
+     *
+     * @param gtin14 The GTIN-14 to look for.
+     * @return The value for the GTIN-14 or null if it is not in the map.
+     */
+    public V get(final String gtin14) {
+
+        final long key = GtinUtils.encode(gtin14);
+        if (key == GtinUtils.NOT_ENCODABLE) {
+            return this.notEncodable.get(gtin14);
+        }
+
+        final int position = this.positions.get(key);
+        return position == MISSING ? null : this.values.get(position);
+    }
+
+    /**
+     * Returns if a GTIN-14 is in the map.
+     *
+     * @param gtin14 The GTIN-14 to look for.
+     * @return True if the GTIN-14 is in the map.
+     */
+    public boolean containsKey(final String gtin14) {
+
+        final long key = GtinUtils.encode(gtin14);
+        return key == GtinUtils.NOT_ENCODABLE ? this.notEncodable.containsKey(gtin14) : this.positions.containsKey(key);
+    }
+
+    /**
+     * Returns the number of GTIN-14s in the map.
+     *
+     * @return The number of GTIN-14s in the map.
+     */
+    public int size() {
+
+        return this.positions.size() + this.notEncodable.size();
+    }
+
+    /**
+     * Removes everything from the map.
+     */
+    public void clear() {
+
+        this.positions.clear();
+        this.values.clear();
+        this.notEncodable.clear();
+    }
+}
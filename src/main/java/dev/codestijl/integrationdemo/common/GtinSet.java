@@ -0,0 +1,102 @@
+package dev.codestijl.integrationdemo.common;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * A set of GTIN-14s. GTIN-14s that are 14 decimal digits are stored as longs in a LongHashSet. Anything else, which
+ * will fail validation but still has to be tracked, falls back to a HashSet of Strings.
+ *
+ * <p>This class is not thread safe.</p>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class GtinSet {
+
+    private final LongHashSet encoded;
+    private final Set<String> notEncodable = new HashSet<>();
+
+    /**
+     * Constructs a new GtinSet.
+     */
+    public GtinSet() {
+
+        this.encoded = new LongHashSet();
+    }
+
+    /**
+     * Constructs a new GtinSet that can hold a number of GTIN-14s before it has to grow.
+     *
+     * @param expectedSize The number of GTIN-14s the set is expected to hold.
+     */
+    public GtinSet(final int expectedSize) {
+
+        this.encoded = new LongHashSet(expectedSize);
+    }
+
+    /**
+     * Adds a GTIN-14 to the set.
+     *
+     * @param gtin14 The GTIN-14 to add.
+     * @return True if the GTIN-14 was added; false if it was already in the set.
+     */
+    public boolean add(final String gtin14) {
+
+        final long key = GtinUtils.encode(gtin14);
+        return key == GtinUtils.NOT_ENCODABLE ? this.notEncodable.add(gtin14) : this.encoded.add(key);
+    }
+
+    /**
+     * Returns if a GTIN-14 is in the set.
+     *
+     * @param gtin14 The GTIN-14 to look for.
+     * @return True if the GTIN-14 is in the set.
+     */
+    public boolean contains(final String gtin14) {
+
+        final long key = GtinUtils.encode(gtin14);
+        return key == GtinUtils.NOT_ENCODABLE ? this.notEncodable.contains(gtin14) : this.encoded.contains(key);
+    }
+
+    /**
+     * Returns the number of GTIN-14s in the set.
+     *
+     * @return The number of GTIN-14s in the set.
+     */
+    public int size() {
+
+        return this.encoded.size() + this.notEncodable.size();
+    }
+
+    /**
+     * Returns if the set is empty.
+     *
+     * @return True if the set is empty.
+     */
+    public boolean isEmpty() {
+
+        return this.size() == 0;
+    }
+
+    /**
+     * Removes all the GTIN-14s from the set.
+     */
+    public void clear() {
+
+        this.encoded.clear();
+        this.notEncodable.clear();
+    }
+
+    /**
+     * Calls an action for each GTIN-14 in the set. The order is not defined.
+     *
+     * @param action The action to call.
+     */
+    public void forEach(final Consumer<String> action) {
+
+        this.encoded.forEach(key -> action.accept(GtinUtils.decode(key)));
+        this.notEncodable.forEach(action);
+    }
+}
@@ -0,0 +1,84 @@
+package dev.codestijl.integrationdemo.common;
+
+import java.util.Objects;
+
+import org.springframework.util.Assert;
+
+/**
+ * Utility to convert GTIN-14s to and from longs. A GTIN-14 is 14 decimal digits, so it fits in a long, which is
+ * much cheaper to hash and store than a String.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public final class GtinUtils {
+
+    /**
+     * The value encode returns for anything that is not 14 decimal digits.
+     */
+    public static final long NOT_ENCODABLE = -1L;
+
+    private static final int GTIN_14_LENGTH = 14;
+    private static final long MAX_GTIN_14 = 99_999_999_999_999L;
+
+    /**
+     * Converts a GTIN-14 to a long.
+     *
+     * @param gtin14 The GTIN-14 to convert.
+     * @return The GTIN-14 as a long or NOT_ENCODABLE if the value passed is not 14 decimal digits.
+     */
+    public static long encode(final String gtin14) {
+
+        if (Objects.isNull(gtin14) || gtin14.length() != GTIN_14_LENGTH) {
+            return NOT_ENCODABLE;
+        }
+
+        long encoded = 0;
+        for (int i = 0; i < GTIN_14_LENGTH; i++) {
+
+            final char digit = gtin14.charAt(i);
+            if (digit < '0' || digit > '9') {
+                return NOT_ENCODABLE;
+            }
+
+            encoded = encoded * 10 + (digit - '0');
+        }
+
+        return encoded;
+    }
+
+    /**
+     * Returns if a GTIN-14 can be converted to a long.
+     *
+     * @param gtin14 The GTIN-14 to check.
+     * @return True if the GTIN-14 is 14 decimal digits.
+     */
+    public static boolean isEncodable(final String gtin14) {
+
+        return encode(gtin14) != NOT_ENCODABLE;
+    }
+
+    /**
+     * Converts a long made by encode back to a GTIN-14, including any leading zeros.
+     *
+     * @param encoded The long to convert.
+     * @return The GTIN-14.
+     */
+    public static String decode(final long encoded) {
+
+        Assert.isTrue(encoded >= 0 && encoded <= MAX_GTIN_14, "Value is not an encoded GTIN-14.");
+
+        final char[] digits = new char[GTIN_14_LENGTH];
+        long remaining = encoded;
+        for (int i = GTIN_14_LENGTH - 1; i >= 0; i--) {
+            digits[i] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+
+        return new String(digits);
+    }
+
+    private GtinUtils() {
+        // Intentionally empty.
+    }
+}
@@ -0,0 +1,82 @@
+package dev.codestijl.integrationdemo.common;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * How IdUtils makes new IDs. Pick one with integration.ids.strategy.
+ *
+ * <p>The strategy covers every new ID: the ones the application makes with IdUtils, and the ones the SET mode of
+ * LOAD-CORE makes in SQL. With TIME_ORDERED, each statement of the SET mode takes the time and count of one ID from
+ * IdUtils and numbers its rows in the last group, so its IDs have the same layout and order. With RANDOM, it uses the
+ * UUID function of the DB, which is random on H2 but makes version 1 UUIDs on MySQL.</p>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public enum IdStrategy {
+
+    /**
+     * Random, version 4 UUIDs from UUID.randomUUID. Every ID takes 16 bytes from the shared SecureRandom, and the IDs
+     * land all over the primary key index of the table they are inserted into.
+     */
+    RANDOM {
+        @Override
+        public UUID newId() {
+
+            return UUID.randomUUID();
+        }
+    },
+
+    /**
+     * Time-ordered, version 7 UUIDs, laid out as in RFC 9562. The first 48 bits are the time in milliseconds and the
+     * next 12, after the version, count the IDs made in that millisecond, so each ID is greater than the one before
+     * it and new rows are added to the end of the primary key index. The last 62 bits, after the variant, are random.
+     *
+     * <p>The time and count are claimed with a compare-and-set, so no thread ever waits on a lock, and the random bits
+     * come from ThreadLocalRandom rather than a SecureRandom every thread shares. That makes the IDs easier to guess
+     * than RANDOM ones, which doesn't matter for keys that never leave the DB.</p>
+     */
+    TIME_ORDERED {
+        @Override
+        public UUID newId() {
+
+            final long stamp = LAST_STAMP.updateAndGet(last -> nextStamp(last, System.currentTimeMillis()));
+
+            return new UUID(((stamp >>> COUNTER_BITS) << VERSION_AND_COUNTER_BITS) | VERSION_7 | (stamp & COUNTER_MASK),
+                    (ThreadLocalRandom.current().nextLong() & RANDOM_MASK) | VARIANT);
+        }
+    };
+
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final int VERSION_AND_COUNTER_BITS = 16;
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+    private static final long RANDOM_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+
+    // The time in milliseconds and the count of the last TIME_ORDERED ID, as one number so both are set together.
+    private static final AtomicLong LAST_STAMP = new AtomicLong();
+
+    /**
+     * Returns a new ID.
+     *
+     * @return A new ID.
+     */
+    public abstract UUID newId();
+
+    /**
+     * Returns the time and count of the next TIME_ORDERED ID. It is the current time with a count of zero, unless
+     * that isn't after the last one, when it is the last one plus one. If the count runs out in a millisecond, or the
+     * clock goes back, the IDs carry on from the last time rather than going back with it.
+     *
+     * @param lastStamp The time and count of the last ID.
+     * @param nowMillis The current time in milliseconds.
+     * @return The time and count of the next ID.
+     */
+    /* default */ static long nextStamp(final long lastStamp, final long nowMillis) {
+
+        return Math.max(lastStamp + 1, nowMillis << COUNTER_BITS);
+    }
+}
@@ -2,22 +2,51 @@ package dev.codestijl.integrationdemo.common;
 
 import java.util.UUID;
 
+import org.springframework.util.Assert;
+
 /**
- * Utility to generate globally unique IDs.
+ * Utility to generate globally unique IDs. IDs are kept as UUIDs, which hold their 128 bits as two longs, and are
+ * only turned into their 36 character string form where that is what is needed, like a CHAR(36) column or a log.
+ *
+ * <p>The IDs are made by an {@link IdStrategy}, TIME_ORDERED unless another is set when the application starts.</p>
  *
  * @author darren
  * @since 1.0.0
  */
 public final class IdUtils {
 
+    // Set once as the application starts, before the job threads are, so they all see it.
+    private static IdStrategy strategy = IdStrategy.TIME_ORDERED;
+
     /**
      * Returns a new ID.
      *
      * @return A new ID.
      */
-    public static String newId() {
+    public static UUID newId() {
+
+        return strategy.newId();
+    }
+
+    /**
+     * Returns how new IDs are made.
+     *
+     * @return The strategy that makes new IDs.
+     */
+    public static IdStrategy getStrategy() {
+
+        return strategy;
+    }
+
+    /**
+     * Sets how new IDs are made.
+     *
+     * @param idStrategy The strategy to make new IDs with.
+     */
+    public static void setStrategy(final IdStrategy idStrategy) {
 
-        return UUID.randomUUID().toString();
+        Assert.notNull(idStrategy, "ID strategy cannot be null.");
+        strategy = idStrategy;
     }
 
     private IdUtils() {
@@ -0,0 +1,131 @@
+package dev.codestijl.integrationdemo.common;
+
+import java.util.Arrays;
+
+/**
+ * Finds where each top level element of a JSON document starts and ends without parsing it. If the document is an
+ * array, the elements are the values in the array. Otherwise, the elements are the values at the root of the
+ * document, which lets a document hold a sequence of values the way a Jackson MappingIterator reads them.
+ *
+ * <p>The scanner only tracks strings, escapes, and nesting, so it is much faster than a parser. It does not check
+ * that the JSON is valid; that is left to whatever parses the elements.</p>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+/* default */ final class JsonElementScanner {
+
+    private static final int INITIAL_BOUNDS = 64;
+
+    private static final char QUOTE = '"';
+    private static final char ESCAPE = '\\';
+    private static final char SEPARATOR = ',';
+    private static final char OPEN_ARRAY = '[';
+    private static final char CLOSE_ARRAY = ']';
+    private static final char OPEN_OBJECT = '{';
+    private static final char CLOSE_OBJECT = '}';
+
+    private JsonElementScanner() {
+    }
+
+    /**
+     * Scans a JSON document for the bounds of its top level elements.
+     *
+     * @param chars The characters of the document.
+     * @param length The number of characters in the document.
+     * @return The bounds of the elements, in order. Element n starts at index 2n (inclusive) and ends at index 2n + 1
+     *         (exclusive). The array is exactly twice the number of elements long.
+     */
+    // The scan is a single state machine, which reads best as one method.
+    @SuppressWarnings({"PMD.CognitiveComplexity", "PMD.CyclomaticComplexity", "PMD.NPathComplexity"})
+    public static int[] scan(final char[] chars, final int length) {
+
+        int[] bounds = new int[INITIAL_BOUNDS];
+        int count = 0;
+
+        final int first = skipWhitespace(chars, 0, length);
+        final boolean isArray = first < length && chars[first] == OPEN_ARRAY;
+        final int elementDepth = isArray ? 1 : 0;
+
+        int depth = elementDepth;
+        int start = -1;
+        boolean inString = false;
+
+        int index = isArray ? first + 1 : first;
+        for (; index < length; index++) {
+
+            final char current = chars[index];
+
+            if (inString) {
+                // An escape means the next character can't end the string, so it is skipped.
+                if (current == ESCAPE) {
+                    index++;
+                } else if (current == QUOTE) {
+                    inString = false;
+                }
+                continue;
+            }
+
+            if (start < 0 && depth == elementDepth && !Character.isWhitespace(current) && current != SEPARATOR && current != CLOSE_ARRAY) {
+                start = index;
+            }
+
+            if (current == QUOTE) {
+                inString = true;
+            } else if (current == OPEN_OBJECT || current == OPEN_ARRAY) {
+                depth++;
+            } else if (current == CLOSE_OBJECT || current == CLOSE_ARRAY) {
+                depth--;
+            }
+
+            // An element ends at a separator or the end of the array, or, for a value at the root, when its last
+            // bracket closes.
+            final boolean atSeparator = depth == elementDepth && (current == SEPARATOR || Character.isWhitespace(current) && !isArray);
+            final boolean atArrayEnd = depth < elementDepth;
+            final boolean atRootValueEnd = !isArray && depth == 0 && (current == CLOSE_OBJECT || current == CLOSE_ARRAY);
+
+            if (start >= 0 && (atSeparator || atArrayEnd || atRootValueEnd)) {
+
+                if (count + 2 > bounds.length) {
+                    bounds = Arrays.copyOf(bounds, bounds.length * 2);
+                }
+                bounds[count++] = start;
+                bounds[count++] = atRootValueEnd ? index + 1 : trimEnd(chars, start, index);
+                start = -1;
+            }
+
+            if (atArrayEnd) {
+                break;
+            }
+        }
+
+        // A scalar value at the very end of a root sequence has nothing after it to end it.
+        if (start >= 0) {
+            if (count + 2 > bounds.length) {
+                bounds = Arrays.copyOf(bounds, bounds.length + 2);
+            }
+            bounds[count++] = start;
+            bounds[count++] = trimEnd(chars, start, length);
+        }
+
+        return Arrays.copyOf(bounds, count);
+    }
+
+    private static int skipWhitespace(final char[] chars, final int from, final int length) {
+
+        int index = from;
+        while (index < length && Character.isWhitespace(chars[index])) {
+            index++;
+        }
+        return index;
+    }
+
+    private static int trimEnd(final char[] chars, final int start, final int end) {
+
+        int index = end;
+        while (index > start && Character.isWhitespace(chars[index - 1])) {
+            index--;
+        }
+        return index;
+    }
+}
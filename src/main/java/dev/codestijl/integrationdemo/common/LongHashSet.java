@@ -0,0 +1,232 @@
+package dev.codestijl.integrationdemo.common;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * A set of primitive longs. The values are kept in a single array using open addressing with linear probing, so
+ * adding a value does not box it or allocate an entry object the way a HashSet does.
+ *
+ * <p>This class is not thread safe.</p>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+// The methods mirror the parts of Set that are needed, so
+// there is no reason to break this up.
+@SuppressWarnings("PMD.TooManyMethods")
+public class LongHashSet {
+
+    private static final int DEFAULT_EXPECTED_SIZE = 32;
+
+    // Zero marks an empty slot, so whether zero is in the set is tracked on its own.
+    private static final long EMPTY = 0L;
+
+    private long[] values;
+    private int mask;
+    private int resizeAt;
+    private int count;
+    private boolean containsEmpty;
+
+    /**
+     * Constructs a new LongHashSet.
+     */
+    public LongHashSet() {
+
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Constructs a new LongHashSet that can hold a number of values before it has to grow.
+     *
+     * @param expectedSize The number of values the set is expected to hold.
+     */
+    public LongHashSet(final int expectedSize) {
+
+        this.allocate(LongHashing.capacityFor(expectedSize));
+    }
+
+    /**
+     * Adds a value to the set.
+     *
+     * @param value The value to add.
+     * @return True if the value was added; false if it was already in the set.
+     */
+    public boolean add(final long value) {
+
+        if (value == EMPTY) {
+            final boolean added = !this.containsEmpty;
+            this.containsEmpty = true;
+            return added;
+        }
+
+        int slot = this.slotFor(value);
+        while (this.values[slot] != EMPTY) {
+            if (this.values[slot] == value) {
+                return false;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+
+        this.values[slot] = value;
+        this.count++;
+
+        if (this.count > this.resizeAt) {
+            this.rehash(this.values.length << 1);
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns if a value is in the set.
+     *
+     * @param value The value to look for.
+     * @return True if the value is in the set.
+     */
+    public boolean contains(final long value) {
+
+        if (value == EMPTY) {
+            return this.containsEmpty;
+        }
+
+        return this.findSlot(value) >= 0;
+    }
+
+    /**
+     * Removes a value from the set.
+     *
+     * @param value The value to remove.
+     * @return True if the value was removed; false if it was not in the set.
+     */
+    public boolean remove(final long value) {
+
+        if (value == EMPTY) {
+            final boolean removed = this.containsEmpty;
+            this.containsEmpty = false;
+            return removed;
+        }
+
+        final int slot = this.findSlot(value);
+        if (slot < 0) {
+            return false;
+        }
+
+        this.values[slot] = EMPTY;
+        this.count--;
+        this.closeGap(slot);
+        return true;
+    }
+
+    /**
+     * Returns the number of values in the set.
+     *
+     * @return The number of values in the set.
+     */
+    public int size() {
+
+        return this.containsEmpty ? this.count + 1 : this.count;
+    }
+
+    /**
+     * Returns if the set is empty.
+     *
+     * @return True if the set is empty.
+     */
+    public boolean isEmpty() {
+
+        return this.size() == 0;
+    }
+
+    /**
+     * Removes all the values from the set. The set keeps its capacity so it can be filled again without growing.
+     */
+    public void clear() {
+
+        if (this.count > 0) {
+            Arrays.fill(this.values, EMPTY);
+            this.count = 0;
+        }
+        this.containsEmpty = false;
+    }
+
+    /**
+     * Calls an action for each value in the set. The order is not defined.
+     *
+     * @param action The action to call.
+     */
+    public void forEach(final LongConsumer action) {
+
+        if (this.containsEmpty) {
+            action.accept(EMPTY);
+        }
+
+        for (final long value : this.values) {
+            if (value != EMPTY) {
+                action.accept(value);
+            }
+        }
+    }
+
+    private int slotFor(final long value) {
+
+        return (int) LongHashing.mix(value) & this.mask;
+    }
+
+    private int findSlot(final long value) {
+
+        int slot = this.slotFor(value);
+        while (this.values[slot] != EMPTY) {
+            if (this.values[slot] == value) {
+                return slot;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+
+        return -1;
+    }
+
+    // Moves values that probed past a removed value back so they can still be found.
+    private void closeGap(final int removedSlot) {
+
+        int gap = removedSlot;
+        int slot = (gap + 1) & this.mask;
+
+        while (this.values[slot] != EMPTY) {
+
+            final int home = this.slotFor(this.values[slot]);
+
+            // The value can move into the gap if its home is not between the gap and where it is now.
+            if (((slot - home) & this.mask) >= ((slot - gap) & this.mask)) {
+                this.values[gap] = this.values[slot];
+                this.values[slot] = EMPTY;
+                gap = slot;
+            }
+
+            slot = (slot + 1) & this.mask;
+        }
+    }
+
+    private void rehash(final int capacity) {
+
+        final long[] oldValues = this.values;
+        this.allocate(capacity);
+
+        for (final long value : oldValues) {
+            if (value != EMPTY) {
+                int slot = this.slotFor(value);
+                while (this.values[slot] != EMPTY) {
+                    slot = (slot + 1) & this.mask;
+                }
+                this.values[slot] = value;
+            }
+        }
+    }
+
+    private void allocate(final int capacity) {
+
+        this.values = new long[capacity];
+        this.mask = capacity - 1;
+        this.resizeAt = LongHashing.resizeAt(capacity);
+    }
+}
@@ -0,0 +1,62 @@
+package dev.codestijl.integrationdemo.common;
+
+/**
+ * Helpers shared by the open addressing collections keyed by longs.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+/* default */ final class LongHashing {
+
+    private static final int MIN_CAPACITY = 8;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * Spreads the bits of a long so that keys that are close together, like GTINs from the same company, don't end
+     * up in the same part of the table. This is the finalizer from MurmurHash3.
+     *
+     * @param key The key to hash.
+     * @return The hash of the key.
+     */
+    public static long mix(final long key) {
+
+        long hash = key;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Returns the size of the table needed to hold a number of keys without being more than half full. The size
+     * is always a power of two.
+     *
+     * @param expectedSize The number of keys the table should hold.
+     * @return The size of the table.
+     */
+    public static int capacityFor(final int expectedSize) {
+
+        if (expectedSize >= MAX_CAPACITY / 2) {
+            return MAX_CAPACITY;
+        }
+
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, expectedSize * 2 - 1)) << 1);
+    }
+
+    /**
+     * Returns the number of keys a table can hold before it needs to grow.
+     *
+     * @param capacity The size of the table.
+     * @return The number of keys the table can hold before it needs to grow.
+     */
+    public static int resizeAt(final int capacity) {
+
+        return capacity == MAX_CAPACITY ? MAX_CAPACITY - 1 : capacity / 2;
+    }
+
+    private LongHashing() {
+        // Intentionally empty.
+    }
+}
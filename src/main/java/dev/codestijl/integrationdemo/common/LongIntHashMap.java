@@ -0,0 +1,258 @@
+package dev.codestijl.integrationdemo.common;
+
+import java.util.Arrays;
+
+/**
+ * A map of primitive long keys to primitive int values. The entries are kept in parallel arrays using open
+ * addressing with linear probing, so adding an entry does not box the key or the value or allocate an entry object
+ * the way a HashMap does.
+ *
+ * <p>Because the values are primitives, a lookup of a key that is not in the map returns a missing value chosen
+ * when the map is created rather than null.</p>
+ *
+ * <p>This class is not thread safe.</p>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class LongIntHashMap {
+
+    private static final int DEFAULT_EXPECTED_SIZE = 32;
+
+    // Zero marks an empty slot, so the entry for the zero key is kept on its own.
+    private static final long EMPTY = 0L;
+
+    private final int missingValue;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int resizeAt;
+    private int count;
+    private boolean containsEmpty;
+    private int emptyKeyValue;
+
+    /**
+     * Constructs a new LongIntHashMap.
+     *
+     * @param missingValue The value to return when a key is not in the map.
+     */
+    public LongIntHashMap(final int missingValue) {
+
+        this(DEFAULT_EXPECTED_SIZE, missingValue);
+    }
+
+    /**
+     * Constructs a new LongIntHashMap that can hold a number of entries before it has to grow.
+     *
+     * @param expectedSize The number of entries the map is expected to hold.
+     * @param missingValue The value to return when a key is not in the map.
+     */
+    public LongIntHashMap(final int expectedSize, final int missingValue) {
+
+        this.missingValue = missingValue;
+        this.allocate(LongHashing.capacityFor(expectedSize));
+    }
+
+    /**
+     * Returns the value that is returned when a key is not in the map.
+     *
+     * @return The value that is returned when a key is not in the map.
+     */
+    public int getMissingValue() {
+
+        return this.missingValue;
+    }
+
+    /**
+     * Adds an entry to the map, replacing the value for the key if it is already there.
+     *
+     * @param key The key of the entry.
+     * @param value The value of the entry.
+     * @return The value that was replaced or the missing value if the key was not in the map.
+     */
+    public int put(final long key, final int value) {
+
+        if (key == EMPTY) {
+            final int previous = this.containsEmpty ? this.emptyKeyValue : this.missingValue;
+            this.containsEmpty = true;
+            this.emptyKeyValue = value;
+            return previous;
+        }
+
+        int slot = this.slotFor(key);
+        while (this.keys[slot] != EMPTY) {
+            if (this.keys[slot] == key) {
+                final int previous = this.values[slot];
+                this.values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+
+        this.keys[slot] = key;
+        this.values[slot] = value;
+        this.count++;
+
+        if (this.count > this.resizeAt) {
+            this.rehash(this.keys.length << 1);
+        }
+
+        return this.missingValue;
+    }
+
+    /**
+     * Returns the value for a key.
+     *
+     * @param key The key to look for.
+     * @return The value for the key or the missing value if the key is not in the map.
+     */
+    public int get(final long key) {
+
+        if (key == EMPTY) {
+            return this.containsEmpty ? this.emptyKeyValue : this.missingValue;
+        }
+
+        final int slot = this.findSlot(key);
+        return slot < 0 ? this.missingValue : this.values[slot];
+    }
+
+    /**
+     * Returns if a key is in the map.
+     *
+     * @param key The key to look for.
+     * @return True if the key is in the map.
+     */
+    public boolean containsKey(final long key) {
+
+        if (key == EMPTY) {
+            return this.containsEmpty;
+        }
+
+        return this.findSlot(key) >= 0;
+    }
+
+    /**
+     * Removes a key from the map.
+     *
+     * @param key The key to remove.
+     * @return The value for the key or the missing value if the key was not in the map.
+     */
+    public int remove(final long key) {
+
+        if (key == EMPTY) {
+            final int previous = this.containsEmpty ? this.emptyKeyValue : this.missingValue;
+            this.containsEmpty = false;
+            return previous;
+        }
+
+        final int slot = this.findSlot(key);
+        if (slot < 0) {
+            return this.missingValue;
+        }
+
+        final int previous = this.values[slot];
+        this.keys[slot] = EMPTY;
+        this.count--;
+        this.closeGap(slot);
+        return previous;
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return The number of entries in the map.
+     */
+    public int size() {
+
+        return this.containsEmpty ? this.count + 1 : this.count;
+    }
+
+    /**
+     * Returns if the map is empty.
+     *
+     * @return True if the map is empty.
+     */
+    public boolean isEmpty() {
+
+        return this.size() == 0;
+    }
+
+    /**
+     * Removes all the entries from the map. The map keeps its capacity so it can be filled again without growing.
+     */
+    public void clear() {
+
+        if (this.count > 0) {
+            Arrays.fill(this.keys, EMPTY);
+            this.count = 0;
+        }
+        this.containsEmpty = false;
+    }
+
+    private int slotFor(final long key) {
+
+        return (int) LongHashing.mix(key) & this.mask;
+    }
+
+    private int findSlot(final long key) {
+
+        int slot = this.slotFor(key);
+        while (this.keys[slot] != EMPTY) {
+            if (this.keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+
+        return -1;
+    }
+
+    // Moves entries that probed past a removed entry back so they can still be found.
+    private void closeGap(final int removedSlot) {
+
+        int gap = removedSlot;
+        int slot = (gap + 1) & this.mask;
+
+        while (this.keys[slot] != EMPTY) {
+
+            final int home = this.slotFor(this.keys[slot]);
+
+            // The entry can move into the gap if its home is not between the gap and where it is now.
+            if (((slot - home) & this.mask) >= ((slot - gap) & this.mask)) {
+                this.keys[gap] = this.keys[slot];
+                this.values[gap] = this.values[slot];
+                this.keys[slot] = EMPTY;
+                gap = slot;
+            }
+
+            slot = (slot + 1) & this.mask;
+        }
+    }
+
+    private void rehash(final int capacity) {
+
+        final long[] oldKeys = this.keys;
+        final int[] oldValues = this.values;
+        this.allocate(capacity);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = this.slotFor(oldKeys[i]);
+                while (this.keys[slot] != EMPTY) {
+                    slot = (slot + 1) & this.mask;
+                }
+                this.keys[slot] = oldKeys[i];
+                this.values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(final int capacity) {
+
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        this.resizeAt = LongHashing.resizeAt(capacity);
+    }
+}
@@ -0,0 +1,432 @@
+package dev.codestijl.integrationdemo.common;
+
+import java.io.CharArrayReader;
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import javax.sql.DataSource;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * An ItemReader for tables that have a CLOB storing JSON data that parses the JSON on several threads. It returns the
+ * same objects in the same order as ClobJsonReader, but is meant for CLOBs so large that parsing them on one thread
+ * holds up the step.
+ *
+ * <p>Each CLOB is read into memory and scanned once for where each top level element starts and ends. The elements
+ * are then split into ranges, and each range is parsed on a thread from the TaskExecutor. Ranges are handed out in
+ * order and their results are returned in order, so the order of the objects is kept. Only a few ranges per thread
+ * are parsed ahead of the reader, which bounds how many parsed objects are held in memory at once. The CLOB itself
+ * is held in memory until all its elements have been returned.</p>
+ *
+ * <p>Like ClobJsonReader, this class expects beforeStep() to be called before read(), and reads compressed data
+ * from the codec and BLOB columns when the query returns them. Compressed data is expected to be UTF-8. It is
+ * restartable the same way too: a restarted step skips the rows the last run finished, and only parses the elements
+ * of the row it stopped in that it hadn't returned.</p>
+ *
+ * @param <T> The type of object being stored in the JSON.
+ * @author darren
+ * @since 1.0.0
+ */
+// The reader holds the state of the query, the payload being parsed, and the counts for the step, like ClobJsonReader.
+// The ItemStream methods that make it restartable push it over the limit on methods, but it is still one reader.
+@SuppressWarnings({"PMD.TooManyFields", "PMD.ExcessiveImports", "PMD.TooManyMethods"})
+public class ParallelClobJsonReader<T> extends ItemStreamSupport implements ItemStreamReader<T>, StepExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelClobJsonReader.class);
+
+    // Several ranges per thread keep the threads busy when some ranges parse faster than others.
+    private static final int RANGES_PER_THREAD = 4;
+    // A cap on the size of a range bounds the memory held by the ranges parsed ahead of the reader.
+    private static final int MAX_RANGE_SIZE = 1_000;
+
+    private static final String ROW_KEY = "row";
+    private static final String RECORD_KEY = "record";
+
+    private final String sql;
+    private final DataSource dataSource;
+    private final PreparedStatementSetter preparedStatementSetter;
+    private final ObjectReader objectReader;
+    private final TaskExecutor taskExecutor;
+    private final int parallelism;
+
+    private Connection connection;
+    private PreparedStatement preparedStatement;
+    private ResultSet resultSet;
+    private boolean hasCodecColumns;
+
+    private Payload payload = Payload.EMPTY;
+    private final Deque<CompletableFuture<List<T>>> pendingRanges = new ArrayDeque<>();
+    private Iterator<T> currentRange = Collections.emptyIterator();
+
+    private int rowsRead;
+    private int recordsRead;
+    private int rowRecordsRead;
+    private int rangesParsed;
+
+    // Where a restarted step picks up: the row the last run stopped in, and the records it read from that row.
+    private int restartRow;
+    private int restartRecords;
+
+    /**
+     * A CLOB that has been read into memory and the bounds of its elements. See JsonElementScanner for the layout of
+     * the bounds. The tasks that parse ranges hold on to the Payload they came from, so they never see the next
+     * row's data.
+     *
+     * @author darren
+     * @since 1.0.0
+     */
+    private static final class Payload {
+
+        private static final Payload EMPTY = new Payload(new char[0], new int[0], 1);
+
+        private final char[] chars;
+        private final int[] bounds;
+        private final int rangeSize;
+        private int nextElement;
+
+        private Payload(final char[] chars, final int[] bounds, final int rangeSize) {
+            this.chars = chars;
+            this.bounds = bounds;
+            this.rangeSize = rangeSize;
+        }
+
+        private int getElements() {
+            return this.bounds.length / 2;
+        }
+    }
+
+    /**
+     * Constructs a new ParallelClobJsonReader.
+     *
+     * @param dataSource The DataSource to use to run queries.
+     * @param sql The SQL to run to obtain a cursor with JSON data. This query should return only one column: the
+     *            column that contains the CLOB. It can contain bind variables and return any number of rows.
+     * @param clazz The concrete class instance of the type this reader will return.
+     * @param preparedStatementSetter The PreparedStatementSetter that sets the bind variables. This can be null if
+     *                                the SQL has no bind variables.
+     * @param taskExecutor The TaskExecutor to parse the ranges on.
+     * @param parallelism The number of ranges to parse at the same time. This should match the number of threads
+     *                    the TaskExecutor has.
+     */
+    public ParallelClobJsonReader(final DataSource dataSource, final String sql, final Class<? extends T> clazz,
+                                  final PreparedStatementSetter preparedStatementSetter, final TaskExecutor taskExecutor,
+                                  final int parallelism) {
+
+        this(dataSource, sql, ClobJsonReader.objectReaderFor(clazz), preparedStatementSetter, taskExecutor, parallelism);
+    }
+
+    /**
+     * Constructs a new ParallelClobJsonReader that parses with an ObjectReader that has already been configured. The
+     * ObjectReader is shared by all the threads, and can be shared with other readers.
+     *
+     * @param dataSource The DataSource to use to run queries.
+     * @param sql The SQL to run to obtain a cursor with JSON data. See the notes on the other constructor for
+     *            requirements for the SQL.
+     * @param objectReader The ObjectReader to parse the JSON with. It must be for the type this reader will return.
+     * @param preparedStatementSetter The PreparedStatementSetter that sets the bind variables. This can be null if
+     *                                the SQL has no bind variables.
+     * @param taskExecutor The TaskExecutor to parse the ranges on.
+     * @param parallelism The number of ranges to parse at the same time. This should match the number of threads
+     *                    the TaskExecutor has.
+     */
+    public ParallelClobJsonReader(final DataSource dataSource, final String sql, final ObjectReader objectReader,
+                                  final PreparedStatementSetter preparedStatementSetter, final TaskExecutor taskExecutor,
+                                  final int parallelism) {
+
+        super();
+
+        Assert.notNull(dataSource, "DataSource cannot be null.");
+        Assert.notNull(sql, "SQL cannot be null");
+        Assert.notNull(objectReader, "ObjectReader cannot be null");
+        Assert.notNull(taskExecutor, "TaskExecutor cannot be null");
+        Assert.isTrue(parallelism > 0, "Parallelism must be positive.");
+        // preparedStatementSetter can by null.
+
+        this.dataSource = dataSource;
+        this.sql = sql;
+        this.preparedStatementSetter = preparedStatementSetter;
+        // An ObjectReader is immutable, so one can be shared by all the threads.
+        this.objectReader = objectReader;
+        this.taskExecutor = taskExecutor;
+        this.parallelism = parallelism;
+
+        this.setName(ClassUtils.getShortName(ParallelClobJsonReader.class));
+    }
+
+    @Override
+    public T read() throws Exception {
+
+        while (true) {
+
+            // If there's data left in the current range, return it.
+            if (this.currentRange.hasNext()) {
+                this.recordsRead++;
+                this.rowRecordsRead++;
+                return this.currentRange.next();
+            }
+
+            // If not, move to the next range, and keep the threads busy with the ranges after it.
+            if (!this.pendingRanges.isEmpty()) {
+                this.currentRange = join(this.pendingRanges.removeFirst()).iterator();
+                this.rangesParsed++;
+                this.submitRanges();
+                continue;
+            }
+
+            // If there are no more ranges, move to the next row. When there are no more rows, we're done.
+            if (!this.advanceToNextRecord()) {
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public void beforeStep(final StepExecution stepExecution) {
+
+        this.rowsRead = 0;
+        this.recordsRead = 0;
+        this.rowRecordsRead = 0;
+        this.rangesParsed = 0;
+        this.restartRow = 0;
+        this.restartRecords = 0;
+        this.pendingRanges.clear();
+        this.currentRange = Collections.emptyIterator();
+        this.payload = Payload.EMPTY;
+
+        try {
+
+            // Connect to the DB.
+            this.connection = DataSourceUtils.getConnection(this.dataSource);
+
+            // Prepare to run the query.
+            this.preparedStatement = this.connection.prepareStatement(this.sql);
+
+            // If we've got a preparedStatement, use it to set the bind variables.
+            if (Objects.nonNull(this.preparedStatementSetter)) {
+                this.preparedStatementSetter.setValues(this.preparedStatement);
+            }
+
+            // Run the query. The first row is read by the first call to read().
+            this.resultSet = this.preparedStatement.executeQuery();
+            this.hasCodecColumns = ClobJsonReader.returnsCodecColumns(this.resultSet);
+        } catch (SQLException e) {
+
+            e.forEach(error -> logger.error(e.getLocalizedMessage()));
+            throw (ClobJsonReader.ClobReaderConfigurationException) new ClobJsonReader.ClobReaderConfigurationException(
+                    "Unable to extract data from CLOB.").initCause(e);
+        }
+    }
+
+    @Override
+    public void open(final ExecutionContext executionContext) {
+
+        // Only a restarted step has a position saved.
+        if (executionContext.containsKey(this.getExecutionContextKey(ROW_KEY))) {
+
+            this.restartRow = executionContext.getInt(this.getExecutionContextKey(ROW_KEY));
+            this.restartRecords = executionContext.getInt(this.getExecutionContextKey(RECORD_KEY));
+
+            logger.info(String.format("Restarting after record %,d of row %,d.", this.restartRecords, this.restartRow));
+        }
+    }
+
+    @Override
+    public void update(final ExecutionContext executionContext) {
+
+        executionContext.putInt(this.getExecutionContextKey(ROW_KEY), this.rowsRead);
+        executionContext.putInt(this.getExecutionContextKey(RECORD_KEY), this.rowRecordsRead);
+    }
+
+    private boolean advanceToNextRecord() throws SQLException, IOException {
+
+        // If beforeStep() wasn't called, there's nothing to read.
+        if (Objects.isNull(this.resultSet)) {
+            return false;
+        }
+
+        // A restarted step skips the rows the last run finished without reading their data.
+        boolean hasResult = this.resultSet.next();
+        while (hasResult && this.rowsRead + 1 < this.restartRow) {
+            this.rowsRead++;
+            hasResult = this.resultSet.next();
+        }
+
+        if (!hasResult) {
+
+            logger.debug("At end of results.");
+            this.payload = Payload.EMPTY;
+            return false;
+        }
+
+        logger.debug("Next record available.");
+        this.rowsRead++;
+        this.rowRecordsRead = 0;
+
+        final char[] chars = this.readPayload();
+
+        final int[] bounds = JsonElementScanner.scan(chars, chars.length);
+        final int elements = bounds.length / 2;
+        final int ranges = this.parallelism * RANGES_PER_THREAD;
+        this.payload = new Payload(chars, bounds, Math.max(1, Math.min(MAX_RANGE_SIZE, (elements + ranges - 1) / ranges)));
+
+        // The elements the last run returned from the row it stopped in are scanned, but never parsed.
+        if (this.rowsRead == this.restartRow) {
+            this.payload.nextElement = Math.min(this.restartRecords, elements);
+            this.rowRecordsRead = this.payload.nextElement;
+        }
+        this.restartRow = 0;
+
+        logger.debug(String.format("Found %,d elements in %,d characters.", elements, chars.length));
+
+        this.submitRanges();
+        return true;
+    }
+
+    private void submitRanges() {
+
+        final Payload current = this.payload;
+
+        while (this.pendingRanges.size() < this.parallelism * 2 && current.nextElement < current.getElements()) {
+
+            final int from = current.nextElement;
+            final int to = Math.min(from + current.rangeSize, current.getElements());
+
+            this.pendingRanges.addLast(CompletableFuture.supplyAsync(() -> this.parseRange(current, from, to), this.taskExecutor));
+            current.nextElement = to;
+        }
+    }
+
+    // Each element needs its own Reader.
+    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+    private List<T> parseRange(final Payload source, final int from, final int to) {
+
+        final List<T> values = new ArrayList<>(to - from);
+
+        for (int element = from; element < to; element++) {
+
+            final int start = source.bounds[element * 2];
+            final int end = source.bounds[element * 2 + 1];
+
+            try (Reader reader = new CharArrayReader(source.chars, start, end - start)) {
+                values.add(this.objectReader.readValue(reader));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        return values;
+    }
+
+    // Waits for a range to be parsed, and rethrows any parse error as it would be thrown parsing on this thread. The
+    // IOException is the original error; the exceptions around it only carried it across threads.
+    @SuppressWarnings("PMD.PreserveStackTrace")
+    private static <T> List<T> join(final CompletableFuture<List<T>> range) throws IOException {
+
+        try {
+            return range.join();
+        } catch (CompletionException e) {
+
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw e;
+        }
+    }
+
+    // Reads the current row's data into memory, decompressing it if it was compressed.
+    private char[] readPayload() throws SQLException, IOException {
+
+        final PayloadCodec payloadCodec = this.hasCodecColumns ? PayloadCodec.of(this.resultSet.getString(2)) : PayloadCodec.NONE;
+
+        if (payloadCodec == PayloadCodec.NONE) {
+            final Clob clob = this.resultSet.getClob(1);
+            try {
+                return readFully(clob);
+            } finally {
+                clob.free();
+            }
+        }
+
+        final Blob blob = this.resultSet.getBlob(3);
+        try (Reader reader = new InputStreamReader(payloadCodec.decompress(blob.getBinaryStream()), StandardCharsets.UTF_8)) {
+
+            final CharArrayWriter writer = new CharArrayWriter();
+            reader.transferTo(writer);
+            return writer.toCharArray();
+        } finally {
+            blob.free();
+        }
+    }
+
+    // If the stream ends before the length the CLOB reports, only the characters read are returned, so the end of the
+    // array is never scanned as JSON.
+    private static char[] readFully(final Clob clob) throws SQLException, IOException {
+
+        final long length = clob.length();
+        Assert.isTrue(length <= Integer.MAX_VALUE, "CLOB is too large to read into memory.");
+
+        final char[] chars = new char[(int) length];
+        int offset = 0;
+        try (Reader reader = clob.getCharacterStream()) {
+
+            while (offset < chars.length) {
+
+                final int read = reader.read(chars, offset, chars.length - offset);
+                if (read < 0) {
+                    break;
+                }
+                offset += read;
+            }
+        }
+
+        return offset == chars.length ? chars : Arrays.copyOf(chars, offset);
+    }
+
+    @Override
+    public ExitStatus afterStep(final StepExecution stepExecution) {
+
+        logger.info(String.format("%,d records read from %,d rows in the table in %,d ranges.", this.recordsRead, this.rowsRead,
+                this.rangesParsed));
+
+        // If the step stopped early, don't parse any more ranges than have already started.
+        this.pendingRanges.forEach(range -> range.cancel(false));
+        this.pendingRanges.clear();
+        this.payload = Payload.EMPTY;
+
+        // Try and close everything. At this point, if we get errors, just log them.
+        JdbcUtils.closeResultSet(this.resultSet);
+        JdbcUtils.closeStatement(this.preparedStatement);
+        JdbcUtils.closeConnection(this.connection);
+
+        return ExitStatus.COMPLETED;
+    }
+}
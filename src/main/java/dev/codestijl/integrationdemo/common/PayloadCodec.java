@@ -0,0 +1,95 @@
+package dev.codestijl.integrationdemo.common;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * How the payload of a batch is compressed. The codec is saved with each batch, so batches written before compression
+ * was turned on, which have no codec, are still read as they were written.
+ *
+ * <p>Both directions work on streams, so a payload is never held in memory to be compressed or decompressed.</p>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public enum PayloadCodec {
+
+    /**
+     * Not compressed. The payload is stored as text in the PAYLOAD column.
+     */
+    NONE {
+        @Override
+        public InputStream compress(final InputStream source) {
+            return source;
+        }
+
+        @Override
+        public InputStream decompress(final InputStream compressed) {
+            return compressed;
+        }
+    },
+
+    /**
+     * Compressed with DEFLATE in the zlib format, tuned for speed over size. The payload is stored in the
+     * PAYLOAD_COMPRESSED column.
+     */
+    DEFLATE {
+        @Override
+        public InputStream compress(final InputStream source) {
+
+            // A Deflater that isn't the stream's default isn't ended when the stream is closed, so this one ends it.
+            return new DeflaterInputStream(source, new Deflater(Deflater.BEST_SPEED), BUFFER_SIZE) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        this.def.end();
+                    }
+                }
+            };
+        }
+
+        @Override
+        public InputStream decompress(final InputStream compressed) {
+
+            return new InflaterInputStream(new BufferedInputStream(compressed, BUFFER_SIZE));
+        }
+    };
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Returns a stream of the compressed bytes of a stream. Closing the returned stream closes the source.
+     *
+     * @param source The bytes to compress.
+     * @return A stream of the compressed bytes.
+     */
+    public abstract InputStream compress(InputStream source);
+
+    /**
+     * Returns a stream of the original bytes of a compressed stream. Closing the returned stream closes the
+     * compressed stream.
+     *
+     * @param compressed The compressed bytes.
+     * @return A stream of the original bytes.
+     */
+    public abstract InputStream decompress(InputStream compressed);
+
+    /**
+     * Returns the codec with a name as it is saved with a batch.
+     *
+     * @param name The name of the codec. Null or empty means NONE, which is how batches saved before compression
+     *             was added are read.
+     * @return The codec with the name.
+     */
+    public static PayloadCodec of(final String name) {
+
+        return name == null || name.isBlank() ? NONE : valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,371 @@
+package dev.codestijl.integrationdemo.common;
+
+import dev.codestijl.integrationdemo.metrics.MetricNames;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.util.Assert;
+
+/**
+ * Wraps a reader, such as a ClobJsonReader, and reads ahead of the step on a thread of its own. The items are put in
+ * a bounded buffer as they are read, so the time the reader spends fetching the CLOB and parsing it overlaps with the
+ * time the step spends processing and writing the items it has already been given. When the buffer is full, the
+ * thread waits for the step to take an item.
+ *
+ * <p>The reader it wraps is only ever called from one thread at a time: the step's thread before the first read()
+ * and after the step, and the read-ahead thread in between. It must expect beforeStep() to be called before read(),
+ * as the CLOB readers do.</p>
+ *
+ * <p>The read-ahead thread saves where the reader it wraps is after each item, and the position of the last item the
+ * step took is the one saved at each commit. A restarted step picks up after the items that were committed, not the
+ * ones that had only been read ahead.</p>
+ *
+ * <p>How full the buffer is shows which side holds the other up. A buffer that is mostly empty means the step is
+ * waiting on the reader; one that is mostly full means the reader is waiting on the step. Both are published to the
+ * MeterRegistry: the items in the buffer right now, the items in it at each read, and how long each side waited on
+ * the other.</p>
+ *
+ * @param <T> The type of object being read.
+ * @author darren
+ * @since 1.0.0
+ */
+// The reader holds the buffer, the thread that fills it, the meters, and the counts for the step. The ItemStream and
+// StepExecutionListener methods it passes on to the reader it wraps push it over the limit on methods.
+@SuppressWarnings({"PMD.TooManyMethods", "PMD.TooManyFields"})
+public class PrefetchingItemReader<T> implements ItemStreamReader<T>, StepExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrefetchingItemReader.class);
+
+    private static final long POLL_MILLIS = 100;
+
+    private static final String PRODUCER = "producer";
+    private static final String CONSUMER = "consumer";
+
+    private final ItemStreamReader<T> delegate;
+    private final TaskExecutor taskExecutor;
+    private final int capacity;
+    private final MeterRegistry meterRegistry;
+
+    private final BlockingQueue<Prefetched<T>> buffer;
+    private final AtomicBoolean stopped = new AtomicBoolean();
+
+    // Counted down when the read-ahead thread ends. There is a new one each time the thread is started.
+    private CountDownLatch producerDone = new CountDownLatch(0);
+    private boolean started;
+    private boolean finished;
+
+    // Where the reader it wraps was after the last item the step took, once the thread has started.
+    private ExecutionContext position = new ExecutionContext();
+
+    private Gauge bufferedGauge;
+    private DistributionSummary occupancy;
+    private Timer producerWaits;
+    private Timer consumerWaits;
+
+    private int itemsRead;
+    private long occupancyTotal;
+
+    // The waits of this run of the step, for the log. The thread's are only read once it has ended.
+    private int consumerWaitCount;
+    private long consumerWaitNanos;
+    private int producerWaitCount;
+    private long producerWaitNanos;
+
+    /**
+     * An item the read-ahead thread has read, with where the reader it wraps was after it. An item that is null is
+     * the end of the items, and one with an error is the error reading the next item.
+     *
+     * @param <T> The type of object being read.
+     * @author darren
+     * @since 1.0.0
+     */
+    private static final class Prefetched<T> {
+
+        private final T item;
+        private final ExecutionContext position;
+        private final Exception error;
+
+        private Prefetched(final T item, final ExecutionContext position, final Exception error) {
+
+            this.item = item;
+            this.position = position;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Constructs a new PrefetchingItemReader.
+     *
+     * @param delegate The reader to read ahead from. If it is a StepExecutionListener, the calls are passed on to it.
+     * @param taskExecutor The TaskExecutor to run the read-ahead thread on. It needs a thread free for each step
+     *                     that is running.
+     * @param capacity The number of items to read ahead of the step.
+     * @param meterRegistry The registry to publish how full the buffer is and how long each side waited to.
+     */
+    public PrefetchingItemReader(final ItemStreamReader<T> delegate, final TaskExecutor taskExecutor, final int capacity,
+                                 final MeterRegistry meterRegistry) {
+
+        Assert.notNull(delegate, "Delegate cannot be null.");
+        Assert.notNull(taskExecutor, "TaskExecutor cannot be null.");
+        Assert.isTrue(capacity > 0, "Capacity must be positive.");
+        Assert.notNull(meterRegistry, "Meter registry cannot be null.");
+
+        this.delegate = delegate;
+        this.taskExecutor = taskExecutor;
+        this.capacity = capacity;
+        this.meterRegistry = meterRegistry;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @Override
+    public T read() throws Exception {
+
+        if (this.finished) {
+            return null;
+        }
+
+        // The thread is started by the first read, once open() has had the chance to set where to start.
+        if (!this.started) {
+            this.startProducer();
+        }
+
+        final int buffered = this.buffer.size();
+        this.occupancy.record(buffered);
+        this.occupancyTotal += buffered;
+
+        Prefetched<T> next = this.buffer.poll();
+        if (Objects.isNull(next)) {
+            next = this.waitForItem();
+        }
+
+        if (Objects.nonNull(next.error)) {
+            this.finished = true;
+            throw next.error;
+        }
+
+        this.position = next.position;
+
+        if (Objects.isNull(next.item)) {
+            this.finished = true;
+            return null;
+        }
+
+        this.itemsRead++;
+        return next.item;
+    }
+
+    @Override
+    public void beforeStep(final StepExecution stepExecution) {
+
+        this.stopProducer();
+        this.started = false;
+        this.finished = false;
+        this.itemsRead = 0;
+        this.occupancyTotal = 0;
+        this.consumerWaitCount = 0;
+        this.consumerWaitNanos = 0;
+        this.producerWaitCount = 0;
+        this.producerWaitNanos = 0;
+        this.stopped.set(false);
+
+        final Tags tags = Tags.of(MetricNames.STEP_TAG, stepExecution.getStepName());
+        this.bufferedGauge = Gauge.builder(MetricNames.PREFETCH_BUFFERED, this.buffer, BlockingQueue::size)
+                .tags(tags)
+                .strongReference(true)
+                .register(this.meterRegistry);
+        this.occupancy = DistributionSummary.builder(MetricNames.PREFETCH_OCCUPANCY).tags(tags).register(this.meterRegistry);
+        this.producerWaits = waitTimer(this.meterRegistry, tags, PRODUCER);
+        this.consumerWaits = waitTimer(this.meterRegistry, tags, CONSUMER);
+
+        if (this.delegate instanceof StepExecutionListener) {
+            ((StepExecutionListener) this.delegate).beforeStep(stepExecution);
+        }
+    }
+
+    @Override
+    public ExitStatus afterStep(final StepExecution stepExecution) {
+
+        // The reader it wraps can't be closed while the thread is still reading from it.
+        this.stopProducer();
+
+        if (logger.isInfoEnabled()) {
+            logger.info(String.format("%,d items read ahead into a buffer of %,d, which held %.1f on average. The step waited "
+                            + "%,d times for %,d ms, and the reader waited %,d times for %,d ms.", this.itemsRead, this.capacity,
+                    this.itemsRead == 0 ? 0.0 : (double) this.occupancyTotal / this.itemsRead,
+                    this.consumerWaitCount, TimeUnit.NANOSECONDS.toMillis(this.consumerWaitNanos),
+                    this.producerWaitCount, TimeUnit.NANOSECONDS.toMillis(this.producerWaitNanos)));
+        }
+
+        // The gauge holds on to the buffer, so it only lasts as long as the step.
+        this.meterRegistry.remove(this.bufferedGauge);
+
+        return this.delegate instanceof StepExecutionListener
+                ? ((StepExecutionListener) this.delegate).afterStep(stepExecution)
+                : ExitStatus.COMPLETED;
+    }
+
+    @Override
+    public void open(final ExecutionContext executionContext) {
+
+        this.delegate.open(executionContext);
+    }
+
+    @Override
+    public void update(final ExecutionContext executionContext) {
+
+        // Until the thread starts, the reader it wraps is where the step is.
+        if (!this.started) {
+            this.delegate.update(executionContext);
+            return;
+        }
+
+        for (final Map.Entry<String, Object> entry : this.position.entrySet()) {
+            executionContext.put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public void close() {
+
+        this.stopProducer();
+        this.delegate.close();
+    }
+
+    private void startProducer() {
+
+        // The step may commit before it takes the first item.
+        this.position = this.snapshot();
+        this.started = true;
+
+        final CountDownLatch done = new CountDownLatch(1);
+        this.producerDone = done;
+        this.taskExecutor.execute(() -> this.produce(done));
+    }
+
+    // Reads the items until there are no more, the step stops it, or the reader fails. Runs on the read-ahead thread.
+    // Any error reading is handed to the step, which throws it as it would have been thrown on its own thread.
+    @SuppressWarnings({"PMD.AvoidCatchingGenericException", "PMD.AvoidInstantiatingObjectsInLoops"})
+    private void produce(final CountDownLatch done) {
+
+        try {
+            T item;
+            do {
+                item = this.delegate.read();
+            } while (this.put(new Prefetched<>(item, this.snapshot(), null)) && Objects.nonNull(item));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            this.putError(e);
+        } finally {
+            done.countDown();
+        }
+    }
+
+    // Waits for room in the buffer, unless the step stops the thread first. Returns if the item was put.
+    private boolean put(final Prefetched<T> prefetched) throws InterruptedException {
+
+        if (this.stopped.get()) {
+            return false;
+        }
+        if (this.buffer.offer(prefetched)) {
+            return true;
+        }
+
+        final long start = System.nanoTime();
+        try {
+            while (!this.stopped.get()) {
+                if (this.buffer.offer(prefetched, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            final long waited = System.nanoTime() - start;
+            this.producerWaits.record(waited, TimeUnit.NANOSECONDS);
+            this.producerWaitCount++;
+            this.producerWaitNanos += waited;
+        }
+    }
+
+    private void putError(final Exception error) {
+
+        try {
+            this.put(new Prefetched<>(null, null, error));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Waits for the thread to read the next item. If the thread has ended without handing over an item, the end, or an
+    // error, something outside the reader killed it.
+    private Prefetched<T> waitForItem() throws InterruptedException {
+
+        final long start = System.nanoTime();
+        try {
+            while (true) {
+                final Prefetched<T> next = this.buffer.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (Objects.nonNull(next)) {
+                    return next;
+                }
+                if (this.producerDone.getCount() == 0) {
+                    final Prefetched<T> last = this.buffer.poll();
+                    Assert.state(Objects.nonNull(last), "The read-ahead thread ended before the reader did.");
+                    return last;
+                }
+            }
+        } finally {
+            final long waited = System.nanoTime() - start;
+            this.consumerWaits.record(waited, TimeUnit.NANOSECONDS);
+            this.consumerWaitCount++;
+            this.consumerWaitNanos += waited;
+        }
+    }
+
+    // Stops the thread, if it is running, and waits for it to end. The items it read ahead are dropped.
+    private void stopProducer() {
+
+        this.stopped.set(true);
+
+        try {
+            this.producerDone.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        this.buffer.clear();
+    }
+
+    private ExecutionContext snapshot() {
+
+        final ExecutionContext executionContext = new ExecutionContext();
+        this.delegate.update(executionContext);
+        return executionContext;
+    }
+
+    private static Timer waitTimer(final MeterRegistry meterRegistry, final Tags tags, final String side) {
+
+        return Timer.builder(MetricNames.PREFETCH_WAIT)
+                .tags(tags)
+                .tag(MetricNames.SIDE_TAG, side)
+                .register(meterRegistry);
+    }
+}
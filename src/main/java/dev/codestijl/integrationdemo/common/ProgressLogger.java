@@ -1,5 +1,9 @@
 package dev.codestijl.integrationdemo.common;
 
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.micrometer.core.instrument.Counter;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.Accessors;
@@ -8,7 +12,11 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Utility class to keep track of the number of things processed and then periodically
- * log how much has been processed.
+ * log how much has been processed. The count can also be published to a Micrometer Counter,
+ * which, unlike the count, is never reset.
+ *
+ * <p>Any number of threads can count at once. Each multiple of logAt is logged once, even when
+ * a single increment passes it.</p>
  *
  * @author darren
  * @since 1.0.0
@@ -23,8 +31,9 @@ public final class ProgressLogger {
 
     private final Logger logger;
     private final int logAt;
+    private final Counter counter;
 
-    private int count;
+    private final AtomicLong count = new AtomicLong();
 
     /**
      * Builder for the ProcessLogger.
@@ -38,6 +47,7 @@ public final class ProgressLogger {
     public static final class Builder {
         private Logger logger;
         private int logAt;
+        private Counter counter;
 
         private Builder() {
             this.logAt = DEFAULT_LOG_AT;
@@ -50,13 +60,14 @@ public final class ProgressLogger {
          * @return A new ProgressLogger.
          */
         public ProgressLogger build() {
-            return new ProgressLogger(this.logger, this.logAt);
+            return new ProgressLogger(this.logger, this.logAt, this.counter);
         }
     }
 
-    private ProgressLogger(final Logger logger, final int logAt) {
+    private ProgressLogger(final Logger logger, final int logAt, final Counter counter) {
         this.logger = logger;
         this.logAt = logAt;
+        this.counter = counter;
     }
 
     /**
@@ -72,7 +83,7 @@ public final class ProgressLogger {
      * Resets the number of things processed.
      */
     public void reset() {
-        this.count = 0;
+        this.count.set(0);
     }
 
     /**
@@ -89,10 +100,14 @@ public final class ProgressLogger {
      */
     public void incrementCount(final int toIncrement) {
 
-        this.count += toIncrement;
+        final long after = this.count.addAndGet(toIncrement);
+
+        if (Objects.nonNull(this.counter)) {
+            this.counter.increment(toIncrement);
+        }
 
-        if (this.count % this.logAt == 0) {
-            this.log();
+        if (after / this.logAt != (after - toIncrement) / this.logAt) {
+            this.log(after);
         }
     }
 
@@ -100,6 +115,10 @@ public final class ProgressLogger {
      * Writes the number of things processed to the log.
      */
     public void log() {
-        logger.info(String.format("%,d rows processed.", this.count));
+        this.log(this.count.get());
+    }
+
+    private void log(final long processed) {
+        logger.info(String.format("%,d rows processed.", processed));
     }
 }
@@ -10,7 +10,9 @@ import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -30,6 +32,17 @@ public class AlbumDao implements Dao<Album> {
             "(ALBUM_ID, GTIN_14, ALBUM_NAME, ARTIST_NAME, BATCH_ID, CREATE_TIME, STATUS_CD, LAST_UPDATE_TIME) " +
             "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
 
+    // The same columns, in the same order, as INSERT_SQL so the insert setter can be used for multi-row inserts.
+    private static final List<String> INSERT_COLUMNS = List.of("ALBUM_ID", "GTIN_14", "ALBUM_NAME", "ARTIST_NAME", "BATCH_ID",
+            "CREATE_TIME", "STATUS_CD", "LAST_UPDATE_TIME");
+
+    // A bulk load sets the time columns to the time of the load, so the DB works out the time zone.
+    private static final List<String> BULK_LOAD_COLUMNS = List.of("ALBUM_ID", "GTIN_14", "ALBUM_NAME", "ARTIST_NAME", "BATCH_ID", "STATUS_CD");
+    private static final List<String> BULK_LOAD_TIME_COLUMNS = List.of("CREATE_TIME", "LAST_UPDATE_TIME");
+    private static final String ALBUM_ID_COLUMN = "ALBUM_ID";
+    private static final String BATCH_ID_COLUMN = "BATCH_ID";
+    private static final List<String> KEY_COLUMNS = List.of(ALBUM_ID_COLUMN, BATCH_ID_COLUMN);
+
     private static final String UPDATE_SQL = "UPDATE STAGE.ALBUM " +
             "SET STATUS_CD = ?, LAST_UPDATE_TIME = ? " +
             "WHERE ALBUM_ID = ?";
@@ -40,22 +53,10 @@ public class AlbumDao implements Dao<Album> {
     public static final String SELECT_SQL = "SELECT ALBUM_ID, GTIN_14, ALBUM_NAME, ARTIST_NAME, STATUS_CD, BATCH_ID, CREATE_TIME, LAST_UPDATE_TIME " +
             "FROM STAGE.ALBUM";
 
-    /**
-     * RowMapper that aligns with the SELECT_SQL defined for this DAO.
-     */
-    public static final RowMapper<Album> ROW_MAPPER = (rs, rowNum) ->
-        new Album().setAlbumId(rs.getString("ALBUM_ID"))
-                .setGtin14(rs.getString("GTIN_14"))
-                .setAlbumName(rs.getString("ALBUM_NAME"))
-                .setArtist(rs.getString("ARTIST_NAME"))
-                .setBatchId(rs.getString("BATCH_ID"))
-                .setStatus(Status.of(rs.getString("STATUS_CD")))
-                .setCreateTime(rs.getTimestamp("CREATE_TIME").toInstant())
-                .setLastUpdateTime(rs.getTimestamp("LAST_UPDATE_TIME").toInstant());
-
-    private static final SingleResultReader<Album> SINGLE_RESULT_READER = new SingleResultReader<>(ROW_MAPPER);
-
     private final JdbcTemplate jdbcTemplate;
+    private final InsertMode insertMode;
+    private final MultiRowInsert<Album> multiRowInsert;
+    private final BulkLoad<Album> bulkLoad;
 
     /**
      * BatchPreparedStatementSetter to insert rows in the ALBUM table.
@@ -65,23 +66,17 @@ public class AlbumDao implements Dao<Album> {
      */
     private static final class AlbumInsert extends BaseBatchPreparedStatementSetter<Album> {
 
-        private AlbumInsert(final Collection<? extends Album> data) {
+        private final KeyMode keyMode;
+
+        private AlbumInsert(final Collection<? extends Album> data, final KeyMode keyMode) {
             super(data);
+            this.keyMode = keyMode;
         }
 
         @Override
         protected void doSetValues(final PreparedStatement preparedStatement, final Album value) throws SQLException {
 
-            final Instant now = Instant.now();
-
-            preparedStatement.setString(1, value.getAlbumId());
-            preparedStatement.setString(2, value.getGtin14());
-            preparedStatement.setString(3, value.getAlbumName());
-            preparedStatement.setString(4, value.getArtist());
-            preparedStatement.setString(5, value.getBatchId());
-            preparedStatement.setTimestamp(6, Timestamp.from(now));
-            preparedStatement.setString(7, value.getStatus().getId());
-            preparedStatement.setTimestamp(8, Timestamp.from(now));
+            setInsertValues(this.keyMode, preparedStatement, 1, value);
         }
     }
 
@@ -93,8 +88,11 @@ public class AlbumDao implements Dao<Album> {
      */
     private static final class AlbumUpdate extends BaseBatchPreparedStatementSetter<Album> {
 
-        private AlbumUpdate(final Collection<? extends Album> data) {
+        private final KeyMode keyMode;
+
+        private AlbumUpdate(final Collection<? extends Album> data, final KeyMode keyMode) {
             super(data);
+            this.keyMode = keyMode;
         }
 
         @Override
@@ -102,7 +100,7 @@ public class AlbumDao implements Dao<Album> {
 
             preparedStatement.setString(1, value.getStatus().getId());
             preparedStatement.setTimestamp(2, Timestamp.from(Instant.now()));
-            preparedStatement.setString(3, value.getAlbumId());
+            this.keyMode.setId(preparedStatement, 3, value.getAlbumId());
         }
     }
 
@@ -113,14 +111,63 @@ public class AlbumDao implements Dao<Album> {
      */
     public AlbumDao(final JdbcTemplate jdbcTemplate) {
 
+        this(jdbcTemplate, InsertMode.BATCH, 1, INSERT_COLUMNS.size());
+    }
+
+    /**
+     * Constructs an AlbumDao that inserts in a specific way.
+     *
+     * @param jdbcTemplate The JdbcTemplate to use to run queries.
+     * @param insertMode How to send the rows of an insert to the DB.
+     * @param rowsPerStatement The most rows to put in one statement when inserting with InsertMode.MULTI_ROW.
+     * @param maxParameters The most bind variables to put in one statement when inserting with InsertMode.MULTI_ROW.
+     */
+    public AlbumDao(final JdbcTemplate jdbcTemplate, final InsertMode insertMode, final int rowsPerStatement, final int maxParameters) {
+
         Assert.notNull(jdbcTemplate, "JdbcTemplate cannot be null.");
+        Assert.notNull(insertMode, "Insert mode cannot be null.");
+
         this.jdbcTemplate = jdbcTemplate;
+        this.insertMode = insertMode;
+        this.multiRowInsert = new MultiRowInsert<>(jdbcTemplate, "STAGE.ALBUM", INSERT_COLUMNS, this::setMultiRowValues,
+                rowsPerStatement, maxParameters);
+        this.bulkLoad = new BulkLoad<>(jdbcTemplate, "STAGE.ALBUM", BULK_LOAD_COLUMNS, KEY_COLUMNS, BULK_LOAD_TIME_COLUMNS,
+                this::bulkLoadValues);
+    }
+
+    /**
+     * Returns a RowMapper that aligns with the SELECT_SQL defined for this DAO.
+     *
+     * @param keyMode How the IDs are stored in the DB.
+     * @return The RowMapper.
+     */
+    public static RowMapper<Album> rowMapper(final KeyMode keyMode) {
+
+        Assert.notNull(keyMode, "Key mode cannot be null.");
+
+        return (rs, rowNum) -> new Album().setAlbumId(keyMode.getId(rs, ALBUM_ID_COLUMN))
+                .setGtin14(rs.getString("GTIN_14"))
+                .setAlbumName(rs.getString("ALBUM_NAME"))
+                .setArtist(rs.getString("ARTIST_NAME"))
+                .setBatchId(keyMode.getId(rs, BATCH_ID_COLUMN))
+                .setStatus(Status.of(rs.getString("STATUS_CD")))
+                .setCreateTime(rs.getTimestamp("CREATE_TIME").toInstant())
+                .setLastUpdateTime(rs.getTimestamp("LAST_UPDATE_TIME").toInstant());
     }
 
     @Override
     public int insert(final Collection<? extends Album> toInsert) {
 
-        final int[] rowsInserted = this.jdbcTemplate.batchUpdate(INSERT_SQL, new AlbumInsert(toInsert));
+        if (this.insertMode == InsertMode.MULTI_ROW && this.multiRowInsert.isSupported()) {
+            return this.multiRowInsert.insert(toInsert);
+        }
+
+        if (this.insertMode == InsertMode.BULK_LOAD && this.bulkLoad.isSupported()) {
+            return this.bulkLoad.insert(toInsert);
+        }
+
+        final int[] rowsInserted = this.jdbcTemplate.batchUpdate(INSERT_SQL,
+                new AlbumInsert(toInsert, KeyMode.of(this.jdbcTemplate.getDataSource())));
 
         return Arrays.stream(rowsInserted).sum();
     }
@@ -128,15 +175,45 @@ public class AlbumDao implements Dao<Album> {
     @Override
     public int update(final Collection<? extends Album> toUpdate) {
 
-        final int[] rowsUpdated = this.jdbcTemplate.batchUpdate(UPDATE_SQL, new AlbumUpdate(toUpdate));
+        final int[] rowsUpdated = this.jdbcTemplate.batchUpdate(UPDATE_SQL,
+                new AlbumUpdate(toUpdate, KeyMode.of(this.jdbcTemplate.getDataSource())));
 
         return Arrays.stream(rowsUpdated).sum();
     }
 
     @Override
-    public Optional<Album> findById(final String albumId) {
+    public Optional<Album> findById(final UUID albumId) {
 
+        final KeyMode mode = KeyMode.of(this.jdbcTemplate.getDataSource());
         final String sql = SELECT_SQL + " WHERE ALBUM_ID = ?";
-        return Optional.ofNullable(this.jdbcTemplate.query(sql, this.argsAsArray(albumId), SINGLE_RESULT_READER));
+        return Optional.ofNullable(this.jdbcTemplate.query(sql, this.argsAsArray(mode.parameter(albumId)),
+                new SingleResultReader<>(rowMapper(mode))));
+    }
+
+    private void setMultiRowValues(final PreparedStatement preparedStatement, final int firstIndex, final Album value) throws SQLException {
+
+        setInsertValues(KeyMode.of(this.jdbcTemplate.getDataSource()), preparedStatement, firstIndex, value);
+    }
+
+    private static void setInsertValues(final KeyMode keyMode, final PreparedStatement preparedStatement, final int firstIndex,
+                                        final Album value) throws SQLException {
+
+        final Instant now = Instant.now();
+
+        keyMode.setId(preparedStatement, firstIndex, value.getAlbumId());
+        preparedStatement.setString(firstIndex + 1, value.getGtin14());
+        preparedStatement.setString(firstIndex + 2, value.getAlbumName());
+        preparedStatement.setString(firstIndex + 3, value.getArtist());
+        keyMode.setId(preparedStatement, firstIndex + 4, value.getBatchId());
+        preparedStatement.setTimestamp(firstIndex + 5, Timestamp.from(now));
+        preparedStatement.setString(firstIndex + 6, value.getStatus().getId());
+        preparedStatement.setTimestamp(firstIndex + 7, Timestamp.from(now));
+    }
+
+    private Object[] bulkLoadValues(final Album value) {
+
+        final KeyMode mode = KeyMode.of(this.jdbcTemplate.getDataSource());
+        return new Object[] {mode.csvValue(value.getAlbumId()), value.getGtin14(), value.getAlbumName(), value.getArtist(),
+                mode.csvValue(value.getBatchId()), value.getStatus().getId()};
     }
 }
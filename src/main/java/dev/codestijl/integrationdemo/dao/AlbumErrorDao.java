@@ -10,6 +10,7 @@ import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Optional;
+import java.util.UUID;
 
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -31,14 +32,6 @@ public class AlbumErrorDao implements Dao<AlbumError> {
     public static final String SELECT_SQL = "SELECT ERROR_ID, ALBUM_ID, BATCH_ID, CREATE_TIME, ERROR_TEXT " +
             "FROM STAGE.ALBUM_ERROR ";
 
-    private static final RowMapper<AlbumError> ROW_MAPPER = (rs, rowNum) ->
-            new AlbumError().setErrorId(rs.getString("ERROR_ID"))
-                    .setAlbumId(rs.getString("ALBUM_ID"))
-                    .setBatchId(rs.getString("BATCH_ID"))
-                    .setErrorText(rs.getString("ERROR_TEXT"))
-                    .setCreateTime(rs.getTimestamp("CREATE_TIME").toInstant());
-    private static final SingleResultReader<AlbumError> SINGLE_RESULT_READER = new SingleResultReader<>(ROW_MAPPER);
-
     private final JdbcTemplate jdbcTemplate;
 
     /**
@@ -49,16 +42,19 @@ public class AlbumErrorDao implements Dao<AlbumError> {
      */
     private static final class ErrorInsert extends BaseBatchPreparedStatementSetter<AlbumError> {
 
-        private ErrorInsert(final Collection<? extends AlbumError> messages) {
+        private final KeyMode keyMode;
+
+        private ErrorInsert(final Collection<? extends AlbumError> messages, final KeyMode keyMode) {
             super(messages);
+            this.keyMode = keyMode;
         }
 
         @Override
         protected void doSetValues(final PreparedStatement preparedStatement, final AlbumError record) throws SQLException {
 
-            preparedStatement.setString(1, record.getErrorId());
-            preparedStatement.setString(2, record.getAlbumId());
-            preparedStatement.setString(3, record.getBatchId());
+            this.keyMode.setId(preparedStatement, 1, record.getErrorId());
+            this.keyMode.setId(preparedStatement, 2, record.getAlbumId());
+            this.keyMode.setId(preparedStatement, 3, record.getBatchId());
             preparedStatement.setTimestamp(4, Timestamp.from(Instant.now()));
             preparedStatement.setString(5, record.getErrorText());
         }
@@ -78,15 +74,27 @@ public class AlbumErrorDao implements Dao<AlbumError> {
     @Override
     public int insert(final Collection<? extends AlbumError> toInsert) {
 
-        final int[] rowsInserted = this.jdbcTemplate.batchUpdate(INSERT_SQL, new ErrorInsert(toInsert));
+        final int[] rowsInserted = this.jdbcTemplate.batchUpdate(INSERT_SQL,
+                new ErrorInsert(toInsert, KeyMode.of(this.jdbcTemplate.getDataSource())));
         return Arrays.stream(rowsInserted).sum();
     }
 
     @Override
-    public Optional<AlbumError> findById(final String id) {
+    public Optional<AlbumError> findById(final UUID id) {
 
+        final KeyMode mode = KeyMode.of(this.jdbcTemplate.getDataSource());
         final String sql = SELECT_SQL + "WHERE ERROR_ID = ?";
-        return Optional.ofNullable(this.jdbcTemplate.query(sql, this.argsAsArray(id), SINGLE_RESULT_READER));
+        return Optional.ofNullable(this.jdbcTemplate.query(sql, this.argsAsArray(mode.parameter(id)),
+                new SingleResultReader<>(rowMapper(mode))));
+    }
+
+    private static RowMapper<AlbumError> rowMapper(final KeyMode keyMode) {
+
+        return (rs, rowNum) -> new AlbumError().setErrorId(keyMode.getId(rs, "ERROR_ID"))
+                .setAlbumId(keyMode.getId(rs, "ALBUM_ID"))
+                .setBatchId(keyMode.getId(rs, "BATCH_ID"))
+                .setErrorText(rs.getString("ERROR_TEXT"))
+                .setCreateTime(rs.getTimestamp("CREATE_TIME").toInstant());
     }
 
 }
@@ -0,0 +1,249 @@
+package dev.codestijl.integrationdemo.dao;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+import com.mysql.cj.jdbc.JdbcStatement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.JdbcUpdateAffectedIncorrectNumberOfRowsException;
+import org.springframework.jdbc.SQLWarningException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlProvider;
+import org.springframework.jdbc.core.StatementCallback;
+import org.springframework.util.Assert;
+
+/**
+ * Inserts rows with the bulk loader of the database. The rows are spooled as CSV and loaded with one statement. On
+ * MySQL the CSV is spooled in memory and streamed to LOAD DATA LOCAL INFILE through the driver, so nothing is written
+ * to disk. That needs allowLoadLocalInfile=true on the connection and local_infile on the server. H2 can only read
+ * CSV from a file, so the CSV is spooled to a temporary file and read with CSVREAD. Its name is part of the SQL, so
+ * each BulkLoad keeps one file, emptied after every load, and loads through it one at a time.
+ *
+ * <p>On a schema keyed with BINARY(16), the key columns are spooled as hex and turned back into bytes by the load.</p>
+ *
+ * <p>LOAD DATA LOCAL implies IGNORE. Errors like duplicate keys become warnings and skip the row, so the rows loaded
+ * are checked against the rows spooled, and a value that doesn't fit its column is truncated or coerced with only a
+ * warning, so a load that raises any warning fails too. H2 fails the statement itself on a value that doesn't fit.
+ * On any DB this application doesn't know, {@link #isSupported()} is false and the DAO should fall back to a batch
+ * of single-row inserts.</p>
+ *
+ * @param <T> The type of object to insert.
+ * @author darren
+ * @since 1.0.0
+ */
+/* default */ class BulkLoad<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkLoad.class);
+
+    // The name a streamed load gives the file it never opens.
+    private static final String STREAM_FILE_NAME = "stream";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String table;
+    private final List<String> columns;
+    private final List<String> keyColumns;
+    private final List<String> timeColumns;
+    private final Function<T, Object[]> rowValues;
+
+    private final Object fileLock = new Object();
+
+    // Worked out the first time it is needed so DAOs that never insert don't have to ask the DB.
+    private Boolean supported;
+    private SqlDialect sqlDialect;
+    private Path file;
+    private String sql;
+
+    /**
+     * Runs a bulk load statement with the CSV set on it as a stream, the way the MySQL driver takes it. A load that
+     * raises any warning fails with a SQLWarningException.
+     *
+     * @author darren
+     * @since 1.0.0
+     */
+    /* default */ static final class StreamLoad implements StatementCallback<Integer>, SqlProvider {
+
+        private final String sql;
+        private final byte[] csv;
+
+        // The CSV is spooled for this load alone, so it isn't copied.
+        @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+        /* default */ StreamLoad(final String sql, final byte[] csv) {
+
+            this.sql = sql;
+            this.csv = csv;
+        }
+
+        @Override
+        public Integer doInStatement(final Statement statement) throws SQLException {
+
+            statement.unwrap(JdbcStatement.class).setLocalInfileInputStream(new ByteArrayInputStream(this.csv));
+            final int loaded = statement.executeUpdate(this.sql);
+
+            // The driver runs SHOW WARNINGS for these when the server says there are any.
+            final SQLWarning warning = statement.getWarnings();
+            if (Objects.nonNull(warning)) {
+                throw new SQLWarningException(String.format("The bulk load of %,d rows raised warnings, the first of them: %s",
+                        loaded, warning.getMessage()), warning);
+            }
+
+            return loaded;
+        }
+
+        @Override
+        public String getSql() {
+
+            return this.sql;
+        }
+    }
+
+    /**
+     * Constructs a new BulkLoad.
+     *
+     * @param jdbcTemplate The JdbcTemplate to use to run the loads.
+     * @param table The table to load.
+     * @param columns The columns to load, in the order rowValues returns them.
+     * @param keyColumns The columns that hold IDs. rowValues must return these as {@link KeyMode#csvValue}.
+     * @param timeColumns The columns to set to the time of the load.
+     * @param rowValues Returns the values of the columns of a row.
+     */
+    /* default */ BulkLoad(final JdbcTemplate jdbcTemplate, final String table, final List<String> columns,
+                           final List<String> keyColumns, final List<String> timeColumns, final Function<T, Object[]> rowValues) {
+
+        Assert.notNull(jdbcTemplate, "JdbcTemplate cannot be null.");
+        Assert.hasText(table, "Table cannot be empty.");
+        Assert.notEmpty(columns, "Columns cannot be empty.");
+        Assert.notNull(keyColumns, "Key columns cannot be null.");
+        Assert.notNull(timeColumns, "Time columns cannot be null.");
+        Assert.notNull(rowValues, "Row values cannot be null.");
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.table = table;
+        this.columns = List.copyOf(columns);
+        this.keyColumns = List.copyOf(keyColumns);
+        this.timeColumns = List.copyOf(timeColumns);
+        this.rowValues = rowValues;
+    }
+
+    /**
+     * Returns whether the DB has a bulk loader this class knows how to use. A warning is logged the first time this
+     * is false.
+     *
+     * @return True if the DB has a bulk loader.
+     */
+    public boolean isSupported() {
+
+        if (Objects.isNull(this.supported)) {
+            try {
+                Assert.notNull(this.jdbcTemplate.getDataSource(), "JdbcTemplate has no DataSource.");
+                this.sqlDialect = SqlDialect.of(this.jdbcTemplate.getDataSource());
+                final List<String> hexColumns = KeyMode.of(this.jdbcTemplate.getDataSource()) == KeyMode.BINARY ? this.keyColumns : List.of();
+                this.sql = this.sqlDialect.bulkLoadSql(this.table, this.columns, hexColumns, this.timeColumns, this.fileName());
+                this.supported = Boolean.TRUE;
+            } catch (IllegalStateException e) {
+                logger.warn(String.format("Bulk loads into %s are not supported here, so single-row inserts will be batched instead.",
+                        this.table), e);
+                this.supported = Boolean.FALSE;
+            }
+        }
+
+        return this.supported;
+    }
+
+    /**
+     * Inserts rows. This must only be called when {@link #isSupported()} is true.
+     *
+     * @param toInsert The objects to insert.
+     * @return The number of rows inserted.
+     * @throws JdbcUpdateAffectedIncorrectNumberOfRowsException If the DB loaded fewer or more rows than it was sent.
+     * @throws SQLWarningException If a LOAD DATA LOCAL raised any warnings, such as a value that was truncated.
+     */
+    public int insert(final Collection<? extends T> toInsert) {
+
+        Assert.notNull(toInsert, "Data cannot be null.");
+        Assert.state(this.isSupported(), "Bulk loads are not supported.");
+
+        if (toInsert.isEmpty()) {
+            return 0;
+        }
+
+        final List<T> rows = new ArrayList<>(toInsert);
+        final int loaded;
+
+        try {
+            loaded = this.sqlDialect.isBulkLoadFromFile() ? this.loadFromFile(rows) : this.loadFromStream(rows);
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Unable to spool rows for %s.", this.table), e);
+        }
+
+        if (loaded != rows.size()) {
+            throw new JdbcUpdateAffectedIncorrectNumberOfRowsException(this.sql, rows.size(), loaded);
+        }
+
+        return loaded;
+    }
+
+    private int loadFromStream(final List<T> rows) throws IOException {
+
+        final ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(csv, StandardCharsets.UTF_8)) {
+            this.spool(writer, rows);
+        }
+
+        final Integer loaded = this.jdbcTemplate.execute(new StreamLoad(this.sql, csv.toByteArray()));
+        return loaded == null ? 0 : loaded;
+    }
+
+    private int loadFromFile(final List<T> rows) throws IOException {
+
+        synchronized (this.fileLock) {
+            try {
+                try (Writer writer = Files.newBufferedWriter(this.file, StandardCharsets.UTF_8)) {
+                    this.spool(writer, rows);
+                }
+                return this.jdbcTemplate.update(this.sql);
+            } finally {
+                // Don't leave the rows lying around on disk.
+                Files.write(this.file, new byte[0]);
+            }
+        }
+    }
+
+    private String fileName() {
+
+        if (!this.sqlDialect.isBulkLoadFromFile()) {
+            return STREAM_FILE_NAME;
+        }
+
+        try {
+            this.file = Files.createTempFile("bulk-load-", ".csv");
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Unable to create a file to spool rows for %s.", this.table), e);
+        }
+
+        this.file.toFile().deleteOnExit();
+        return this.file.toAbsolutePath().toString();
+    }
+
+    private void spool(final Writer writer, final List<T> rows) throws IOException {
+
+        for (final T row : rows) {
+            CsvRows.write(writer, this.rowValues.apply(row));
+        }
+    }
+}
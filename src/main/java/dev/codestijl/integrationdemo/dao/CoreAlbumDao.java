@@ -4,14 +4,25 @@ import dev.codestijl.integrationdemo.common.SingleResultReader;
 import dev.codestijl.integrationdemo.entity.CoreAlbum;
 
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.util.Assert;
 
@@ -21,6 +32,9 @@ import org.springframework.util.Assert;
  * @author darren
  * @since 1.0.0
  */
+// Each partitioned read sits beside the whole-table one it narrows, and there
+// is no reason to break this up.
+@SuppressWarnings("PMD.TooManyMethods")
 public class CoreAlbumDao implements Dao<CoreAlbum> {
 
     private static final String INSERT_SQL = "INSERT INTO CORE.CT_ALBUM " +
@@ -33,17 +47,30 @@ public class CoreAlbumDao implements Dao<CoreAlbum> {
     private static final String SELECT_SQL = "SELECT ALBUM_ID, GTIN_14, ALBUM_NAME, ARTIST_NAME, SOURCE_ALBUM_ID " +
             "FROM CORE.CT_ALBUM";
 
-    private static final RowMapper<CoreAlbum> ROW_MAPPER = (rs, rowNum) ->
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM CORE.CT_ALBUM";
 
-        new CoreAlbum().setAlbumId(rs.getString("ALBUM_ID"))
-                .setAlbumName(rs.getString("ALBUM_NAME"))
-                .setArtistName(rs.getString("ARTIST_NAME"))
-                .setGtin14(rs.getString("GTIN_14"))
-                .setSourceAlbumId(rs.getString("SOURCE_ALBUM_ID"));
+    private static final String SELECT_GTIN_14_SQL = "SELECT GTIN_14 FROM CORE.CT_ALBUM";
+
+    private static final int WHOLE_TABLE = 1;
+
+    // How many GTIN-14s to pull from the DB at a time when reading them all.
+    private static final int GTIN_14_FETCH_SIZE = 1_000;
+
+    // Keeps the IN list of a single query to a size every database will accept.
+    private static final int MAX_IN_LIST_SIZE = 1_000;
+
+    private static final String TABLE = "CORE.CT_ALBUM";
 
-    private static final SingleResultReader<CoreAlbum> SINGLE_RESULT_READER = new SingleResultReader<>(ROW_MAPPER);
+    private static final String KEY_COLUMN = "GTIN_14";
+
+    // An update keeps the existing ALBUM_ID and CREATE_TIME.
+    private static final List<String> UPSERT_UPDATE_COLUMNS = List.of("ALBUM_NAME", "ARTIST_NAME", "LAST_UPDATE_TIME", "SOURCE_ALBUM_ID");
 
     private final JdbcTemplate jdbcTemplate;
+    private final RowMapper<CoreAlbum> rowMapper = (rs, rowNum) -> this.mapRow(rs);
+
+    // The dialect given to the constructor, if there was one. Otherwise it's the one of the DB.
+    private SqlDialect sqlDialect;
 
     /**
      * BatchPreparedStatementSetter to insert rows in the CT_ALBUM table.
@@ -53,8 +80,11 @@ public class CoreAlbumDao implements Dao<CoreAlbum> {
      */
     private static final class CoreAlbumInsert extends BaseBatchPreparedStatementSetter<CoreAlbum> {
 
-        private CoreAlbumInsert(final Collection<? extends CoreAlbum> data) {
+        private final KeyMode keyMode;
+
+        private CoreAlbumInsert(final Collection<? extends CoreAlbum> data, final KeyMode keyMode) {
             super(data);
+            this.keyMode = keyMode;
         }
 
         @Override
@@ -62,13 +92,13 @@ public class CoreAlbumDao implements Dao<CoreAlbum> {
 
             final Instant now = Instant.now();
 
-            preparedStatement.setString(1, value.getAlbumId());
+            this.keyMode.setId(preparedStatement, 1, value.getAlbumId());
             preparedStatement.setString(2, value.getGtin14());
             preparedStatement.setString(3, value.getAlbumName());
             preparedStatement.setString(4, value.getArtistName());
             preparedStatement.setTimestamp(5, Timestamp.from(now));
             preparedStatement.setTimestamp(6, Timestamp.from(now));
-            preparedStatement.setString(7, value.getSourceAlbumId());
+            this.keyMode.setId(preparedStatement, 7, value.getSourceAlbumId());
         }
     }
 
@@ -80,8 +110,11 @@ public class CoreAlbumDao implements Dao<CoreAlbum> {
      */
     private static final class CoreAlbumUpdate extends BaseBatchPreparedStatementSetter<CoreAlbum> {
 
-        private CoreAlbumUpdate(final Collection<? extends CoreAlbum> data) {
+        private final KeyMode keyMode;
+
+        private CoreAlbumUpdate(final Collection<? extends CoreAlbum> data, final KeyMode keyMode) {
             super(data);
+            this.keyMode = keyMode;
         }
 
         @Override
@@ -93,8 +126,8 @@ public class CoreAlbumDao implements Dao<CoreAlbum> {
             preparedStatement.setString(2, value.getAlbumName());
             preparedStatement.setString(3, value.getArtistName());
             preparedStatement.setTimestamp(4, Timestamp.from(now));
-            preparedStatement.setString(5, value.getSourceAlbumId());
-            preparedStatement.setString(6, value.getAlbumId());
+            this.keyMode.setId(preparedStatement, 5, value.getSourceAlbumId());
+            this.keyMode.setId(preparedStatement, 6, value.getAlbumId());
         }
     }
 
@@ -109,6 +142,20 @@ public class CoreAlbumDao implements Dao<CoreAlbum> {
         this.jdbcTemplate = jdbcTemplate;
     }
 
+    /**
+     * Constructs a new CoreAlbumDao for a specific database.
+     *
+     * @param jdbcTemplate The JdbcTemplate to use to run queries.
+     * @param sqlDialect The dialect of the database the JdbcTemplate runs against.
+     */
+    public CoreAlbumDao(final JdbcTemplate jdbcTemplate, final SqlDialect sqlDialect) {
+
+        this(jdbcTemplate);
+
+        Assert.notNull(sqlDialect, "SqlDialect cannot be null.");
+        this.sqlDialect = sqlDialect;
+    }
+
     /**
      * Finds a CoreAlbum in the CT_ALBUM table with a specific GTIN-14.
      *
@@ -119,20 +166,224 @@ public class CoreAlbumDao implements Dao<CoreAlbum> {
 
         return Optional.ofNullable(this.jdbcTemplate.query(SELECT_SQL + " WHERE GTIN_14 = ?",
                 this.argsAsArray(gtin14),
-                SINGLE_RESULT_READER));
+                new SingleResultReader<>(this.rowMapper)));
+    }
+
+    /**
+     * Finds all the CoreAlbums in the CT_ALBUM table with any of a collection of GTIN-14s. The GTIN-14s are looked
+     * up with as few queries as possible, so this should be preferred over calling findByGtin14 in a loop.
+     *
+     * @param gtin14s The GTIN-14s to look for in the CT_ALBUM table.
+     * @return The CoreAlbums that were found keyed by their GTIN-14. GTIN-14s that were not found will not be in the map.
+     */
+    // The map is local to this method, so there is no concurrent access to it.
+    @SuppressWarnings("PMD.UseConcurrentHashMap")
+    public Map<String, CoreAlbum> findByGtin14s(final Collection<String> gtin14s) {
+
+        Assert.notNull(gtin14s, "GTIN-14s cannot be null.");
+
+        if (gtin14s.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        final List<String> toFind = new ArrayList<>(gtin14s);
+        final Map<String, CoreAlbum> found = new HashMap<>();
+
+        // Break the list up so that no single query has too many bind variables.
+        for (int start = 0; start < toFind.size(); start += MAX_IN_LIST_SIZE) {
+
+            final List<String> slice = toFind.subList(start, Math.min(start + MAX_IN_LIST_SIZE, toFind.size()));
+            final String sql = SELECT_SQL + " WHERE GTIN_14 IN (" + String.join(", ", Collections.nCopies(slice.size(), "?")) + ")";
+
+            this.jdbcTemplate.query(sql, slice.toArray(), this.rowMapper)
+                    .forEach(coreAlbum -> found.put(coreAlbum.getGtin14(), coreAlbum));
+        }
+
+        return found;
+    }
+
+    /**
+     * Counts the rows in the CT_ALBUM table with any of a collection of GTIN-14s.
+     *
+     * @param gtin14s The GTIN-14s to look for in the CT_ALBUM table. These should not repeat.
+     * @return The number of rows with one of the GTIN-14s.
+     */
+    public int countByGtin14s(final Collection<String> gtin14s) {
+
+        Assert.notNull(gtin14s, "GTIN-14s cannot be null.");
+
+        final List<String> toCount = new ArrayList<>(gtin14s);
+        int count = 0;
+
+        // Break the list up so that no single query has too many bind variables.
+        for (int start = 0; start < toCount.size(); start += MAX_IN_LIST_SIZE) {
+
+            final List<String> slice = toCount.subList(start, Math.min(start + MAX_IN_LIST_SIZE, toCount.size()));
+            final String sql = COUNT_SQL + " WHERE GTIN_14 IN (" + String.join(", ", Collections.nCopies(slice.size(), "?")) + ")";
+
+            final Integer sliceCount = this.jdbcTemplate.queryForObject(sql, slice.toArray(), Integer.class);
+            count += sliceCount == null ? 0 : sliceCount;
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the number of rows in the CT_ALBUM table.
+     *
+     * @return The number of rows in the CT_ALBUM table.
+     */
+    public int count() {
+
+        return this.count(0, WHOLE_TABLE);
+    }
+
+    /**
+     * Returns the number of rows in the CT_ALBUM table whose GTIN-14 hashes to a partition. The GTIN-14s are hashed
+     * the same way the AlbumReader splits the albums of a batch.
+     *
+     * @param partition The index of the partition, from 0 to one less than the number of partitions.
+     * @param partitions The number of partitions. Pass 1 to count the whole table.
+     * @return The number of rows in the partition.
+     */
+    public int count(final int partition, final int partitions) {
+
+        final Integer count = this.jdbcTemplate.queryForObject(COUNT_SQL + this.partitionSql(partition, partitions),
+                Integer.class, partitionArgs(partition, partitions));
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Reads every GTIN-14 in the CT_ALBUM table and passes each to an action. The GTIN-14s are streamed from the
+     * DB rather than read into a list, so this can be used on a table of any size.
+     *
+     * @param action The action to pass each GTIN-14 to.
+     */
+    public void forEachGtin14(final Consumer<String> action) {
+
+        this.forEachGtin14(0, WHOLE_TABLE, action);
+    }
+
+    /**
+     * Reads every GTIN-14 in the CT_ALBUM table that hashes to a partition and passes each to an action. The
+     * GTIN-14s are hashed the same way the AlbumReader splits the albums of a batch.
+     *
+     * @param partition The index of the partition, from 0 to one less than the number of partitions.
+     * @param partitions The number of partitions. Pass 1 to read the whole table.
+     * @param action The action to pass each GTIN-14 to.
+     */
+    public void forEachGtin14(final int partition, final int partitions, final Consumer<String> action) {
+
+        Assert.notNull(action, "Action cannot be null.");
+
+        final String sql = SELECT_GTIN_14_SQL + this.partitionSql(partition, partitions);
+        final Object[] args = partitionArgs(partition, partitions);
+
+        this.jdbcTemplate.query(connection -> {
+            final PreparedStatement preparedStatement = connection.prepareStatement(sql);
+            preparedStatement.setFetchSize(GTIN_14_FETCH_SIZE);
+            for (int i = 0; i < args.length; i++) {
+                preparedStatement.setObject(i + 1, args[i]);
+            }
+            return preparedStatement;
+        }, (RowCallbackHandler) rs -> action.accept(rs.getString(1)));
     }
 
     @Override
     public int insert(final Collection<? extends CoreAlbum> toInsert) {
 
-        final int[] rowsInserted = this.jdbcTemplate.batchUpdate(INSERT_SQL, new CoreAlbumInsert(toInsert));
+        final int[] rowsInserted = this.jdbcTemplate.batchUpdate(INSERT_SQL,
+                new CoreAlbumInsert(toInsert, KeyMode.of(this.jdbcTemplate.getDataSource())));
         return Arrays.stream(rowsInserted).sum();
     }
 
     @Override
     public int update(final Collection<? extends CoreAlbum> toUpdate) {
 
-        final int[] rowsInserted = this.jdbcTemplate.batchUpdate(UPDATE_SQL, new CoreAlbumUpdate(toUpdate));
+        final int[] rowsInserted = this.jdbcTemplate.batchUpdate(UPDATE_SQL,
+                new CoreAlbumUpdate(toUpdate, KeyMode.of(this.jdbcTemplate.getDataSource())));
         return Arrays.stream(rowsInserted).sum();
     }
+
+    /**
+     * Inserts CoreAlbums into the CT_ALBUM table or, when a row with the same GTIN-14 already exists, updates it.
+     * This is done with one batched statement, so the albums don't have to be looked up first. Updated rows keep
+     * their existing ALBUM_ID.
+     *
+     * <p>On MySQL the inserts and updates are told apart by the row counts, so the connection must not rewrite
+     * batched statements. On H2 the existing rows are counted before the upsert.</p>
+     *
+     * @param toUpsert The CoreAlbums to insert or update.
+     * @return The number of rows inserted and updated.
+     */
+    public UpsertCounts upsert(final Collection<? extends CoreAlbum> toUpsert) {
+
+        Assert.notNull(toUpsert, "CoreAlbums cannot be null.");
+
+        if (toUpsert.isEmpty()) {
+            return new UpsertCounts(0, 0);
+        }
+
+        final SqlDialect dialect = this.dialect();
+        final KeyMode mode = KeyMode.of(this.jdbcTemplate.getDataSource());
+        final String sql = dialect.upsertSql(TABLE, KEY_COLUMN, upsertColumns(mode), UPSERT_UPDATE_COLUMNS);
+
+        if (dialect.isUpsertCountDistinct()) {
+            final int[] rowCounts = this.jdbcTemplate.batchUpdate(sql, new CoreAlbumInsert(toUpsert, mode));
+            final int inserted = (int) Arrays.stream(rowCounts).filter(rowCount -> rowCount == 1).count();
+            return new UpsertCounts(inserted, rowCounts.length - inserted);
+        }
+
+        // This has to be counted before the upsert changes the answer.
+        final Set<String> gtin14s = toUpsert.stream().map(CoreAlbum::getGtin14).collect(Collectors.toSet());
+        final int existing = this.countByGtin14s(gtin14s);
+
+        final int[] rowCounts = this.jdbcTemplate.batchUpdate(sql, new CoreAlbumInsert(toUpsert, mode));
+
+        // The first album with a new GTIN-14 inserts it. Everything else is an update.
+        final int inserted = gtin14s.size() - existing;
+        return new UpsertCounts(inserted, rowCounts.length - inserted);
+    }
+
+    private String partitionSql(final int partition, final int partitions) {
+
+        Assert.isTrue(partitions > 0, "Partitions must be positive.");
+        Assert.isTrue(partition >= 0 && partition < partitions, "Partition must be less than partitions.");
+
+        return partitions == WHOLE_TABLE ? "" : String.format(" WHERE MOD(%s, ?) = ?", this.dialect().hashSql(KEY_COLUMN));
+    }
+
+    private static Object[] partitionArgs(final int partition, final int partitions) {
+
+        return partitions == WHOLE_TABLE ? new Object[0] : new Object[] {partitions, partition};
+    }
+
+    private SqlDialect dialect() {
+
+        return Objects.isNull(this.sqlDialect) ? SqlDialect.of(this.jdbcTemplate.getDataSource()) : this.sqlDialect;
+    }
+
+    private CoreAlbum mapRow(final ResultSet rs) throws SQLException {
+
+        final KeyMode mode = KeyMode.of(this.jdbcTemplate.getDataSource());
+
+        return new CoreAlbum().setAlbumId(mode.getId(rs, "ALBUM_ID"))
+                .setAlbumName(rs.getString("ALBUM_NAME"))
+                .setArtistName(rs.getString("ARTIST_NAME"))
+                .setGtin14(rs.getString("GTIN_14"))
+                .setSourceAlbumId(mode.getId(rs, "SOURCE_ALBUM_ID"));
+    }
+
+    // The same columns, in the same order, as INSERT_SQL so the insert setter can be used for upserts.
+    private static List<SqlDialect.Column> upsertColumns(final KeyMode keyMode) {
+
+        return List.of(
+                new SqlDialect.Column("ALBUM_ID", keyMode.columnType()),
+                new SqlDialect.Column(KEY_COLUMN, "CHAR(14)"),
+                new SqlDialect.Column("ALBUM_NAME", "VARCHAR(100)"),
+                new SqlDialect.Column("ARTIST_NAME", "VARCHAR(100)"),
+                new SqlDialect.Column("CREATE_TIME", "TIMESTAMP"),
+                new SqlDialect.Column("LAST_UPDATE_TIME", "TIMESTAMP"),
+                new SqlDialect.Column("SOURCE_ALBUM_ID", keyMode.columnType()));
+    }
 }
@@ -3,6 +3,7 @@ package dev.codestijl.integrationdemo.dao;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Interface for the classes that handle most database interaction.
@@ -58,7 +59,7 @@ public interface Dao<T> {
      * @param id The ID of the entity to look for.
      * @return The entity with that ID or empty if not found.
      */
-    default Optional<T> findById(String id) {
+    default Optional<T> findById(UUID id) {
         return Optional.empty();
     }
 
@@ -0,0 +1,14 @@
+package dev.codestijl.integrationdemo.dao;
+
+/**
+ * How a DAO sends the rows of an insert to the DB.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public enum InsertMode {
+
+    BATCH,      // A JDBC batch of single-row INSERT statements, one for each row.
+    MULTI_ROW,  // INSERT statements that each carry many rows in their VALUES list, batched together.
+    BULK_LOAD   // The rows are spooled as CSV and loaded with the bulk loader of the DB in one statement.
+}
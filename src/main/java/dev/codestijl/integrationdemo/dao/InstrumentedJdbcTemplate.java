@@ -0,0 +1,126 @@
+package dev.codestijl.integrationdemo.dao;
+
+import dev.codestijl.integrationdemo.jfr.JfrEvents;
+import dev.codestijl.integrationdemo.jfr.StatementEvent;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.SqlProvider;
+import org.springframework.jdbc.core.StatementCallback;
+import org.springframework.util.Assert;
+
+/**
+ * A JdbcTemplate that times every statement it runs and records it in a StatementStats, along with the rows it
+ * returned or changed and the size of the batch. A statement that takes longer than the threshold is logged. Each
+ * statement is also recorded as a StatementEvent when a JFR recording is running.
+ *
+ * <p>Every query, update, and batch update of JdbcTemplate ends up in one of the two execute methods this overrides,
+ * so the DAOs don't change. The time includes reading the results of a query. Statements that fail aren't
+ * recorded.</p>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class InstrumentedJdbcTemplate extends JdbcTemplate {
+
+    private static final Logger logger = LoggerFactory.getLogger(InstrumentedJdbcTemplate.class);
+
+    private final StatementStats statementStats;
+    private final long slowThresholdNanos;
+
+    /**
+     * Constructs a new InstrumentedJdbcTemplate.
+     *
+     * @param dataSource The DataSource to run statements against.
+     * @param statementStats Where to record the statements.
+     * @param slowThresholdMillis How long a statement can take before it's logged. Pass 0 to not log any.
+     */
+    public InstrumentedJdbcTemplate(final DataSource dataSource, final StatementStats statementStats,
+                                    final long slowThresholdMillis) {
+
+        super(dataSource);
+
+        Assert.notNull(statementStats, "Statement stats cannot be null.");
+        Assert.isTrue(slowThresholdMillis >= 0, "Slow threshold cannot be negative.");
+
+        this.statementStats = statementStats;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+    }
+
+    @Override
+    public <T> T execute(final PreparedStatementCreator psc, final PreparedStatementCallback<T> action) {
+
+        final StatementEvent event = new StatementEvent();
+        event.begin();
+
+        final long start = System.nanoTime();
+        final T result = super.execute(psc, action);
+        this.record(psc, System.nanoTime() - start, result, event);
+
+        return result;
+    }
+
+    @Override
+    public <T> T execute(final StatementCallback<T> action) {
+
+        final StatementEvent event = new StatementEvent();
+        event.begin();
+
+        final long start = System.nanoTime();
+        final T result = super.execute(action);
+        this.record(action, System.nanoTime() - start, result, event);
+
+        return result;
+    }
+
+    private void record(final Object sqlProvider, final long elapsedNanos, final Object result, final StatementEvent event) {
+
+        final String sql = sqlProvider instanceof SqlProvider ? ((SqlProvider) sqlProvider).getSql() : null;
+        final long rows = rowsOf(result);
+        final int batchSize = result instanceof int[] ? ((int[]) result).length : 1;
+
+        this.statementStats.record(sql, elapsedNanos, rows, batchSize);
+
+        event.end();
+        if (event.shouldCommit()) {
+            final String normalized = StatementStats.normalize(sql);
+            event.setStep(JfrEvents.currentStep())
+                    .setSqlId(Integer.toHexString(normalized.hashCode()))
+                    .setSql(normalized)
+                    .setRows(rows)
+                    .setBatchSize(batchSize)
+                    .commit();
+        }
+
+        if (this.slowThresholdNanos > 0 && elapsedNanos >= this.slowThresholdNanos && logger.isWarnEnabled()) {
+            logger.warn(String.format("Slow statement took %d ms for %d rows in a batch of %d: %s",
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rows, batchSize, sql));
+        }
+    }
+
+    private static long rowsOf(final Object result) {
+
+        final long rows;
+
+        if (result instanceof int[]) {
+            // A driver that can't tell how many rows a statement in a batch changed says so with a negative count.
+            rows = Arrays.stream((int[]) result).filter(count -> count > 0).asLongStream().sum();
+        } else if (result instanceof Number) {
+            rows = ((Number) result).longValue();
+        } else if (result instanceof Collection) {
+            rows = ((Collection<?>) result).size();
+        } else {
+            rows = result == null ? 0 : 1;
+        }
+
+        return rows;
+    }
+}
@@ -0,0 +1,286 @@
+package dev.codestijl.integrationdemo.dao;
+
+import dev.codestijl.integrationdemo.common.IdStrategy;
+import dev.codestijl.integrationdemo.common.IdUtils;
+
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.sql.DataSource;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.util.Assert;
+
+/**
+ * How the ID columns of the STAGE and CORE tables store a UUID. The entities always hold their IDs as UUIDs, so the
+ * only place the canonical string form is made is where a CHAR(36) column is written or read.
+ *
+ * <p>The schema decides the mode. schema.sql keys every table with CHAR(36) and binary-key-schema.sql with
+ * BINARY(16), and {@link #of(DataSource)} works out which one the DB was created from.</p>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public enum KeyMode {
+
+    /**
+     * IDs are stored as 36 character strings, like 6ddc6095-6979-4132-8e1f-f88472f55f8c.
+     */
+    CHAR {
+        @Override
+        public void setId(final PreparedStatement preparedStatement, final int index, final UUID id) throws SQLException {
+
+            if (id == null) {
+                preparedStatement.setNull(index, Types.CHAR);
+            } else {
+                preparedStatement.setString(index, id.toString());
+            }
+        }
+
+        @Override
+        public UUID getId(final ResultSet resultSet, final String column) throws SQLException {
+
+            final String id = resultSet.getString(column);
+            return id == null ? null : UUID.fromString(id);
+        }
+
+        @Override
+        public Object parameter(final UUID id) {
+
+            return id == null ? null : id.toString();
+        }
+
+        @Override
+        public String csvValue(final UUID id) {
+
+            return id == null ? null : id.toString();
+        }
+
+        @Override
+        public String columnType() {
+
+            return "CHAR(36)";
+        }
+
+        @Override
+        public String newIdSql(final SqlDialect sqlDialect, final String orderBy) {
+
+            if (IdUtils.getStrategy() == IdStrategy.RANDOM) {
+                return sqlDialect.newIdSql();
+            }
+
+            // Everything up to the last group: the time, version, count, variant, and a few random bits.
+            return sqlDialect.numberedIdSql(IdUtils.newId().toString().substring(0, CHAR_ID_LENGTH - SqlDialect.ROW_NUMBER_DIGITS),
+                    orderBy);
+        }
+    },
+
+    /**
+     * IDs are stored as their 16 bytes, most significant first. The keys and their indexes take less than half the
+     * space, and the DB compares bytes rather than strings with a collation.
+     */
+    BINARY {
+        @Override
+        public void setId(final PreparedStatement preparedStatement, final int index, final UUID id) throws SQLException {
+
+            if (id == null) {
+                preparedStatement.setNull(index, Types.BINARY);
+            } else {
+                preparedStatement.setBytes(index, toBytes(id));
+            }
+        }
+
+        @Override
+        public UUID getId(final ResultSet resultSet, final String column) throws SQLException {
+
+            final byte[] id = resultSet.getBytes(column);
+            return id == null ? null : fromBytes(id);
+        }
+
+        @Override
+        public Object parameter(final UUID id) {
+
+            return id == null ? null : toBytes(id);
+        }
+
+        @Override
+        public String csvValue(final UUID id) {
+
+            return id == null ? null : hex(id);
+        }
+
+        @Override
+        public String columnType() {
+
+            return "BINARY(16)";
+        }
+
+        @Override
+        public String newIdSql(final SqlDialect sqlDialect, final String orderBy) {
+
+            if (IdUtils.getStrategy() == IdStrategy.RANDOM) {
+                return sqlDialect.newBinaryIdSql();
+            }
+
+            return sqlDialect.unhexSql(sqlDialect.numberedIdSql(
+                    hex(IdUtils.newId()).substring(0, HEX_ID_LENGTH - SqlDialect.ROW_NUMBER_DIGITS), orderBy));
+        }
+    };
+
+    private static final int ID_BYTES = 16;
+    private static final int CHAR_ID_LENGTH = 36;
+    private static final int HEX_ID_LENGTH = 32;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final int BITS_PER_DIGIT = 4;
+    private static final int LAST_DIGIT_MASK = 0xF;
+
+    private static final String PROBE_SQL = "SELECT BATCH_ID FROM STAGE.BATCH WHERE 1 = 0";
+
+    // The key mode of each DataSource, so the DB is only asked once however many DAOs and steps share it.
+    private static final Map<DataSource, KeyMode> KEY_MODES = new ConcurrentHashMap<>();
+
+    /**
+     * Sets an ID as a bind variable of a statement.
+     *
+     * @param preparedStatement The PreparedStatement to set the ID in.
+     * @param index The index of the bind variable.
+     * @param id The ID. It may be null.
+     * @throws SQLException Any error when interacting with the DB.
+     */
+    public abstract void setId(PreparedStatement preparedStatement, int index, UUID id) throws SQLException;
+
+    /**
+     * Reads an ID from the current row of a ResultSet.
+     *
+     * @param resultSet The ResultSet to read from.
+     * @param column The name of the ID column.
+     * @return The ID, or null if the column is null.
+     * @throws SQLException Any error when interacting with the DB.
+     */
+    public abstract UUID getId(ResultSet resultSet, String column) throws SQLException;
+
+    /**
+     * Returns an ID as the value to pass to a JdbcTemplate method that takes its bind variables as objects.
+     *
+     * @param id The ID. It may be null.
+     * @return The value of the ID the column takes.
+     */
+    public abstract Object parameter(UUID id);
+
+    /**
+     * Returns an ID as the text a bulk load reads from CSV. The SQL of a binary load turns the hex back into bytes.
+     *
+     * @param id The ID. It may be null.
+     * @return The ID as text, or null if the ID is null.
+     */
+    public abstract String csvValue(UUID id);
+
+    /**
+     * Returns the SQL type of the ID columns, as it would appear in a CREATE TABLE statement.
+     *
+     * @return The SQL type of the ID columns.
+     */
+    public abstract String columnType();
+
+    /**
+     * Returns an SQL expression for the select list of an INSERT ... SELECT that makes a new ID for each row, the way
+     * the IdStrategy of IdUtils makes them. With TIME_ORDERED, the IDs take the time and count of one new ID from
+     * IdUtils and number the rows in the order given in place of the last group of random digits, so they are
+     * version 7 UUIDs, go up in that order, and are all greater than any ID made before the statement. With RANDOM,
+     * the DB makes each ID with its own UUID function.
+     *
+     * @param sqlDialect The dialect of the DB.
+     * @param orderBy The SQL of the ORDER BY that numbers the rows, like the ID of the row each one comes from.
+     * @return An SQL expression that makes a new ID.
+     */
+    public abstract String newIdSql(SqlDialect sqlDialect, String orderBy);
+
+    /**
+     * Returns the key mode of the DB behind a DataSource, from the type of the BATCH_ID column of the BATCH table.
+     * Every table in a schema is keyed the same way. The DB is only asked the first time for each DataSource.
+     *
+     * @param dataSource The DataSource to look at.
+     * @return The key mode of the DB.
+     * @throws IllegalStateException If the BATCH table cannot be read.
+     */
+    public static KeyMode of(final DataSource dataSource) {
+
+        Assert.notNull(dataSource, "DataSource cannot be null.");
+
+        return KEY_MODES.computeIfAbsent(dataSource, KeyMode::probe);
+    }
+
+    private static KeyMode probe(final DataSource dataSource) {
+
+        try {
+            final Integer type = new JdbcTemplate(dataSource).query(PROBE_SQL, (ResultSetExtractor<Integer>) rs -> {
+                final ResultSetMetaData metaData = rs.getMetaData();
+                return metaData.getColumnType(1);
+            });
+            return ofColumnType(type == null ? Types.CHAR : type);
+        } catch (DataAccessException e) {
+            throw new IllegalStateException("Could not read the type of the ID columns.", e);
+        }
+    }
+
+    /**
+     * Returns the key mode for the JDBC type of an ID column.
+     *
+     * @param columnType The type of the column, from java.sql.Types.
+     * @return BINARY for a binary column and CHAR for anything else.
+     */
+    public static KeyMode ofColumnType(final int columnType) {
+
+        return columnType == Types.BINARY || columnType == Types.VARBINARY ? BINARY : CHAR;
+    }
+
+    /**
+     * Returns the 16 bytes of a UUID, most significant first.
+     *
+     * @param id The UUID.
+     * @return The bytes of the UUID.
+     */
+    public static byte[] toBytes(final UUID id) {
+
+        return ByteBuffer.allocate(ID_BYTES)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+    /**
+     * Returns the UUID made of 16 bytes, most significant first.
+     *
+     * @param bytes The bytes of the UUID.
+     * @return The UUID.
+     */
+    public static UUID fromBytes(final byte[] bytes) {
+
+        Assert.isTrue(bytes.length == ID_BYTES, "An ID must be 16 bytes.");
+
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private static String hex(final UUID id) {
+
+        final char[] digits = new char[ID_BYTES * 2];
+        long bits = id.getLeastSignificantBits();
+
+        // Fill from the last digit, so each half is written out to its full 16 digits.
+        for (int index = digits.length - 1; index >= 0; index--) {
+            digits[index] = HEX_DIGITS[(int) (bits & LAST_DIGIT_MASK)];
+            bits = index == ID_BYTES ? id.getMostSignificantBits() : bits >>> BITS_PER_DIGIT;
+        }
+
+        return new String(digits);
+    }
+}
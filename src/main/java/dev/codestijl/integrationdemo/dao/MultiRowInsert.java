@@ -0,0 +1,194 @@
+package dev.codestijl.integrationdemo.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * Inserts rows with INSERT statements that each carry many rows in their VALUES list. This saves the DB parsing and
+ * running a statement for every row, and on MySQL it saves a round trip for every row as well, unless the connection
+ * already rewrites batched statements.
+ *
+ * <p>Each statement carries the same number of rows, so its SQL only has to be built once, and they are sent to the
+ * DB together as one JDBC batch. The rows left over are sent in one last, shorter statement. The rows in a statement
+ * are also kept under a limit on bind variables, which MySQL puts at 65,535 for a single statement.</p>
+ *
+ * <p>The DBs this application knows about all take multi-row inserts. On any other DB, {@link #isSupported()} is
+ * false and the DAO should fall back to a batch of single-row inserts.</p>
+ *
+ * @param <T> The type of object to insert.
+ * @author darren
+ * @since 1.0.0
+ */
+/* default */ class MultiRowInsert<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(MultiRowInsert.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String table;
+    private final String columnList;
+    private final String rowPlaceholders;
+    private final RowSetter<T> rowSetter;
+    private final int columnCount;
+    private final int rowsPerStatement;
+    private final String fullSql;
+
+    // Worked out the first time it is needed so DAOs that never insert don't have to ask the DB.
+    private Boolean supported;
+
+    /**
+     * Sets the values of one row in a multi-row INSERT statement.
+     *
+     * @param <T> The type of object to insert.
+     * @author darren
+     * @since 1.0.0
+     */
+    @FunctionalInterface
+    /* default */ interface RowSetter<T> {
+
+        /**
+         * Sets the values of one row.
+         *
+         * @param preparedStatement The PreparedStatement to set the values in.
+         * @param firstIndex The index of the first bind variable of the row.
+         * @param value The object to take the values from.
+         * @throws SQLException Any error when interacting with the DB.
+         */
+        void setValues(PreparedStatement preparedStatement, int firstIndex, T value) throws SQLException;
+    }
+
+    /**
+     * Constructs a new MultiRowInsert.
+     *
+     * @param jdbcTemplate The JdbcTemplate to use to run the inserts.
+     * @param table The table to insert into.
+     * @param columns The columns to insert, in the order the RowSetter sets them.
+     * @param rowSetter Sets the values of each row.
+     * @param rowsPerStatement The most rows to put in one statement.
+     * @param maxParameters The most bind variables to put in one statement. This wins over rowsPerStatement.
+     */
+    /* default */ MultiRowInsert(final JdbcTemplate jdbcTemplate, final String table, final List<String> columns,
+                                 final RowSetter<T> rowSetter, final int rowsPerStatement, final int maxParameters) {
+
+        Assert.notNull(jdbcTemplate, "JdbcTemplate cannot be null.");
+        Assert.hasText(table, "Table cannot be empty.");
+        Assert.notEmpty(columns, "Columns cannot be empty.");
+        Assert.notNull(rowSetter, "Row setter cannot be null.");
+        Assert.isTrue(rowsPerStatement > 0, "Rows per statement must be positive.");
+        Assert.isTrue(maxParameters >= columns.size(), "Max parameters must allow at least one row.");
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.table = table;
+        this.rowSetter = rowSetter;
+        this.columnCount = columns.size();
+        this.rowsPerStatement = Math.min(rowsPerStatement, maxParameters / this.columnCount);
+        this.columnList = String.join(", ", columns);
+        this.rowPlaceholders = "(" + String.join(", ", Collections.nCopies(this.columnCount, "?")) + ")";
+        this.fullSql = this.sql(this.rowsPerStatement);
+    }
+
+    /**
+     * Returns the number of rows put in each statement, once the limit on bind variables has been applied.
+     *
+     * @return The number of rows put in each statement.
+     */
+    public int getRowsPerStatement() {
+
+        return this.rowsPerStatement;
+    }
+
+    /**
+     * Returns whether the DB takes multi-row inserts. A warning is logged the first time this is false.
+     *
+     * @return True if the DB takes multi-row inserts.
+     */
+    public boolean isSupported() {
+
+        if (Objects.isNull(this.supported)) {
+            try {
+                Assert.notNull(this.jdbcTemplate.getDataSource(), "JdbcTemplate has no DataSource.");
+                SqlDialect.of(this.jdbcTemplate.getDataSource());
+                this.supported = Boolean.TRUE;
+            } catch (IllegalStateException e) {
+                logger.warn(String.format("Multi-row inserts into %s are not supported here, so single-row inserts will be batched instead.",
+                        this.table), e);
+                this.supported = Boolean.FALSE;
+            }
+        }
+
+        return this.supported;
+    }
+
+    /**
+     * Inserts rows.
+     *
+     * @param toInsert The objects to insert.
+     * @return The number of rows inserted.
+     */
+    public int insert(final Collection<? extends T> toInsert) {
+
+        Assert.notNull(toInsert, "Data cannot be null.");
+
+        final List<T> rows = new ArrayList<>(toInsert);
+        final int fullStatements = rows.size() / this.rowsPerStatement;
+        final int remainder = rows.size() % this.rowsPerStatement;
+        int inserted = 0;
+
+        if (fullStatements > 0) {
+
+            final int[] rowCounts = this.jdbcTemplate.batchUpdate(this.fullSql, new BatchPreparedStatementSetter() {
+
+                @Override
+                public void setValues(final PreparedStatement preparedStatement, final int statement) throws SQLException {
+
+                    final int start = statement * MultiRowInsert.this.rowsPerStatement;
+                    MultiRowInsert.this.setRows(preparedStatement, rows.subList(start, start + MultiRowInsert.this.rowsPerStatement));
+                }
+
+                @Override
+                public int getBatchSize() {
+
+                    return fullStatements;
+                }
+            });
+
+            for (final int rowCount : rowCounts) {
+                // A driver that rewrites or runs the batch in one go may not know the count of each statement.
+                inserted += rowCount < 0 ? this.rowsPerStatement : rowCount;
+            }
+        }
+
+        if (remainder > 0) {
+
+            final List<T> lastRows = rows.subList(fullStatements * this.rowsPerStatement, rows.size());
+            inserted += this.jdbcTemplate.update(this.sql(remainder), preparedStatement -> this.setRows(preparedStatement, lastRows));
+        }
+
+        return inserted;
+    }
+
+    private void setRows(final PreparedStatement preparedStatement, final List<T> rows) throws SQLException {
+
+        int firstIndex = 1;
+        for (final T row : rows) {
+            this.rowSetter.setValues(preparedStatement, firstIndex, row);
+            firstIndex += this.columnCount;
+        }
+    }
+
+    private String sql(final int rows) {
+
+        return String.format("INSERT INTO %s (%s) VALUES %s", this.table, this.columnList,
+                String.join(", ", Collections.nCopies(rows, this.rowPlaceholders)));
+    }
+}
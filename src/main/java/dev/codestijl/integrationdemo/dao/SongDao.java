@@ -8,6 +8,7 @@ import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.util.Assert;
@@ -24,7 +25,18 @@ public class SongDao implements Dao<Song> {
             "(SONG_ID, ALBUM_ID, CREATE_TIME, SONG_NAME) " +
             "VALUES (?, ?, ?, ?)";
 
+    // The same columns, in the same order, as INSERT_SQL so the insert setter can be used for multi-row inserts.
+    private static final List<String> INSERT_COLUMNS = List.of("SONG_ID", "ALBUM_ID", "CREATE_TIME", "SONG_NAME");
+
+    // A bulk load sets the time columns to the time of the load, so the DB works out the time zone.
+    private static final List<String> BULK_LOAD_COLUMNS = List.of("SONG_ID", "ALBUM_ID", "SONG_NAME");
+    private static final List<String> BULK_LOAD_TIME_COLUMNS = List.of("CREATE_TIME");
+    private static final List<String> KEY_COLUMNS = List.of("SONG_ID", "ALBUM_ID");
+
     private final JdbcTemplate jdbcTemplate;
+    private final InsertMode insertMode;
+    private final MultiRowInsert<Song> multiRowInsert;
+    private final BulkLoad<Song> bulkLoad;
 
     /**
      * BatchPreparedStatementSetter to insert rows in the SONG table.
@@ -34,17 +46,17 @@ public class SongDao implements Dao<Song> {
      */
     private static final class SongInsert extends BaseBatchPreparedStatementSetter<Song> {
 
-        private SongInsert(final Collection<? extends Song> data) {
+        private final KeyMode keyMode;
+
+        private SongInsert(final Collection<? extends Song> data, final KeyMode keyMode) {
             super(data);
+            this.keyMode = keyMode;
         }
 
         @Override
         protected void doSetValues(final PreparedStatement preparedStatement, final Song value) throws SQLException {
 
-            preparedStatement.setString(1, value.getSongId());
-            preparedStatement.setString(2, value.getAlbumId());
-            preparedStatement.setTimestamp(3, Timestamp.from(Instant.now()));
-            preparedStatement.setString(4, value.getSongName());
+            setInsertValues(this.keyMode, preparedStatement, 1, value);
         }
     }
 
@@ -55,15 +67,64 @@ public class SongDao implements Dao<Song> {
      */
     public SongDao(final JdbcTemplate jdbcTemplate) {
 
+        this(jdbcTemplate, InsertMode.BATCH, 1, INSERT_COLUMNS.size());
+    }
+
+    /**
+     * Constructs a new SongDao that inserts in a specific way.
+     *
+     * @param jdbcTemplate The JdbcTemplate to use to run queries.
+     * @param insertMode How to send the rows of an insert to the DB.
+     * @param rowsPerStatement The most rows to put in one statement when inserting with InsertMode.MULTI_ROW.
+     * @param maxParameters The most bind variables to put in one statement when inserting with InsertMode.MULTI_ROW.
+     */
+    public SongDao(final JdbcTemplate jdbcTemplate, final InsertMode insertMode, final int rowsPerStatement, final int maxParameters) {
+
         Assert.notNull(jdbcTemplate, "JdbcTemplate cannot be null.");
+        Assert.notNull(insertMode, "Insert mode cannot be null.");
+
         this.jdbcTemplate = jdbcTemplate;
+        this.insertMode = insertMode;
+        this.multiRowInsert = new MultiRowInsert<>(jdbcTemplate, "STAGE.SONG", INSERT_COLUMNS, this::setMultiRowValues,
+                rowsPerStatement, maxParameters);
+        this.bulkLoad = new BulkLoad<>(jdbcTemplate, "STAGE.SONG", BULK_LOAD_COLUMNS, KEY_COLUMNS, BULK_LOAD_TIME_COLUMNS,
+                this::bulkLoadValues);
     }
 
     @Override
     public int insert(final Collection<? extends Song> toInsert) {
 
-        final int[] rowsInserted = this.jdbcTemplate.batchUpdate(INSERT_SQL, new SongDao.SongInsert(toInsert));
+        if (this.insertMode == InsertMode.MULTI_ROW && this.multiRowInsert.isSupported()) {
+            return this.multiRowInsert.insert(toInsert);
+        }
+
+        if (this.insertMode == InsertMode.BULK_LOAD && this.bulkLoad.isSupported()) {
+            return this.bulkLoad.insert(toInsert);
+        }
+
+        final int[] rowsInserted = this.jdbcTemplate.batchUpdate(INSERT_SQL,
+                new SongDao.SongInsert(toInsert, KeyMode.of(this.jdbcTemplate.getDataSource())));
 
         return Arrays.stream(rowsInserted).sum();
     }
+
+    private void setMultiRowValues(final PreparedStatement preparedStatement, final int firstIndex, final Song value) throws SQLException {
+
+        setInsertValues(KeyMode.of(this.jdbcTemplate.getDataSource()), preparedStatement, firstIndex, value);
+    }
+
+    private static void setInsertValues(final KeyMode keyMode, final PreparedStatement preparedStatement, final int firstIndex,
+                                        final Song value) throws SQLException {
+
+        keyMode.setId(preparedStatement, firstIndex, value.getSongId());
+        keyMode.setId(preparedStatement, firstIndex + 1, value.getAlbumId());
+        preparedStatement.setTimestamp(firstIndex + 2, Timestamp.from(Instant.now()));
+        preparedStatement.setString(firstIndex + 3, value.getSongName());
+    }
+
+    private Object[] bulkLoadValues(final Song value) {
+
+        final KeyMode mode = KeyMode.of(this.jdbcTemplate.getDataSource());
+        return new Object[] {mode.csvValue(value.getSongId()), mode.csvValue(value.getAlbumId()), value.getSongName()};
+    }
 }
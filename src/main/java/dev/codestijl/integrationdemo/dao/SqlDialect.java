@@ -0,0 +1,397 @@
+package dev.codestijl.integrationdemo.dao;
+
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.sql.DataSource;
+
+import lombok.Getter;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.util.Assert;
+
+/**
+ * The SQL that differs between the databases this application runs against. MySQL is used in production and H2
+ * in the tests. MySQL has to be 8 or later, since the IDs of the set based loads are numbered with ROW_NUMBER().
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public enum SqlDialect {
+
+    /**
+     * MySQL, which upserts with INSERT ... ON DUPLICATE KEY UPDATE.
+     */
+    MYSQL {
+        @Override
+        public String upsertSql(final String table, final String keyColumn, final List<Column> columns, final List<String> updateColumns) {
+
+            return String.format("INSERT INTO %s (%s) VALUES (%s) ON DUPLICATE KEY UPDATE %s",
+                    table,
+                    columns.stream().map(Column::getName).collect(Collectors.joining(", ")),
+                    columns.stream().map(column -> "?").collect(Collectors.joining(", ")),
+                    updateColumns.stream().map(column -> String.format("%s = VALUES(%s)", column, column)).collect(Collectors.joining(", ")));
+        }
+
+        @Override
+        public boolean isUpsertCountDistinct() {
+
+            // MySQL counts an insert as 1 row and an update as 2.
+            return true;
+        }
+
+        @Override
+        public String updateJoinSql(final String table, final String source, final String keyColumn, final List<String> columns,
+                                    final List<String> values) {
+
+            return String.format("UPDATE %s T JOIN (%s) S ON T.%s = S.%s SET %s", table, source, keyColumn, keyColumn,
+                    assignments("T.", columns, values));
+        }
+
+        @Override
+        public String newIdSql() {
+
+            return "UUID()";
+        }
+
+        @Override
+        public String newBinaryIdSql() {
+
+            return "UUID_TO_BIN(UUID())";
+        }
+
+        @Override
+        public String unhexSql(final String expression) {
+
+            return String.format("UNHEX(%s)", expression);
+        }
+
+        @Override
+        public String hashSql(final String expression) {
+
+            return String.format("CRC32(%s)", expression);
+        }
+
+        @Override
+        public String bulkLoadSql(final String table, final List<String> columns, final List<String> hexColumns,
+                                  final List<String> timeColumns, final String fileName) {
+
+            // When a stream is set on the statement, the driver reads the rows from it and never opens the file.
+            // Without an escape character, a quote in a value is written as two and a backslash is just a backslash.
+            // A hex column is read into a user variable and unhexed into the column.
+            final String sql = String.format("LOAD DATA LOCAL INFILE %s INTO TABLE %s CHARACTER SET utf8mb4 "
+                    + "FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"' ESCAPED BY '' LINES TERMINATED BY '\\n' (%s)",
+                    literal(fileName), table, columns.stream()
+                            .map(column -> hexColumns.contains(column) ? "@" + column : column)
+                            .collect(Collectors.joining(", ")));
+
+            final List<String> assignments = new ArrayList<>();
+            hexColumns.forEach(column -> assignments.add(String.format("%s = UNHEX(@%s)", column, column)));
+            timeColumns.forEach(column -> assignments.add(column + " = CURRENT_TIMESTAMP"));
+
+            return assignments.isEmpty() ? sql : sql + " SET " + String.join(", ", assignments);
+        }
+
+        @Override
+        public boolean isBulkLoadFromFile() {
+
+            return false;
+        }
+    },
+
+    /**
+     * H2, which upserts with MERGE INTO ... USING.
+     */
+    H2 {
+        @Override
+        public String upsertSql(final String table, final String keyColumn, final List<Column> columns, final List<String> updateColumns) {
+
+            // H2 can't work out the type of a bind variable in a select list, so each has to be cast.
+            return String.format("MERGE INTO %s T USING (SELECT %s) S ON (T.%s = S.%s) WHEN MATCHED THEN UPDATE SET %s "
+                            + "WHEN NOT MATCHED THEN INSERT (%s) VALUES (%s)",
+                    table,
+                    columns.stream().map(column -> String.format("CAST(? AS %s) AS %s", column.getType(), column.getName()))
+                            .collect(Collectors.joining(", ")),
+                    keyColumn,
+                    keyColumn,
+                    updateColumns.stream().map(column -> String.format("%s = S.%s", column, column)).collect(Collectors.joining(", ")),
+                    columns.stream().map(Column::getName).collect(Collectors.joining(", ")),
+                    columns.stream().map(column -> "S." + column.getName()).collect(Collectors.joining(", ")));
+        }
+
+        @Override
+        public boolean isUpsertCountDistinct() {
+
+            // H2 counts both inserts and updates as 1 row.
+            return false;
+        }
+
+        @Override
+        public String updateJoinSql(final String table, final String source, final String keyColumn, final List<String> columns,
+                                    final List<String> values) {
+
+            // H2 has no UPDATE ... JOIN, but a MERGE that only updates does the same thing.
+            return String.format("MERGE INTO %s T USING (%s) S ON (T.%s = S.%s) WHEN MATCHED THEN UPDATE SET %s", table, source,
+                    keyColumn, keyColumn, assignments("", columns, values));
+        }
+
+        @Override
+        public String newIdSql() {
+
+            return "CAST(RANDOM_UUID() AS CHAR(36))";
+        }
+
+        @Override
+        public String newBinaryIdSql() {
+
+            return "CAST(RANDOM_UUID() AS BINARY(16))";
+        }
+
+        @Override
+        public String unhexSql(final String expression) {
+
+            // H2 casts hex text to binary.
+            return String.format("CAST(%s AS BINARY(16))", expression);
+        }
+
+        @Override
+        public String hashSql(final String expression) {
+
+            return String.format("ORA_HASH(%s)", expression);
+        }
+
+        @Override
+        public String bulkLoadSql(final String table, final List<String> columns, final List<String> hexColumns,
+                                  final List<String> timeColumns, final String fileName) {
+
+            // CSVREAD reads the file as a table of VARCHARs with the column names given. H2 opens the file when the
+            // statement is prepared, so the name can't be a bind variable. H2 casts hex text to binary.
+            final List<String> allColumns = new ArrayList<>(columns);
+            allColumns.addAll(timeColumns);
+            final List<String> values = columns.stream()
+                    .map(column -> hexColumns.contains(column) ? String.format("CAST(%s AS BINARY)", column) : column)
+                    .collect(Collectors.toCollection(ArrayList::new));
+            timeColumns.forEach(column -> values.add("CURRENT_TIMESTAMP"));
+
+            return String.format("INSERT INTO %s (%s) SELECT %s FROM CSVREAD(%s, '%s', 'charset=UTF-8 null=NULL')", table,
+                    String.join(", ", allColumns), String.join(", ", values), literal(fileName), String.join(",", columns));
+        }
+
+        @Override
+        public boolean isBulkLoadFromFile() {
+
+            return true;
+        }
+    };
+
+    /**
+     * The number of digits numberedIdSql writes the number of a row with, which is the last group of a UUID.
+     */
+    public static final int ROW_NUMBER_DIGITS = 12;
+
+    // The dialect of each DataSource, so its metadata is only read once however many DAOs and steps share it.
+    private static final Map<DataSource, SqlDialect> DIALECTS = new ConcurrentHashMap<>();
+
+    /**
+     * A column written by a statement.
+     *
+     * @author darren
+     * @since 1.0.0
+     */
+    @Getter
+    public static final class Column {
+
+        private final String name;
+        private final String type;
+
+        /**
+         * Constructs a new Column.
+         *
+         * @param name The name of the column.
+         * @param type The SQL type of the column, as it would appear in a CREATE TABLE statement.
+         */
+        public Column(final String name, final String type) {
+
+            Assert.hasText(name, "Name cannot be empty.");
+            Assert.hasText(type, "Type cannot be empty.");
+
+            this.name = name;
+            this.type = type;
+        }
+    }
+
+    /**
+     * Returns a statement that inserts a row or, if a row with the same key already exists, updates it. The statement
+     * takes one bind variable for each column, in the order of the columns.
+     *
+     * @param table The table to upsert into.
+     * @param keyColumn The column with the unique key that decides if a row exists.
+     * @param columns All the columns to write when a row is inserted.
+     * @param updateColumns The columns to write when a row is updated.
+     * @return The upsert statement.
+     */
+    public abstract String upsertSql(String table, String keyColumn, List<Column> columns, List<String> updateColumns);
+
+    /**
+     * Returns if the row count of an upsert tells an insert from an update. When it does not, the caller has to
+     * count the existing rows itself.
+     *
+     * @return True if an upsert counts an insert as 1 row and an update as 2.
+     */
+    public abstract boolean isUpsertCountDistinct();
+
+    /**
+     * Returns a statement that updates the rows in a table that join to the rows of a query on a key. The query is
+     * aliased S and the table T, so the values can refer to either.
+     *
+     * @param table The table to update.
+     * @param source The query with the new values.
+     * @param keyColumn The column that joins the table and the query. It must have the same name in both.
+     * @param columns The columns of the table to update.
+     * @param values The SQL expressions to set the columns to, in the same order as the columns.
+     * @return The update statement.
+     */
+    public abstract String updateJoinSql(String table, String source, String keyColumn, List<String> columns, List<String> values);
+
+    /**
+     * Returns an SQL expression that makes a new, random 36 character ID like the ones IdStrategy.RANDOM makes.
+     *
+     * @return An SQL expression that makes a new ID.
+     */
+    public abstract String newIdSql();
+
+    /**
+     * Returns an SQL expression that makes a new, random ID as the 16 bytes of a BINARY(16) ID column.
+     *
+     * @return An SQL expression that makes a new binary ID.
+     */
+    public abstract String newBinaryIdSql();
+
+    /**
+     * Returns an SQL expression that turns hex text into the 16 bytes of a BINARY(16) ID column.
+     *
+     * @param expression The SQL expression with the 32 hex digits.
+     * @return An SQL expression with the bytes the hex spells.
+     */
+    public abstract String unhexSql(String expression);
+
+    /**
+     * Returns an SQL expression for the select list of a query that makes an ID for each row by putting the number
+     * of the row, in the order given, after a prefix. The number is written as {@value #ROW_NUMBER_DIGITS} decimal
+     * digits, which are hex digits too, so the IDs of the rows go up in that order and stay valid UUIDs for up to
+     * 10^{@value #ROW_NUMBER_DIGITS} rows.
+     *
+     * @param prefix The digits that come before the number. They must only be hex digits and dashes.
+     * @param orderBy The SQL of the ORDER BY that numbers the rows.
+     * @return An SQL expression that makes an ID for each row.
+     */
+    public String numberedIdSql(final String prefix, final String orderBy) {
+
+        Assert.isTrue(prefix.matches("[0-9a-fA-F-]*"), "Prefix must only be hex digits and dashes.");
+
+        return String.format("CONCAT(%s, LPAD(ROW_NUMBER() OVER (ORDER BY %s), %d, '0'))", literal(prefix), orderBy,
+                ROW_NUMBER_DIGITS);
+    }
+
+    /**
+     * Returns an SQL expression that hashes a string to a non-negative integer. The same string always hashes to the
+     * same value, so the expression can be used to split rows into disjoint groups.
+     *
+     * @param expression The SQL expression to hash. It must not be null.
+     * @return An SQL expression with the hash of the expression.
+     */
+    public abstract String hashSql(String expression);
+
+    /**
+     * Returns a statement that loads rows into a table from CSV with the bulk loader of the database. The CSV has a
+     * column for each of the columns, in the same order, and no header. Each value is in double quotes, with any
+     * double quote in it doubled, and a null is the word NULL without quotes. The time columns are set to the
+     * time of the statement. The hex columns are in the CSV as hex text and are loaded as the bytes it spells.
+     *
+     * <p>When {@link #isBulkLoadFromFile()} is true, the statement reads the CSV from the file. Otherwise the CSV has
+     * to be set on the statement as a stream, and the file name is only a placeholder. The statement takes no bind
+     * variables.</p>
+     *
+     * @param table The table to load.
+     * @param columns The columns in the CSV.
+     * @param hexColumns The columns in the CSV to load from hex text into a binary column.
+     * @param timeColumns The columns to set to the current time.
+     * @param fileName The file to read the CSV from.
+     * @return The bulk load statement.
+     */
+    public abstract String bulkLoadSql(String table, List<String> columns, List<String> hexColumns, List<String> timeColumns,
+                                       String fileName);
+
+    /**
+     * Returns if the bulk load statement reads the CSV from a file rather than a stream set on the statement.
+     *
+     * @return True if the CSV has to be written to a file.
+     */
+    public abstract boolean isBulkLoadFromFile();
+
+    /**
+     * Returns the dialect of the database behind a DataSource. The database is only asked the first time for each
+     * DataSource.
+     *
+     * @param dataSource The DataSource to look at.
+     * @return The dialect of the database.
+     * @throws IllegalStateException If the database is not one this application supports or cannot be reached.
+     */
+    public static SqlDialect of(final DataSource dataSource) {
+
+        Assert.notNull(dataSource, "DataSource cannot be null.");
+
+        return DIALECTS.computeIfAbsent(dataSource, SqlDialect::probe);
+    }
+
+    private static SqlDialect probe(final DataSource dataSource) {
+
+        final String productName;
+        try {
+            productName = (String) JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Could not read the database product name.", e);
+        }
+
+        return ofProductName(productName);
+    }
+
+    /**
+     * Returns the dialect for a database product name as reported by the JDBC driver.
+     *
+     * @param productName The database product name.
+     * @return The dialect of the database.
+     * @throws IllegalStateException If the database is not one this application supports.
+     */
+    public static SqlDialect ofProductName(final String productName) {
+
+        final String normalized = String.valueOf(productName).toUpperCase(Locale.ROOT);
+
+        if (normalized.contains("MYSQL") || normalized.contains("MARIADB")) {
+            return MYSQL;
+        } else if (normalized.contains("H2")) {
+            return H2;
+        }
+
+        throw new IllegalStateException(String.format("Unsupported database %s.", productName));
+    }
+
+    private static String literal(final String value) {
+
+        return "'" + value.replace("'", "''") + "'";
+    }
+
+    private static String assignments(final String prefix, final List<String> columns, final List<String> values) {
+
+        Assert.isTrue(columns.size() == values.size(), "There must be one value for each column.");
+
+        return IntStream.range(0, columns.size())
+                .mapToObj(index -> String.format("%s%s = %s", prefix, columns.get(index), values.get(index)))
+                .collect(Collectors.joining(", "));
+    }
+}
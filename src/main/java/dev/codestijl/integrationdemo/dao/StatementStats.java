@@ -0,0 +1,186 @@
+package dev.codestijl.integrationdemo.dao;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * The timings of every SQL statement run through an InstrumentedJdbcTemplate, keyed by the SQL. Lists of parameters,
+ * like the IN lists CoreAlbumDao builds for each chunk and the rows of a multi-row INSERT, are collapsed so a statement
+ * has one key however many parameters it's run with.
+ *
+ * <p>The SQL is scanned once, left to right, rather than matched with patterns that repeat a group for each parameter,
+ * which overflow the stack on an INSERT of a few hundred rows. The key of each distinct SQL string is kept, so each
+ * statement after the first is only a lookup.</p>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class StatementStats {
+
+    private static final String UNKNOWN_SQL = "<unknown>";
+    private static final String PARAMETER_LIST = "IN (?, ...)";
+    private static final String MORE_ROWS = ", ...";
+
+    // The IN lists and the remainders of multi-row INSERTs come in as many sizes as a chunk has items, so the cache
+    // stays small. It stops growing at this size, in case something builds SQL that is different every time.
+    private static final int MAX_CACHED_KEYS = 10_000;
+    private static final Map<String, String> KEYS = new ConcurrentHashMap<>();
+
+    private final Map<String, StatementTimings> statements = new ConcurrentHashMap<>();
+
+    /**
+     * Records a run of a statement.
+     *
+     * @param sql The SQL of the statement.
+     * @param elapsedNanos How long the statement took.
+     * @param rows The number of rows the statement returned or changed.
+     * @param batchSize The number of statements in the batch, or 1 if the statement wasn't batched.
+     */
+    public void record(final String sql, final long elapsedNanos, final long rows, final int batchSize) {
+
+        this.statements.computeIfAbsent(normalize(sql), key -> new StatementTimings()).record(elapsedNanos, rows, batchSize);
+    }
+
+    /**
+     * Summarizes the timings of every statement, the statement that took the longest in all first.
+     *
+     * @return The summaries.
+     */
+    public List<StatementSummary> summarize() {
+
+        return this.statements.entrySet().stream()
+                .map(entry -> entry.getValue().summarize(entry.getKey()))
+                .sorted(Comparator.comparingLong(StatementSummary::getTotalNanos).reversed())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Forgets every statement.
+     */
+    public void reset() {
+
+        this.statements.clear();
+    }
+
+    /**
+     * Returns the SQL a statement is keyed by, with its lists of parameters collapsed.
+     *
+     * @param sql The SQL of the statement.
+     * @return The SQL the statement is keyed by.
+     */
+    public static String normalize(final String sql) {
+
+        if (sql == null) {
+            return UNKNOWN_SQL;
+        }
+
+        final String cached = KEYS.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+
+        final String key = collapse(sql);
+        if (KEYS.size() < MAX_CACHED_KEYS) {
+            KEYS.put(sql, key);
+        }
+
+        return key;
+    }
+
+    // Replaces each IN list of parameters with one parameter and an ellipsis, and each run of two or more rows of
+    // parameters, like the VALUES list of a multi-row INSERT, with its first row and an ellipsis. A single row is left
+    // alone.
+    private static String collapse(final String sql) {
+
+        final StringBuilder key = new StringBuilder(Math.min(sql.length(), 256));
+        int index = 0;
+
+        while (index < sql.length()) {
+
+            final int inListEnd = isInKeyword(sql, index) ? parameterRowEnd(sql, skipSpaces(sql, index + 2)) : -1;
+            if (inListEnd >= 0) {
+                key.append(PARAMETER_LIST);
+                index = inListEnd;
+                continue;
+            }
+
+            final int rowEnd = parameterRowEnd(sql, index);
+            if (rowEnd >= 0) {
+
+                int rowsEnd = rowEnd;
+                for (int next = nextRowEnd(sql, rowsEnd); next >= 0; next = nextRowEnd(sql, rowsEnd)) {
+                    rowsEnd = next;
+                }
+
+                key.append(sql, index, rowEnd);
+                if (rowsEnd > rowEnd) {
+                    key.append(MORE_ROWS);
+                }
+                index = rowsEnd;
+                continue;
+            }
+
+            key.append(sql.charAt(index));
+            index++;
+        }
+
+        return key.toString();
+    }
+
+    // If the keyword IN, in any case, starts a word at the index.
+    private static boolean isInKeyword(final String sql, final int index) {
+
+        return index + 1 < sql.length()
+                && Character.toUpperCase(sql.charAt(index)) == 'I'
+                && Character.toUpperCase(sql.charAt(index + 1)) == 'N'
+                && (index == 0 || !isWordChar(sql.charAt(index - 1)));
+    }
+
+    // The end of a comma and another row of parameters that follow a row ending at the index, or -1 if there isn't one.
+    private static int nextRowEnd(final String sql, final int index) {
+
+        final int comma = skipSpaces(sql, index);
+        return comma < sql.length() && sql.charAt(comma) == ',' ? parameterRowEnd(sql, skipSpaces(sql, comma + 1)) : -1;
+    }
+
+    // The index after a row of parameters, like "(?, ?, ?)", that starts at the index, or -1 if one doesn't.
+    private static int parameterRowEnd(final String sql, final int index) {
+
+        if (index >= sql.length() || sql.charAt(index) != '(') {
+            return -1;
+        }
+
+        int position = skipSpaces(sql, index + 1);
+        while (position < sql.length() && sql.charAt(position) == '?') {
+
+            position = skipSpaces(sql, position + 1);
+            if (position < sql.length() && sql.charAt(position) == ')') {
+                return position + 1;
+            }
+            if (position >= sql.length() || sql.charAt(position) != ',') {
+                return -1;
+            }
+            position = skipSpaces(sql, position + 1);
+        }
+
+        return -1;
+    }
+
+    private static int skipSpaces(final String sql, final int index) {
+
+        int position = index;
+        while (position < sql.length() && Character.isWhitespace(sql.charAt(position))) {
+            position++;
+        }
+
+        return position;
+    }
+
+    private static boolean isWordChar(final char character) {
+
+        return Character.isLetterOrDigit(character) || character == '_';
+    }
+}
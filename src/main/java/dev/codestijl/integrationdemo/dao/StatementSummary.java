@@ -0,0 +1,61 @@
+package dev.codestijl.integrationdemo.dao;
+
+import lombok.Getter;
+
+/**
+ * A summary of the timings of one SQL statement.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+@Getter
+public class StatementSummary {
+
+    private final String sql;
+    private final long executions;
+    private final long rows;
+    private final long statements;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long p50Nanos;
+    private final long p95Nanos;
+    private final long p99Nanos;
+
+    /**
+     * Constructs a new StatementSummary.
+     *
+     * @param sql The SQL of the statement.
+     * @param executions The number of times the statement ran. A batch runs once.
+     * @param rows The number of rows the statement returned or changed.
+     * @param statements The number of statements run, counting each statement in a batch.
+     * @param totalNanos How long the statement took in all.
+     * @param maxNanos The longest the statement took.
+     * @param p50Nanos The median time the statement took.
+     * @param p95Nanos The 95th percentile of the time the statement took.
+     * @param p99Nanos The 99th percentile of the time the statement took.
+     */
+    public StatementSummary(final String sql, final long executions, final long rows, final long statements,
+                            final long totalNanos, final long maxNanos, final long p50Nanos, final long p95Nanos,
+                            final long p99Nanos) {
+
+        this.sql = sql;
+        this.executions = executions;
+        this.rows = rows;
+        this.statements = statements;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.p50Nanos = p50Nanos;
+        this.p95Nanos = p95Nanos;
+        this.p99Nanos = p99Nanos;
+    }
+
+    /**
+     * Returns the average number of statements in each batch.
+     *
+     * @return The average number of statements in each batch.
+     */
+    public double getAverageBatchSize() {
+
+        return this.executions == 0 ? 0 : (double) this.statements / this.executions;
+    }
+}
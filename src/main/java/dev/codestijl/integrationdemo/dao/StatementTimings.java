@@ -0,0 +1,85 @@
+package dev.codestijl.integrationdemo.dao;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The timings of one SQL statement: how many times it ran, the rows it touched, how many statements went in each
+ * batch, and a histogram of how long it took. Any number of threads can record at once.
+ *
+ * <p>The histogram has a bucket for each power of 2 microseconds, so a percentile is the upper bound of the bucket it
+ * falls in and can be up to twice the real value. That's close enough to tell which statements dominate a run.</p>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+/* default */ class StatementTimings {
+
+    private static final int BUCKETS = Long.SIZE;
+    private static final long NANOS_PER_MICRO = 1_000L;
+
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Records a run of the statement.
+     *
+     * @param elapsedNanos How long the statement took.
+     * @param rowCount The number of rows the statement returned or changed.
+     * @param batchSize The number of statements in the batch.
+     */
+    public void record(final long elapsedNanos, final long rowCount, final int batchSize) {
+
+        this.executions.increment();
+        this.rows.add(rowCount);
+        this.statements.add(batchSize);
+        this.totalNanos.add(elapsedNanos);
+        this.maxNanos.accumulate(elapsedNanos);
+        this.buckets.incrementAndGet(bucketOf(elapsedNanos));
+    }
+
+    /**
+     * Summarizes the timings.
+     *
+     * @param sql The SQL of the statement.
+     * @return The summary.
+     */
+    public StatementSummary summarize(final String sql) {
+
+        final long count = this.executions.sum();
+        final long max = this.maxNanos.get();
+
+        return new StatementSummary(sql, count, this.rows.sum(), this.statements.sum(), this.totalNanos.sum(), max,
+                this.percentile(count, 0.50, max), this.percentile(count, 0.95, max), this.percentile(count, 0.99, max));
+    }
+
+    private long percentile(final long count, final double percentile, final long max) {
+
+        final long rank = (long) Math.ceil(count * percentile);
+        long seen = 0;
+
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += this.buckets.get(bucket);
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(bucket), max);
+            }
+        }
+
+        return max;
+    }
+
+    private static int bucketOf(final long elapsedNanos) {
+
+        return Math.min(BUCKETS - Long.numberOfLeadingZeros(elapsedNanos / NANOS_PER_MICRO), BUCKETS - 1);
+    }
+
+    private static long upperBoundOf(final int bucket) {
+
+        return (1L << Math.min(bucket, BUCKETS - 2)) * NANOS_PER_MICRO;
+    }
+}
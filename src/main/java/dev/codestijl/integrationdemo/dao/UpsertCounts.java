@@ -0,0 +1,28 @@
+package dev.codestijl.integrationdemo.dao;
+
+import lombok.Getter;
+
+/**
+ * The number of rows an upsert inserted and updated.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+@Getter
+public class UpsertCounts {
+
+    private final int inserted;
+    private final int updated;
+
+    /**
+     * Constructs a new UpsertCounts.
+     *
+     * @param inserted The number of rows inserted.
+     * @param updated The number of rows updated.
+     */
+    public UpsertCounts(final int inserted, final int updated) {
+
+        this.inserted = inserted;
+        this.updated = updated;
+    }
+}
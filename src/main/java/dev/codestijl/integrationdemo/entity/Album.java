@@ -3,6 +3,7 @@ package dev.codestijl.integrationdemo.entity;
 import java.time.Instant;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.UUID;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
@@ -21,8 +22,8 @@ import lombok.experimental.Accessors;
 public class Album {
 
     // Tracking fields.
-    private String albumId;
-    private String batchId;
+    private UUID albumId;
+    private UUID batchId;
     private Status status;
     private Instant createTime;
     private Instant lastUpdateTime;
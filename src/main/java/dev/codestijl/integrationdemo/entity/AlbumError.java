@@ -1,6 +1,7 @@
 package dev.codestijl.integrationdemo.entity;
 
 import java.time.Instant;
+import java.util.UUID;
 
 import lombok.Getter;
 import lombok.Setter;
@@ -18,9 +19,9 @@ import lombok.experimental.Accessors;
 public class AlbumError {
 
     // Tracking fields.
-    private String errorId;
-    private String albumId;
-    private String batchId;
+    private UUID errorId;
+    private UUID albumId;
+    private UUID batchId;
     private Instant createTime;
 
     // Data field.
@@ -1,5 +1,7 @@
 package dev.codestijl.integrationdemo.entity;
 
+import java.util.UUID;
+
 import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.Accessors;
@@ -15,11 +17,25 @@ import lombok.experimental.Accessors;
 @Accessors(chain = true)
 public class CoreAlbum {
 
-    private String albumId;
+    private UUID albumId;
     private String gtin14;
     private String albumName;
     private String artistName;
-    private String sourceAlbumId;
+    private UUID sourceAlbumId;
+
+    /**
+     * Returns a new CoreAlbum with the same values as this one.
+     *
+     * @return A copy of this CoreAlbum.
+     */
+    public CoreAlbum copy() {
+
+        return new CoreAlbum().setAlbumId(this.albumId)
+                .setGtin14(this.gtin14)
+                .setAlbumName(this.albumName)
+                .setArtistName(this.artistName)
+                .setSourceAlbumId(this.sourceAlbumId);
+    }
 
     @Override
     public String toString() {
@@ -1,5 +1,7 @@
 package dev.codestijl.integrationdemo.entity;
 
+import java.util.UUID;
+
 import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.Accessors;
@@ -16,8 +18,8 @@ import lombok.experimental.Accessors;
 public class Song {
 
     // Tracking fields.
-    private String songId;
-    private String albumId;
+    private UUID songId;
+    private UUID albumId;
 
     // Data field.
     private String songName;
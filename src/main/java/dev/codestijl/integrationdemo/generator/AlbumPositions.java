@@ -0,0 +1,143 @@
+package dev.codestijl.integrationdemo.generator;
+
+/**
+ * Decides what kind of album is at each position in a series of batches: an original, a duplicate of an album earlier
+ * in the batch, or a duplicate of an album in an earlier batch, and whether it is invalid. The decisions are made
+ * from a hash of the position rather than in sequence, so the generator can look back at any earlier position and
+ * find out what was written there without having remembered it.
+ *
+ * <p>That is how a duplicate is made to repeat a GTIN-14 that is really in the catalog. It looks back for an
+ * original album with a valid GTIN-14, whose GTIN-14 comes straight from its position.</p>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+/* default */ final class AlbumPositions {
+
+    /**
+     * The position of an album with no GTIN-14 to repeat.
+     */
+    public static final long NOT_FOUND = -1;
+
+    /**
+     * What an album at a position is.
+     *
+     * @author darren
+     * @since 1.0.0
+     */
+    public enum Kind {
+        ORIGINAL,                   // The album has the GTIN-14 of its position.
+        DUPLICATE_WITHIN_BATCH,     // The album repeats a GTIN-14 from earlier in its batch.
+        DUPLICATE_ACROSS_BATCHES    // The album repeats a GTIN-14 from an earlier batch.
+    }
+
+    // A duplicate looks back at most this many positions for an original. Past that, it keeps its own GTIN-14, so a
+    // catalog that is nearly all duplicates still takes linear time.
+    private static final int MAX_LOOK_BACK = 64;
+
+    private static final int BATCH_SHIFT = 40;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final long KIND_SALT = 1;
+    private static final long INVALID_SALT = 2;
+    private static final long INVALID_KIND_SALT = 3;
+    private static final int DOUBLE_SHIFT = 11;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    private static final CatalogGenerator.Invalid[] INVALID_KINDS = {
+        CatalogGenerator.Invalid.GTIN_LENGTH,
+        CatalogGenerator.Invalid.ALBUM_NAME_LENGTH,
+        CatalogGenerator.Invalid.ARTIST_NAME_LENGTH
+    };
+
+    private final long seed;
+    private final double duplicateWithinBatchRate;
+    private final double duplicateRate;
+    private final double invalidRate;
+
+    /**
+     * Constructs a new AlbumPositions.
+     *
+     * @param spec The settings of the catalog.
+     */
+    public AlbumPositions(final CatalogSpec spec) {
+
+        this.seed = mix(spec.getSeed());
+        this.duplicateWithinBatchRate = spec.getDuplicateWithinBatchRate();
+        this.duplicateRate = spec.getDuplicateWithinBatchRate() + spec.getDuplicateAcrossBatchRate();
+        this.invalidRate = spec.getInvalidRate();
+    }
+
+    /**
+     * Returns what the album at a position is. The first album in a batch is always an original, as is any album
+     * in the first batch that would otherwise repeat an earlier batch.
+     *
+     * @param batch The batch the album is in.
+     * @param index The index of the album in the batch.
+     * @return What the album is.
+     */
+    public Kind kindOf(final int batch, final long index) {
+
+        final double draw = this.draw(batch, index, KIND_SALT);
+
+        if (index > 0 && draw < this.duplicateWithinBatchRate) {
+            return Kind.DUPLICATE_WITHIN_BATCH;
+        } else if (batch > 0 && draw < this.duplicateRate) {
+            return Kind.DUPLICATE_ACROSS_BATCHES;
+        }
+
+        return Kind.ORIGINAL;
+    }
+
+    /**
+     * Returns how the album at a position is invalid.
+     *
+     * @param batch The batch the album is in.
+     * @param index The index of the album in the batch.
+     * @return How the album is invalid, or NONE if it is valid.
+     */
+    public CatalogGenerator.Invalid invalidOf(final int batch, final long index) {
+
+        if (this.draw(batch, index, INVALID_SALT) >= this.invalidRate) {
+            return CatalogGenerator.Invalid.NONE;
+        }
+
+        return INVALID_KINDS[(int) (this.draw(batch, index, INVALID_KIND_SALT) * INVALID_KINDS.length)];
+    }
+
+    /**
+     * Returns the nearest position at or before index whose album wrote the GTIN-14 of its position: an original with
+     * a valid GTIN-14.
+     *
+     * @param batch The batch to look in.
+     * @param index The index to start looking back from.
+     * @return The index of the album, or NOT_FOUND if there isn't one close enough.
+     */
+    public long findOriginal(final int batch, final long index) {
+
+        final long stop = Math.max(-1, index - MAX_LOOK_BACK);
+
+        for (long candidate = index; candidate > stop; candidate--) {
+            if (this.kindOf(batch, candidate) == Kind.ORIGINAL
+                    && this.invalidOf(batch, candidate) != CatalogGenerator.Invalid.GTIN_LENGTH) {
+                return candidate;
+            }
+        }
+
+        return NOT_FOUND;
+    }
+
+    private double draw(final int batch, final long index, final long salt) {
+
+        final long position = (long) batch << BATCH_SHIFT | index;
+        return (mix(this.seed + position * GOLDEN_GAMMA + salt) >>> DOUBLE_SHIFT) * DOUBLE_UNIT;
+    }
+
+    // The finalizer of SplitMix64, which SplittableRandom uses too.
+    private static long mix(final long value) {
+
+        long hash = value;
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
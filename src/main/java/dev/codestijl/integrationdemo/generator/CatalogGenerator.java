@@ -0,0 +1,324 @@
+package dev.codestijl.integrationdemo.generator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.util.Assert;
+
+/**
+ * Generates a synthetic catalog of albums and songs in the same JSON shape as input.json, for testing how the job
+ * scales. The catalog is streamed out an album at a time and nothing about the albums already written is kept, so it
+ * uses the same small amount of memory whether it writes a thousand albums or hundreds of millions.
+ *
+ * <p>Everything random comes from the seed in the CatalogSpec, so the same spec always generates the same bytes.
+ * Like input.json, the catalog is a JSON array with one album per line.</p>
+ *
+ * <p>The generator can be run from the command line with the settings of the CatalogSpec as options. For example:</p>
+ *
+ * <pre>
+ * java -cp integration-demo-0.1.0.jar dev.codestijl.integrationdemo.generator.CatalogGenerator --out=catalog.json
+ *     --albums=1000000 --seed=7 --batch=1 --min-songs=1 --max-songs=8 --duplicates-within-batch=0.01
+ *     --duplicates-across-batches=0.2 --invalid=0.002 --album-name-length=normal:45:25:1:100
+ *     --artist-name-length=uniform:1:90 --song-name-length=uniform:1:90
+ * </pre>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class CatalogGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogGenerator.class);
+
+    private static final long LOG_AT = 1_000_000;
+
+    private static final String ALBUM_NAME = "albumName";
+    private static final String ARTIST = "artist";
+    private static final String SONGS = "songs";
+    private static final String SONG_NAME = "songName";
+    private static final String GTIN_14 = "gtin-14";
+
+    // Names that are too long are longer than the 100 characters CORE allows.
+    private static final int MIN_INVALID_NAME_LENGTH = 101;
+    private static final int MAX_INVALID_NAME_LENGTH = 200;
+    private static final int MAX_INVALID_GTIN_LENGTH = 20;
+    private static final int RADIX = 10;
+    private static final char SPACE = ' ';
+
+    private static final String WORDS = "lorem ipsum dolor sit amet consectetur adipiscing elit sed do eiusmod tempor incididunt ut "
+            + "labore et dolore magna aliqua ut enim ad minim veniam quis nostrud exercitation ullamco laboris nisi ut aliquip ex "
+            + "ea commodo consequat duis aute irure dolor in reprehenderit in voluptate velit esse cillum dolore eu fugiat nulla "
+            + "pariatur excepteur sint occaecat cupidatat non proident sunt in culpa qui officia deserunt mollit anim id est laborum ";
+
+    // Names are cut out of this text, so no strings have to be made to write them.
+    private static final char[] TEXT = buildText();
+
+    private static final long BATCH_SEED_MIX = 0x9E3779B97F4A7C15L;
+
+    private final CatalogSpec spec;
+    private final GtinSequence gtinSequence;
+    private final AlbumPositions albumPositions;
+
+    /**
+     * The ways an album can be made invalid.
+     *
+     * @author darren
+     * @since 1.0.0
+     */
+    public enum Invalid {
+        NONE,                   // The album is valid.
+        GTIN_LENGTH,            // The GTIN-14 is too short or too long.
+        ALBUM_NAME_LENGTH,      // The album name is over 100 characters.
+        ARTIST_NAME_LENGTH      // The artist name is over 100 characters.
+    }
+
+    /**
+     * Writes the catalog with one album per line, so it looks like input.json and can be split or counted with line
+     * based tools. Everything inside an album is written without whitespace.
+     *
+     * @author darren
+     * @since 1.0.0
+     */
+    private static final class AlbumPerLinePrettyPrinter extends MinimalPrettyPrinter {
+
+        private static final long serialVersionUID = -1949223405232931367L;
+
+        @Override
+        public void beforeArrayValues(final JsonGenerator generator) throws IOException {
+
+            if (isCatalog(generator)) {
+                generator.writeRaw('\n');
+            }
+        }
+
+        @Override
+        public void writeArrayValueSeparator(final JsonGenerator generator) throws IOException {
+
+            generator.writeRaw(isCatalog(generator) ? ",\n" : ",");
+        }
+
+        @Override
+        public void writeEndArray(final JsonGenerator generator, final int nrOfValues) throws IOException {
+
+            generator.writeRaw(isCatalog(generator) && nrOfValues > 0 ? "\n]" : "]");
+        }
+
+        private static boolean isCatalog(final JsonGenerator generator) {
+
+            return generator.getOutputContext().getParent().inRoot();
+        }
+    }
+
+    /**
+     * Constructs a new CatalogGenerator.
+     *
+     * @param spec The settings of the catalog.
+     */
+    public CatalogGenerator(final CatalogSpec spec) {
+
+        Assert.notNull(spec, "Spec cannot be null.");
+
+        this.spec = spec;
+        this.gtinSequence = new GtinSequence(spec.getSeed());
+        this.albumPositions = new AlbumPositions(spec);
+    }
+
+    /**
+     * Writes the catalog. The OutputStream is not closed.
+     *
+     * @param outputStream Where to write the catalog. It is written in UTF-8.
+     * @return Counts of what was written.
+     * @throws IOException If the catalog can't be written.
+     */
+    public CatalogStats generate(final OutputStream outputStream) throws IOException {
+
+        final CatalogStats stats = new CatalogStats();
+        final SplittableRandom random = new SplittableRandom(this.spec.getSeed() ^ this.spec.getBatch() * BATCH_SEED_MIX);
+        final char[] gtin = new char[MAX_INVALID_GTIN_LENGTH];
+
+        try (JsonGenerator generator = new JsonFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setPrettyPrinter(new AlbumPerLinePrettyPrinter());
+
+            generator.writeStartArray();
+            for (long index = 0; index < this.spec.getAlbums(); index++) {
+
+                this.writeAlbum(generator, random, index, gtin, stats);
+
+                final long generated = index + 1;
+                if (generated % LOG_AT == 0) {
+                    logger.info(String.format("%,d albums generated.", generated));
+                }
+            }
+            generator.writeEndArray();
+        }
+
+        return stats;
+    }
+
+    private void writeAlbum(final JsonGenerator generator, final SplittableRandom random, final long index, final char[] gtin,
+                            final CatalogStats stats) throws IOException {
+
+        final int batch = this.spec.getBatch();
+        final Invalid invalid = this.albumPositions.invalidOf(batch, index);
+        final int songs = random.nextInt(this.spec.getMinSongs(), this.spec.getMaxSongs() + 1);
+
+        this.nextGtin(random, index, gtin, stats);
+
+        generator.writeStartObject();
+
+        writeText(generator, random, ALBUM_NAME, invalid == Invalid.ALBUM_NAME_LENGTH
+                ? random.nextInt(MIN_INVALID_NAME_LENGTH, MAX_INVALID_NAME_LENGTH + 1) : this.spec.getAlbumNameLength().next(random));
+        writeText(generator, random, ARTIST, invalid == Invalid.ARTIST_NAME_LENGTH
+                ? random.nextInt(MIN_INVALID_NAME_LENGTH, MAX_INVALID_NAME_LENGTH + 1) : this.spec.getArtistNameLength().next(random));
+
+        generator.writeArrayFieldStart(SONGS);
+        for (int song = 0; song < songs; song++) {
+            generator.writeStartObject();
+            writeText(generator, random, SONG_NAME, this.spec.getSongNameLength().next(random));
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+
+        generator.writeFieldName(GTIN_14);
+        generator.writeString(gtin, 0, invalid == Invalid.GTIN_LENGTH ? nextInvalidGtinLength(gtin, random) : GtinSequence.GTIN_14_LENGTH);
+
+        generator.writeEndObject();
+
+        stats.addAlbum(songs);
+        if (invalid != Invalid.NONE) {
+            stats.addInvalid(invalid);
+        }
+    }
+
+    private void nextGtin(final SplittableRandom random, final long index, final char[] gtin, final CatalogStats stats) {
+
+        final int batch = this.spec.getBatch();
+
+        // A duplicate repeats the GTIN-14 of an original album, so it is only counted if one is found.
+        switch (this.albumPositions.kindOf(batch, index)) {
+            case DUPLICATE_WITHIN_BATCH:
+                final long withinIndex = this.albumPositions.findOriginal(batch, random.nextLong(index));
+                if (withinIndex != AlbumPositions.NOT_FOUND) {
+                    this.gtinSequence.write(gtin, batch, withinIndex);
+                    stats.addDuplicateWithinBatch();
+                    return;
+                }
+                break;
+            case DUPLICATE_ACROSS_BATCHES:
+                final int acrossBatch = random.nextInt(batch);
+                final long acrossIndex = this.albumPositions.findOriginal(acrossBatch, random.nextLong(this.spec.getAlbums()));
+                if (acrossIndex != AlbumPositions.NOT_FOUND) {
+                    this.gtinSequence.write(gtin, acrossBatch, acrossIndex);
+                    stats.addDuplicateAcrossBatches();
+                    return;
+                }
+                break;
+            default:
+                break;
+        }
+
+        this.gtinSequence.write(gtin, batch, index);
+    }
+
+    private static int nextInvalidGtinLength(final char[] gtin, final SplittableRandom random) {
+
+        // Either cut the GTIN-14 short or add digits to the end of it.
+        final int length = random.nextBoolean()
+                ? random.nextInt(1, GtinSequence.GTIN_14_LENGTH)
+                : random.nextInt(GtinSequence.GTIN_14_LENGTH + 1, MAX_INVALID_GTIN_LENGTH + 1);
+
+        for (int i = GtinSequence.GTIN_14_LENGTH; i < length; i++) {
+            gtin[i] = Character.forDigit(random.nextInt(RADIX), RADIX);
+        }
+
+        return length;
+    }
+
+    private static void writeText(final JsonGenerator generator, final SplittableRandom random, final String fieldName,
+                                  final int length) throws IOException {
+
+        // Start on a word, so a name is never blank.
+        int offset = random.nextInt(TEXT.length - length);
+        if (TEXT[offset] == SPACE) {
+            offset++;
+        }
+
+        generator.writeFieldName(fieldName);
+        generator.writeString(TEXT, offset, length);
+    }
+
+    private static char[] buildText() {
+
+        // Long enough to cut the longest name out of anywhere in the first half.
+        final int length = LengthDistribution.MAX_LENGTH * 2 + 1;
+        return WORDS.repeat(length / WORDS.length() + 1).substring(0, length).toCharArray();
+    }
+
+    /**
+     * Writes a catalog to a file. The settings of the CatalogSpec are passed as options. See the class comment for
+     * the options.
+     *
+     * @param args The command line arguments.
+     * @throws IOException If the catalog can't be written.
+     */
+    public static void main(final String[] args) throws IOException {
+
+        final SimpleCommandLinePropertySource options = new SimpleCommandLinePropertySource(args);
+        final String out = options.getProperty("out");
+        Assert.hasText(out, "--out=<file> is required.");
+
+        final CatalogSpec spec = toSpec(options);
+        final Path path = Path.of(out);
+        final long start = System.nanoTime();
+
+        final CatalogStats stats;
+        try (OutputStream outputStream = Files.newOutputStream(path)) {
+            stats = new CatalogGenerator(spec).generate(outputStream);
+        }
+
+        final long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        logger.info(String.format("Wrote %s to %s (%,d bytes) in %,d ms.", stats, path, Files.size(path), millis));
+    }
+
+    private static CatalogSpec toSpec(final SimpleCommandLinePropertySource options) {
+
+        final CatalogSpec.Builder builder = CatalogSpec.builder();
+
+        option(options, "seed", value -> builder.setSeed(Long.parseLong(value)));
+        option(options, "albums", value -> builder.setAlbums(Long.parseLong(value)));
+        option(options, "batch", value -> builder.setBatch(Integer.parseInt(value)));
+        option(options, "min-songs", value -> builder.setMinSongs(Integer.parseInt(value)));
+        option(options, "max-songs", value -> builder.setMaxSongs(Integer.parseInt(value)));
+        option(options, "duplicates-within-batch", value -> builder.setDuplicateWithinBatchRate(Double.parseDouble(value)));
+        option(options, "duplicates-across-batches", value -> builder.setDuplicateAcrossBatchRate(Double.parseDouble(value)));
+        option(options, "invalid", value -> builder.setInvalidRate(Double.parseDouble(value)));
+        option(options, "album-name-length", value -> builder.setAlbumNameLength(LengthDistribution.parse(value)));
+        option(options, "artist-name-length", value -> builder.setArtistNameLength(LengthDistribution.parse(value)));
+        option(options, "song-name-length", value -> builder.setSongNameLength(LengthDistribution.parse(value)));
+
+        return builder.build();
+    }
+
+    private static void option(final SimpleCommandLinePropertySource options, final String name,
+                               final Consumer<String> setter) {
+
+        final String value = options.getProperty(name);
+        if (Objects.nonNull(value)) {
+            setter.accept(value);
+        }
+    }
+}
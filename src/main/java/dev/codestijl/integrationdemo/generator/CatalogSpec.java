@@ -0,0 +1,129 @@
+package dev.codestijl.integrationdemo.generator;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.springframework.util.Assert;
+
+/**
+ * The settings of a generated catalog. The defaults produce a catalog shaped like input.json: 1 to 8 songs per album,
+ * names of 1 to 90 characters, and a few albums with bad GTIN-14s.
+ *
+ * <p>A catalog is one batch in a series of batches. Batches generated from the same seed and number of albums are
+ * consistent with each other, so a batch can repeat the GTIN-14s of the batches before it the way a feed repeats the
+ * albums it sent before.</p>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+@Getter
+// These are the knobs of the generator, which are simplest kept together.
+@SuppressWarnings("PMD.TooManyFields")
+public final class CatalogSpec {
+
+    private static final long DEFAULT_ALBUMS = 10_000;
+    private static final int DEFAULT_MAX_SONGS = 8;
+    private static final int DEFAULT_MAX_NAME_LENGTH = 90;
+    private static final double DEFAULT_INVALID_RATE = 0.002;
+
+    private final long seed;
+    private final long albums;
+    private final int batch;
+    private final int minSongs;
+    private final int maxSongs;
+    private final double duplicateWithinBatchRate;
+    private final double duplicateAcrossBatchRate;
+    private final double invalidRate;
+    private final LengthDistribution albumNameLength;
+    private final LengthDistribution artistNameLength;
+    private final LengthDistribution songNameLength;
+
+    /**
+     * Builder for the CatalogSpec.
+     *
+     * @author darren
+     * @since 1.0.0
+     */
+    @Getter
+    @Setter
+    @Accessors(chain = true)
+    // See the note on the CatalogSpec.
+    @SuppressWarnings("PMD.TooManyFields")
+    public static final class Builder {
+
+        private long seed;
+        private long albums;
+        private int batch;
+        private int minSongs;
+        private int maxSongs;
+        private double duplicateWithinBatchRate;
+        private double duplicateAcrossBatchRate;
+        private double invalidRate;
+        private LengthDistribution albumNameLength;
+        private LengthDistribution artistNameLength;
+        private LengthDistribution songNameLength;
+
+        private Builder() {
+
+            this.seed = 1;
+            this.albums = DEFAULT_ALBUMS;
+            this.minSongs = 1;
+            this.maxSongs = DEFAULT_MAX_SONGS;
+            this.invalidRate = DEFAULT_INVALID_RATE;
+            this.albumNameLength = LengthDistribution.uniform(1, DEFAULT_MAX_NAME_LENGTH);
+            this.artistNameLength = LengthDistribution.uniform(1, DEFAULT_MAX_NAME_LENGTH);
+            this.songNameLength = LengthDistribution.uniform(1, DEFAULT_MAX_NAME_LENGTH);
+        }
+
+        /**
+         * Returns a new CatalogSpec.
+         *
+         * @return A new CatalogSpec.
+         * @throws IllegalArgumentException If the settings don't make sense together.
+         */
+        public CatalogSpec build() {
+            return new CatalogSpec(this);
+        }
+    }
+
+    private CatalogSpec(final Builder builder) {
+
+        Assert.isTrue(builder.albums >= 0, "Albums cannot be negative.");
+        Assert.isTrue(builder.albums <= GtinSequence.MAX_INDEX, "Too many albums.");
+        Assert.isTrue(builder.batch >= 0 && builder.batch <= GtinSequence.MAX_BATCH, "Batch is out of range.");
+        Assert.isTrue(builder.minSongs >= 0 && builder.minSongs <= builder.maxSongs, "Songs per album are out of range.");
+        Assert.isTrue(isRate(builder.duplicateWithinBatchRate) && isRate(builder.duplicateAcrossBatchRate)
+                        && builder.duplicateWithinBatchRate + builder.duplicateAcrossBatchRate <= 1.0,
+                "Duplicate rates must be from 0 to 1 and add up to at most 1.");
+        Assert.isTrue(isRate(builder.invalidRate), "Invalid rate must be from 0 to 1.");
+        Assert.notNull(builder.albumNameLength, "Album name length cannot be null.");
+        Assert.notNull(builder.artistNameLength, "Artist name length cannot be null.");
+        Assert.notNull(builder.songNameLength, "Song name length cannot be null.");
+
+        this.seed = builder.seed;
+        this.albums = builder.albums;
+        this.batch = builder.batch;
+        this.minSongs = builder.minSongs;
+        this.maxSongs = builder.maxSongs;
+        this.duplicateWithinBatchRate = builder.duplicateWithinBatchRate;
+        this.duplicateAcrossBatchRate = builder.duplicateAcrossBatchRate;
+        this.invalidRate = builder.invalidRate;
+        this.albumNameLength = builder.albumNameLength;
+        this.artistNameLength = builder.artistNameLength;
+        this.songNameLength = builder.songNameLength;
+    }
+
+    /**
+     * Returns a Builder to use to construct a new CatalogSpec.
+     *
+     * @return A Builder to use to construct a new CatalogSpec.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private static boolean isRate(final double rate) {
+
+        return rate >= 0.0 && rate <= 1.0;
+    }
+}
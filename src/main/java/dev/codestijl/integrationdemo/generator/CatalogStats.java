@@ -0,0 +1,87 @@
+package dev.codestijl.integrationdemo.generator;
+
+import lombok.Getter;
+
+/**
+ * Counts of what the CatalogGenerator wrote.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+@Getter
+public class CatalogStats {
+
+    private long albums;
+    private long songs;
+    private long duplicatesWithinBatch;
+    private long duplicatesAcrossBatches;
+    private long invalidGtins;
+    private long invalidAlbumNames;
+    private long invalidArtistNames;
+
+    /**
+     * Counts an album.
+     *
+     * @param songsInAlbum The number of songs in the album.
+     */
+    public void addAlbum(final int songsInAlbum) {
+
+        this.albums++;
+        this.songs += songsInAlbum;
+    }
+
+    /**
+     * Counts an album that repeats a GTIN-14 from earlier in the batch.
+     */
+    public void addDuplicateWithinBatch() {
+
+        this.duplicatesWithinBatch++;
+    }
+
+    /**
+     * Counts an album that repeats a GTIN-14 from an earlier batch.
+     */
+    public void addDuplicateAcrossBatches() {
+
+        this.duplicatesAcrossBatches++;
+    }
+
+    /**
+     * Counts an invalid album.
+     *
+     * @param invalid How the album is invalid.
+     */
+    public void addInvalid(final CatalogGenerator.Invalid invalid) {
+
+        switch (invalid) {
+            case GTIN_LENGTH:
+                this.invalidGtins++;
+                break;
+            case ALBUM_NAME_LENGTH:
+                this.invalidAlbumNames++;
+                break;
+            default:
+                this.invalidArtistNames++;
+                break;
+        }
+    }
+
+    /**
+     * Returns the number of albums that are invalid.
+     *
+     * @return The number of albums that are invalid.
+     */
+    public long getInvalid() {
+
+        return this.invalidGtins + this.invalidAlbumNames + this.invalidArtistNames;
+    }
+
+    @Override
+    public String toString() {
+
+        return String.format("%,d albums with %,d songs, %,d duplicated within the batch, %,d duplicated across batches, "
+                        + "and %,d invalid (%,d GTIN-14s, %,d album names, %,d artist names)",
+                this.albums, this.songs, this.duplicatesWithinBatch, this.duplicatesAcrossBatches, this.getInvalid(),
+                this.invalidGtins, this.invalidAlbumNames, this.invalidArtistNames);
+    }
+}
@@ -0,0 +1,81 @@
+package dev.codestijl.integrationdemo.generator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Maps the position of an album in a series of batches to a GTIN-14. Different positions always map to different
+ * GTIN-14s, so the only duplicates in a catalog are the ones the generator makes on purpose, and a GTIN-14 can be
+ * found again from its position without remembering any of them.
+ *
+ * <p>The position is turned into a number below 10^14 and scrambled with an affine map, (a * position + b) mod
+ * 10^14, where a has no factors in common with 10^14. That map is a bijection, so the GTIN-14s are unique. The seed
+ * picks a and b.</p>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+/* default */ final class GtinSequence {
+
+    /**
+     * The length of a GTIN-14.
+     */
+    public static final int GTIN_14_LENGTH = 14;
+
+    /**
+     * The highest batch number.
+     */
+    public static final int MAX_BATCH = 63;
+
+    /**
+     * The highest index of an album in a batch.
+     */
+    public static final long MAX_INDEX = (1L << 40) - 1;
+
+    private static final int BATCH_SHIFT = 40;
+    private static final long MODULUS = 100_000_000_000_000L;
+    private static final int RADIX = 10;
+    private static final int FACTOR_OF_MODULUS = 5;
+
+    // With a below 2^16 and positions below 2^46, a * position + b can't overflow a long.
+    private static final long MULTIPLIER_BITS = 0xFFFFL;
+    private static final long MULTIPLIER_HIGH_BIT = 0x8001L;
+
+    private final long multiplier;
+    private final long increment;
+
+    /**
+     * Constructs a new GtinSequence.
+     *
+     * @param seed The seed that picks how the positions are scrambled.
+     */
+    public GtinSequence(final long seed) {
+
+        final SplittableRandom random = new SplittableRandom(seed);
+
+        // a must be odd and not a multiple of 5 to have no factors in common with 10^14.
+        long candidate = random.nextLong() & MULTIPLIER_BITS | MULTIPLIER_HIGH_BIT;
+        if (candidate % FACTOR_OF_MODULUS == 0) {
+            candidate += 2;
+        }
+
+        this.multiplier = candidate;
+        this.increment = random.nextLong(MODULUS);
+    }
+
+    /**
+     * Writes the GTIN-14 of an album.
+     *
+     * @param digits Where to write the 14 digits of the GTIN-14.
+     * @param batch The batch the album is in.
+     * @param index The index of the album in the batch.
+     */
+    public void write(final char[] digits, final int batch, final long index) {
+
+        long value = (this.multiplier * ((long) batch << BATCH_SHIFT | index) + this.increment) % MODULUS;
+
+        for (int i = GTIN_14_LENGTH - 1; i >= 0; i--) {
+            digits[i] = Character.forDigit((int) (value % RADIX), RADIX);
+            value /= RADIX;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package dev.codestijl.integrationdemo.generator;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import lombok.Getter;
+import org.springframework.util.Assert;
+
+/**
+ * How the lengths of a generated string are spread out. Lengths are either uniform between a min and a max, or
+ * normally distributed around a mean and clamped to a min and a max.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+@Getter
+public final class LengthDistribution {
+
+    /**
+     * The longest string that can be generated.
+     */
+    public static final int MAX_LENGTH = 4_096;
+
+    private static final String UNIFORM_TYPE = "uniform";
+    private static final String NORMAL_TYPE = "normal";
+    private static final String SEPARATOR = ":";
+
+    private static final int UNIFORM_PARTS = 3;
+    private static final int NORMAL_PARTS = 5;
+
+    private final int min;
+    private final int max;
+    private final double mean;
+    private final double standardDeviation;
+    private final boolean isNormal;
+
+    private LengthDistribution(final int min, final int max, final double mean, final double standardDeviation, final boolean isNormal) {
+
+        Assert.isTrue(min >= 0, "Min length cannot be negative.");
+        Assert.isTrue(min <= max, "Min length cannot be greater than the max length.");
+        Assert.isTrue(max <= MAX_LENGTH, String.format("Max length cannot be greater than %,d.", MAX_LENGTH));
+        Assert.isTrue(standardDeviation >= 0, "Standard deviation cannot be negative.");
+
+        this.min = min;
+        this.max = max;
+        this.mean = mean;
+        this.standardDeviation = standardDeviation;
+        this.isNormal = isNormal;
+    }
+
+    /**
+     * Returns a distribution where every length from min to max is equally likely.
+     *
+     * @param min The shortest length.
+     * @param max The longest length.
+     * @return The distribution.
+     */
+    public static LengthDistribution uniform(final int min, final int max) {
+
+        return new LengthDistribution(min, max, (min + max) / 2.0, 0, false);
+    }
+
+    /**
+     * Returns a distribution of lengths that are normally distributed. Lengths outside min and max are moved to the
+     * nearest of the two.
+     *
+     * @param mean The mean length.
+     * @param standardDeviation The standard deviation of the lengths.
+     * @param min The shortest length.
+     * @param max The longest length.
+     * @return The distribution.
+     */
+    public static LengthDistribution normal(final double mean, final double standardDeviation, final int min, final int max) {
+
+        return new LengthDistribution(min, max, mean, standardDeviation, true);
+    }
+
+    /**
+     * Parses a distribution. A uniform distribution is written uniform:min:max and a normal distribution is written
+     * normal:mean:standardDeviation:min:max.
+     *
+     * @param value The distribution to parse.
+     * @return The distribution.
+     * @throws IllegalArgumentException If value isn't a distribution.
+     */
+    public static LengthDistribution parse(final String value) {
+
+        Assert.hasText(value, "Length distribution cannot be empty.");
+
+        final String[] parts = value.trim().split(SEPARATOR);
+        final String type = parts[0].toLowerCase(Locale.ROOT);
+
+        if (UNIFORM_TYPE.equals(type) && parts.length == UNIFORM_PARTS) {
+            return uniform(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+        } else if (NORMAL_TYPE.equals(type) && parts.length == NORMAL_PARTS) {
+            return normal(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]), Integer.parseInt(parts[3]), Integer.parseInt(parts[4]));
+        }
+
+        throw new IllegalArgumentException(String.format("'%s' is not uniform:min:max or normal:mean:standardDeviation:min:max.", value));
+    }
+
+    /**
+     * Returns the next length.
+     *
+     * @param random The source of randomness.
+     * @return A length from min to max.
+     */
+    public int next(final SplittableRandom random) {
+
+        if (!this.isNormal) {
+            return random.nextInt(this.min, this.max + 1);
+        }
+
+        final long length = Math.round(this.mean + nextGaussian(random) * this.standardDeviation);
+        return (int) Math.max(this.min, Math.min(this.max, length));
+    }
+
+    @Override
+    public String toString() {
+
+        return this.isNormal
+                ? String.join(SEPARATOR, NORMAL_TYPE, Double.toString(this.mean), Double.toString(this.standardDeviation),
+                        Integer.toString(this.min), Integer.toString(this.max))
+                : String.join(SEPARATOR, UNIFORM_TYPE, Integer.toString(this.min), Integer.toString(this.max));
+    }
+
+    // SplittableRandom has no nextGaussian, so this is the Box-Muller transform.
+    private static double nextGaussian(final SplittableRandom random) {
+
+        final double uniform = 1.0 - random.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(uniform)) * Math.cos(2.0 * Math.PI * random.nextDouble());
+    }
+}
@@ -0,0 +1,50 @@
+package dev.codestijl.integrationdemo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * A JFR event for each chunk of a step, from the start of the chunk until it commits or fails, with the items the
+ * chunk read, wrote, filtered, and skipped.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+@Name(ChunkEvent.NAME)
+@Label("Chunk")
+@Category({JfrEvents.CATEGORY, "Batch"})
+@Description("A chunk of a step, from its start until it commits or fails.")
+@Getter
+@Setter
+@Accessors(chain = true)
+public class ChunkEvent extends Event {
+
+    /**
+     * The name of the event in a recording.
+     */
+    public static final String NAME = "dev.codestijl.integrationdemo.Chunk";
+
+    @Label("Step")
+    private String step;
+
+    @Label("Items Read")
+    private int itemsRead;
+
+    @Label("Items Written")
+    private int itemsWritten;
+
+    @Label("Items Filtered")
+    private int itemsFiltered;
+
+    @Label("Items Skipped")
+    private int itemsSkipped;
+
+    @Label("Failed")
+    private boolean failed;
+}
@@ -0,0 +1,50 @@
+package dev.codestijl.integrationdemo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * A JFR event for each row a ClobJsonReader reads, from when it advances to the row until it advances past it, with
+ * the size of the payload and the records parsed from it.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+@Name(ClobRowEvent.NAME)
+@Label("CLOB Row")
+@Category({JfrEvents.CATEGORY, "Parsing"})
+@Description("A row of JSON a ClobJsonReader parses, from when it advances to the row until it advances past it.")
+@Getter
+@Setter
+@Accessors(chain = true)
+public class ClobRowEvent extends Event {
+
+    /**
+     * The name of the event in a recording.
+     */
+    public static final String NAME = "dev.codestijl.integrationdemo.ClobRow";
+
+    @Label("Step")
+    private String step;
+
+    @Label("Row")
+    private int row;
+
+    @Label("Codec")
+    private String codec;
+
+    @Label("Size")
+    @Description("The length of the CLOB in characters, or of the BLOB in bytes when the payload is compressed.")
+    @DataAmount(DataAmount.BYTES)
+    private long size;
+
+    @Label("Records Parsed")
+    private int recordsParsed;
+}
@@ -0,0 +1,60 @@
+package dev.codestijl.integrationdemo.jfr;
+
+/**
+ * Records the rows a reader parses as ClobRowEvents. Each row is begun when the reader advances to it and ended when
+ * it advances past it or the step ends.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class ClobRowRecorder {
+
+    private ClobRowEvent event;
+    private int recordsBefore;
+
+    /**
+     * Begins a row.
+     *
+     * @param row The number of the row, from 1.
+     * @param codec The PayloadCodec of the row.
+     * @param recordsRead The records the reader has read so far.
+     * @return True if the row will be recorded. Only then does the size need to be set.
+     */
+    public boolean begin(final int row, final String codec, final int recordsRead) {
+
+        this.event = new ClobRowEvent();
+        this.recordsBefore = recordsRead;
+
+        if (this.event.isEnabled()) {
+            this.event.setRow(row).setCodec(codec).begin();
+        }
+
+        return this.event.isEnabled();
+    }
+
+    /**
+     * Sets the size of the row that was begun.
+     *
+     * @param size The length of the CLOB in characters, or of the BLOB in bytes.
+     */
+    public void setSize(final long size) {
+
+        this.event.setSize(size);
+    }
+
+    /**
+     * Ends the row that was begun and records it.
+     *
+     * @param recordsRead The records the reader has read so far.
+     */
+    public void end(final int recordsRead) {
+
+        this.event.end();
+
+        if (this.event.shouldCommit()) {
+            this.event.setStep(JfrEvents.currentStep())
+                    .setRecordsParsed(recordsRead - this.recordsBefore)
+                    .commit();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package dev.codestijl.integrationdemo.jfr;
+
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+
+/**
+ * Records a ChunkEvent for each chunk of the steps it's registered with. The items of a chunk are the counts of the
+ * StepExecution when it ends less the counts when it started.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class JfrChunkListener implements ChunkListener {
+
+    private static final String CHUNK_KEY = JfrChunkListener.class.getName() + ".chunk";
+
+    /**
+     * A chunk that has started and the counts of its step when it did.
+     *
+     * @author darren
+     * @since 1.0.0
+     */
+    private static final class Chunk {
+
+        private final ChunkEvent event = new ChunkEvent();
+        private final int readCount;
+        private final int writeCount;
+        private final int filterCount;
+        private final int skipCount;
+
+        private Chunk(final StepExecution stepExecution) {
+
+            this.readCount = stepExecution.getReadCount();
+            this.writeCount = stepExecution.getWriteCount();
+            this.filterCount = stepExecution.getFilterCount();
+            this.skipCount = stepExecution.getSkipCount();
+        }
+    }
+
+    @Override
+    public void beforeChunk(final ChunkContext context) {
+
+        final Chunk chunk = new Chunk(context.getStepContext().getStepExecution());
+
+        if (chunk.event.isEnabled()) {
+            chunk.event.begin();
+            context.setAttribute(CHUNK_KEY, chunk);
+        }
+    }
+
+    @Override
+    public void afterChunk(final ChunkContext context) {
+
+        commit(context, false);
+    }
+
+    @Override
+    public void afterChunkError(final ChunkContext context) {
+
+        commit(context, true);
+    }
+
+    private static void commit(final ChunkContext context, final boolean failed) {
+
+        final Object attribute = context.removeAttribute(CHUNK_KEY);
+
+        if (attribute instanceof Chunk) {
+
+            final Chunk chunk = (Chunk) attribute;
+            chunk.event.end();
+
+            if (chunk.event.shouldCommit()) {
+
+                final StepExecution stepExecution = context.getStepContext().getStepExecution();
+                chunk.event.setStep(stepExecution.getStepName())
+                        .setItemsRead(stepExecution.getReadCount() - chunk.readCount)
+                        .setItemsWritten(stepExecution.getWriteCount() - chunk.writeCount)
+                        .setItemsFiltered(stepExecution.getFilterCount() - chunk.filterCount)
+                        .setItemsSkipped(stepExecution.getSkipCount() - chunk.skipCount)
+                        .setFailed(failed)
+                        .commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package dev.codestijl.integrationdemo.jfr;
+
+import java.util.List;
+import java.util.Objects;
+
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+
+/**
+ * Turns the JFR events of the job on and off, and works out the step an event happens in.
+ *
+ * <p>The events cost next to nothing when no recording is running, since JFR only records an event once a recording
+ * has turned it on. They are on by default and can be turned off for a recording in its settings, or for the whole
+ * run with setEnabled, which unregisters them so not even a recording can turn them on.</p>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public final class JfrEvents {
+
+    /**
+     * The category all the events are in.
+     */
+    public static final String CATEGORY = "Integration Demo";
+
+    private static final List<Class<? extends Event>> EVENTS = List.of(ChunkEvent.class, StatementEvent.class,
+            ClobRowEvent.class, ValidationFailureEvent.class);
+
+    /**
+     * Registers or unregisters the events.
+     *
+     * @param enabled If the events should be registered.
+     */
+    public static void setEnabled(final boolean enabled) {
+
+        EVENTS.forEach(enabled ? FlightRecorder::register : FlightRecorder::unregister);
+    }
+
+    /**
+     * Returns the name of the step running on this thread, or an empty string if no step is. The steps of a partition
+     * are named after the step they run, a colon, and the partition.
+     *
+     * @return The name of the step.
+     */
+    public static String currentStep() {
+
+        final StepContext stepContext = StepSynchronizationManager.getContext();
+
+        return Objects.isNull(stepContext) ? "" : stepContext.getStepName();
+    }
+
+    private JfrEvents() {
+        // Intentionally empty.
+    }
+}
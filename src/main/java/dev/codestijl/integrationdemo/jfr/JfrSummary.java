@@ -0,0 +1,317 @@
+package dev.codestijl.integrationdemo.jfr;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.util.Assert;
+
+/**
+ * Reads a JFR recording of the job and reports where each step spent its time: its chunks, the CLOB rows it parsed,
+ * the SQL statements it ran, its validation failures, and the methods most often on top of the stack while it ran a
+ * chunk. The steps of a partition are reported together under the step they run.
+ *
+ * <p>The methods come from the jdk.ExecutionSample events, so the recording should be made with the default or
+ * profile settings. A sample is put in a step when it was taken on a thread while that thread ran a chunk of the
+ * step. Run it with:</p>
+ *
+ * <pre>
+ * java -cp integration-demo.jar dev.codestijl.integrationdemo.jfr.JfrSummary --recording=job.jfr --top=10
+ * </pre>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+// The summary is built on one thread, and reading the events and reporting them are easier to follow in one class.
+@SuppressWarnings({"PMD.TooManyMethods", "PMD.UseConcurrentHashMap"})
+public class JfrSummary {
+
+    private static final Logger logger = LoggerFactory.getLogger(JfrSummary.class);
+
+    private static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+    private static final String STEP_FIELD = "step";
+    private static final String NO_STEP = "(no step)";
+    private static final String PARTITION_SEPARATOR = ":";
+    private static final int DEFAULT_TOP = 10;
+    private static final double PERCENT = 100.0;
+
+    private final int top;
+
+    // Sorted so the steps are reported in the same order every time.
+    private final Map<String, StepSummary> steps = new TreeMap<>();
+
+    // The chunks each thread ran, by the ID of the thread, in the order they started.
+    private final Map<Long, List<ChunkSpan>> chunksByThread = new HashMap<>();
+
+    /**
+     * When a thread ran a chunk of a step.
+     *
+     * @author darren
+     * @since 1.0.0
+     */
+    private static final class ChunkSpan {
+
+        private final Instant start;
+        private final Instant end;
+        private final String step;
+
+        private ChunkSpan(final Instant start, final Instant end, final String step) {
+
+            this.start = start;
+            this.end = end;
+            this.step = step;
+        }
+    }
+
+    /**
+     * A running total of a statement.
+     *
+     * @author darren
+     * @since 1.0.0
+     */
+    private static final class StatementTotal {
+
+        private long executions;
+        private long rows;
+        private long nanos;
+    }
+
+    /**
+     * What a step spent its time on.
+     *
+     * @author darren
+     * @since 1.0.0
+     */
+    private static final class StepSummary {
+
+        private long chunks;
+        private long failedChunks;
+        private long chunkNanos;
+        private long itemsRead;
+        private long itemsWritten;
+        private long clobRows;
+        private long clobSize;
+        private long clobNanos;
+        private long recordsParsed;
+        private long validationFailures;
+        private long samples;
+        private final Map<String, StatementTotal> statements = new HashMap<>();
+        private final Map<String, Long> methods = new HashMap<>();
+    }
+
+    private JfrSummary(final int top) {
+
+        this.top = top;
+    }
+
+    /**
+     * Summarizes a recording.
+     *
+     * @param recording The recording.
+     * @param top The number of statements and methods to report for each step.
+     * @return The report.
+     * @throws IOException If the recording can't be read.
+     */
+    public static String summarize(final Path recording, final int top) throws IOException {
+
+        Assert.notNull(recording, "Recording cannot be null.");
+        Assert.isTrue(top > 0, "Top must be positive.");
+
+        final JfrSummary summary = new JfrSummary(top);
+
+        // The events aren't in the order they happened, so the chunks have to be known before the samples are read.
+        read(recording, summary::addEvent);
+        summary.chunksByThread.values().forEach(spans -> spans.sort(Comparator.comparing(span -> span.start)));
+        read(recording, summary::addSample);
+
+        return summary.report();
+    }
+
+    private static void read(final Path recording, final Consumer<RecordedEvent> consumer) throws IOException {
+
+        try (RecordingFile recordingFile = new RecordingFile(recording)) {
+            while (recordingFile.hasMoreEvents()) {
+                consumer.accept(recordingFile.readEvent());
+            }
+        }
+    }
+
+    private void addEvent(final RecordedEvent event) {
+
+        final String name = event.getEventType().getName();
+
+        if (ChunkEvent.NAME.equals(name)) {
+            this.addChunk(event);
+        } else if (StatementEvent.NAME.equals(name)) {
+            final StatementTotal total = this.stepOf(event).statements.computeIfAbsent(event.getString("sql"), sql -> new StatementTotal());
+            total.executions++;
+            total.rows += event.getLong("rows");
+            total.nanos += event.getDuration().toNanos();
+        } else if (ClobRowEvent.NAME.equals(name)) {
+            final StepSummary step = this.stepOf(event);
+            step.clobRows++;
+            step.clobSize += event.getLong("size");
+            step.clobNanos += event.getDuration().toNanos();
+            step.recordsParsed += event.getInt("recordsParsed");
+        } else if (ValidationFailureEvent.NAME.equals(name)) {
+            this.stepOf(event).validationFailures++;
+        }
+    }
+
+    private void addChunk(final RecordedEvent event) {
+
+        final StepSummary step = this.stepOf(event);
+        step.chunks++;
+        step.chunkNanos += event.getDuration().toNanos();
+        step.itemsRead += event.getInt("itemsRead");
+        step.itemsWritten += event.getInt("itemsWritten");
+        if (event.getBoolean("failed")) {
+            step.failedChunks++;
+        }
+
+        final RecordedThread thread = event.getThread();
+        if (Objects.nonNull(thread)) {
+            this.chunksByThread.computeIfAbsent(thread.getJavaThreadId(), id -> new ArrayList<>())
+                    .add(new ChunkSpan(event.getStartTime(), event.getEndTime(), stepName(event)));
+        }
+    }
+
+    private void addSample(final RecordedEvent event) {
+
+        if (!EXECUTION_SAMPLE.equals(event.getEventType().getName())) {
+            return;
+        }
+
+        final RecordedThread thread = event.getThread("sampledThread");
+        final RecordedStackTrace stackTrace = event.getStackTrace();
+        if (Objects.isNull(thread) || Objects.isNull(stackTrace) || stackTrace.getFrames().isEmpty()) {
+            return;
+        }
+
+        final String step = this.stepAt(thread.getJavaThreadId(), event.getStartTime());
+        if (Objects.nonNull(step)) {
+            final RecordedFrame frame = stackTrace.getFrames().get(0);
+            final StepSummary summary = this.steps.computeIfAbsent(step, key -> new StepSummary());
+            summary.samples++;
+            summary.methods.merge(frame.getMethod().getType().getName() + "." + frame.getMethod().getName(), 1L, Long::sum);
+        }
+    }
+
+    // Finds the chunk the thread was running at the time, if any, by the last chunk to start before it.
+    private String stepAt(final long threadId, final Instant time) {
+
+        final List<ChunkSpan> spans = this.chunksByThread.getOrDefault(threadId, List.of());
+
+        int low = 0;
+        int high = spans.size() - 1;
+        ChunkSpan found = null;
+
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            if (spans.get(middle).start.isAfter(time)) {
+                high = middle - 1;
+            } else {
+                found = spans.get(middle);
+                low = middle + 1;
+            }
+        }
+
+        return Objects.nonNull(found) && !found.end.isBefore(time) ? found.step : null;
+    }
+
+    private StepSummary stepOf(final RecordedEvent event) {
+
+        return this.steps.computeIfAbsent(stepName(event), key -> new StepSummary());
+    }
+
+    private static String stepName(final RecordedEvent event) {
+
+        final String step = event.hasField(STEP_FIELD) ? event.getString(STEP_FIELD) : null;
+
+        if (Objects.isNull(step) || step.isEmpty()) {
+            return NO_STEP;
+        }
+
+        final int separator = step.indexOf(PARTITION_SEPARATOR);
+        return separator < 0 ? step : step.substring(0, separator);
+    }
+
+    private String report() {
+
+        final StringBuilder report = new StringBuilder(1024);
+
+        this.steps.forEach((name, step) -> {
+
+            report.append(String.format("%nStep %s%n", name))
+                    .append(String.format("  Chunks: %,d (%,d failed) in %s ms, %,d items read, %,d written%n",
+                            step.chunks, step.failedChunks, millis(step.chunkNanos), step.itemsRead, step.itemsWritten))
+                    .append(String.format("  CLOB rows: %,d in %s ms, %,d in size, %,d records parsed%n",
+                            step.clobRows, millis(step.clobNanos), step.clobSize, step.recordsParsed))
+                    .append(String.format("  Validation failures: %,d%n", step.validationFailures));
+
+            if (!step.statements.isEmpty()) {
+                report.append(String.format("  SQL:%n%14s %10s %12s  %s%n", "Total ms", "Executions", "Rows", "SQL"));
+                step.statements.entrySet().stream()
+                        .sorted(Comparator.comparingLong((Map.Entry<String, StatementTotal> entry) -> entry.getValue().nanos).reversed())
+                        .limit(this.top)
+                        .forEach(entry -> report.append(String.format("%14s %,10d %,12d  %s%n", millis(entry.getValue().nanos),
+                                entry.getValue().executions, entry.getValue().rows, entry.getKey())));
+            }
+
+            if (step.samples > 0) {
+                report.append(String.format("  Hot methods, of %,d samples taken in chunks:%n", step.samples));
+                step.methods.entrySet().stream()
+                        .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                        .limit(this.top)
+                        .forEach(entry -> report.append(String.format("%14s %9.1f%%  %s%n", String.format("%,d", entry.getValue()),
+                                entry.getValue() * PERCENT / step.samples, entry.getKey())));
+            }
+        });
+
+        return report.toString();
+    }
+
+    private static String millis(final long nanos) {
+
+        return String.format("%,.1f", nanos / (double) Duration.ofMillis(1).toNanos());
+    }
+
+    /**
+     * Reports on a recording. The options are --recording, the file of the recording, and --top, the number of
+     * statements and methods to report for each step.
+     *
+     * @param args The command line arguments.
+     * @throws IOException If the recording can't be read.
+     */
+    public static void main(final String[] args) throws IOException {
+
+        final SimpleCommandLinePropertySource options = new SimpleCommandLinePropertySource(args);
+        final String recording = options.getProperty("recording");
+        Assert.hasText(recording, "--recording=<file> is required.");
+
+        final String top = options.getProperty("top");
+        final long start = System.nanoTime();
+        final String report = summarize(Path.of(recording), Objects.isNull(top) ? DEFAULT_TOP : Integer.parseInt(top));
+
+        final long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        logger.info(String.format("Summary of %s, read in %,d ms:%s", recording, millis, report));
+    }
+}
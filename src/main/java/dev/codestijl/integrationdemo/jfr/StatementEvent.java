@@ -0,0 +1,47 @@
+package dev.codestijl.integrationdemo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * A JFR event for each statement or batch of statements a DAO runs, with the rows it returned or changed.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+@Name(StatementEvent.NAME)
+@Label("SQL Statement")
+@Category({JfrEvents.CATEGORY, "JDBC"})
+@Description("A statement or batch of statements run through the InstrumentedJdbcTemplate.")
+@Getter
+@Setter
+@Accessors(chain = true)
+public class StatementEvent extends Event {
+
+    /**
+     * The name of the event in a recording.
+     */
+    public static final String NAME = "dev.codestijl.integrationdemo.Statement";
+
+    @Label("Step")
+    private String step;
+
+    @Label("SQL ID")
+    @Description("A hash of the SQL, the same for every run of the statement.")
+    private String sqlId;
+
+    @Label("SQL")
+    private String sql;
+
+    @Label("Rows")
+    private long rows;
+
+    @Label("Batch Size")
+    private int batchSize;
+}
@@ -0,0 +1,43 @@
+package dev.codestijl.integrationdemo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * A JFR event for each album that fails validation, with why it failed.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+@Name(ValidationFailureEvent.NAME)
+@Label("Validation Failure")
+@Category({JfrEvents.CATEGORY, "Validation"})
+@Description("An album that failed validation.")
+@Getter
+@Setter
+@Accessors(chain = true)
+public class ValidationFailureEvent extends Event {
+
+    /**
+     * The name of the event in a recording.
+     */
+    public static final String NAME = "dev.codestijl.integrationdemo.ValidationFailure";
+
+    @Label("Step")
+    private String step;
+
+    @Label("Album ID")
+    private String albumId;
+
+    @Label("GTIN-14")
+    private String gtin14;
+
+    @Label("Errors")
+    private String errors;
+}
@@ -5,7 +5,12 @@ import dev.codestijl.integrationdemo.common.ProgressLogger;
 import dev.codestijl.integrationdemo.entity.Album;
 import dev.codestijl.integrationdemo.entity.Song;
 import dev.codestijl.integrationdemo.entity.Status;
+import dev.codestijl.integrationdemo.metrics.MetricNames;
 
+import java.util.UUID;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.ExitStatus;
@@ -25,11 +30,8 @@ public class AlbumProcessor implements ItemProcessor<Album, Album>, StepExecutio
     private static final Logger logger = LoggerFactory.getLogger(AlbumProcessor.class);
     private static final int LOG_AT = 500;
 
-    private final String batchId;
-    private final ProgressLogger progressLogger = ProgressLogger.builder()
-            .setLogger(logger)
-            .setLogAt(LOG_AT)
-            .build();
+    private final UUID batchId;
+    private final ProgressLogger progressLogger;
 
     /**
      * Utility class to set the IDs in a Song.
@@ -39,14 +41,14 @@ public class AlbumProcessor implements ItemProcessor<Album, Album>, StepExecutio
      */
     private static final class SongProcessor {
 
-        private final String albumId;
+        private final UUID albumId;
 
         /**
          * Constructs a new SongProcessor.
          *
          * @param albumId The albumId to assign to each Song.
          */
-        public SongProcessor(final String albumId) {
+        public SongProcessor(final UUID albumId) {
             this.albumId = albumId;
         }
 
@@ -62,16 +64,33 @@ public class AlbumProcessor implements ItemProcessor<Album, Album>, StepExecutio
         }
     }
 
+    /**
+     * Constructs a new AlbumProcessor that counts the albums it processes in the global registry.
+     *
+     * @param batchId The batchId to set in each Album processed.
+     */
+    public AlbumProcessor(final UUID batchId) {
+
+        this(batchId, Metrics.globalRegistry);
+    }
+
     /**
      * Constructs a new AlbumProcessor.
      *
      * @param batchId The batchId to set in each Album processed.
+     * @param meterRegistry The registry to count the albums processed in.
      */
-    public AlbumProcessor(final String batchId) {
+    public AlbumProcessor(final UUID batchId, final MeterRegistry meterRegistry) {
 
         Assert.notNull(batchId, "Batch ID cannot be null");
+        Assert.notNull(meterRegistry, "Meter registry cannot be null.");
 
         this.batchId = batchId;
+        this.progressLogger = ProgressLogger.builder()
+                .setLogger(logger)
+                .setLogAt(LOG_AT)
+                .setCounter(meterRegistry.counter(MetricNames.ITEMS_PROCESSED, MetricNames.PROCESSOR_TAG, "AlbumProcessor"))
+                .build();
     }
 
     @Override
@@ -79,7 +98,7 @@ public class AlbumProcessor implements ItemProcessor<Album, Album>, StepExecutio
 
         this.progressLogger.incrementCount();
 
-        final String albumId = IdUtils.newId();
+        final UUID albumId = IdUtils.newId();
 
         // Set the IDs in the Songs inside the Album.
         final SongProcessor songProcessor = new SongProcessor(albumId);
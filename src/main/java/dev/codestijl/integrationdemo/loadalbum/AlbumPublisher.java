@@ -0,0 +1,98 @@
+package dev.codestijl.integrationdemo.loadalbum;
+
+import dev.codestijl.integrationdemo.entity.Album;
+import dev.codestijl.integrationdemo.loadcore.AlbumHandoff;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.util.Assert;
+
+/**
+ * Publishes the albums LOAD-ALBUM writes to an AlbumHandoff once the chunk that wrote them commits, so LOAD-CORE can
+ * load them while LOAD-ALBUM carries on with the next chunk. The albums of a chunk that fails are never published.
+ * When the step ends, however it ends, the handoff is told so LOAD-CORE knows there are no more albums to come.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class AlbumPublisher implements ItemWriteListener<Album>, ChunkListener, StepExecutionListener {
+
+    private final AlbumHandoff albumHandoff;
+
+    // Only used by the step's thread.
+    private final List<Album> written = new ArrayList<>();
+
+    /**
+     * Constructs a new AlbumPublisher.
+     *
+     * @param albumHandoff The handoff to publish the albums to.
+     */
+    public AlbumPublisher(final AlbumHandoff albumHandoff) {
+
+        Assert.notNull(albumHandoff, "Album handoff cannot be null.");
+
+        this.albumHandoff = albumHandoff;
+    }
+
+    @Override
+    public void beforeWrite(final List<? extends Album> items) {
+        // Intentionally empty.
+    }
+
+    @Override
+    public void afterWrite(final List<? extends Album> items) {
+
+        // Written, but not committed until the chunk is.
+        this.written.addAll(items);
+    }
+
+    @Override
+    public void onWriteError(final Exception exception, final List<? extends Album> items) {
+        // Intentionally empty. The chunk rolls back and its albums are cleared.
+    }
+
+    @Override
+    public void beforeChunk(final ChunkContext context) {
+
+        this.written.clear();
+    }
+
+    @Override
+    public void afterChunk(final ChunkContext context) {
+
+        try {
+            this.albumHandoff.publish(this.written);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for LOAD-CORE to take the albums.", e);
+        } finally {
+            this.written.clear();
+        }
+    }
+
+    @Override
+    public void afterChunkError(final ChunkContext context) {
+
+        this.written.clear();
+    }
+
+    @Override
+    public void beforeStep(final StepExecution stepExecution) {
+
+        this.written.clear();
+    }
+
+    @Override
+    public ExitStatus afterStep(final StepExecution stepExecution) {
+
+        this.albumHandoff.finish(stepExecution.getStatus());
+        return stepExecution.getExitStatus();
+    }
+}
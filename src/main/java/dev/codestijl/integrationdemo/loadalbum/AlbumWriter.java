@@ -4,11 +4,15 @@ import dev.codestijl.integrationdemo.dao.AlbumDao;
 import dev.codestijl.integrationdemo.dao.SongDao;
 import dev.codestijl.integrationdemo.entity.Album;
 import dev.codestijl.integrationdemo.entity.Song;
+import dev.codestijl.integrationdemo.metrics.MeteredCount;
+import dev.codestijl.integrationdemo.metrics.MetricNames;
 
 import java.util.List;
 import java.util.stream.Collectors;
 import javax.sql.DataSource;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.ExitStatus;
@@ -31,21 +35,48 @@ public class AlbumWriter implements ItemWriter<Album>, StepExecutionListener {
     private final AlbumDao albumDao;
     private final SongDao songDao;
 
-    private int albumsSaved;
-    private int songsSaved;
+    private final MeteredCount albumsSaved;
+    private final MeteredCount songsSaved;
 
     /**
-     * Constructs a new AlbumWriter.
+     * Constructs a new AlbumWriter that counts the rows it writes in the global registry.
      *
      * @param dataSource The DataSource to use to run queries.
      */
     public AlbumWriter(final DataSource dataSource) {
 
-        Assert.notNull(dataSource, "DataSource cannot be null");
+        this(new JdbcTemplate(dataSource), Metrics.globalRegistry);
+    }
+
+    /**
+     * Constructs a new AlbumWriter.
+     *
+     * @param jdbcTemplate The JdbcTemplate to use to run queries.
+     * @param meterRegistry The registry to count the rows written in.
+     */
+    public AlbumWriter(final JdbcTemplate jdbcTemplate, final MeterRegistry meterRegistry) {
+
+        this(new AlbumDao(jdbcTemplate), new SongDao(jdbcTemplate), meterRegistry);
+    }
+
+    /**
+     * Constructs a new AlbumWriter that writes with specific DAOs.
+     *
+     * @param albumDao The DAO to insert the Albums with.
+     * @param songDao The DAO to insert the Songs with.
+     * @param meterRegistry The registry to count the rows written in.
+     */
+    public AlbumWriter(final AlbumDao albumDao, final SongDao songDao, final MeterRegistry meterRegistry) {
+
+        Assert.notNull(albumDao, "AlbumDao cannot be null");
+        Assert.notNull(songDao, "SongDao cannot be null");
 
-        final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
-        this.albumDao = new AlbumDao(jdbcTemplate);
-        this.songDao = new SongDao(jdbcTemplate);
+        this.albumDao = albumDao;
+        this.songDao = songDao;
+        this.albumsSaved = new MeteredCount(meterRegistry, MetricNames.ROWS_WRITTEN,
+                MetricNames.TABLE_TAG, "ALBUM", MetricNames.OPERATION_TAG, MetricNames.INSERT);
+        this.songsSaved = new MeteredCount(meterRegistry, MetricNames.ROWS_WRITTEN,
+                MetricNames.TABLE_TAG, "SONG", MetricNames.OPERATION_TAG, MetricNames.INSERT);
     }
 
     @Override
@@ -60,21 +91,21 @@ public class AlbumWriter implements ItemWriter<Album>, StepExecutionListener {
                 .collect(Collectors.toList());
 
         // Delegate the saves to the DAOs
-        this.albumsSaved += this.albumDao.insert(albums);
-        this.songsSaved += this.songDao.insert(songs);
+        this.albumsSaved.add(this.albumDao.insert(albums));
+        this.songsSaved.add(this.songDao.insert(songs));
     }
 
     @Override
     public void beforeStep(final StepExecution stepExecution) {
 
-        this.albumsSaved = 0;
-        this.songsSaved = 0;
+        this.albumsSaved.reset();
+        this.songsSaved.reset();
     }
 
     @Override
     public ExitStatus afterStep(final StepExecution stepExecution) {
 
-        logger.info(String.format("%,d albums and %,d songs saved.", this.albumsSaved, this.songsSaved));
+        logger.info(String.format("%,d albums and %,d songs saved.", this.albumsSaved.get(), this.songsSaved.get()));
         return ExitStatus.COMPLETED;
     }
 }
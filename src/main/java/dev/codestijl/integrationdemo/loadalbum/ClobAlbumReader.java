@@ -1,10 +1,14 @@
 package dev.codestijl.integrationdemo.loadalbum;
 
 import dev.codestijl.integrationdemo.common.ClobJsonReader;
+import dev.codestijl.integrationdemo.dao.KeyMode;
 import dev.codestijl.integrationdemo.entity.Album;
 
+import java.util.UUID;
 import javax.sql.DataSource;
 
+import com.fasterxml.jackson.databind.ObjectReader;
+
 /**
  * Reads Albums from the CLOB field in the BATCH table.
  *
@@ -13,7 +17,11 @@ import javax.sql.DataSource;
  */
 public class ClobAlbumReader extends ClobJsonReader<Album> {
 
-    private static final String SELECT_SQL = "SELECT PAYLOAD FROM STAGE.BATCH WHERE BATCH_ID = ?";
+    /**
+     * The query that selects the payload of a batch, whether it is compressed or not. It takes the batch ID as its
+     * only bind variable.
+     */
+    public static final String SELECT_SQL = "SELECT PAYLOAD, PAYLOAD_CODEC, PAYLOAD_COMPRESSED FROM STAGE.BATCH WHERE BATCH_ID = ?";
 
     /**
      * Constructs a new ClobAlbumReader.
@@ -21,8 +29,20 @@ public class ClobAlbumReader extends ClobJsonReader<Album> {
      * @param dataSource The DataSource to run queries with.
      * @param batchId The batch ID to process.
      */
-    public ClobAlbumReader(final DataSource dataSource, final String batchId) {
+    public ClobAlbumReader(final DataSource dataSource, final UUID batchId) {
+
+        super(dataSource, SELECT_SQL, Album.class, (ps) -> KeyMode.of(dataSource).setId(ps, 1, batchId));
+    }
+
+    /**
+     * Constructs a new ClobAlbumReader that parses the Albums with a configured ObjectReader.
+     *
+     * @param dataSource The DataSource to run queries with.
+     * @param batchId The batch ID to process.
+     * @param objectReader The ObjectReader for Albums to parse with.
+     */
+    public ClobAlbumReader(final DataSource dataSource, final UUID batchId, final ObjectReader objectReader) {
 
-        super(dataSource, SELECT_SQL, Album.class, (ps) -> ps.setString(1, batchId));
+        super(dataSource, SELECT_SQL, objectReader, (ps) -> KeyMode.of(dataSource).setId(ps, 1, batchId));
     }
 }
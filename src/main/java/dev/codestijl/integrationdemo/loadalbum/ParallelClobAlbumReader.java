@@ -0,0 +1,49 @@
+package dev.codestijl.integrationdemo.loadalbum;
+
+import dev.codestijl.integrationdemo.common.ParallelClobJsonReader;
+import dev.codestijl.integrationdemo.dao.KeyMode;
+import dev.codestijl.integrationdemo.entity.Album;
+
+import java.util.UUID;
+import javax.sql.DataSource;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.core.task.TaskExecutor;
+
+/**
+ * Reads Albums from the CLOB field in the BATCH table, parsing them on several threads.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class ParallelClobAlbumReader extends ParallelClobJsonReader<Album> {
+
+    /**
+     * Constructs a new ParallelClobAlbumReader.
+     *
+     * @param dataSource The DataSource to run queries with.
+     * @param batchId The batch ID to process.
+     * @param taskExecutor The TaskExecutor to parse the Albums on.
+     * @param parallelism The number of threads to parse the Albums on.
+     */
+    public ParallelClobAlbumReader(final DataSource dataSource, final UUID batchId, final TaskExecutor taskExecutor,
+                                   final int parallelism) {
+
+        super(dataSource, ClobAlbumReader.SELECT_SQL, Album.class, (ps) -> KeyMode.of(dataSource).setId(ps, 1, batchId), taskExecutor, parallelism);
+    }
+
+    /**
+     * Constructs a new ParallelClobAlbumReader that parses the Albums with a configured ObjectReader.
+     *
+     * @param dataSource The DataSource to run queries with.
+     * @param batchId The batch ID to process.
+     * @param objectReader The ObjectReader for Albums to parse with. It is shared by all the threads.
+     * @param taskExecutor The TaskExecutor to parse the Albums on.
+     * @param parallelism The number of threads to parse the Albums on.
+     */
+    public ParallelClobAlbumReader(final DataSource dataSource, final UUID batchId, final ObjectReader objectReader,
+                                   final TaskExecutor taskExecutor, final int parallelism) {
+
+        super(dataSource, ClobAlbumReader.SELECT_SQL, objectReader, (ps) -> KeyMode.of(dataSource).setId(ps, 1, batchId), taskExecutor, parallelism);
+    }
+}
@@ -1,9 +1,17 @@
 package dev.codestijl.integrationdemo.loadbatch;
 
+import dev.codestijl.integrationdemo.common.PayloadCodec;
+import dev.codestijl.integrationdemo.dao.KeyMode;
+
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.UUID;
 import javax.sql.DataSource;
 
 import org.slf4j.Logger;
@@ -16,7 +24,10 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.util.Assert;
 
 /**
- * Tasklet that takes a raw file and loads it into the BATCH table.
+ * Tasklet that takes a raw file and loads it into the BATCH table. The file is read from the classpath unless its
+ * path starts with file:, in which case it is read from the filesystem through memory mapped windows so that files
+ * too large to bundle in the jar can be loaded. Loads from the filesystem report their throughput. The file can be
+ * compressed as it is loaded, in which case it is stored in PAYLOAD_COMPRESSED along with its codec.
  *
  * @author darren
  * @since 1.0.0
@@ -29,26 +40,70 @@ public class BatchTasklet implements Tasklet {
             "(BATCH_ID, CREATE_TIME, PAYLOAD) " +
             "VALUES (?, ?, ?)";
 
+    private static final String INSERT_COMPRESSED_SQL = "INSERT INTO STAGE.BATCH " +
+            "(BATCH_ID, CREATE_TIME, PAYLOAD_CODEC, PAYLOAD_COMPRESSED) " +
+            "VALUES (?, ?, ?, ?)";
+
+    private static final String COMPRESSED_SIZE_SQL = "SELECT LENGTH(PAYLOAD_COMPRESSED) FROM STAGE.BATCH WHERE BATCH_ID = ?";
+
+    /**
+     * The prefix of a file path that is on the filesystem rather than the classpath.
+     */
+    public static final String FILE_PREFIX = "file:";
+
+    /**
+     * The key in the step's ExecutionContext of the number of bytes loaded from the filesystem.
+     */
+    public static final String BYTES_LOADED_KEY = "batch.bytesLoaded";
+
+    /**
+     * The key in the step's ExecutionContext of the bytes per second loaded from the filesystem.
+     */
+    public static final String BYTES_PER_SECOND_KEY = "batch.bytesPerSecond";
+
+    private static final int MAP_WINDOW_SIZE = 64 * 1024 * 1024;
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final double BYTES_PER_MEGABYTE = 1024.0 * 1024.0;
+
     private final String filePath;
     private final JdbcTemplate jdbcTemplate;
-    private final String batchId;
+    private final UUID batchId;
+    private final PayloadCodec payloadCodec;
+
+    /**
+     * Creates a new BatchTasklet that stores the file uncompressed.
+     *
+     * @param dataSource The DataSource to use to run queries.
+     * @param filePath The path to the file to load into the BATCH table. This is on the classpath unless it starts with
+     *                 file:.
+     * @param batchId The ID to use for this batch.
+     */
+    public BatchTasklet(final DataSource dataSource, final String filePath, final UUID batchId) {
+
+        this(dataSource, filePath, batchId, PayloadCodec.NONE);
+    }
 
     /**
      * Creates a new BatchTasklet.
      *
      * @param dataSource The DataSource to use to run queries.
-     * @param filePath The path to the file to load into the BATCH table.
+     * @param filePath The path to the file to load into the BATCH table. This is on the classpath unless it starts with
+     *                 file:.
      * @param batchId The ID to use for this batch.
+     * @param payloadCodec How to compress the file. The file is compressed as it is streamed to the DB, and the codec
+     *                     is saved with the batch so it can be read back.
      */
-    public BatchTasklet(final DataSource dataSource, final String filePath, final String batchId) {
+    public BatchTasklet(final DataSource dataSource, final String filePath, final UUID batchId, final PayloadCodec payloadCodec) {
 
         Assert.notNull(dataSource, "Datasource cannot be null.");
         Assert.notNull(filePath, "File path cannot be null.");
         Assert.notNull(batchId, "Batch ID cannot be null.");
+        Assert.notNull(payloadCodec, "Payload codec cannot be null.");
 
         this.filePath = filePath;
         this.jdbcTemplate = new JdbcTemplate(dataSource);
         this.batchId = batchId;
+        this.payloadCodec = payloadCodec;
     }
 
     @Override
@@ -56,20 +111,105 @@ public class BatchTasklet implements Tasklet {
 
         logger.info(String.format("Loading staging with batch '%s'.", this.batchId));
 
+        if (this.payloadCodec == PayloadCodec.NONE && this.isOnFileSystem()) {
+            this.loadFromFileSystem(contribution);
+        } else if (this.payloadCodec == PayloadCodec.NONE) {
+            this.loadFromClasspath();
+        } else {
+            this.loadCompressed(contribution);
+        }
+
+        // It only wrote 1 record.
+        contribution.incrementWriteCount(1);
+
+        return RepeatStatus.FINISHED;
+    }
+
+    private void loadFromClasspath() throws IOException {
+
         // Stream the file into a CLOB field in the BATCH table.
         try (InputStreamReader inputStreamReader = new
                 InputStreamReader(this.getClass().getResourceAsStream(this.filePath), StandardCharsets.UTF_8)) {
 
             this.jdbcTemplate.update(INSERT_SQL, (ps) -> {
-                ps.setString(1, this.batchId);
+                KeyMode.of(this.jdbcTemplate.getDataSource()).setId(ps, 1, this.batchId);
                 ps.setTimestamp(2, Timestamp.from(Instant.now()));
                 ps.setClob(3, inputStreamReader);
             });
         }
+    }
 
-        // It only wrote 1 record.
-        contribution.incrementWriteCount(1);
+    private void loadFromFileSystem(final StepContribution contribution) throws IOException {
 
-        return RepeatStatus.FINISHED;
+        final Path path = this.getPath();
+        final long start = System.nanoTime();
+        final long bytesLoaded;
+
+        // Stream the file into a CLOB field in the BATCH table, decoding it straight out of the mapped file.
+        try (MappedFileReader mappedFileReader = new MappedFileReader(path, StandardCharsets.UTF_8, MAP_WINDOW_SIZE)) {
+
+            logger.info(String.format("Loading %,d bytes from %s.", mappedFileReader.getSize(), path));
+
+            this.jdbcTemplate.update(INSERT_SQL, (ps) -> {
+                KeyMode.of(this.jdbcTemplate.getDataSource()).setId(ps, 1, this.batchId);
+                ps.setTimestamp(2, Timestamp.from(Instant.now()));
+                ps.setCharacterStream(3, mappedFileReader);
+            });
+
+            bytesLoaded = mappedFileReader.getBytesRead();
+        }
+
+        report(contribution, bytesLoaded, start);
+    }
+
+    private void loadCompressed(final StepContribution contribution) throws IOException {
+
+        final long start = System.nanoTime();
+
+        // Compress the file as it is streamed into a BLOB field in the BATCH table. The bytes are never decoded.
+        try (InputStream source = this.isOnFileSystem() ? Files.newInputStream(this.getPath()) : this.getClass().getResourceAsStream(this.filePath);
+             InputStream compressed = this.payloadCodec.compress(source)) {
+
+            this.jdbcTemplate.update(INSERT_COMPRESSED_SQL, (ps) -> {
+                KeyMode.of(this.jdbcTemplate.getDataSource()).setId(ps, 1, this.batchId);
+                ps.setTimestamp(2, Timestamp.from(Instant.now()));
+                ps.setString(3, this.payloadCodec.name());
+                ps.setBinaryStream(4, compressed);
+            });
+        }
+
+        final long compressedBytes = this.jdbcTemplate.queryForObject(COMPRESSED_SIZE_SQL, Long.class,
+                KeyMode.of(this.jdbcTemplate.getDataSource()).parameter(this.batchId));
+
+        if (this.isOnFileSystem()) {
+            final long bytesLoaded = Files.size(this.getPath());
+            logger.info(String.format("Compressed %,d bytes to %,d with %s (%,.1fx).", bytesLoaded, compressedBytes, this.payloadCodec,
+                    (double) bytesLoaded / Math.max(compressedBytes, 1)));
+            report(contribution, bytesLoaded, start);
+        } else {
+            logger.info(String.format("Compressed the file to %,d bytes with %s.", compressedBytes, this.payloadCodec));
+        }
+    }
+
+    private boolean isOnFileSystem() {
+
+        return this.filePath.startsWith(FILE_PREFIX);
+    }
+
+    private Path getPath() {
+
+        return Path.of(this.filePath.substring(FILE_PREFIX.length()));
+    }
+
+    private static void report(final StepContribution contribution, final long bytesLoaded, final long start) {
+
+        final double seconds = Math.max(System.nanoTime() - start, 1) / NANOS_PER_SECOND;
+        final long bytesPerSecond = Math.round(bytesLoaded / seconds);
+
+        logger.info(String.format("Loaded %,d bytes in %,.3f seconds (%,.1f MB/s).", bytesLoaded, seconds,
+                bytesPerSecond / BYTES_PER_MEGABYTE));
+
+        contribution.getStepExecution().getExecutionContext().putLong(BYTES_LOADED_KEY, bytesLoaded);
+        contribution.getStepExecution().getExecutionContext().putLong(BYTES_PER_SECOND_KEY, bytesPerSecond);
     }
 }
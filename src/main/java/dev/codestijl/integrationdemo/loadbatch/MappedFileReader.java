@@ -0,0 +1,177 @@
+package dev.codestijl.integrationdemo.loadbatch;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.springframework.util.Assert;
+
+/**
+ * A Reader over a file that decodes straight out of memory mapped windows of the file. There is no stream or buffer
+ * between the file and the decoder, so the only copy made is the one into the caller's char array. The file is
+ * mapped a window at a time, so files larger than 2 GB, which can't be mapped all at once, can be read too.
+ *
+ * <p>Like InputStreamReader, bytes that aren't valid in the charset are replaced rather than reported.</p>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+/* default */ class MappedFileReader extends Reader {
+
+    // A character is at most this many bytes in any charset in common use. A window must be able to hold one.
+    private static final int MIN_WINDOW_SIZE = 16;
+    private static final int NO_CHAR = -1;
+    private static final int SURROGATE_PAIR_LENGTH = 2;
+
+    private final FileChannel channel;
+    private final CharsetDecoder decoder;
+    private final long size;
+    private final int windowSize;
+
+    private ByteBuffer window = ByteBuffer.allocate(0);
+    private boolean isMapped;
+    private long windowStart;
+    private boolean isLastWindow;
+    private boolean finished;
+
+    // A char of a surrogate pair that didn't fit in the last read, or NO_CHAR.
+    private int leftOver = NO_CHAR;
+
+    /**
+     * Opens a new MappedFileReader.
+     *
+     * @param path The file to read.
+     * @param charset The charset the file is encoded in.
+     * @param windowSize The most bytes of the file to map at once.
+     * @throws IOException If the file can't be opened.
+     */
+    public MappedFileReader(final Path path, final Charset charset, final int windowSize) throws IOException {
+
+        super();
+
+        Assert.notNull(path, "Path cannot be null.");
+        Assert.notNull(charset, "Charset cannot be null.");
+        Assert.isTrue(windowSize >= MIN_WINDOW_SIZE, "Window size is too small.");
+
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.size = this.channel.size();
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    public int read(final char[] cbuf, final int off, final int len) throws IOException {
+
+        if (len == 0) {
+            return 0;
+        }
+
+        if (this.leftOver != NO_CHAR) {
+            cbuf[off] = (char) this.leftOver;
+            this.leftOver = NO_CHAR;
+            return 1;
+        }
+
+        // The decoder won't split a surrogate pair, so it needs room for two chars to make progress.
+        if (len < SURROGATE_PAIR_LENGTH) {
+            return this.readOne(cbuf, off);
+        }
+
+        return this.decode(CharBuffer.wrap(cbuf, off, len), off);
+    }
+
+    private int decode(final CharBuffer out, final int off) throws IOException {
+
+        // Keep decoding until at least one char has been read or the file has run out.
+        while (out.position() == off) {
+
+            if (this.finished) {
+                return -1;
+            }
+
+            if (!this.isMapped) {
+                this.mapNextWindow();
+            }
+
+            final CoderResult result = this.decoder.decode(this.window, out, this.isLastWindow);
+            if (result.isError()) {
+                result.throwException();
+            }
+
+            // An underflow means the window is used up, except maybe for the first bytes of a char that runs into
+            // the next window. The next window starts at those bytes.
+            if (result.isUnderflow()) {
+                if (this.isLastWindow) {
+                    this.decoder.flush(out);
+                    this.finished = true;
+                } else {
+                    this.windowStart += this.window.position();
+                    this.isMapped = false;
+                }
+            }
+        }
+
+        return out.position() - off;
+    }
+
+    /**
+     * Returns the number of bytes of the file that have been decoded so far.
+     *
+     * @return The number of bytes decoded.
+     */
+    public long getBytesRead() {
+
+        return this.isMapped ? this.windowStart + this.window.position() : this.windowStart;
+    }
+
+    /**
+     * Returns the size of the file in bytes.
+     *
+     * @return The size of the file in bytes.
+     */
+    public long getSize() {
+
+        return this.size;
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        // The mapped windows are released when they are garbage collected. Closing the channel doesn't unmap them.
+        this.channel.close();
+    }
+
+    private int readOne(final char[] cbuf, final int off) throws IOException {
+
+        final char[] pair = new char[SURROGATE_PAIR_LENGTH];
+        final int read = this.read(pair, 0, pair.length);
+
+        if (read > 0) {
+            cbuf[off] = pair[0];
+            if (read == pair.length) {
+                this.leftOver = pair[1];
+            }
+        }
+
+        return Math.min(read, 1);
+    }
+
+    private void mapNextWindow() throws IOException {
+
+        final long length = Math.min(this.windowSize, this.size - this.windowStart);
+
+        this.window = this.channel.map(FileChannel.MapMode.READ_ONLY, this.windowStart, length);
+        this.isMapped = true;
+        this.isLastWindow = this.windowStart + length == this.size;
+    }
+}
@@ -2,11 +2,15 @@ package dev.codestijl.integrationdemo.loadcore;
 
 import dev.codestijl.integrationdemo.dao.AlbumErrorDao;
 import dev.codestijl.integrationdemo.entity.AlbumError;
+import dev.codestijl.integrationdemo.metrics.MeteredCount;
+import dev.codestijl.integrationdemo.metrics.MetricNames;
 
 import java.util.List;
 import java.util.stream.Collectors;
 import javax.sql.DataSource;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.ExitStatus;
@@ -27,16 +31,29 @@ public class AlbumErrorWriter implements ItemWriter<CoreAlbumWrapper>, StepExecu
 
     private final AlbumErrorDao albumErrorDao;
 
-    private int rowsInserted;
+    private final MeteredCount rowsInserted;
 
     /**
-     * Constructs a new AlbumErrorWriter.
+     * Constructs a new AlbumErrorWriter that counts the rows it inserts in the global registry.
      *
      * @param dataSource The DataSource to use to run queries.
      */
     public AlbumErrorWriter(final DataSource dataSource) {
 
-        this.albumErrorDao = new AlbumErrorDao(new JdbcTemplate(dataSource));
+        this(new JdbcTemplate(dataSource), Metrics.globalRegistry);
+    }
+
+    /**
+     * Constructs a new AlbumErrorWriter.
+     *
+     * @param jdbcTemplate The JdbcTemplate to use to run queries.
+     * @param meterRegistry The registry to count the rows inserted in.
+     */
+    public AlbumErrorWriter(final JdbcTemplate jdbcTemplate, final MeterRegistry meterRegistry) {
+
+        this.albumErrorDao = new AlbumErrorDao(jdbcTemplate);
+        this.rowsInserted = new MeteredCount(meterRegistry, MetricNames.ROWS_WRITTEN,
+                MetricNames.TABLE_TAG, "ALBUM_ERROR", MetricNames.OPERATION_TAG, MetricNames.INSERT);
     }
 
     @Override
@@ -55,19 +72,19 @@ public class AlbumErrorWriter implements ItemWriter<CoreAlbumWrapper>, StepExecu
         logger.debug(String.format("Writing batch of %,d errors.", records.size()));
 
         // Delegate saving them to the DAO.
-        this.rowsInserted += this.albumErrorDao.insert(records);
+        this.rowsInserted.add(this.albumErrorDao.insert(records));
     }
 
     @Override
     public void beforeStep(final StepExecution stepExecution) {
 
-        this.rowsInserted = 0;
+        this.rowsInserted.reset();
     }
 
     @Override
     public ExitStatus afterStep(final StepExecution stepExecution) {
 
-        logger.info(String.format("%,d errors inserted.", this.rowsInserted));
+        logger.info(String.format("%,d errors inserted.", this.rowsInserted.get()));
 
         return ExitStatus.COMPLETED;
     }
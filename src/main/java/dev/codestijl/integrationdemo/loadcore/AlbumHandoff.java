@@ -0,0 +1,244 @@
+package dev.codestijl.integrationdemo.loadcore;
+
+import dev.codestijl.integrationdemo.entity.Album;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.util.Assert;
+
+/**
+ * Hands the albums LOAD-ALBUM has committed to LOAD-CORE while both steps run, when the job runs in PIPELINED mode.
+ * There is a bounded queue of chunks for each LOAD-CORE partition, and each album goes to the one for the hash of its
+ * GTIN-14, so every album with the same GTIN-14 is processed by the same partition in the order it was loaded. When a
+ * partition falls behind and its queue is full, LOAD-ALBUM waits for it.
+ *
+ * <p>The queues are made new as each job starts. When a job is restarted, LOAD-CORE-CATCH-UP has already loaded the
+ * albums left pending in STAGE, so only the albums staged after the restart are handed over. When LOAD-ALBUM completed
+ * before the failure it doesn't run again, and the handoff starts out finished. A partition that stops before the end
+ * is sent no more albums, which stay pending for the next restart.</p>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class AlbumHandoff implements JobExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlbumHandoff.class);
+
+    private static final long POLL_MILLIS = 100;
+
+    private final JobRepository jobRepository;
+    private final String producerStepName;
+    private final int partitions;
+    private final int capacity;
+
+    // The queues and state of the running job, made new as each job starts.
+    private final AtomicReference<JobRun> run = new AtomicReference<>();
+
+    /**
+     * The queues of the partitions and how far each side has got, for one run of the job.
+     *
+     * @author darren
+     * @since 1.0.0
+     */
+    private static final class JobRun {
+
+        private final List<BlockingQueue<List<Album>>> queues;
+        private final Set<Integer> stopped = ConcurrentHashMap.newKeySet();
+        private final AtomicReference<BatchStatus> producerStatus = new AtomicReference<>();
+
+        private JobRun(final int partitions, final int capacity) {
+
+            this.queues = IntStream.range(0, partitions)
+                    .mapToObj(partition -> new ArrayBlockingQueue<List<Album>>(capacity))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Creates a new AlbumHandoff.
+     *
+     * @param jobRepository The repository to look up whether LOAD-ALBUM completed in an earlier run of a job.
+     * @param producerStepName The name of the step that loads the albums.
+     * @param partitions The number of LOAD-CORE partitions.
+     * @param capacity The number of chunks each partition can fall behind by before LOAD-ALBUM waits for it.
+     */
+    public AlbumHandoff(final JobRepository jobRepository, final String producerStepName, final int partitions,
+                        final int capacity) {
+
+        Assert.notNull(jobRepository, "Job repository cannot be null.");
+        Assert.hasText(producerStepName, "Producer step name cannot be empty.");
+        Assert.isTrue(partitions > 0, "Partitions must be positive.");
+        Assert.isTrue(capacity > 0, "Capacity must be positive.");
+
+        this.jobRepository = jobRepository;
+        this.producerStepName = producerStepName;
+        this.partitions = partitions;
+        this.capacity = capacity;
+        this.reset();
+    }
+
+    @Override
+    public void beforeJob(final JobExecution jobExecution) {
+
+        this.reset();
+
+        final StepExecution lastProducer = this.jobRepository.getLastStepExecution(jobExecution.getJobInstance(), this.producerStepName);
+        if (Objects.nonNull(lastProducer) && lastProducer.getStatus() == BatchStatus.COMPLETED) {
+            this.finish(BatchStatus.COMPLETED);
+        }
+    }
+
+    @Override
+    public void afterJob(final JobExecution jobExecution) {
+
+        // Nothing left in the queues is needed once the job ends.
+        this.reset();
+    }
+
+    /**
+     * Sends the albums of a chunk LOAD-ALBUM has committed to the partitions that load them, waiting while a queue is
+     * full. The songs aren't sent, since LOAD-CORE doesn't need them.
+     *
+     * @param albums The albums that were committed.
+     * @throws InterruptedException If the thread is interrupted while it waits.
+     */
+    public void publish(final List<? extends Album> albums) throws InterruptedException {
+
+        final List<List<Album>> chunks = IntStream.range(0, this.partitions)
+                .mapToObj(partition -> new ArrayList<Album>())
+                .collect(Collectors.toList());
+        albums.forEach(album -> chunks.get(this.partitionOf(album.getGtin14())).add(withoutSongs(album)));
+
+        for (int partition = 0; partition < this.partitions; partition++) {
+            if (!chunks.get(partition).isEmpty()) {
+                this.put(partition, chunks.get(partition));
+            }
+        }
+    }
+
+    /**
+     * Notes that LOAD-ALBUM has ended, so the partitions end once they have taken every album it sent.
+     *
+     * @param status How LOAD-ALBUM ended.
+     */
+    public void finish(final BatchStatus status) {
+
+        Assert.notNull(status, "Status cannot be null.");
+
+        this.run.get().producerStatus.set(status);
+    }
+
+    /**
+     * Takes the next chunk of albums for a partition, waiting until there is one or LOAD-ALBUM has ended.
+     *
+     * @param partition The index of the partition, from 0 to one less than the number of partitions.
+     * @return The albums, or null once LOAD-ALBUM has ended and every album it sent has been taken.
+     * @throws InterruptedException If the thread is interrupted while it waits.
+     */
+    public List<Album> take(final int partition) throws InterruptedException {
+
+        final JobRun current = this.run.get();
+        final BlockingQueue<List<Album>> queue = current.queues.get(partition);
+
+        while (true) {
+            final List<Album> albums = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            if (Objects.nonNull(albums)) {
+                return albums;
+            }
+            // Everything was put before the status was set, so one more look finds anything sent at the end.
+            if (Objects.nonNull(current.producerStatus.get())) {
+                return queue.poll();
+            }
+        }
+    }
+
+    /**
+     * Notes that a partition has stopped taking albums, so no more are sent to it.
+     *
+     * @param partition The index of the partition.
+     */
+    public void stop(final int partition) {
+
+        this.run.get().stopped.add(partition);
+    }
+
+    /**
+     * Returns how LOAD-ALBUM ended.
+     *
+     * @return How LOAD-ALBUM ended, or null if it is still running.
+     */
+    public BatchStatus getProducerStatus() {
+
+        return this.run.get().producerStatus.get();
+    }
+
+    /**
+     * Returns the number of LOAD-CORE partitions.
+     *
+     * @return The number of partitions.
+     */
+    public int getPartitions() {
+
+        return this.partitions;
+    }
+
+    /**
+     * Returns the partition that loads the albums with a GTIN-14. This is not the hash the SQL of the other modes
+     * splits the albums with, so the partitions of the PIPELINED mode each look up GTIN-14s in all of CT_ALBUM.
+     *
+     * @param gtin14 The GTIN-14, which may be null.
+     * @return The index of the partition.
+     */
+    public int partitionOf(final String gtin14) {
+
+        return Math.floorMod(Objects.hashCode(gtin14), this.partitions);
+    }
+
+    private void put(final int partition, final List<Album> albums) throws InterruptedException {
+
+        final JobRun current = this.run.get();
+        final BlockingQueue<List<Album>> queue = current.queues.get(partition);
+
+        while (!current.stopped.contains(partition)) {
+            if (queue.offer(albums, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        }
+
+        logger.warn(String.format("Partition %d of LOAD-CORE has stopped. Its %,d albums are left pending.", partition, albums.size()));
+    }
+
+    private void reset() {
+
+        this.run.set(new JobRun(this.partitions, this.capacity));
+    }
+
+    private static Album withoutSongs(final Album album) {
+
+        return new Album().setAlbumId(album.getAlbumId())
+                .setBatchId(album.getBatchId())
+                .setStatus(album.getStatus())
+                .setCreateTime(album.getCreateTime())
+                .setLastUpdateTime(album.getLastUpdateTime())
+                .setGtin14(album.getGtin14())
+                .setAlbumName(album.getAlbumName())
+                .setArtist(album.getArtist());
+    }
+}
@@ -1,39 +1,79 @@
 package dev.codestijl.integrationdemo.loadcore;
 
 import dev.codestijl.integrationdemo.dao.AlbumDao;
+import dev.codestijl.integrationdemo.dao.KeyMode;
+import dev.codestijl.integrationdemo.dao.SqlDialect;
 import dev.codestijl.integrationdemo.entity.Album;
 import dev.codestijl.integrationdemo.entity.Status;
 
+import java.util.UUID;
 import javax.sql.DataSource;
 
 import org.springframework.batch.item.database.JdbcCursorItemReader;
+import org.springframework.util.Assert;
 
 /**
- * Reads Albums from the ALBUM table in the STAGE schema.
+ * Reads Albums from the ALBUM table in the STAGE schema. When the step is partitioned, only the albums whose GTIN-14
+ * hashes to the reader's partition are read.
  *
  * @author darren
  * @since 1.0.0
  */
 public class AlbumReader extends JdbcCursorItemReader<Album> {
 
+    private static final int WHOLE_BATCH = 1;
+
     /**
      * Constructs a new AlbumReader.
      *
      * @param dataSource The DataSource to use to run queries.
      * @param batchId The ID of the batch being processed.
      */
-    public AlbumReader(final DataSource dataSource, final String batchId) {
+    public AlbumReader(final DataSource dataSource, final UUID batchId) {
+
+        this(dataSource, batchId, 0, WHOLE_BATCH);
+    }
+
+    /**
+     * Constructs a new AlbumReader that reads one partition of the batch.
+     *
+     * @param dataSource The DataSource to use to run queries.
+     * @param batchId The ID of the batch being processed.
+     * @param partition The index of the partition to read, from 0 to one less than the number of partitions.
+     * @param partitions The number of partitions the batch is split into. Pass 1 to read the whole batch.
+     */
+    public AlbumReader(final DataSource dataSource, final UUID batchId, final int partition, final int partitions) {
 
         super();
 
+        Assert.isTrue(partitions > 0, "Partitions must be positive.");
+        Assert.isTrue(partition >= 0 && partition < partitions, "Partition must be less than partitions.");
+
         // This class is a thin wrapper around a JdbcCursorItemReader that just sets
         // a few default properties.
         this.setDataSource(dataSource);
-        this.setSql(AlbumDao.SELECT_SQL + " WHERE BATCH_ID = ? AND STATUS_CD = ?");
+        final KeyMode keyMode = KeyMode.of(dataSource);
+        // Albums are read in ID order so that when a GTIN-14 repeats, the same album wins every time.
+        this.setSql(AlbumDao.SELECT_SQL + " WHERE BATCH_ID = ? AND STATUS_CD = ?" + partitionSql(dataSource, partitions) + " ORDER BY ALBUM_ID");
         this.setPreparedStatementSetter((ps) -> {
-            ps.setString(1, batchId);
+            keyMode.setId(ps, 1, batchId);
             ps.setString(2, Status.PENDING.getId());
+            if (partitions > WHOLE_BATCH) {
+                ps.setInt(3, partitions);
+                ps.setInt(4, partition);
+            }
         });
-        this.setRowMapper(AlbumDao.ROW_MAPPER);
+        this.setRowMapper(AlbumDao.rowMapper(keyMode));
+        // The albums it has loaded are no longer pending, so a restarted step must not skip past them again.
+        this.setSaveState(false);
+    }
+
+    private static String partitionSql(final DataSource dataSource, final int partitions) {
+
+        if (partitions == WHOLE_BATCH) {
+            return "";
+        }
+
+        return String.format(" AND MOD(%s, ?) = ?", SqlDialect.of(dataSource).hashSql("GTIN_14"));
     }
 }
@@ -1,6 +1,8 @@
 package dev.codestijl.integrationdemo.loadcore;
 
+import dev.codestijl.integrationdemo.common.BoundedCache;
 import dev.codestijl.integrationdemo.common.CollectionUtils;
+import dev.codestijl.integrationdemo.common.GtinSet;
 import dev.codestijl.integrationdemo.common.IdUtils;
 import dev.codestijl.integrationdemo.common.ProgressLogger;
 import dev.codestijl.integrationdemo.common.ValidationException;
@@ -9,17 +11,22 @@ import dev.codestijl.integrationdemo.entity.Album;
 import dev.codestijl.integrationdemo.entity.AlbumError;
 import dev.codestijl.integrationdemo.entity.CoreAlbum;
 import dev.codestijl.integrationdemo.entity.Status;
+import dev.codestijl.integrationdemo.metrics.MetricNames;
 
 import java.util.*;
 import javax.sql.DataSource;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.ChunkListener;
 import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.ItemReadListener;
 import org.springframework.batch.core.StepExecution;
 import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.ExecutionContext;
 import org.springframework.batch.item.ItemProcessor;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.util.Assert;
@@ -27,35 +34,135 @@ import org.springframework.util.Assert;
 /**
  * Processor that will take ALBUMS from the STAGE schema and prepare them to be written to the CORE schema.
  *
+ * <p>When running in CHUNK lookup mode, this class listens to the reads of each chunk so it can look up all
+ * the existing albums for the chunk with a single query.</p>
+ *
+ * <p>When running in UPSERT lookup mode, nothing is looked up. Every valid album is given a new ID and passed to the
+ * writer to upsert by GTIN-14, and the DB keeps the existing ID of any album it updates.</p>
+ *
+ * <p>When a Bloom filter false positive rate is given, GTIN-14s that are definitely not in the core DB are never
+ * looked up. The lookups skipped and the false positive rate are saved in the step's ExecutionContext.</p>
+ *
  * @author darren
  * @since 1.0.0
  */
-public class AlbumToCoreProcessor implements ItemProcessor<Album, CoreAlbumWrapper>, StepExecutionListener, ChunkListener {
+// Most of the methods come from the listener interfaces, and there
+// is no reason to break this up.
+@SuppressWarnings("PMD.TooManyMethods")
+public class AlbumToCoreProcessor implements ItemProcessor<Album, CoreAlbumWrapper>, StepExecutionListener, ChunkListener,
+        ItemReadListener<Album> {
 
     private static final Logger logger = LoggerFactory.getLogger(AlbumToCoreProcessor.class);
     private static final int LOG_AT = 500;
     private static final int ERROR_TEXT_MAX_LENGTH = 1_000;
 
-    private final CoreAlbumDao coreAlbumDao;
+    private static final String BLOOM_FILTER_SUMMARY = "Bloom filter skipped %,d lookups with %,d false positives "
+            + "(%.2f%% measured, %.2f%% expected false positive rate).";
+
+    /**
+     * The key in the step's ExecutionContext of the number of lookups the Bloom filter skipped.
+     */
+    public static final String LOOKUPS_SKIPPED_KEY = "bloomFilter.lookupsSkipped";
 
-    private final ProgressLogger progressLogger = ProgressLogger.builder()
-            .setLogger(logger)
-            .setLogAt(LOG_AT)
-            .build();
+    /**
+     * The key in the step's ExecutionContext of the Bloom filter's measured false positive rate.
+     */
+    public static final String MEASURED_FP_RATE_KEY = "bloomFilter.falsePositiveRate";
 
-    private final Set<String> insertedGtins = new HashSet<>();
+    /**
+     * The key in the step's ExecutionContext of the Bloom filter's expected false positive rate.
+     */
+    public static final String EXPECTED_FP_RATE_KEY = "bloomFilter.expectedFalsePositiveRate";
+
+    private final LookupMode lookupMode;
+    private final CoreAlbumLookup coreAlbumLookup;
+
+    private final ProgressLogger progressLogger;
+
+    private final GtinSet insertedGtins = new GtinSet();
     private final CoreAlbumValidator coreAlbumValidator = new CoreAlbumValidator();
 
     /**
-     * Creates a new AlbumToCoreProcessor.
+     * Creates a new AlbumToCoreProcessor that looks up each album with its own query.
      *
      * @param dataSource The DataSource to run queries with.
      */
     public AlbumToCoreProcessor(final DataSource dataSource) {
 
-        Assert.notNull(dataSource, "DataSource cannot be null.");
+        this(dataSource, LookupMode.SINGLE);
+    }
+
+    /**
+     * Creates a new AlbumToCoreProcessor.
+     *
+     * @param dataSource The DataSource to run queries with.
+     * @param lookupMode How to look up the albums that already exist in the CORE schema.
+     */
+    public AlbumToCoreProcessor(final DataSource dataSource, final LookupMode lookupMode) {
 
-        this.coreAlbumDao = new CoreAlbumDao(new JdbcTemplate(dataSource));
+        this(dataSource, lookupMode, BoundedCache.disabled());
+    }
+
+    /**
+     * Creates a new AlbumToCoreProcessor that reads through a cache before going to the DB.
+     *
+     * @param dataSource The DataSource to run queries with.
+     * @param lookupMode How to look up the albums that already exist in the CORE schema.
+     * @param coreAlbumCache The cache of CoreAlbums keyed by GTIN-14. This should be the same cache the
+     *                       CoreAlbumWriter writes to.
+     */
+    public AlbumToCoreProcessor(final DataSource dataSource, final LookupMode lookupMode,
+                                final BoundedCache<String, CoreAlbum> coreAlbumCache) {
+
+        this(dataSource, lookupMode, coreAlbumCache, 0);
+    }
+
+    /**
+     * Creates a new AlbumToCoreProcessor that reads through a cache and screens GTIN-14s with a Bloom filter of the
+     * GTIN-14s in the core DB before going to the DB.
+     *
+     * @param dataSource The DataSource to run queries with.
+     * @param lookupMode How to look up the albums that already exist in the CORE schema.
+     * @param coreAlbumCache The cache of CoreAlbums keyed by GTIN-14. This should be the same cache the
+     *                       CoreAlbumWriter writes to.
+     * @param falsePositiveRate The false positive rate of the Bloom filter of GTIN-14s in the core DB. Pass 0 to
+     *                          turn the filter off.
+     */
+    public AlbumToCoreProcessor(final DataSource dataSource, final LookupMode lookupMode,
+                                final BoundedCache<String, CoreAlbum> coreAlbumCache, final double falsePositiveRate) {
+
+        this(new JdbcTemplate(dataSource), lookupMode, coreAlbumCache, falsePositiveRate, Metrics.globalRegistry);
+    }
+
+    /**
+     * Creates a new AlbumToCoreProcessor that reads through a cache, screens GTIN-14s with a Bloom filter, and counts
+     * the albums it processes.
+     *
+     * @param jdbcTemplate The JdbcTemplate to run queries with.
+     * @param lookupMode How to look up the albums that already exist in the CORE schema.
+     * @param coreAlbumCache The cache of CoreAlbums keyed by GTIN-14. This should be the same cache the
+     *                       CoreAlbumWriter writes to.
+     * @param falsePositiveRate The false positive rate of the Bloom filter of GTIN-14s in the core DB. Pass 0 to
+     *                          turn the filter off.
+     * @param meterRegistry The registry to count the albums processed in.
+     */
+    public AlbumToCoreProcessor(final JdbcTemplate jdbcTemplate, final LookupMode lookupMode,
+                                final BoundedCache<String, CoreAlbum> coreAlbumCache, final double falsePositiveRate,
+                                final MeterRegistry meterRegistry) {
+
+        Assert.notNull(jdbcTemplate, "JdbcTemplate cannot be null.");
+        Assert.notNull(meterRegistry, "Meter registry cannot be null.");
+
+        this.progressLogger = ProgressLogger.builder()
+                .setLogger(logger)
+                .setLogAt(LOG_AT)
+                .setCounter(meterRegistry.counter(MetricNames.ITEMS_PROCESSED, MetricNames.PROCESSOR_TAG, "AlbumToCoreProcessor"))
+                .build();
+
+        // There's nothing to screen when nothing is looked up.
+        this.lookupMode = lookupMode;
+        this.coreAlbumLookup = new CoreAlbumLookup(new CoreAlbumDao(jdbcTemplate), lookupMode, coreAlbumCache,
+                lookupMode == LookupMode.UPSERT ? 0 : falsePositiveRate);
     }
 
     @Override
@@ -63,7 +170,9 @@ public class AlbumToCoreProcessor implements ItemProcessor<Album, CoreAlbumWrapp
 
         this.progressLogger.incrementCount();
 
-        final Optional<CoreAlbum> existingAlbum = this.coreAlbumDao.findByGtin14(stageAlbum.getGtin14());
+        final Optional<CoreAlbum> existingAlbum = this.lookupMode == LookupMode.UPSERT
+                ? Optional.empty()
+                : this.coreAlbumLookup.findByGtin14(stageAlbum.getGtin14());
 
         // If we found a match in the core DB, use that one. If not, make a new album.
         // In both cases, overwrite whatever was in the object with the data from the
@@ -77,14 +186,21 @@ public class AlbumToCoreProcessor implements ItemProcessor<Album, CoreAlbumWrapp
             // If we get here, it validated and is ready for insert/update.
             stageAlbum.setStatus(Status.COMPLETE);
 
+            // When upserting, the DB works out if this is an insert or an update.
+            if (this.lookupMode == LookupMode.UPSERT) {
+                return new CoreAlbumWrapper(coreAlbum, stageAlbum);
+            }
+
             // If we don't get a result back and we haven't already processed this GTIN
             // in the same chunk, then we need to insert a new record.
             final boolean isInsert = existingAlbum.isEmpty() && this.gtinNotInserted(stageAlbum.getGtin14());
 
             // We need to keep track of the the GTINs we insert because if the same one appears
-            // in a single chunk, we'd try to insert it twice.
+            // in a single chunk, we'd try to insert it twice. The lookup remembers the album
+            // so the second one updates the row the first one inserts.
             if (isInsert) {
                 this.insertedGtins.add(stageAlbum.getGtin14());
+                this.coreAlbumLookup.remember(coreAlbum);
             }
 
             return new CoreAlbumWrapper(coreAlbum, isInsert, stageAlbum);
@@ -106,12 +222,41 @@ public class AlbumToCoreProcessor implements ItemProcessor<Album, CoreAlbumWrapp
     public void beforeStep(final StepExecution stepExecution) {
 
         this.progressLogger.reset();
+
+        // A partition only needs the GTIN-14s in CT_ALBUM that hash to it in SQL. In PIPELINED mode the AlbumHandoff
+        // hands the albums to the partitions by a hash of its own, so each one needs all of them.
+        final String loadCoreMode = stepExecution.getJobExecution().getExecutionContext()
+                .getString(LoadCoreModeDecider.LOAD_CORE_MODE_PARAMETER, LoadCoreMode.ROW.name());
+        final ExecutionContext executionContext = stepExecution.getExecutionContext();
+        if (LoadCoreMode.PIPELINED.name().equals(loadCoreMode)) {
+            this.coreAlbumLookup.reset();
+        } else {
+            this.coreAlbumLookup.reset(executionContext.getInt(GtinHashPartitioner.PARTITION_KEY, 0),
+                    executionContext.getInt(GtinHashPartitioner.PARTITIONS_KEY, 1));
+        }
     }
 
     @Override
     public ExitStatus afterStep(final StepExecution stepExecution) {
 
         this.progressLogger.log();
+        logger.info(String.format("%,d GTIN-14s looked up in the core DB with %,d queries.",
+                this.coreAlbumLookup.getGtinsLookedUp(), this.coreAlbumLookup.getQueriesRun()));
+        logger.info(String.format("Core album cache: %s.", this.coreAlbumLookup.getCacheStatistics()));
+
+        this.coreAlbumLookup.getExistingGtins().ifPresent(bloomFilter -> {
+
+            logger.info(String.format(BLOOM_FILTER_SUMMARY,
+                    this.coreAlbumLookup.getLookupsSkipped(), this.coreAlbumLookup.getFalsePositives(),
+                    this.coreAlbumLookup.getFalsePositiveRate() * 100, bloomFilter.getExpectedFalsePositiveRate() * 100));
+
+            // Saved with the step so they can be read from the job repository.
+            final ExecutionContext executionContext = stepExecution.getExecutionContext();
+            executionContext.putInt(LOOKUPS_SKIPPED_KEY, this.coreAlbumLookup.getLookupsSkipped());
+            executionContext.putDouble(MEASURED_FP_RATE_KEY, this.coreAlbumLookup.getFalsePositiveRate());
+            executionContext.putDouble(EXPECTED_FP_RATE_KEY, bloomFilter.getExpectedFalsePositiveRate());
+        });
+
         return ExitStatus.COMPLETED;
     }
 
@@ -134,6 +279,7 @@ public class AlbumToCoreProcessor implements ItemProcessor<Album, CoreAlbumWrapp
         // in the database now and will come back when we
         // try to look them up.
         this.insertedGtins.clear();
+        this.coreAlbumLookup.clear();
     }
 
     @Override
@@ -145,4 +291,21 @@ public class AlbumToCoreProcessor implements ItemProcessor<Album, CoreAlbumWrapp
     public void afterChunkError(final ChunkContext context) {
         // Intentionally empty.
     }
+
+    @Override
+    public void beforeRead() {
+        // Intentionally empty.
+    }
+
+    @Override
+    public void afterRead(final Album item) {
+        // Let the lookup know this GTIN will be needed so all
+        // the GTINs in the chunk can be looked up together.
+        this.coreAlbumLookup.register(item.getGtin14());
+    }
+
+    @Override
+    public void onReadError(final Exception ex) {
+        // Intentionally empty.
+    }
 }
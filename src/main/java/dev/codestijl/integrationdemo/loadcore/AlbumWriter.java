@@ -2,11 +2,15 @@ package dev.codestijl.integrationdemo.loadcore;
 
 import dev.codestijl.integrationdemo.dao.AlbumDao;
 import dev.codestijl.integrationdemo.entity.Album;
+import dev.codestijl.integrationdemo.metrics.MeteredCount;
+import dev.codestijl.integrationdemo.metrics.MetricNames;
 
 import java.util.List;
 import java.util.stream.Collectors;
 import javax.sql.DataSource;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.ExitStatus;
@@ -27,16 +31,29 @@ public class AlbumWriter implements ItemWriter<CoreAlbumWrapper>, StepExecutionL
 
     private final AlbumDao albumDao;
 
-    private int rowsUpdated;
+    private final MeteredCount rowsUpdated;
 
     /**
-     * Constructs a new AlbumWriter.
+     * Constructs a new AlbumWriter that counts the rows it updates in the global registry.
      *
      * @param dataSource The DataSource to use to run queries.
      */
     public AlbumWriter(final DataSource dataSource) {
 
-        this.albumDao = new AlbumDao(new JdbcTemplate(dataSource));
+        this(new JdbcTemplate(dataSource), Metrics.globalRegistry);
+    }
+
+    /**
+     * Constructs a new AlbumWriter.
+     *
+     * @param jdbcTemplate The JdbcTemplate to use to run queries.
+     * @param meterRegistry The registry to count the rows updated in.
+     */
+    public AlbumWriter(final JdbcTemplate jdbcTemplate, final MeterRegistry meterRegistry) {
+
+        this.albumDao = new AlbumDao(jdbcTemplate);
+        this.rowsUpdated = new MeteredCount(meterRegistry, MetricNames.ROWS_WRITTEN,
+                MetricNames.TABLE_TAG, "ALBUM", MetricNames.OPERATION_TAG, MetricNames.UPDATE);
     }
 
     @Override
@@ -48,19 +65,19 @@ public class AlbumWriter implements ItemWriter<CoreAlbumWrapper>, StepExecutionL
 
         logger.debug(String.format("Updating batch of %,d albums.", albums.size()));
 
-        this.rowsUpdated += this.albumDao.update(albums);
+        this.rowsUpdated.add(this.albumDao.update(albums));
     }
 
     @Override
     public void beforeStep(final StepExecution stepExecution) {
 
-        this.rowsUpdated = 0;
+        this.rowsUpdated.reset();
     }
 
     @Override
     public ExitStatus afterStep(final StepExecution stepExecution) {
 
-        logger.info(String.format("%,d rows updated.", this.rowsUpdated));
+        logger.info(String.format("%,d rows updated.", this.rowsUpdated.get()));
 
         return ExitStatus.COMPLETED;
     }
@@ -0,0 +1,321 @@
+package dev.codestijl.integrationdemo.loadcore;
+
+import dev.codestijl.integrationdemo.common.BloomFilter;
+import dev.codestijl.integrationdemo.common.BoundedCache;
+import dev.codestijl.integrationdemo.common.GtinMap;
+import dev.codestijl.integrationdemo.common.GtinSet;
+import dev.codestijl.integrationdemo.common.GtinUtils;
+import dev.codestijl.integrationdemo.dao.CoreAlbumDao;
+import dev.codestijl.integrationdemo.entity.CoreAlbum;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Looks up the CoreAlbums that already exist in the CT_ALBUM table for the albums being processed. In CHUNK mode,
+ * the GTIN-14s read for a chunk are registered with this class and all looked up with one query the first time
+ * any of them is needed. Any GTIN-14 that was not registered falls back to a query of its own.
+ *
+ * <p>Lookups are read through a cache that is shared across steps. Only albums found in the DB are cached here. The
+ * writers add albums to the cache once they are committed.</p>
+ *
+ * <p>When a false positive rate is given, every GTIN-14 in CT_ALBUM is read into a Bloom filter when the lookup is
+ * reset at the start of the step. When the step is a partition of albums split by the hash in SQL, only the GTIN-14s
+ * that hash to it are read, and the filter is sized for them alone. Any GTIN-14 the filter says is definitely not in
+ * the table is never looked up. Albums inserted during the step are added to the filter as they are remembered.
+ * Albums inserted by anything else while the step runs will not be in the filter, so this should only be turned on
+ * when nothing else writes to CT_ALBUM at the same time.</p>
+ *
+ * <p>The GTIN-14s for the current chunk are tracked in primitive long collections so that large chunks don't box and
+ * hash a String for every album.</p>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+/* default */ class CoreAlbumLookup {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoreAlbumLookup.class);
+
+    // The fewest albums the Bloom filter leaves room for beyond what is already in CT_ALBUM.
+    private static final int MIN_FILTER_HEADROOM = 10_000;
+
+    private final CoreAlbumDao coreAlbumDao;
+    private final LookupMode lookupMode;
+    private final BoundedCache<String, CoreAlbum> coreAlbumCache;
+    private final double falsePositiveRate;
+
+    private final GtinSet pendingGtins = new GtinSet();
+
+    // A GTIN-14 mapped to null has been looked up and is not in the DB.
+    private final GtinMap<CoreAlbum> resolvedAlbums = new GtinMap<>();
+
+    @Getter
+    private int queriesRun;
+    @Getter
+    private int gtinsLookedUp;
+    @Getter
+    private int lookupsSkipped;
+    @Getter
+    private int falsePositives;
+
+    // Only built when a false positive rate is given.
+    private BloomFilter existingGtins;
+
+    /**
+     * Constructs a new CoreAlbumLookup that does not use a Bloom filter.
+     *
+     * @param coreAlbumDao The DAO to look up CoreAlbums with.
+     * @param lookupMode How the CoreAlbums should be looked up.
+     * @param coreAlbumCache The cache to check before going to the DB.
+     */
+    public CoreAlbumLookup(final CoreAlbumDao coreAlbumDao, final LookupMode lookupMode,
+                           final BoundedCache<String, CoreAlbum> coreAlbumCache) {
+
+        this(coreAlbumDao, lookupMode, coreAlbumCache, 0);
+    }
+
+    /**
+     * Constructs a new CoreAlbumLookup.
+     *
+     * @param coreAlbumDao The DAO to look up CoreAlbums with.
+     * @param lookupMode How the CoreAlbums should be looked up.
+     * @param coreAlbumCache The cache to check before going to the DB.
+     * @param falsePositiveRate The false positive rate of the Bloom filter of GTIN-14s in CT_ALBUM. Pass 0 to
+     *                          turn the filter off.
+     */
+    public CoreAlbumLookup(final CoreAlbumDao coreAlbumDao, final LookupMode lookupMode,
+                           final BoundedCache<String, CoreAlbum> coreAlbumCache, final double falsePositiveRate) {
+
+        Assert.notNull(coreAlbumDao, "CoreAlbumDao cannot be null.");
+        Assert.notNull(lookupMode, "LookupMode cannot be null.");
+        Assert.notNull(coreAlbumCache, "Cache cannot be null.");
+        Assert.isTrue(falsePositiveRate >= 0 && falsePositiveRate < 1, "False positive rate must be at least 0 and less than 1.");
+
+        this.coreAlbumDao = coreAlbumDao;
+        this.lookupMode = lookupMode;
+        this.coreAlbumCache = coreAlbumCache;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * Registers a GTIN-14 that will be looked up later in the chunk. This is a NOOP unless running in CHUNK mode.
+     *
+     * @param gtin14 The GTIN-14 to register.
+     */
+    public void register(final String gtin14) {
+
+        if (this.lookupMode == LookupMode.CHUNK && !this.resolvedAlbums.containsKey(gtin14) && this.mightExist(gtin14)) {
+            this.pendingGtins.add(gtin14);
+        }
+    }
+
+    /**
+     * Finds the CoreAlbum in the CT_ALBUM table with a GTIN-14. The CoreAlbum returned is always a new object, so
+     * callers are free to change it.
+     *
+     * @param gtin14 The GTIN-14 to look for.
+     * @return The CoreAlbum with the GTIN-14 or empty if it is not in the CT_ALBUM table.
+     */
+    public Optional<CoreAlbum> findByGtin14(final String gtin14) {
+
+        // Anything registered since the last lookup gets resolved together.
+        if (!this.pendingGtins.isEmpty()) {
+            this.resolvePending();
+        }
+
+        if (this.resolvedAlbums.containsKey(gtin14)) {
+            return Optional.ofNullable(this.resolvedAlbums.get(gtin14)).map(CoreAlbum::copy);
+        }
+
+        if (!this.mightExist(gtin14)) {
+            this.lookupsSkipped++;
+            return Optional.empty();
+        }
+
+        final Optional<CoreAlbum> cached = this.coreAlbumCache.get(gtin14);
+        if (cached.isPresent()) {
+            return cached.map(CoreAlbum::copy);
+        }
+
+        this.queriesRun++;
+        this.gtinsLookedUp++;
+
+        final Optional<CoreAlbum> found = this.coreAlbumDao.findByGtin14(gtin14);
+        if (found.isPresent()) {
+            this.coreAlbumCache.put(gtin14, found.get().copy());
+        } else {
+            this.countFalsePositive(gtin14);
+        }
+        return found;
+    }
+
+    /**
+     * Remembers a CoreAlbum that will be inserted by the current chunk. Any later lookup of its GTIN-14 in the
+     * same chunk will find it, even though it is not in the DB yet.
+     *
+     * @param coreAlbum The CoreAlbum that will be inserted.
+     */
+    public void remember(final CoreAlbum coreAlbum) {
+
+        this.resolvedAlbums.put(coreAlbum.getGtin14(), coreAlbum.copy());
+
+        // Later chunks have to look it up again.
+        final long encoded = GtinUtils.encode(coreAlbum.getGtin14());
+        if (Objects.nonNull(this.existingGtins) && encoded != GtinUtils.NOT_ENCODABLE) {
+            this.existingGtins.put(encoded);
+        }
+    }
+
+    /**
+     * Forgets everything looked up so far. This should be called at the start of each chunk so that albums
+     * saved by earlier chunks are read fresh from the cache or the DB.
+     */
+    public void clear() {
+
+        this.pendingGtins.clear();
+        this.resolvedAlbums.clear();
+    }
+
+    /**
+     * Resets the query counts and, if the Bloom filter is turned on, fills it with the GTIN-14s in CT_ALBUM. This
+     * should be called at the start of each step.
+     */
+    public void reset() {
+
+        this.reset(0, 1);
+    }
+
+    /**
+     * Resets the query counts and, if the Bloom filter is turned on, fills it with the GTIN-14s in CT_ALBUM that hash
+     * to a partition. This should be called at the start of each step, with the partition the step reads.
+     *
+     * @param partition The index of the partition the step reads, from 0 to one less than the number of partitions.
+     * @param partitions The number of partitions the albums are split into. Pass 1 for a step that reads them all.
+     */
+    public void reset(final int partition, final int partitions) {
+
+        this.clear();
+        this.queriesRun = 0;
+        this.gtinsLookedUp = 0;
+        this.lookupsSkipped = 0;
+        this.falsePositives = 0;
+
+        if (this.falsePositiveRate > 0) {
+            this.existingGtins = this.loadExistingGtins(partition, partitions);
+        }
+    }
+
+    /**
+     * Returns the share of GTIN-14s not in CT_ALBUM that the Bloom filter still sent to the DB. This is measured
+     * from the lookups made since the last reset.
+     *
+     * @return The measured false positive rate, from 0 to 1.
+     */
+    public double getFalsePositiveRate() {
+
+        final int notInTable = this.falsePositives + this.lookupsSkipped;
+        return notInTable == 0 ? 0 : (double) this.falsePositives / notInTable;
+    }
+
+    /**
+     * Returns the Bloom filter of GTIN-14s in CT_ALBUM.
+     *
+     * @return The Bloom filter or empty if it is turned off or the lookup has not been reset.
+     */
+    public Optional<BloomFilter> getExistingGtins() {
+
+        return Optional.ofNullable(this.existingGtins);
+    }
+
+    /**
+     * Returns the statistics of the cache in front of the DB.
+     *
+     * @return The statistics of the cache in front of the DB.
+     */
+    public BoundedCache.Statistics getCacheStatistics() {
+
+        return this.coreAlbumCache.getStatistics();
+    }
+
+    private void resolvePending() {
+
+        // Anything in the cache doesn't need to go to the DB.
+        final List<String> toQuery = new ArrayList<>(this.pendingGtins.size());
+        this.pendingGtins.forEach(gtin14 -> {
+
+            final Optional<CoreAlbum> cached = this.coreAlbumCache.get(gtin14);
+            if (cached.isPresent()) {
+                this.resolvedAlbums.put(gtin14, cached.get());
+            } else {
+                toQuery.add(gtin14);
+            }
+        });
+
+        if (!toQuery.isEmpty()) {
+
+            logger.debug(String.format("Looking up %,d GTIN-14s.", toQuery.size()));
+
+            this.coreAlbumDao.findByGtin14s(toQuery).forEach((gtin14, coreAlbum) -> {
+                this.resolvedAlbums.put(gtin14, coreAlbum);
+                this.coreAlbumCache.put(gtin14, coreAlbum.copy());
+            });
+
+            this.queriesRun++;
+            this.gtinsLookedUp += toQuery.size();
+
+            // Whatever the DB didn't return doesn't exist.
+            for (final String gtin14 : toQuery) {
+                if (!this.resolvedAlbums.containsKey(gtin14)) {
+                    this.resolvedAlbums.put(gtin14, null);
+                    this.countFalsePositive(gtin14);
+                }
+            }
+        }
+
+        this.pendingGtins.clear();
+    }
+
+    private BloomFilter loadExistingGtins(final int partition, final int partitions) {
+
+        // Leave room for the share of the albums the step will insert.
+        final int existing = this.coreAlbumDao.count(partition, partitions);
+        final BloomFilter bloomFilter = BloomFilter.create(existing + Math.max(existing / 4, MIN_FILTER_HEADROOM / partitions),
+                this.falsePositiveRate);
+
+        this.coreAlbumDao.forEachGtin14(partition, partitions, gtin14 -> {
+            final long encoded = GtinUtils.encode(gtin14);
+            if (encoded != GtinUtils.NOT_ENCODABLE) {
+                bloomFilter.put(encoded);
+            }
+        });
+
+        logger.info(String.format("Loaded %,d GTIN-14s of partition %d of %d into a %,d bit Bloom filter.",
+                bloomFilter.getInsertions(), partition, partitions, bloomFilter.getBitCount()));
+        return bloomFilter;
+    }
+
+    // Anything the filter can't hold has to be looked up.
+    private boolean mightExist(final String gtin14) {
+
+        if (Objects.isNull(this.existingGtins)) {
+            return true;
+        }
+
+        final long encoded = GtinUtils.encode(gtin14);
+        return encoded == GtinUtils.NOT_ENCODABLE || this.existingGtins.mightContain(encoded);
+    }
+
+    private void countFalsePositive(final String gtin14) {
+
+        if (Objects.nonNull(this.existingGtins) && GtinUtils.isEncodable(gtin14)) {
+            this.falsePositives++;
+        }
+    }
+}
@@ -2,6 +2,8 @@ package dev.codestijl.integrationdemo.loadcore;
 
 import dev.codestijl.integrationdemo.common.ValidationException;
 import dev.codestijl.integrationdemo.entity.CoreAlbum;
+import dev.codestijl.integrationdemo.jfr.JfrEvents;
+import dev.codestijl.integrationdemo.jfr.ValidationFailureEvent;
 
 import java.util.*;
 
@@ -17,8 +19,16 @@ import java.util.*;
     private static final int ALBUM_NAME_MAX_LENGTH = 100;
     private static final int ARTIST_NAME_MAX_LENGTH = 100;
 
+    private static final String GTIN_14_REQUIRED = "GTIN-14 name is required.";
+    private static final String GTIN_14_WRONG_LENGTH = String.format("GTIN-14 must be %d characters long.", GTIN_14_LENGTH);
+    private static final String ALBUM_NAME_REQUIRED = "Album name is required.";
+    private static final String ALBUM_NAME_TOO_LONG = String.format("Album name must be %d characters or fewer.", ALBUM_NAME_MAX_LENGTH);
+    private static final String ARTIST_NAME_REQUIRED = "Artist name is required.";
+    private static final String ARTIST_NAME_TOO_LONG = String.format("Artist name must be %d characters or fewer.", ARTIST_NAME_MAX_LENGTH);
+
     /**
-     * Validates a CoreAlbum.
+     * Validates a CoreAlbum. An album that fails is recorded as a ValidationFailureEvent when a JFR recording is
+     * running.
      *
      * @param coreAlbum The CoreAlbum to validate.
      * @throws ValidationException Any error in validation will throw a ValidationException. The validation will
@@ -35,16 +45,75 @@ import java.util.*;
         this.validateAlbumId(coreAlbum.getAlbumId()).ifPresent(errors::add);
 
         if (!errors.isEmpty()) {
+            recordFailure(coreAlbum, errors);
             throw new ValidationException("Unable to validate album.", errors);
         }
     }
 
+    private static void recordFailure(final CoreAlbum coreAlbum, final List<String> errors) {
+
+        final ValidationFailureEvent event = new ValidationFailureEvent();
+
+        if (event.shouldCommit()) {
+            event.setStep(JfrEvents.currentStep())
+                    .setAlbumId(Objects.toString(coreAlbum.getSourceAlbumId(), null))
+                    .setGtin14(coreAlbum.getGtin14())
+                    .setErrors(String.join(", ", errors))
+                    .commit();
+        }
+    }
+
+    /**
+     * Returns an SQL predicate that is true when a row of the ALBUM table in the STAGE schema would pass validation
+     * once mapped to a CoreAlbum. This applies the same rules as validate.
+     *
+     * @param alias The alias of the ALBUM table in the query.
+     * @return The SQL predicate.
+     */
+    public String validSql(final String alias) {
+
+        // The album IDs are never null in the DB, so they don't need to be checked.
+        return String.format("(%1$s.GTIN_14 IS NOT NULL AND CHAR_LENGTH(%1$s.GTIN_14) = %2$d "
+                        + "AND %1$s.ALBUM_NAME IS NOT NULL AND CHAR_LENGTH(%1$s.ALBUM_NAME) <= %3$d "
+                        + "AND %1$s.ARTIST_NAME IS NOT NULL AND CHAR_LENGTH(%1$s.ARTIST_NAME) <= %4$d)",
+                alias, GTIN_14_LENGTH, ALBUM_NAME_MAX_LENGTH, ARTIST_NAME_MAX_LENGTH);
+    }
+
+    /**
+     * Returns an SQL expression with the error text for a row of the ALBUM table in the STAGE schema that fails
+     * validation. The text is the same the LOAD-CORE processor saves for an album that fails validate: the errors
+     * separated by commas inside curly braces.
+     *
+     * @param alias The alias of the ALBUM table in the query.
+     * @return The SQL expression.
+     */
+    public String errorTextSql(final String alias) {
+
+        // CONCAT_WS skips the NULLs of the rules that passed. All the errors together are far shorter
+        // than the ERROR_TEXT column, so the text never has to be cut short.
+        return String.format("CONCAT('{', CONCAT_WS(',', "
+                        + "CASE WHEN %1$s.GTIN_14 IS NULL THEN %2$s WHEN CHAR_LENGTH(%1$s.GTIN_14) <> %3$d THEN %4$s END, "
+                        + "CASE WHEN %1$s.ALBUM_NAME IS NULL THEN %5$s WHEN CHAR_LENGTH(%1$s.ALBUM_NAME) > %6$d THEN %7$s END, "
+                        + "CASE WHEN %1$s.ARTIST_NAME IS NULL THEN %8$s WHEN CHAR_LENGTH(%1$s.ARTIST_NAME) > %9$d THEN %10$s END), '}')",
+                alias,
+                sqlLiteral(GTIN_14_REQUIRED), GTIN_14_LENGTH, sqlLiteral(GTIN_14_WRONG_LENGTH),
+                sqlLiteral(ALBUM_NAME_REQUIRED), ALBUM_NAME_MAX_LENGTH, sqlLiteral(ALBUM_NAME_TOO_LONG),
+                sqlLiteral(ARTIST_NAME_REQUIRED), ARTIST_NAME_MAX_LENGTH, sqlLiteral(ARTIST_NAME_TOO_LONG));
+    }
+
+    private static String sqlLiteral(final String value) {
+
+        return String.format("'%s'", value.replace("'", "''"));
+    }
+
     private Optional<String> validateGtin14(final String gtin14) {
 
+        // The characters are counted the way CHAR_LENGTH counts them in SQL, so a character outside the BMP counts
+        // once rather than as its two surrogates.
         if (Objects.isNull(gtin14)) {
-            return Optional.of("GTIN-14 name is required.");
-        } else if (gtin14.length() != GTIN_14_LENGTH) {
-            return Optional.of("GTIN-14 must be 14 characters long.");
+            return Optional.of(GTIN_14_REQUIRED);
+        } else if (gtin14.codePointCount(0, gtin14.length()) != GTIN_14_LENGTH) {
+            return Optional.of(GTIN_14_WRONG_LENGTH);
         }
 
         return Optional.empty();
@@ -53,9 +122,9 @@ import java.util.*;
     private Optional<String> validateAlbumName(final String albumName) {
 
         if (Objects.isNull(albumName)) {
-            return Optional.of("Album name is required.");
-        } else if (albumName.length() > ALBUM_NAME_MAX_LENGTH) {
-            return Optional.of(String.format("Album name must be %d characters or fewer.", ALBUM_NAME_MAX_LENGTH));
+            return Optional.of(ALBUM_NAME_REQUIRED);
+        } else if (albumName.codePointCount(0, albumName.length()) > ALBUM_NAME_MAX_LENGTH) {
+            return Optional.of(ALBUM_NAME_TOO_LONG);
         }
 
         return Optional.empty();
@@ -64,15 +133,15 @@ import java.util.*;
     private Optional<String> validateArtistName(final String artistName) {
 
         if (Objects.isNull(artistName)) {
-            return Optional.of("Artist name is required.");
-        } else if (artistName.length() > ARTIST_NAME_MAX_LENGTH) {
-            return Optional.of(String.format("Artist name must be %d characters or fewer.", ALBUM_NAME_MAX_LENGTH));
+            return Optional.of(ARTIST_NAME_REQUIRED);
+        } else if (artistName.codePointCount(0, artistName.length()) > ARTIST_NAME_MAX_LENGTH) {
+            return Optional.of(ARTIST_NAME_TOO_LONG);
         }
 
         return Optional.empty();
     }
 
-    private Optional<String> validateSourceAlbum(final String sourceAlbumId) {
+    private Optional<String> validateSourceAlbum(final UUID sourceAlbumId) {
 
         if (Objects.isNull(sourceAlbumId)) {
             return Optional.of("Source album ID is required.");
@@ -81,7 +150,7 @@ import java.util.*;
         return Optional.empty();
     }
 
-    private Optional<String> validateAlbumId(final String albumId) {
+    private Optional<String> validateAlbumId(final UUID albumId) {
 
         if (Objects.isNull(albumId)) {
             return Optional.of("Album ID is required.");
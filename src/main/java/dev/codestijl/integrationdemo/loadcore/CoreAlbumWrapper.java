@@ -23,6 +23,7 @@ public class CoreAlbumWrapper {
 
     private final Album stageAlbum;
     private final boolean isInsert;
+    private final boolean isUpsert;
     private final CoreAlbum coreAlbum;
     private final AlbumError albumError;
 
@@ -36,7 +37,21 @@ public class CoreAlbumWrapper {
      */
     public CoreAlbumWrapper(final CoreAlbum coreAlbum, final boolean isInsert, final Album stageAlbum) {
 
-        this(coreAlbum, isInsert, null, stageAlbum);
+        this(coreAlbum, isInsert, false, null, stageAlbum);
+
+        Assert.notNull(coreAlbum, "CoreAlbum cannot be null.");
+    }
+
+    /**
+     * Constructs a new CoreAlbumWrapper. In this overloading, the wrapper will hold a CoreAlbum to upsert
+     * in the DB, leaving it to the DB to decide if it is an insert or an update.
+     *
+     * @param coreAlbum The CoreAlbum to upsert.
+     * @param stageAlbum The Album to update the status of in the STAGE schema.
+     */
+    public CoreAlbumWrapper(final CoreAlbum coreAlbum, final Album stageAlbum) {
+
+        this(coreAlbum, false, true, null, stageAlbum);
 
         Assert.notNull(coreAlbum, "CoreAlbum cannot be null.");
     }
@@ -50,17 +65,19 @@ public class CoreAlbumWrapper {
      */
     public CoreAlbumWrapper(final AlbumError albumError, final Album stageAlbum) {
 
-        this(null, false, albumError, stageAlbum);
+        this(null, false, false, albumError, stageAlbum);
 
         Assert.notNull(albumError, "AlbumError cannot be null.");
     }
 
-    private CoreAlbumWrapper(final CoreAlbum coreAlbum, final boolean isInsert, final AlbumError albumError, final Album stageAlbum) {
+    private CoreAlbumWrapper(final CoreAlbum coreAlbum, final boolean isInsert, final boolean isUpsert, final AlbumError albumError,
+                             final Album stageAlbum) {
 
         Assert.notNull(stageAlbum, "Album cannot be null.");
 
         this.stageAlbum = stageAlbum;
         this.isInsert = isInsert;
+        this.isUpsert = isUpsert;
         this.coreAlbum = coreAlbum;
         this.albumError = albumError;
     }
@@ -1,36 +1,53 @@
 package dev.codestijl.integrationdemo.loadcore;
 
+import dev.codestijl.integrationdemo.common.BoundedCache;
 import dev.codestijl.integrationdemo.dao.CoreAlbumDao;
+import dev.codestijl.integrationdemo.dao.UpsertCounts;
 import dev.codestijl.integrationdemo.entity.CoreAlbum;
+import dev.codestijl.integrationdemo.metrics.MeteredCount;
+import dev.codestijl.integrationdemo.metrics.MetricNames;
 
+import java.util.LinkedList;
 import java.util.List;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import javax.sql.DataSource;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.ChunkListener;
 import org.springframework.batch.core.ExitStatus;
 import org.springframework.batch.core.StepExecution;
 import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
 import org.springframework.batch.item.ItemWriter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.Assert;
 
 /**
  * Writes CoreAlbums to the CT_ALBUM table in the CORE schema.
  *
+ * <p>Everything written is also written to the cache of CoreAlbums, but only once the chunk has committed. That way
+ * the cache never holds an album that was rolled back. Upserted albums are removed from the cache instead, since
+ * only the DB knows the ID of an album it updated.</p>
+ *
  * @author darren
  * @since 1.0.0
  */
-public class CoreAlbumWriter implements ItemWriter<CoreAlbumWrapper>, StepExecutionListener {
+public class CoreAlbumWriter implements ItemWriter<CoreAlbumWrapper>, StepExecutionListener, ChunkListener {
 
     private static final Logger logger = LoggerFactory.getLogger(CoreAlbumWriter.class);
 
     private final CoreAlbumDao coreAlbumDao;
+    private final BoundedCache<String, CoreAlbum> coreAlbumCache;
+
+    private final List<CoreAlbum> uncommitted = new LinkedList<>();
 
-    private int rowsInserted;
-    private int rowsUpdated;
+    private final MeteredCount rowsInserted;
+    private final MeteredCount rowsUpdated;
 
     /**
      * Constructs a new CoreAlbumWriter.
@@ -39,14 +56,68 @@ public class CoreAlbumWriter implements ItemWriter<CoreAlbumWrapper>, StepExecut
      */
     public CoreAlbumWriter(final DataSource dataSource) {
 
-        this.coreAlbumDao = new CoreAlbumDao(new JdbcTemplate(dataSource));
+        this(dataSource, BoundedCache.disabled());
+    }
+
+    /**
+     * Constructs a new CoreAlbumWriter that writes through to a cache.
+     *
+     * @param dataSource The DataSource to use to run queries.
+     * @param coreAlbumCache The cache of CoreAlbums keyed by GTIN-14 to write to after each chunk commits.
+     */
+    public CoreAlbumWriter(final DataSource dataSource, final BoundedCache<String, CoreAlbum> coreAlbumCache) {
+
+        this(new JdbcTemplate(dataSource), coreAlbumCache, Metrics.globalRegistry);
+    }
+
+    /**
+     * Constructs a new CoreAlbumWriter that writes through to a cache and counts the rows it writes.
+     *
+     * @param jdbcTemplate The JdbcTemplate to use to run queries.
+     * @param coreAlbumCache The cache of CoreAlbums keyed by GTIN-14 to write to after each chunk commits.
+     * @param meterRegistry The registry to count the rows inserted and updated in.
+     */
+    public CoreAlbumWriter(final JdbcTemplate jdbcTemplate, final BoundedCache<String, CoreAlbum> coreAlbumCache,
+                           final MeterRegistry meterRegistry) {
+
+        Assert.notNull(coreAlbumCache, "Cache cannot be null.");
+
+        this.coreAlbumDao = new CoreAlbumDao(jdbcTemplate);
+        this.coreAlbumCache = coreAlbumCache;
+        this.rowsInserted = new MeteredCount(meterRegistry, MetricNames.ROWS_WRITTEN,
+                MetricNames.TABLE_TAG, "CT_ALBUM", MetricNames.OPERATION_TAG, MetricNames.INSERT);
+        this.rowsUpdated = new MeteredCount(meterRegistry, MetricNames.ROWS_WRITTEN,
+                MetricNames.TABLE_TAG, "CT_ALBUM", MetricNames.OPERATION_TAG, MetricNames.UPDATE);
     }
 
     @Override
     public void write(final List<? extends CoreAlbumWrapper> items) {
 
-        this.rowsInserted += this.processStream(items, CoreAlbumWrapper::isInsert, this.coreAlbumDao::insert);
-        this.rowsUpdated += this.processStream(items, (c) -> !c.isInsert(), this.coreAlbumDao::update);
+        this.rowsInserted.add(this.processStream(items, CoreAlbumWrapper::isInsert, this.coreAlbumDao::insert));
+        this.rowsUpdated.add(this.processStream(items, (c) -> !c.isInsert() && !c.isUpsert(), this.coreAlbumDao::update));
+        this.upsert(items);
+    }
+
+    private void upsert(final List<? extends CoreAlbumWrapper> items) {
+
+        final List<CoreAlbum> records = items.stream()
+                .filter(CoreAlbumWrapper::notInError)
+                .filter(CoreAlbumWrapper::isUpsert)
+                .map(CoreAlbumWrapper::getCoreAlbum)
+                .collect(Collectors.toList());
+
+        if (records.isEmpty()) {
+            return;
+        }
+
+        logger.debug(String.format("Upserting batch of %,d albums to the core DB.", records.size()));
+
+        final UpsertCounts upsertCounts = this.coreAlbumDao.upsert(records);
+        this.rowsInserted.add(upsertCounts.getInserted());
+        this.rowsUpdated.add(upsertCounts.getUpdated());
+
+        // Whatever is cached for these GTINs is out of date now.
+        records.forEach(coreAlbum -> this.coreAlbumCache.remove(coreAlbum.getGtin14()));
     }
 
     private int processStream(final List<? extends CoreAlbumWrapper> items, final Predicate<CoreAlbumWrapper> filter,
@@ -60,21 +131,47 @@ public class CoreAlbumWriter implements ItemWriter<CoreAlbumWrapper>, StepExecut
 
         logger.debug(String.format("Writing batch of %,d albums to the core DB.", records.size()));
 
-        return processor.apply(records);
+        final int processed = processor.apply(records);
+
+        // Hold on to copies for the cache until the chunk commits.
+        records.forEach(coreAlbum -> this.uncommitted.add(coreAlbum.copy()));
+
+        return processed;
     }
 
     @Override
     public void beforeStep(final StepExecution stepExecution) {
 
-        this.rowsInserted = 0;
-        this.rowsUpdated = 0;
+        this.rowsInserted.reset();
+        this.rowsUpdated.reset();
     }
 
     @Override
     public ExitStatus afterStep(final StepExecution stepExecution) {
 
-        logger.info(String.format("%,d albums inserted and %,d updated.", this.rowsInserted, this.rowsUpdated));
+        logger.info(String.format("%,d albums inserted and %,d updated.", this.rowsInserted.get(), this.rowsUpdated.get()));
 
         return ExitStatus.COMPLETED;
     }
+
+    @Override
+    public void beforeChunk(final ChunkContext context) {
+
+        this.uncommitted.clear();
+    }
+
+    @Override
+    public void afterChunk(final ChunkContext context) {
+
+        // The chunk has committed, so what was written is safe to cache.
+        this.uncommitted.forEach(coreAlbum -> this.coreAlbumCache.put(coreAlbum.getGtin14(), coreAlbum));
+        this.uncommitted.clear();
+    }
+
+    @Override
+    public void afterChunkError(final ChunkContext context) {
+
+        // Nothing written in this chunk made it to the DB.
+        this.uncommitted.clear();
+    }
 }
@@ -0,0 +1,53 @@
+package dev.codestijl.integrationdemo.loadcore;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.util.Assert;
+
+/**
+ * Splits the pending albums of a batch into partitions by the hash of their GTIN-14. Each partition gets the index of
+ * its hash range and the number of ranges, which the AlbumReader uses to read only the albums in its range. Because
+ * every GTIN-14 lands in exactly one partition, workers can never race each other to insert the same core album.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class GtinHashPartitioner implements Partitioner {
+
+    /**
+     * The key in the step's ExecutionContext of the index of the partition, from 0 to one less than the number of
+     * partitions.
+     */
+    public static final String PARTITION_KEY = "partition";
+
+    /**
+     * The key in the step's ExecutionContext of the number of partitions.
+     */
+    public static final String PARTITIONS_KEY = "partitions";
+
+    // Each partition needs its own ExecutionContext.
+    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+    @Override
+    public Map<String, ExecutionContext> partition(final int gridSize) {
+
+        Assert.isTrue(gridSize > 0, "Grid size must be positive.");
+
+        // Only ever used by the thread that made it.
+        @SuppressWarnings("PMD.UseConcurrentHashMap")
+        final Map<String, ExecutionContext> partitions = new HashMap<>();
+
+        for (int partition = 0; partition < gridSize; partition++) {
+
+            final ExecutionContext executionContext = new ExecutionContext();
+            executionContext.putInt(PARTITION_KEY, partition);
+            executionContext.putInt(PARTITIONS_KEY, gridSize);
+
+            partitions.put(PARTITION_KEY + partition, executionContext);
+        }
+
+        return partitions;
+    }
+}
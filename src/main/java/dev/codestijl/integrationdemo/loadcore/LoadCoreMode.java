@@ -0,0 +1,15 @@
+package dev.codestijl.integrationdemo.loadcore;
+
+/**
+ * How the LOAD-CORE step moves albums from the STAGE schema to the CORE schema. This is picked with the loadCoreMode
+ * job parameter.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public enum LoadCoreMode {
+
+    ROW,        // Each album is read, processed, and written by the application.
+    SET,        // The albums are moved with a few set based statements that run entirely in the DB.
+    PIPELINED   // As ROW, but each chunk LOAD-ALBUM commits is handed straight to LOAD-CORE while LOAD-ALBUM carries on.
+}
@@ -0,0 +1,56 @@
+package dev.codestijl.integrationdemo.loadcore;
+
+import dev.codestijl.integrationdemo.common.IdStrategy;
+import dev.codestijl.integrationdemo.common.IdUtils;
+
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.job.flow.FlowExecutionStatus;
+import org.springframework.batch.core.job.flow.JobExecutionDecider;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.util.Assert;
+
+/**
+ * Decides which implementation of the LOAD-CORE step to run from the loadCoreMode job parameter. The status it
+ * returns is the name of the LoadCoreMode. When the parameter is not passed, the ROW mode is used.
+ *
+ * <p>The job asks before LOAD-ALBUM, to see if the two steps are pipelined, and, when they aren't, again after it.
+ * The mode is logged, and kept in the job's ExecutionContext, the first time.</p>
+ *
+ * <p>PIPELINED needs TIME_ORDERED IDs. When a GTIN-14 repeats, the album with the greatest ID wins, and only with
+ * those IDs is that always the album LOAD-ALBUM hands over last.</p>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class LoadCoreModeDecider implements JobExecutionDecider {
+
+    /**
+     * The name of the job parameter that picks the LoadCoreMode.
+     */
+    public static final String LOAD_CORE_MODE_PARAMETER = "loadCoreMode";
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadCoreModeDecider.class);
+
+    @Override
+    public FlowExecutionStatus decide(final JobExecution jobExecution, final StepExecution stepExecution) {
+
+        final String parameter = jobExecution.getJobParameters().getString(LOAD_CORE_MODE_PARAMETER, LoadCoreMode.ROW.name());
+        final LoadCoreMode loadCoreMode = LoadCoreMode.valueOf(parameter.trim().toUpperCase(Locale.ROOT));
+
+        Assert.state(loadCoreMode != LoadCoreMode.PIPELINED || IdUtils.getStrategy() == IdStrategy.TIME_ORDERED,
+                "The PIPELINED mode needs TIME_ORDERED IDs so albums with the same GTIN-14 are loaded in ID order.");
+
+        final ExecutionContext executionContext = jobExecution.getExecutionContext();
+        if (!executionContext.containsKey(LOAD_CORE_MODE_PARAMETER)) {
+            logger.info(String.format("Running LOAD-CORE in %s mode.", loadCoreMode));
+            executionContext.putString(LOAD_CORE_MODE_PARAMETER, loadCoreMode.name());
+        }
+
+        return new FlowExecutionStatus(loadCoreMode.name());
+    }
+}
@@ -0,0 +1,14 @@
+package dev.codestijl.integrationdemo.loadcore;
+
+/**
+ * How the LOAD-CORE step looks up existing albums in the CT_ALBUM table.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public enum LookupMode {
+
+    SINGLE,     // Each album is looked up with its own query as it is processed.
+    CHUNK,      // All the GTINs read in a chunk are looked up with a single query before the chunk is processed.
+    UPSERT      // Nothing is looked up. The writer inserts or updates each album by its GTIN in a single statement.
+}
@@ -0,0 +1,79 @@
+package dev.codestijl.integrationdemo.loadcore;
+
+import dev.codestijl.integrationdemo.entity.Album;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.util.Assert;
+
+/**
+ * Reads the albums of one LOAD-CORE partition from an AlbumHandoff as LOAD-ALBUM publishes them, in the order they
+ * were loaded. It returns null once LOAD-ALBUM has completed and every album it sent the partition has been read.
+ *
+ * <p>If LOAD-ALBUM fails, the albums it did publish are read, and then the read fails too. That fails the partition,
+ * so when the job is restarted it runs again alongside LOAD-ALBUM.</p>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class PipelinedAlbumReader implements ItemReader<Album>, StepExecutionListener {
+
+    private final AlbumHandoff albumHandoff;
+    private final int partition;
+
+    private Iterator<Album> albums = Collections.emptyIterator();
+
+    /**
+     * Constructs a new PipelinedAlbumReader.
+     *
+     * @param albumHandoff The handoff to read the albums from.
+     * @param partition The index of the partition to read, from 0 to one less than the number of partitions.
+     */
+    public PipelinedAlbumReader(final AlbumHandoff albumHandoff, final int partition) {
+
+        Assert.notNull(albumHandoff, "Album handoff cannot be null.");
+        Assert.isTrue(partition >= 0 && partition < albumHandoff.getPartitions(), "Partition must be less than partitions.");
+
+        this.albumHandoff = albumHandoff;
+        this.partition = partition;
+    }
+
+    @Override
+    public Album read() throws InterruptedException {
+
+        while (!this.albums.hasNext()) {
+
+            final List<Album> chunk = this.albumHandoff.take(this.partition);
+            if (Objects.isNull(chunk)) {
+                Assert.state(this.albumHandoff.getProducerStatus() == BatchStatus.COMPLETED,
+                        String.format("LOAD-ALBUM ended %s, so not all of the albums were loaded.", this.albumHandoff.getProducerStatus()));
+                return null;
+            }
+
+            this.albums = chunk.iterator();
+        }
+
+        return this.albums.next();
+    }
+
+    @Override
+    public void beforeStep(final StepExecution stepExecution) {
+
+        this.albums = Collections.emptyIterator();
+    }
+
+    @Override
+    public ExitStatus afterStep(final StepExecution stepExecution) {
+
+        this.albumHandoff.stop(this.partition);
+        return stepExecution.getExitStatus();
+    }
+}
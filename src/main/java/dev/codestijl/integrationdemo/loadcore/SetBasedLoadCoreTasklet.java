@@ -0,0 +1,152 @@
+package dev.codestijl.integrationdemo.loadcore;
+
+import dev.codestijl.integrationdemo.dao.KeyMode;
+import dev.codestijl.integrationdemo.dao.SqlDialect;
+import dev.codestijl.integrationdemo.entity.Status;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * Tasklet that moves a batch of albums from the STAGE schema to the CORE schema with a few set based statements
+ * instead of reading each album into the application. It is meant for trusted feeds where there is nothing to do
+ * with an album but validate and copy it.
+ *
+ * <p>The statements run in this order, all in the step's transaction:</p>
+ * <ol>
+ *     <li>An error is inserted into ALBUM_ERROR for each album that fails validation.</li>
+ *     <li>Albums already in CT_ALBUM are updated from the valid albums with the same GTIN-14.</li>
+ *     <li>Valid albums with a GTIN-14 that is not in CT_ALBUM are inserted into it.</li>
+ *     <li>The status of every album in the batch is set to complete or error.</li>
+ * </ol>
+ *
+ * <p>The validation rules come from CoreAlbumValidator, so they are the same as the ROW mode. When a GTIN-14 appears
+ * more than once in a batch, the album with the highest ALBUM_ID wins, which is the one the ROW mode writes last.</p>
+ *
+ * <p>The new IDs are made in SQL, as KeyMode describes, so they follow the IdStrategy of IdUtils too.</p>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class SetBasedLoadCoreTasklet implements Tasklet {
+
+    private static final Logger logger = LoggerFactory.getLogger(SetBasedLoadCoreTasklet.class);
+
+    private static final String STAGE_ALIAS = "A";
+
+    private static final String PENDING_IN_BATCH = "A.BATCH_ID = :batchId AND A.STATUS_CD = :pending";
+
+    private static final String CT_ALBUM = "CORE.CT_ALBUM";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final UUID batchId;
+    private final CoreAlbumValidator coreAlbumValidator = new CoreAlbumValidator();
+
+    /**
+     * Creates a new SetBasedLoadCoreTasklet.
+     *
+     * @param dataSource The DataSource to use to run queries.
+     * @param batchId The ID of the batch being processed.
+     */
+    public SetBasedLoadCoreTasklet(final DataSource dataSource, final UUID batchId) {
+
+        this(new JdbcTemplate(dataSource), batchId);
+    }
+
+    /**
+     * Creates a new SetBasedLoadCoreTasklet that runs its statements through a JdbcTemplate.
+     *
+     * @param jdbcTemplate The JdbcTemplate to use to run queries.
+     * @param batchId The ID of the batch being processed.
+     */
+    public SetBasedLoadCoreTasklet(final JdbcTemplate jdbcTemplate, final UUID batchId) {
+
+        Assert.notNull(jdbcTemplate, "JdbcTemplate cannot be null.");
+        Assert.notNull(batchId, "Batch ID cannot be null.");
+
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.batchId = batchId;
+    }
+
+    @Override
+    public RepeatStatus execute(final StepContribution contribution, final ChunkContext chunkContext) {
+
+        logger.info(String.format("Loading core from batch '%s' with set based statements.", this.batchId));
+
+        final SqlDialect dialect = SqlDialect.of(this.jdbcTemplate.getJdbcTemplate().getDataSource());
+        final KeyMode mode = KeyMode.of(this.jdbcTemplate.getJdbcTemplate().getDataSource());
+        final MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("batchId", mode.parameter(this.batchId))
+                .addValue("pending", Status.PENDING.getId())
+                .addValue("complete", Status.COMPLETE.getId())
+                .addValue("error", Status.ERROR.getId())
+                .addValue("now", Timestamp.from(Instant.now()));
+
+        // Each insert makes its IDs in the order the albums were staged.
+        final int errors = this.jdbcTemplate.update(this.insertErrorsSql(mode.newIdSql(dialect, "A.ALBUM_ID")), parameters);
+        final int updated = this.jdbcTemplate.update(this.updateCoreAlbumsSql(dialect), parameters);
+        final int inserted = this.jdbcTemplate.update(this.insertCoreAlbumsSql(mode.newIdSql(dialect, "S.ALBUM_ID")), parameters);
+        final int albums = this.jdbcTemplate.update(this.updateStatusSql(), parameters);
+
+        logger.info(String.format("%,d albums processed.", albums));
+        logger.info(String.format("%,d albums inserted and %,d updated.", inserted, updated));
+        logger.info(String.format("%,d errors inserted.", errors));
+
+        contribution.incrementWriteCount(albums);
+
+        return RepeatStatus.FINISHED;
+    }
+
+    private String insertErrorsSql(final String newIdSql) {
+
+        return String.format("INSERT INTO STAGE.ALBUM_ERROR (ERROR_ID, ALBUM_ID, BATCH_ID, CREATE_TIME, ERROR_TEXT) "
+                        + "SELECT %s, A.ALBUM_ID, A.BATCH_ID, :now, %s FROM STAGE.ALBUM A WHERE %s AND NOT %s",
+                newIdSql, this.coreAlbumValidator.errorTextSql(STAGE_ALIAS), PENDING_IN_BATCH,
+                this.coreAlbumValidator.validSql(STAGE_ALIAS));
+    }
+
+    private String updateCoreAlbumsSql(final SqlDialect dialect) {
+
+        return dialect.updateJoinSql(CT_ALBUM, this.latestValidAlbumsSql(), "GTIN_14",
+                List.of("ALBUM_NAME", "ARTIST_NAME", "LAST_UPDATE_TIME", "SOURCE_ALBUM_ID"),
+                List.of("S.ALBUM_NAME", "S.ARTIST_NAME", ":now", "S.ALBUM_ID"));
+    }
+
+    private String insertCoreAlbumsSql(final String newIdSql) {
+
+        return String.format("INSERT INTO %1$s "
+                        + "(ALBUM_ID, GTIN_14, ALBUM_NAME, ARTIST_NAME, CREATE_TIME, LAST_UPDATE_TIME, SOURCE_ALBUM_ID) "
+                        + "SELECT %2$s, S.GTIN_14, S.ALBUM_NAME, S.ARTIST_NAME, :now, :now, S.ALBUM_ID FROM (%3$s) S "
+                        + "WHERE NOT EXISTS (SELECT 1 FROM %1$s C WHERE C.GTIN_14 = S.GTIN_14)",
+                CT_ALBUM, newIdSql, this.latestValidAlbumsSql());
+    }
+
+    private String updateStatusSql() {
+
+        return String.format("UPDATE STAGE.ALBUM A SET STATUS_CD = CASE WHEN %s THEN :complete ELSE :error END, "
+                + "LAST_UPDATE_TIME = :now WHERE %s", this.coreAlbumValidator.validSql(STAGE_ALIAS), PENDING_IN_BATCH);
+    }
+
+    // The valid albums in the batch, one for each GTIN-14.
+    private String latestValidAlbumsSql() {
+
+        return String.format("SELECT A.ALBUM_ID, A.GTIN_14, A.ALBUM_NAME, A.ARTIST_NAME FROM STAGE.ALBUM A "
+                        + "JOIN (SELECT MAX(A.ALBUM_ID) AS ALBUM_ID FROM STAGE.ALBUM A WHERE %1$s AND %2$s GROUP BY A.GTIN_14) L "
+                        + "ON A.ALBUM_ID = L.ALBUM_ID",
+                PENDING_IN_BATCH, this.coreAlbumValidator.validSql(STAGE_ALIAS));
+    }
+}
@@ -0,0 +1,247 @@
+package dev.codestijl.integrationdemo.metrics;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.util.Assert;
+
+/**
+ * Publishes the metrics of each step and each chunk to a MeterRegistry: the items read, written, filtered, and
+ * skipped, the items written per second, how long each chunk took, and how long the step took. The counts are taken
+ * from the StepExecution after each chunk commits, so they only include work that made it to the DB.
+ *
+ * <p>One listener can be registered with any number of steps, including the steps of a partition running at the
+ * same time. The meters are tagged with the name of the step and the partition, if there is one.</p>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class ChunkMetricsListener implements StepExecutionListener, ChunkListener {
+
+    private static final String SAMPLE_KEY = ChunkMetricsListener.class.getName() + ".sample";
+
+    // Spring Batch names the steps of a partition after the step they run, the separator, and the partition.
+    private static final String PARTITION_SEPARATOR = ":";
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final MeterRegistry meterRegistry;
+
+    // The meters of each step that is running, by the ID of its StepExecution.
+    private final Map<Long, StepMeters> running = new ConcurrentHashMap<>();
+
+    // A gauge holds on to what it measures, so each step keeps one rate for as long as the registry lives.
+    private final Map<Tags, ItemRate> rates = new ConcurrentHashMap<>();
+
+    /**
+     * The items a step has written per second since it started, or while it ran once it has ended.
+     *
+     * @author darren
+     * @since 1.0.0
+     */
+    private static final class ItemRate {
+
+        private final AtomicLong startNanos = new AtomicLong();
+        private final AtomicLong endNanos = new AtomicLong();
+        private final AtomicLong written = new AtomicLong();
+
+        private void start() {
+
+            this.written.set(0);
+            this.endNanos.set(0);
+            this.startNanos.set(System.nanoTime());
+        }
+
+        private void update(final long writeCount) {
+
+            this.written.set(writeCount);
+        }
+
+        private void stop() {
+
+            this.endNanos.set(System.nanoTime());
+        }
+
+        private double perSecond() {
+
+            final long end = this.endNanos.get();
+            final long elapsed = (end == 0 ? System.nanoTime() : end) - this.startNanos.get();
+            return this.written.get() / (Math.max(elapsed, 1) / NANOS_PER_SECOND);
+        }
+    }
+
+    /**
+     * The meters of one run of a step and the counts that have already been published to them.
+     *
+     * @author darren
+     * @since 1.0.0
+     */
+    private static final class StepMeters {
+
+        private final Tags tags;
+        private final Counter read;
+        private final Counter written;
+        private final Counter filtered;
+        private final Counter skipped;
+        private final Timer successfulChunks;
+        private final Timer failedChunks;
+        private final ItemRate itemRate;
+        private final Timer.Sample sample;
+        private final Object lock = new Object();
+
+        private long readPublished;
+        private long writtenPublished;
+        private long filteredPublished;
+        private long skippedPublished;
+
+        private StepMeters(final MeterRegistry meterRegistry, final Tags tags, final ItemRate itemRate) {
+
+            this.tags = tags;
+            this.read = itemCounter(meterRegistry, tags, "read");
+            this.written = itemCounter(meterRegistry, tags, "written");
+            this.filtered = itemCounter(meterRegistry, tags, "filtered");
+            this.skipped = itemCounter(meterRegistry, tags, "skipped");
+            this.successfulChunks = chunkTimer(meterRegistry, tags, "success");
+            this.failedChunks = chunkTimer(meterRegistry, tags, "error");
+            this.itemRate = itemRate;
+            this.sample = Timer.start(meterRegistry);
+        }
+
+        // A step that runs on more than one thread finishes chunks on all of them.
+        private void publish(final StepExecution stepExecution) {
+
+            synchronized (this.lock) {
+
+                this.read.increment(stepExecution.getReadCount() - this.readPublished);
+                this.written.increment(stepExecution.getWriteCount() - this.writtenPublished);
+                this.filtered.increment(stepExecution.getFilterCount() - this.filteredPublished);
+                this.skipped.increment(stepExecution.getSkipCount() - this.skippedPublished);
+
+                this.readPublished = stepExecution.getReadCount();
+                this.writtenPublished = stepExecution.getWriteCount();
+                this.filteredPublished = stepExecution.getFilterCount();
+                this.skippedPublished = stepExecution.getSkipCount();
+
+                this.itemRate.update(this.writtenPublished);
+            }
+        }
+
+        private static Counter itemCounter(final MeterRegistry meterRegistry, final Tags tags, final String type) {
+
+            return Counter.builder(MetricNames.STEP_ITEMS)
+                    .tags(tags)
+                    .tag(MetricNames.TYPE_TAG, type)
+                    .register(meterRegistry);
+        }
+
+        private static Timer chunkTimer(final MeterRegistry meterRegistry, final Tags tags, final String outcome) {
+
+            return Timer.builder(MetricNames.CHUNK)
+                    .tags(tags)
+                    .tag(MetricNames.OUTCOME_TAG, outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Creates a new ChunkMetricsListener.
+     *
+     * @param meterRegistry The registry to publish the metrics to.
+     */
+    public ChunkMetricsListener(final MeterRegistry meterRegistry) {
+
+        Assert.notNull(meterRegistry, "Meter registry cannot be null.");
+
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void beforeStep(final StepExecution stepExecution) {
+
+        final Tags tags = tagsOf(stepExecution.getStepName());
+        final ItemRate itemRate = this.rates.computeIfAbsent(tags, key -> {
+            final ItemRate rate = new ItemRate();
+            Gauge.builder(MetricNames.STEP_ITEMS_PER_SECOND, rate, ItemRate::perSecond).tags(key).register(this.meterRegistry);
+            return rate;
+        });
+
+        itemRate.start();
+        this.running.put(stepExecution.getId(), new StepMeters(this.meterRegistry, tags, itemRate));
+    }
+
+    @Override
+    public ExitStatus afterStep(final StepExecution stepExecution) {
+
+        final StepMeters stepMeters = this.running.remove(stepExecution.getId());
+        if (Objects.nonNull(stepMeters)) {
+
+            stepMeters.publish(stepExecution);
+            stepMeters.itemRate.stop();
+            stepMeters.sample.stop(Timer.builder(MetricNames.STEP)
+                    .tags(stepMeters.tags)
+                    .tag(MetricNames.STATUS_TAG, stepExecution.getExitStatus().getExitCode())
+                    .register(this.meterRegistry));
+        }
+
+        return stepExecution.getExitStatus();
+    }
+
+    @Override
+    public void beforeChunk(final ChunkContext context) {
+
+        context.setAttribute(SAMPLE_KEY, Timer.start(this.meterRegistry));
+    }
+
+    @Override
+    public void afterChunk(final ChunkContext context) {
+
+        final StepExecution stepExecution = context.getStepContext().getStepExecution();
+        final StepMeters stepMeters = this.running.get(stepExecution.getId());
+
+        if (Objects.nonNull(stepMeters)) {
+            stopSample(context, stepMeters.successfulChunks);
+            stepMeters.publish(stepExecution);
+        }
+    }
+
+    @Override
+    public void afterChunkError(final ChunkContext context) {
+
+        final StepMeters stepMeters = this.running.get(context.getStepContext().getStepExecution().getId());
+
+        if (Objects.nonNull(stepMeters)) {
+            stopSample(context, stepMeters.failedChunks);
+        }
+    }
+
+    private static void stopSample(final ChunkContext context, final Timer timer) {
+
+        final Object sample = context.removeAttribute(SAMPLE_KEY);
+        if (sample instanceof Timer.Sample) {
+            ((Timer.Sample) sample).stop(timer);
+        }
+    }
+
+    private static Tags tagsOf(final String stepName) {
+
+        final int separator = stepName.indexOf(PARTITION_SEPARATOR);
+
+        return separator < 0
+                ? Tags.of(MetricNames.STEP_TAG, stepName, MetricNames.PARTITION_TAG, "")
+                : Tags.of(MetricNames.STEP_TAG, stepName.substring(0, separator),
+                MetricNames.PARTITION_TAG, stepName.substring(separator + PARTITION_SEPARATOR.length()));
+    }
+}
@@ -0,0 +1,65 @@
+package dev.codestijl.integrationdemo.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.util.Assert;
+
+/**
+ * A count that is also published to a MeterRegistry. The count can be reset at the start of each step so it can be
+ * logged when the step ends, while the counter in the registry keeps counting for as long as the application runs.
+ *
+ * <p>Both are LongAdders underneath, so any number of threads can add to the count at once.</p>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class MeteredCount {
+
+    private final LongAdder count = new LongAdder();
+    private final Counter counter;
+
+    /**
+     * Creates a new MeteredCount.
+     *
+     * @param meterRegistry The registry to publish the count to.
+     * @param name The name of the counter.
+     * @param tags The tags of the counter, as pairs of keys and values.
+     */
+    public MeteredCount(final MeterRegistry meterRegistry, final String name, final String... tags) {
+
+        Assert.notNull(meterRegistry, "Meter registry cannot be null.");
+
+        this.counter = meterRegistry.counter(name, tags);
+    }
+
+    /**
+     * Adds to the count.
+     *
+     * @param amount How much to add.
+     */
+    public void add(final long amount) {
+
+        this.count.add(amount);
+        this.counter.increment(amount);
+    }
+
+    /**
+     * Returns the count since it was last reset.
+     *
+     * @return The count.
+     */
+    public long get() {
+
+        return this.count.sum();
+    }
+
+    /**
+     * Sets the count back to 0. The counter in the registry isn't changed.
+     */
+    public void reset() {
+
+        this.count.reset();
+    }
+}
@@ -0,0 +1,116 @@
+package dev.codestijl.integrationdemo.metrics;
+
+/**
+ * The names and tags of the meters the jobs publish. The names are dotted, and each registry renders them in its own
+ * format, so integration.rows.written is integration_rows_written_total in Prometheus.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public final class MetricNames {
+
+    /**
+     * Counter of the items a step has read, written, filtered, or skipped, tagged with the step and the type.
+     */
+    public static final String STEP_ITEMS = "integration.step.items";
+
+    /**
+     * Gauge of the items a step has written per second since it started, tagged with the step.
+     */
+    public static final String STEP_ITEMS_PER_SECOND = "integration.step.items.per.second";
+
+    /**
+     * Timer of each step, tagged with the step and its status.
+     */
+    public static final String STEP = "integration.step";
+
+    /**
+     * Timer of each chunk, with a histogram of the latencies, tagged with the step and the outcome.
+     */
+    public static final String CHUNK = "integration.chunk";
+
+    /**
+     * Counter of the items each processor has processed, tagged with the processor.
+     */
+    public static final String ITEMS_PROCESSED = "integration.items.processed";
+
+    /**
+     * Counter of the rows the writers have written, tagged with the table and the operation.
+     */
+    public static final String ROWS_WRITTEN = "integration.rows.written";
+
+    /**
+     * Gauge of the items a PrefetchingItemReader has read ahead of its step, tagged with the step.
+     */
+    public static final String PREFETCH_BUFFERED = "integration.prefetch.buffered";
+
+    /**
+     * Summary of the items a PrefetchingItemReader had read ahead each time its step read one, tagged with the step.
+     */
+    public static final String PREFETCH_OCCUPANCY = "integration.prefetch.occupancy";
+
+    /**
+     * Timer of the waits of a PrefetchingItemReader, tagged with the step and the side that waited: the producer for
+     * room in the buffer, or the consumer for an item.
+     */
+    public static final String PREFETCH_WAIT = "integration.prefetch.wait";
+
+    /**
+     * The tag of the name of a step. The steps of a partition all have the name of the step they run.
+     */
+    public static final String STEP_TAG = "step";
+
+    /**
+     * The tag of the partition a step ran, which is blank for steps that aren't partitions.
+     */
+    public static final String PARTITION_TAG = "partition";
+
+    /**
+     * The tag of what a count of items is: read, written, filtered, or skipped.
+     */
+    public static final String TYPE_TAG = "type";
+
+    /**
+     * The tag of how a chunk ended: success or error.
+     */
+    public static final String OUTCOME_TAG = "outcome";
+
+    /**
+     * The tag of the status a step ended with.
+     */
+    public static final String STATUS_TAG = "status";
+
+    /**
+     * The tag of the processor that processed the items.
+     */
+    public static final String PROCESSOR_TAG = "processor";
+
+    /**
+     * The tag of the table rows were written to.
+     */
+    public static final String TABLE_TAG = "table";
+
+    /**
+     * The tag of how rows were written: insert or update.
+     */
+    public static final String OPERATION_TAG = "operation";
+
+    /**
+     * The tag of the side of a PrefetchingItemReader that waited: producer or consumer.
+     */
+    public static final String SIDE_TAG = "side";
+
+    /**
+     * The operation of rows that were inserted.
+     */
+    public static final String INSERT = "insert";
+
+    /**
+     * The operation of rows that were updated.
+     */
+    public static final String UPDATE = "update";
+
+    private MetricNames() {
+        // Intentionally empty.
+    }
+}
@@ -0,0 +1,150 @@
+package dev.codestijl.integrationdemo.metrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Exports the metrics of a PrometheusMeterRegistry in the Prometheus text format. They can be served over HTTP at
+ * /metrics for Prometheus to scrape while the job runs, or written to a file, or both. The file is rewritten every
+ * interval and when the exporter is closed, so it always ends up with the final counts of the run. It is replaced in
+ * one move, so whatever reads it, like the textfile collector of the node exporter, never sees half a file.
+ *
+ * <p>The exporter closes itself when the job ends. The thread of the HTTP server isn't a daemon, so until it stops
+ * the JVM can't exit, and the context, which would otherwise close the exporter, is never closed.</p>
+ *
+ * <p>The registry is also added to the global registry, which is where Spring Batch publishes its own metrics, so
+ * those are exported too.</p>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class MetricsExporter implements AutoCloseable, JobExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsExporter.class);
+
+    private static final String CONTEXT_PATH = "/metrics";
+    private static final int HTTP_OK = 200;
+    private static final int NO_PORT = 0;
+
+    private final PrometheusMeterRegistry meterRegistry;
+    private final String filePath;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private HttpServer httpServer;
+    private ScheduledFuture<?> scheduledWrite;
+
+    /**
+     * Creates a new MetricsExporter and starts exporting.
+     *
+     * @param meterRegistry The registry to export.
+     * @param port The port to serve the metrics on. Pass 0 to not serve them.
+     * @param filePath The file to write the metrics to. Pass null or a blank path to not write them.
+     * @param intervalSeconds How often to write the file.
+     * @param taskScheduler The TaskScheduler to write the file on.
+     * @throws IOException If the HTTP server can't be started.
+     */
+    public MetricsExporter(final PrometheusMeterRegistry meterRegistry, final int port, final String filePath,
+                           final int intervalSeconds, final TaskScheduler taskScheduler) throws IOException {
+
+        Assert.notNull(meterRegistry, "Meter registry cannot be null.");
+        Assert.isTrue(port >= NO_PORT, "Port cannot be negative.");
+        Assert.isTrue(intervalSeconds > 0, "Interval must be positive.");
+        Assert.notNull(taskScheduler, "Task scheduler cannot be null.");
+
+        this.meterRegistry = meterRegistry;
+        this.filePath = filePath;
+
+        Metrics.addRegistry(meterRegistry);
+
+        if (port != NO_PORT) {
+            this.httpServer = HttpServer.create(new InetSocketAddress(port), 0);
+            this.httpServer.createContext(CONTEXT_PATH, this::serve);
+            this.httpServer.start();
+            logger.info(String.format("Serving metrics at http://localhost:%d%s.", port, CONTEXT_PATH));
+        }
+
+        if (StringUtils.hasText(filePath)) {
+            final Duration interval = Duration.ofSeconds(intervalSeconds);
+            this.scheduledWrite = taskScheduler.scheduleAtFixedRate(this::writeFile, Instant.now().plus(interval), interval);
+        }
+    }
+
+    private void serve(final HttpExchange exchange) throws IOException {
+
+        final byte[] body = this.meterRegistry.scrape().getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(HTTP_OK, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+
+    private void writeFile() {
+
+        final Path path = Path.of(this.filePath);
+
+        try {
+            final Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            Files.writeString(temp, this.meterRegistry.scrape());
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // A missed write is made up for by the next one, so it isn't worth stopping the job for.
+            logger.warn(String.format("Unable to write metrics to %s.", this.filePath), e);
+        }
+    }
+
+    @Override
+    public void beforeJob(final JobExecution jobExecution) {
+
+        // Intentionally empty. Exporting starts as soon as the exporter is made.
+    }
+
+    @Override
+    public void afterJob(final JobExecution jobExecution) {
+
+        this.close();
+    }
+
+    @Override
+    public void close() {
+
+        if (this.closed.getAndSet(true)) {
+            return;
+        }
+
+        if (Objects.nonNull(this.scheduledWrite)) {
+            this.scheduledWrite.cancel(false);
+            this.writeFile();
+            logger.info(String.format("Metrics written to %s.", this.filePath));
+        }
+
+        if (Objects.nonNull(this.httpServer)) {
+            this.httpServer.stop(0);
+        }
+
+        Metrics.removeRegistry(this.meterRegistry);
+    }
+}
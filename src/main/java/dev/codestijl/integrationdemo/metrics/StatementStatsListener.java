@@ -0,0 +1,83 @@
+package dev.codestijl.integrationdemo.metrics;
+
+import dev.codestijl.integrationdemo.dao.StatementStats;
+import dev.codestijl.integrationdemo.dao.StatementSummary;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.util.Assert;
+
+/**
+ * Logs the timings of the SQL statements a step ran when it ends, the statement that took the longest in all first,
+ * and starts the timings over for the next step.
+ *
+ * <p>Register it with the steps of the job, not the steps of a partition, so the timings of every partition are
+ * logged together when the partitioned step ends.</p>
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class StatementStatsListener implements StepExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementStatsListener.class);
+
+    private static final String FORMAT = "%10s %10s %8s %10s %9s %9s %9s %9s  %s";
+
+    private final StatementStats statementStats;
+
+    /**
+     * Creates a new StatementStatsListener.
+     *
+     * @param statementStats The timings of the statements.
+     */
+    public StatementStatsListener(final StatementStats statementStats) {
+
+        Assert.notNull(statementStats, "Statement stats cannot be null.");
+
+        this.statementStats = statementStats;
+    }
+
+    @Override
+    public void beforeStep(final StepExecution stepExecution) {
+
+        this.statementStats.reset();
+    }
+
+    @Override
+    public ExitStatus afterStep(final StepExecution stepExecution) {
+
+        final List<StatementSummary> summaries = this.statementStats.summarize();
+
+        if (!summaries.isEmpty() && logger.isInfoEnabled()) {
+
+            final StringBuilder summary = new StringBuilder(String.format("SQL statements run by %s:%n" + FORMAT,
+                    stepExecution.getStepName(), "Executions", "Rows", "Batch", "Total ms", "p50 ms", "p95 ms", "p99 ms", "Max ms", "SQL"));
+
+            summaries.forEach(statement -> summary.append(System.lineSeparator()).append(String.format(FORMAT,
+                    statement.getExecutions(),
+                    statement.getRows(),
+                    String.format("%.1f", statement.getAverageBatchSize()),
+                    millis(statement.getTotalNanos()),
+                    millis(statement.getP50Nanos()),
+                    millis(statement.getP95Nanos()),
+                    millis(statement.getP99Nanos()),
+                    millis(statement.getMaxNanos()),
+                    statement.getSql())));
+
+            logger.info(summary.toString());
+        }
+
+        return stepExecution.getExitStatus();
+    }
+
+    private static String millis(final long nanos) {
+
+        return String.format("%.2f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,75 @@
+package dev.codestijl.integrationdemo;
+
+import javax.sql.DataSource;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+/**
+ * Tests BatchConfig.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+// The repositories are declared to throw Exception, so the tests have to as well.
+@SuppressWarnings("PMD.SignatureDeclareThrowsException")
+@SpringBootTest
+public class BatchConfigTest {
+
+    private static final String TABLE_PREFIX = "JOBS.BATCH_";
+    private static final String INSTANCES_SQL = "SELECT COUNT(*) FROM JOBS.BATCH_JOB_INSTANCE WHERE JOB_NAME = ?";
+
+    @Autowired
+    private DataSource dataSource;
+
+    /**
+     * Creates a job execution with a JDBC repository. It should be saved in the JOBS tables, where the JobExplorer
+     * finds it, and the steps should run their chunks in transactions on the DataSource.
+     */
+    @Test
+    public void initialize_jdbc_keepsMetadataInJobsTables() throws Exception {
+
+        final String jobName = "BATCH-CONFIG-JDBC";
+        final BatchConfig batchConfig = new BatchConfig(this.dataSource, JobRepositoryType.JDBC, TABLE_PREFIX);
+        batchConfig.initialize();
+
+        final JobExecution jobExecution = batchConfig.getJobRepository().createJobExecution(jobName, batchIdParameters());
+
+        Assert.assertEquals(Integer.valueOf(1),
+                new JdbcTemplate(this.dataSource).queryForObject(INSTANCES_SQL, Integer.class, jobName));
+        Assert.assertNotNull(batchConfig.getJobExplorer().getJobExecution(jobExecution.getId()));
+        Assert.assertTrue(batchConfig.getTransactionManager() instanceof DataSourceTransactionManager);
+    }
+
+    /**
+     * Creates a job execution with a MAP repository. Nothing should be saved in the JOBS tables, and the steps
+     * should run their chunks without a transaction on the DataSource, as they always have.
+     */
+    @Test
+    public void initialize_map_keepsMetadataInMemory() throws Exception {
+
+        final String jobName = "BATCH-CONFIG-MAP";
+        final BatchConfig batchConfig = new BatchConfig(this.dataSource, JobRepositoryType.MAP, TABLE_PREFIX);
+        batchConfig.initialize();
+
+        final JobExecution jobExecution = batchConfig.getJobRepository().createJobExecution(jobName, batchIdParameters());
+
+        Assert.assertEquals(Integer.valueOf(0),
+                new JdbcTemplate(this.dataSource).queryForObject(INSTANCES_SQL, Integer.class, jobName));
+        Assert.assertNotNull(batchConfig.getJobExplorer().getJobExecution(jobExecution.getId()));
+        Assert.assertTrue(batchConfig.getTransactionManager() instanceof ResourcelessTransactionManager);
+    }
+
+    private static JobParameters batchIdParameters() {
+
+        return new BatchIdParameterGenerator().getNext(new JobParametersBuilder().toJobParameters());
+    }
+}
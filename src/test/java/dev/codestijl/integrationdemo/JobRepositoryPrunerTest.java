@@ -0,0 +1,111 @@
+package dev.codestijl.integrationdemo;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Tests JobRepositoryPruner.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+// The repository is declared to throw Exception, so the tests have to as well.
+@SuppressWarnings("PMD.SignatureDeclareThrowsException")
+@SpringBootTest
+public class JobRepositoryPrunerTest {
+
+    private static final String TABLE_PREFIX = "JOBS.BATCH_";
+    private static final int RUNS = 5;
+    private static final int KEEP = 2;
+
+    private static final String INSTANCES_SQL = "SELECT COUNT(*) FROM JOBS.BATCH_JOB_INSTANCE WHERE JOB_NAME = ?";
+    private static final String STEP_CONTEXTS_SQL = "SELECT COUNT(*) FROM JOBS.BATCH_STEP_EXECUTION_CONTEXT C " +
+            "JOIN JOBS.BATCH_STEP_EXECUTION S ON S.STEP_EXECUTION_ID = C.STEP_EXECUTION_ID " +
+            "JOIN JOBS.BATCH_JOB_EXECUTION E ON E.JOB_EXECUTION_ID = S.JOB_EXECUTION_ID " +
+            "JOIN JOBS.BATCH_JOB_INSTANCE I ON I.JOB_INSTANCE_ID = E.JOB_INSTANCE_ID WHERE I.JOB_NAME = ?";
+
+    @Autowired
+    private DataSource dataSource;
+
+    /**
+     * Runs a job several times and prunes it when the last run ends. Only the newest runs should be left, with their
+     * steps and ExecutionContexts, and the executions of the older ones should be gone.
+     */
+    @Test
+    public void afterJob_moreRunsThanKept_deletesOldestRuns() throws Exception {
+
+        final String jobName = "PRUNER-JDBC";
+        final JobRepository jobRepository = this.jdbcJobRepository();
+        final List<JobExecution> jobExecutions = this.saveRuns(jobRepository, jobName);
+
+        new JobRepositoryPruner(this.dataSource, JobRepositoryType.JDBC, TABLE_PREFIX, KEEP).afterJob(jobExecutions.get(RUNS - 1));
+
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSource);
+        Assert.assertEquals(Integer.valueOf(KEEP), jdbcTemplate.queryForObject(INSTANCES_SQL, Integer.class, jobName));
+        Assert.assertEquals(Integer.valueOf(KEEP), jdbcTemplate.queryForObject(STEP_CONTEXTS_SQL, Integer.class, jobName));
+
+        final JobExecution oldest = jobExecutions.get(0);
+        Assert.assertNull(jobRepository.getLastJobExecution(jobName, oldest.getJobParameters()));
+        final JobExecution newest = jobExecutions.get(RUNS - 1);
+        Assert.assertNotNull(jobRepository.getLastJobExecution(jobName, newest.getJobParameters()));
+    }
+
+    /**
+     * Calls prune with fewer runs than are kept, and afterJob with a MAP repository and with pruning turned off.
+     * Nothing should be deleted.
+     */
+    @Test
+    public void prune_nothingToPrune_deletesNothing() throws Exception {
+
+        final String jobName = "PRUNER-NONE";
+        final List<JobExecution> jobExecutions = this.saveRuns(this.jdbcJobRepository(), jobName);
+
+        Assert.assertEquals(0, new JobRepositoryPruner(this.dataSource, JobRepositoryType.JDBC, TABLE_PREFIX, RUNS).prune(jobName));
+        new JobRepositoryPruner(this.dataSource, JobRepositoryType.MAP, TABLE_PREFIX, KEEP).afterJob(jobExecutions.get(0));
+        new JobRepositoryPruner(this.dataSource, JobRepositoryType.JDBC, TABLE_PREFIX, 0).afterJob(jobExecutions.get(0));
+
+        Assert.assertEquals(Integer.valueOf(RUNS),
+                new JdbcTemplate(this.dataSource).queryForObject(INSTANCES_SQL, Integer.class, jobName));
+    }
+
+    private JobRepository jdbcJobRepository() throws Exception {
+
+        final BatchConfig batchConfig = new BatchConfig(this.dataSource, JobRepositoryType.JDBC, TABLE_PREFIX);
+        batchConfig.initialize();
+
+        return batchConfig.getJobRepository();
+    }
+
+    // Saves a run of a job with one step and its ExecutionContext for each of RUNS batch IDs.
+    private List<JobExecution> saveRuns(final JobRepository jobRepository, final String jobName) throws Exception {
+
+        final BatchIdParameterGenerator batchIdGenerator = new BatchIdParameterGenerator();
+        final JobParameters noParameters = new JobParametersBuilder().toJobParameters();
+        final List<JobExecution> jobExecutions = new ArrayList<>();
+
+        for (int i = 0; i < RUNS; i++) {
+            final JobExecution jobExecution = jobRepository.createJobExecution(jobName, batchIdGenerator.getNext(noParameters));
+
+            final StepExecution stepExecution = jobExecution.createStepExecution("STEP");
+            jobRepository.add(stepExecution);
+            stepExecution.getExecutionContext().putInt("run", i);
+            jobRepository.updateExecutionContext(stepExecution);
+
+            jobExecutions.add(jobExecution);
+        }
+
+        return jobExecutions;
+    }
+}
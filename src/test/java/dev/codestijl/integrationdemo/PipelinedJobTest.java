@@ -0,0 +1,72 @@
+package dev.codestijl.integrationdemo;
+
+import dev.codestijl.integrationdemo.entity.Status;
+import dev.codestijl.integrationdemo.loadcore.LoadCoreMode;
+import dev.codestijl.integrationdemo.loadcore.LoadCoreModeDecider;
+
+import javax.sql.DataSource;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Tests the whole job in PIPELINED mode.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+// The launcher is declared to throw Exception, so the tests have to as well.
+@SuppressWarnings("PMD.SignatureDeclareThrowsException")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pipelined-job-test",
+        "integration.load-core.partitions=4",
+        "integration.load-core.threads=4",
+        "integration.load-core.bloom-filter.false-positive-rate=0.01"
+})
+public class PipelinedJobTest {
+
+    private static final String CORE_ALBUMS_SQL = "SELECT COUNT(*) FROM CORE.CT_ALBUM";
+    private static final String PENDING_SQL = "SELECT COUNT(*) FROM STAGE.ALBUM WHERE BATCH_ID = ? AND STATUS_CD = ?";
+
+    @Autowired
+    private JobLauncher jobLauncher;
+
+    @Autowired
+    private Job job;
+
+    @Autowired
+    private DataSource dataSource;
+
+    /**
+     * Runs the job in PIPELINED mode over four partitions with the Bloom filter on, after the job that ran when the
+     * context started has already loaded every album in the file. Every album should be found and updated by
+     * whichever partition it is handed to, so the job should complete without inserting any core albums or leaving
+     * any pending.
+     */
+    @Test
+    public void run_pipelinedPartitionsWithBloomFilter_updatesExistingAlbums() throws Exception {
+
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSource);
+        final Integer coreAlbumsBefore = jdbcTemplate.queryForObject(CORE_ALBUMS_SQL, Integer.class);
+        Assert.assertNotEquals(Integer.valueOf(0), coreAlbumsBefore);
+
+        final JobParameters jobParameters = new JobParametersBuilder(this.job.getJobParametersIncrementer().getNext(null))
+                .addString(LoadCoreModeDecider.LOAD_CORE_MODE_PARAMETER, LoadCoreMode.PIPELINED.name())
+                .toJobParameters();
+        final JobExecution jobExecution = this.jobLauncher.run(this.job, jobParameters);
+
+        Assert.assertEquals(BatchStatus.COMPLETED, jobExecution.getStatus());
+        Assert.assertEquals(coreAlbumsBefore, jdbcTemplate.queryForObject(CORE_ALBUMS_SQL, Integer.class));
+        Assert.assertEquals(Integer.valueOf(0), jdbcTemplate.queryForObject(PENDING_SQL, Integer.class,
+                jobParameters.getString("batchId"), Status.PENDING.getId()));
+    }
+}
@@ -11,7 +11,7 @@ import java.util.regex.Pattern;
  */
 public final class TestUtils {
 
-    private static final Pattern GUID_PATTERN = Pattern.compile("^[0-9a-f]{8}-[0-9a-f]{4}-[0-5][0-9a-f]{3}-[089ab][0-9a-f]{3}-[0-9a-f]{12}$");
+    private static final Pattern GUID_PATTERN = Pattern.compile("^[0-9a-f]{8}-[0-9a-f]{4}-[0-8][0-9a-f]{3}-[089ab][0-9a-f]{3}-[0-9a-f]{12}$");
 
     /**
      * Checks a String to see if it is a valid GUID based. This does not validate global uniqueness, just that
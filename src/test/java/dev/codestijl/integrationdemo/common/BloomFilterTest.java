@@ -0,0 +1,56 @@
+package dev.codestijl.integrationdemo.common;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests BloomFilter.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class BloomFilterTest {
+
+    /**
+     * Fills a filter to the size it was created for and checks values that were and were not put in it. Every
+     * value put in should be found, and the share of other values found should be close to the false positive
+     * rate the filter was created with.
+     */
+    @Test
+    public void mightContain_filledToExpectedSize_hasNoFalseNegativesAndExpectedFalsePositives() {
+
+        final BloomFilter bloomFilter = BloomFilter.create(100_000, 0.01);
+
+        for (long value = 0; value < 100_000; value++) {
+            bloomFilter.put(value);
+        }
+
+        for (long value = 0; value < 100_000; value++) {
+            Assert.assertTrue(bloomFilter.mightContain(value));
+        }
+
+        int falsePositives = 0;
+        for (long value = 100_000; value < 200_000; value++) {
+            if (bloomFilter.mightContain(value)) {
+                falsePositives++;
+            }
+        }
+
+        Assert.assertEquals(100_000, bloomFilter.getInsertions());
+        Assert.assertEquals(0.01, falsePositives / 100_000.0, 0.005);
+        Assert.assertEquals(0.01, bloomFilter.getExpectedFalsePositiveRate(), 0.002);
+    }
+
+    /**
+     * Checks an empty filter. Nothing should be found.
+     */
+    @Test
+    public void mightContain_empty_returnsFalse() {
+
+        final BloomFilter bloomFilter = BloomFilter.create(10, 0.01);
+
+        Assert.assertFalse(bloomFilter.mightContain(0));
+        Assert.assertFalse(bloomFilter.mightContain(12_345_678_901_234L));
+        Assert.assertEquals(0, bloomFilter.getExpectedFalsePositiveRate(), 0);
+    }
+}
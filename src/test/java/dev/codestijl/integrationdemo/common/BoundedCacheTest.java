@@ -0,0 +1,124 @@
+package dev.codestijl.integrationdemo.common;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests BoundedCache.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class BoundedCacheTest {
+
+    private static final String KEY_ONE = "one";
+    private static final String VALUE_ONE = "value one";
+
+    /**
+     * A Clock whose time only changes when told to.
+     *
+     * @author darren
+     * @since 1.0.0
+     */
+    private static final class TestClock extends Clock {
+
+        private Instant now = Instant.EPOCH;
+
+        private void advance(final Duration duration) {
+            this.now = this.now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return this.now;
+        }
+    }
+
+    /**
+     * Puts a value in the cache and gets it back. The lookup should count as a hit and a lookup of a
+     * different key should count as a miss.
+     */
+    @Test
+    public void get_afterPut_returnsValue() {
+
+        final BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1), new TestClock());
+
+        cache.put(KEY_ONE, VALUE_ONE);
+
+        Assert.assertEquals(VALUE_ONE, cache.get(KEY_ONE).orElseThrow());
+        Assert.assertTrue(cache.get("two").isEmpty());
+        Assert.assertEquals(1, cache.getStatistics().getHits());
+        Assert.assertEquals(1, cache.getStatistics().getMisses());
+    }
+
+    /**
+     * Puts more values in the cache than it can hold. The least recently used value should be evicted.
+     */
+    @Test
+    public void put_overMaxSize_evictsLeastRecentlyUsed() {
+
+        final BoundedCache<String, String> cache = new BoundedCache<>(2, Duration.ofMinutes(1), new TestClock());
+
+        cache.put(KEY_ONE, VALUE_ONE);
+        cache.put("two", "value two");
+
+        // Using one makes two the least recently used.
+        cache.get(KEY_ONE);
+        cache.put("three", "value three");
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertTrue(cache.get(KEY_ONE).isPresent());
+        Assert.assertTrue(cache.get("two").isEmpty());
+        Assert.assertTrue(cache.get("three").isPresent());
+        Assert.assertEquals(1, cache.getStatistics().getEvictions());
+    }
+
+    /**
+     * Puts a value in the cache and then lets its time to live pass. It should no longer be returned.
+     */
+    @Test
+    public void get_afterTimeToLive_returnsEmpty() {
+
+        final TestClock clock = new TestClock();
+        final BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1), clock);
+
+        cache.put(KEY_ONE, VALUE_ONE);
+        clock.advance(Duration.ofSeconds(59));
+        Assert.assertTrue(cache.get(KEY_ONE).isPresent());
+
+        clock.advance(Duration.ofSeconds(1));
+        Assert.assertTrue(cache.get(KEY_ONE).isEmpty());
+        Assert.assertEquals(1, cache.getStatistics().getExpirations());
+        Assert.assertEquals(0, cache.size());
+    }
+
+    /**
+     * Puts a value in a disabled cache. Nothing should be stored.
+     */
+    @Test
+    public void put_disabled_storesNothing() {
+
+        final BoundedCache<String, String> cache = BoundedCache.disabled();
+
+        cache.put(KEY_ONE, VALUE_ONE);
+
+        Assert.assertTrue(cache.get(KEY_ONE).isEmpty());
+        Assert.assertEquals(0, cache.size());
+    }
+}
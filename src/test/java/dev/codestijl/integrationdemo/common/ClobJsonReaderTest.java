@@ -1,14 +1,26 @@
 package dev.codestijl.integrationdemo.common;
 
+import java.io.Reader;
+import java.io.StringReader;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 import javax.sql.DataSource;
 
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
 import org.junit.Assert;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.item.ExecutionContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
@@ -23,6 +35,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 @SuppressWarnings("PMD.SignatureDeclareThrowsException")
 public class ClobJsonReaderTest {
 
+    private static final String UNKNOWN_PROPERTY_SQL =
+            "SELECT CAST('[{\"id\": 7, \"values\": [1, 2,], \"extra\": true},]' AS CLOB)";
+
     @Autowired
     private DataSource dataSource;
 
@@ -144,6 +159,22 @@ public class ClobJsonReaderTest {
         Assert.assertEquals(2, totalReturned);
     }
 
+    /**
+     * Reads some of the records from the CJR_TEST table, saves the position the way a commit does, and restarts
+     * from it with a new reader. The new reader should return only the records the first one hadn't, whether it
+     * stopped in the middle of a row, at the end of one, or before reading anything.
+     *
+     * @throws Exception Any error thrown by ClobJsonReader.
+     */
+    @Test
+    public void read_restarted_returnsOnlyRecordsNotRead() throws Exception {
+
+        Assert.assertEquals(List.of(3), this.readAfterRestart(3));
+        Assert.assertEquals(List.of(2, 3), this.readAfterRestart(2));
+        Assert.assertEquals(List.of(0, 1, 2, 3), this.readAfterRestart(0));
+        Assert.assertEquals(List.of(), this.readAfterRestart(4));
+    }
+
     /**
      * Tests that calling read without calling beforeStep does not throw an error, but also does
      * not return any data.
@@ -159,4 +190,113 @@ public class ClobJsonReaderTest {
 
         Assert.assertNull(clobJsonReader.read());
     }
+
+    /**
+     * Tests that, by default, a property in the JSON that isn't in the class or a trailing comma fails the read.
+     */
+    @Test
+    public void read_unknownPropertyAndTrailingComma_defaultObjectReader_throwsException() {
+
+        final ClobJsonReader<JsonTestClass> clobJsonReader = new ClobJsonReader<>(this.dataSource, UNKNOWN_PROPERTY_SQL,
+                ClobJsonReader.objectReaderFor(JsonTestClass.class), null);
+
+        // The StepExecution is not used.
+        clobJsonReader.beforeStep(Mockito.mock(StepExecution.class));
+
+        Assert.assertThrows(RuntimeJsonMappingException.class, clobJsonReader::read);
+
+        // The StepExecution is not used.
+        clobJsonReader.afterStep(Mockito.mock(StepExecution.class));
+    }
+
+    /**
+     * Tests that an ObjectReader that ignores unknown properties and allows trailing commas reads JSON that the
+     * default one can't.
+     *
+     * @throws Exception Any error thrown by ClobJsonReader.
+     */
+    @Test
+    public void read_unknownPropertyAndTrailingComma_configuredObjectReader_returnsValues() throws Exception {
+
+        final ObjectReader objectReader = ClobJsonReader.objectReaderFor(JsonTestClass.class, false,
+                JsonReadFeature.ALLOW_TRAILING_COMMA);
+        final ClobJsonReader<JsonTestClass> clobJsonReader = new ClobJsonReader<>(this.dataSource, UNKNOWN_PROPERTY_SQL,
+                objectReader, null);
+
+        // The StepExecution is not used.
+        clobJsonReader.beforeStep(Mockito.mock(StepExecution.class));
+
+        final JsonTestClass testData = clobJsonReader.read();
+        Assert.assertEquals(7, testData.getId());
+        Assert.assertEquals(List.of(1, 2), testData.getValues());
+        Assert.assertNull(clobJsonReader.read());
+
+        // The StepExecution is not used.
+        clobJsonReader.afterStep(Mockito.mock(StepExecution.class));
+    }
+
+    /**
+     * Reads every record of a row and then ends the step. The Reader of the CLOB should have been closed, since the
+     * parser reading it is closed with the row.
+     *
+     * @throws Exception Any error thrown by ClobJsonReader.
+     */
+    @Test
+    public void afterStep_rowRead_closesClobReader() throws Exception {
+
+        final String sql = "SELECT VALUE FROM CJR.CJR_TEST";
+        final Clob clob = Mockito.mock(Clob.class);
+        final DataSource mockDataSource = Mockito.mock(DataSource.class);
+        try (Reader clobReader = Mockito.spy(new StringReader("[{\"id\": 0, \"values\": []}]"));
+             Connection connection = Mockito.mock(Connection.class);
+             PreparedStatement preparedStatement = Mockito.mock(PreparedStatement.class);
+             ResultSet resultSet = Mockito.mock(ResultSet.class)) {
+
+            Mockito.when(clob.getCharacterStream()).thenReturn(clobReader);
+            final ResultSetMetaData metaData = Mockito.mock(ResultSetMetaData.class);
+            Mockito.when(metaData.getColumnCount()).thenReturn(1);
+            Mockito.when(resultSet.getMetaData()).thenReturn(metaData);
+            Mockito.when(resultSet.next()).thenReturn(true, false);
+            Mockito.when(resultSet.getClob(1)).thenReturn(clob);
+            Mockito.when(preparedStatement.executeQuery()).thenReturn(resultSet);
+            Mockito.when(connection.prepareStatement(sql)).thenReturn(preparedStatement);
+            Mockito.when(mockDataSource.getConnection()).thenReturn(connection);
+
+            final ClobJsonReader<JsonTestClass> clobJsonReader = new ClobJsonReader<>(mockDataSource, sql, JsonTestClass.class);
+            clobJsonReader.beforeStep(Mockito.mock(StepExecution.class));
+            Assert.assertNotNull(clobJsonReader.read());
+            Assert.assertNull(clobJsonReader.read());
+            clobJsonReader.afterStep(Mockito.mock(StepExecution.class));
+
+            Mockito.verify(clobReader).close();
+        }
+    }
+
+    // Reads some records, then restarts from the position saved after them and returns the IDs of the rest.
+    private List<Integer> readAfterRestart(final int recordsBefore) throws Exception {
+
+        final String sql = "SELECT VALUE FROM CJR.CJR_TEST ORDER BY ID";
+        final ExecutionContext executionContext = new ExecutionContext();
+
+        final ClobJsonReader<JsonTestClass> failedReader = new ClobJsonReader<>(this.dataSource, sql, JsonTestClass.class);
+        failedReader.beforeStep(Mockito.mock(StepExecution.class));
+        failedReader.open(executionContext);
+        for (int i = 0; i < recordsBefore; i++) {
+            failedReader.read();
+        }
+        failedReader.update(executionContext);
+        failedReader.afterStep(Mockito.mock(StepExecution.class));
+
+        final ClobJsonReader<JsonTestClass> restartedReader = new ClobJsonReader<>(this.dataSource, sql, JsonTestClass.class);
+        restartedReader.beforeStep(Mockito.mock(StepExecution.class));
+        restartedReader.open(executionContext);
+
+        final List<Integer> ids = new ArrayList<>();
+        for (JsonTestClass testData = restartedReader.read(); Objects.nonNull(testData); testData = restartedReader.read()) {
+            ids.add(testData.getId());
+        }
+        restartedReader.afterStep(Mockito.mock(StepExecution.class));
+
+        return ids;
+    }
 }
@@ -0,0 +1,41 @@
+package dev.codestijl.integrationdemo.common;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests GtinMap.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class GtinMapTest {
+
+    private static final String NUMERIC_GTIN = "00012345678905";
+
+    /**
+     * Puts values for numeric and non-numeric GTIN-14s, including a null value. Each should be found, and
+     * the null value should still count as a key in the map.
+     */
+    @Test
+    public void put_numericAndNonNumericGtins_returnsValues() {
+
+        final GtinMap<String> map = new GtinMap<>();
+
+        map.put(NUMERIC_GTIN, "numeric");
+        map.put("ABCDEFGHIJKLMN", "non-numeric");
+        map.put("00000000000000", null);
+        map.put(NUMERIC_GTIN, "replaced");
+
+        Assert.assertEquals(3, map.size());
+        Assert.assertEquals("replaced", map.get(NUMERIC_GTIN));
+        Assert.assertEquals("non-numeric", map.get("ABCDEFGHIJKLMN"));
+        Assert.assertNull(map.get("00000000000000"));
+        Assert.assertTrue(map.containsKey("00000000000000"));
+        Assert.assertFalse(map.containsKey("12345678901234"));
+
+        map.clear();
+        Assert.assertEquals(0, map.size());
+        Assert.assertFalse(map.containsKey(NUMERIC_GTIN));
+    }
+}
@@ -0,0 +1,39 @@
+package dev.codestijl.integrationdemo.common;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests GtinUtils.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class GtinUtilsTest {
+
+    /**
+     * Encodes a GTIN-14 with leading zeros and decodes it. The leading zeros should come back.
+     */
+    @Test
+    public void decode_encodedGtin_returnsOriginal() {
+
+        final long encoded = GtinUtils.encode("00012345678905");
+
+        Assert.assertEquals(12_345_678_905L, encoded);
+        Assert.assertEquals("00012345678905", GtinUtils.decode(encoded));
+        Assert.assertEquals("99999999999999", GtinUtils.decode(GtinUtils.encode("99999999999999")));
+    }
+
+    /**
+     * Encodes values that are not 14 decimal digits. They should not be encodable.
+     */
+    @Test
+    public void encode_notFourteenDigits_returnsNotEncodable() {
+
+        Assert.assertEquals(GtinUtils.NOT_ENCODABLE, GtinUtils.encode(null));
+        Assert.assertEquals(GtinUtils.NOT_ENCODABLE, GtinUtils.encode("1234567890123"));
+        Assert.assertEquals(GtinUtils.NOT_ENCODABLE, GtinUtils.encode("123456789012345"));
+        Assert.assertEquals(GtinUtils.NOT_ENCODABLE, GtinUtils.encode("1234567890123A"));
+        Assert.assertFalse(GtinUtils.isEncodable("-1234567890123"));
+    }
+}
@@ -0,0 +1,93 @@
+package dev.codestijl.integrationdemo.common;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests IdStrategy.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class IdStrategyTest {
+
+    private static final int IDS = 100_000;
+
+    /**
+     * Makes a TIME_ORDERED ID. It should be a version 7 UUID in the IETF variant, with the current time in its first
+     * 48 bits.
+     */
+    @Test
+    public void newId_timeOrdered_isVersion7WithTime() {
+
+        final long before = System.currentTimeMillis();
+        final UUID id = IdStrategy.TIME_ORDERED.newId();
+        final long after = System.currentTimeMillis();
+
+        Assert.assertEquals(7, id.version());
+        Assert.assertEquals(2, id.variant());
+
+        // The time can only be ahead of the clock if the count ran out, which one ID can't do.
+        final long millis = id.getMostSignificantBits() >>> 16;
+        Assert.assertTrue(millis >= before && millis <= after);
+    }
+
+    /**
+     * Makes many TIME_ORDERED IDs one after the other. Each one should be greater than the one before it, both as a
+     * UUID and as the string a CHAR(36) column sorts.
+     */
+    @Test
+    public void newId_timeOrdered_increases() {
+
+        UUID last = IdStrategy.TIME_ORDERED.newId();
+
+        for (int i = 0; i < IDS; i++) {
+            final UUID id = IdStrategy.TIME_ORDERED.newId();
+            Assert.assertTrue(id.compareTo(last) > 0);
+            Assert.assertTrue(id.toString().compareTo(last.toString()) > 0);
+            last = id;
+        }
+    }
+
+    /**
+     * Makes many TIME_ORDERED IDs on many threads at once. Every one should be different.
+     */
+    @Test
+    public void newId_timeOrderedManyThreads_allUnique() {
+
+        final Set<UUID> ids = IntStream.range(0, IDS).parallel()
+                .mapToObj(i -> IdStrategy.TIME_ORDERED.newId())
+                .collect(Collectors.toSet());
+
+        Assert.assertEquals(IDS, ids.size());
+    }
+
+    /**
+     * Makes a RANDOM ID. It should be a version 4 UUID.
+     */
+    @Test
+    public void newId_random_isVersion4() {
+
+        Assert.assertEquals(4, IdStrategy.RANDOM.newId().version());
+    }
+
+    /**
+     * Calls nextStamp with the clock behind the last ID, and with the count run out in the current millisecond. The
+     * IDs should carry on from the last one rather than going back.
+     */
+    @Test
+    public void nextStamp_clockBehindOrCountRunOut_carriesOn() {
+
+        final long lastStamp = (1_000L << 12) + 5;
+
+        Assert.assertEquals(lastStamp + 1, IdStrategy.nextStamp(lastStamp, 999L));
+        Assert.assertEquals(lastStamp + 1, IdStrategy.nextStamp(lastStamp, 1_000L));
+        Assert.assertEquals(1_001L << 12, IdStrategy.nextStamp(lastStamp, 1_001L));
+        Assert.assertEquals(1_001L << 12, IdStrategy.nextStamp((1_001L << 12) - 1, 1_000L));
+    }
+}
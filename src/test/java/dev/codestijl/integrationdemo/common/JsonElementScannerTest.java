@@ -0,0 +1,60 @@
+package dev.codestijl.integrationdemo.common;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests JsonElementScanner.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class JsonElementScannerTest {
+
+    /**
+     * Scans an array whose elements hold nested arrays, and strings with brackets, commas, and escaped quotes. Each
+     * element should be found whole, without the whitespace around it.
+     */
+    @Test
+    public void scan_arrayWithTrickyStrings_findsEachElement() {
+
+        final String json = " [ {\"a\": [1, {\"b\": \"],}\"}]} ,\n\"x\\\",[\" , 42,{}\n] ";
+
+        Assert.assertEquals(List.of("{\"a\": [1, {\"b\": \"],}\"}]}", "\"x\\\",[\"", "42", "{}"), elements(json));
+    }
+
+    /**
+     * Scans a sequence of values at the root of the document, the way a MappingIterator reads them. Each value
+     * should be an element.
+     */
+    @Test
+    public void scan_rootSequence_findsEachValue() {
+
+        Assert.assertEquals(List.of("{\"id\": 1}", "[2]", "\"three\"", "4"), elements("{\"id\": 1}\n[2] \"three\" 4"));
+    }
+
+    /**
+     * Scans an empty array and an empty document. Neither should have any elements.
+     */
+    @Test
+    public void scan_empty_findsNothing() {
+
+        Assert.assertEquals(List.of(), elements(" [ ] "));
+        Assert.assertEquals(List.of(), elements(""));
+    }
+
+    private static List<String> elements(final String json) {
+
+        final char[] chars = json.toCharArray();
+        final int[] bounds = JsonElementScanner.scan(chars, chars.length);
+
+        final List<String> elements = new ArrayList<>();
+        for (int element = 0; element < bounds.length / 2; element++) {
+            elements.add(json.substring(bounds[element * 2], bounds[element * 2 + 1]));
+        }
+        return elements;
+    }
+}
@@ -0,0 +1,88 @@
+package dev.codestijl.integrationdemo.common;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests LongHashSet.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class LongHashSetTest {
+
+    /**
+     * Adds values to the set, including zero, which the set tracks on its own. Each value should be found
+     * and adding it again should do nothing.
+     */
+    @Test
+    public void add_newAndExistingValues_tracksMembership() {
+
+        final LongHashSet set = new LongHashSet();
+
+        Assert.assertTrue(set.add(0));
+        Assert.assertTrue(set.add(12_345_678_901_234L));
+        Assert.assertTrue(set.add(-5));
+        Assert.assertFalse(set.add(0));
+        Assert.assertFalse(set.add(12_345_678_901_234L));
+
+        Assert.assertEquals(3, set.size());
+        Assert.assertTrue(set.contains(0));
+        Assert.assertTrue(set.contains(12_345_678_901_234L));
+        Assert.assertTrue(set.contains(-5));
+        Assert.assertFalse(set.contains(1));
+    }
+
+    /**
+     * Adds and removes many random values, so the set has to grow and close gaps left by removals. The set
+     * should always agree with a HashSet given the same operations.
+     */
+    @Test
+    public void addAndRemove_manyValues_matchesHashSet() {
+
+        final LongHashSet set = new LongHashSet(4);
+        final Set<Long> expected = new HashSet<>();
+        final Random random = new Random(42);
+
+        for (int i = 0; i < 50_000; i++) {
+
+            // A small range of values makes collisions and repeats likely.
+            final long value = random.nextInt(5_000);
+            if (random.nextBoolean()) {
+                Assert.assertEquals(expected.add(value), set.add(value));
+            } else {
+                Assert.assertEquals(expected.remove(value), set.remove(value));
+            }
+        }
+
+        Assert.assertEquals(expected.size(), set.size());
+        for (long value = 0; value < 5_000; value++) {
+            Assert.assertEquals(expected.contains(value), set.contains(value));
+        }
+
+        final Set<Long> iterated = new HashSet<>();
+        set.forEach(iterated::add);
+        Assert.assertEquals(expected, iterated);
+    }
+
+    /**
+     * Clears a set with values in it. The set should be empty afterwards.
+     */
+    @Test
+    public void clear_withValues_emptiesSet() {
+
+        final LongHashSet set = new LongHashSet();
+        set.add(0);
+        set.add(1);
+
+        set.clear();
+
+        Assert.assertTrue(set.isEmpty());
+        Assert.assertFalse(set.contains(0));
+        Assert.assertFalse(set.contains(1));
+    }
+}
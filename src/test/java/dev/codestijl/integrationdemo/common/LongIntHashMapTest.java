@@ -0,0 +1,69 @@
+package dev.codestijl.integrationdemo.common;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests LongIntHashMap.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class LongIntHashMapTest {
+
+    /**
+     * Puts entries in the map, including one for zero, which the map tracks on its own. Each value should be
+     * found and keys that were never added should return the missing value.
+     */
+    @Test
+    public void put_newAndExistingKeys_returnsValues() {
+
+        final LongIntHashMap map = new LongIntHashMap(-1);
+
+        Assert.assertEquals(-1, map.put(0, 10));
+        Assert.assertEquals(-1, map.put(12_345_678_901_234L, 20));
+        Assert.assertEquals(20, map.put(12_345_678_901_234L, 30));
+
+        Assert.assertEquals(2, map.size());
+        Assert.assertEquals(10, map.get(0));
+        Assert.assertEquals(30, map.get(12_345_678_901_234L));
+        Assert.assertEquals(-1, map.get(1));
+        Assert.assertFalse(map.containsKey(1));
+    }
+
+    /**
+     * Puts and removes many random entries, so the map has to grow and close gaps left by removals. The map
+     * should always agree with a HashMap given the same operations.
+     */
+    // The HashMap is only used by this test's thread.
+    @SuppressWarnings("PMD.UseConcurrentHashMap")
+    @Test
+    public void putAndRemove_manyEntries_matchesHashMap() {
+
+        final LongIntHashMap map = new LongIntHashMap(4, Integer.MIN_VALUE);
+        final Map<Long, Integer> expected = new HashMap<>();
+        final Random random = new Random(42);
+
+        for (int i = 0; i < 50_000; i++) {
+
+            // A small range of keys makes collisions and repeats likely.
+            final long key = random.nextInt(5_000);
+            if (random.nextBoolean()) {
+                final Integer previous = expected.put(key, i);
+                Assert.assertEquals(previous == null ? Integer.MIN_VALUE : previous, map.put(key, i));
+            } else {
+                final Integer previous = expected.remove(key);
+                Assert.assertEquals(previous == null ? Integer.MIN_VALUE : previous, map.remove(key));
+            }
+        }
+
+        Assert.assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 5_000; key++) {
+            Assert.assertEquals(expected.getOrDefault(key, Integer.MIN_VALUE).intValue(), map.get(key));
+        }
+    }
+}
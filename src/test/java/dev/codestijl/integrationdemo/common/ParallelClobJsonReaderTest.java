@@ -0,0 +1,176 @@
+package dev.codestijl.integrationdemo.common;
+
+import dev.codestijl.integrationdemo.entity.Album;
+import dev.codestijl.integrationdemo.loadalbum.ClobAlbumReader;
+import dev.codestijl.integrationdemo.loadalbum.ParallelClobAlbumReader;
+import dev.codestijl.integrationdemo.loadbatch.BatchTasklet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+/**
+ * Tests ParallelClobJsonReader.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+@SpringBootTest
+// These test propagate the signature from calling read() and execute().
+@SuppressWarnings("PMD.SignatureDeclareThrowsException")
+public class ParallelClobJsonReaderTest {
+
+    // Part way through a range, so the restart has to start in the middle of one.
+    private static final int RECORDS_BEFORE_RESTART = 1_234;
+
+    @Autowired
+    private DataSource dataSource;
+
+    /**
+     * Reads all the records from the CJR_TEST table on two threads. The records should come back in the same order
+     * ClobJsonReader returns them.
+     *
+     * @throws Exception Any error thrown by ParallelClobJsonReader.
+     */
+    @Test
+    public void read_multipleRows_returnsAllValuesInOrder() throws Exception {
+
+        final ParallelClobJsonReader<ClobJsonReaderTest.JsonTestClass> reader = new ParallelClobJsonReader<>(this.dataSource,
+                "SELECT VALUE FROM CJR.CJR_TEST ORDER BY ID", ClobJsonReaderTest.JsonTestClass.class, null,
+                new SimpleAsyncTaskExecutor(), 2);
+
+        final List<ClobJsonReaderTest.JsonTestClass> values = readAll(reader);
+
+        Assert.assertEquals(4, values.size());
+        for (int index = 0; index < values.size(); index++) {
+            Assert.assertEquals(index, values.get(index).getId());
+            Assert.assertEquals(index, values.get(index).getValues().size());
+        }
+    }
+
+    /**
+     * Loads the large test file into a batch and reads it with both ClobAlbumReader and ParallelClobAlbumReader on
+     * three threads. Both should return the same Albums in the same order.
+     *
+     * @throws Exception Any error thrown by the readers or the BatchTasklet.
+     */
+    @Test
+    public void read_largeFile_matchesClobJsonReader() throws Exception {
+
+        final UUID batchId = IdUtils.newId();
+        new BatchTasklet(this.dataSource, "/large-file.json", batchId)
+                .execute(new StepContribution(Mockito.mock(StepExecution.class)), Mockito.mock(ChunkContext.class));
+
+        final List<Album> expected = readAll(new ClobAlbumReader(this.dataSource, batchId));
+        final List<Album> actual = readAll(new ParallelClobAlbumReader(this.dataSource, batchId, new SimpleAsyncTaskExecutor(), 3));
+
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int index = 0; index < expected.size(); index++) {
+            Assert.assertEquals(expected.get(index).getGtin14(), actual.get(index).getGtin14());
+            Assert.assertEquals(expected.get(index).getAlbumName(), actual.get(index).getAlbumName());
+            Assert.assertEquals(expected.get(index).getSongs().size(), actual.get(index).getSongs().size());
+        }
+    }
+
+    /**
+     * Loads the large file compressed, reads part of it with each reader, and restarts each from the position it
+     * saved. Both restarted readers should return the rest of the albums ClobJsonReader returns reading it all.
+     *
+     * @throws Exception Any error thrown by the readers.
+     */
+    @Test
+    public void read_restarted_returnsRestOfAlbums() throws Exception {
+
+        final UUID batchId = IdUtils.newId();
+        new BatchTasklet(this.dataSource, "/large-file.json", batchId, PayloadCodec.DEFLATE)
+                .execute(new StepContribution(Mockito.mock(StepExecution.class)), Mockito.mock(ChunkContext.class));
+
+        final List<Album> all = readAll(new ClobAlbumReader(this.dataSource, batchId));
+        final List<String> expected = gtins(all.subList(RECORDS_BEFORE_RESTART, all.size()));
+
+        final ExecutionContext serialContext = new ExecutionContext();
+        readSome(new ClobAlbumReader(this.dataSource, batchId), serialContext);
+        Assert.assertEquals(expected, gtins(readAll(new ClobAlbumReader(this.dataSource, batchId), serialContext)));
+
+        final ExecutionContext parallelContext = new ExecutionContext();
+        readSome(new ParallelClobAlbumReader(this.dataSource, batchId, new SimpleAsyncTaskExecutor(), 3), parallelContext);
+        Assert.assertEquals(expected, gtins(readAll(new ParallelClobAlbumReader(this.dataSource, batchId, new SimpleAsyncTaskExecutor(), 3),
+                parallelContext)));
+    }
+
+    /**
+     * Tests that calling read without calling beforeStep does not throw an error, but also does not return any
+     * data.
+     *
+     * @throws Exception Any error thrown by ParallelClobJsonReader.
+     */
+    @Test
+    public void read_beforeStepNotCalled_returnsNull() throws Exception {
+
+        final ParallelClobJsonReader<ClobJsonReaderTest.JsonTestClass> reader = new ParallelClobJsonReader<>(this.dataSource,
+                "SELECT VALUE FROM CJR.CJR_TEST", ClobJsonReaderTest.JsonTestClass.class, null, new SimpleAsyncTaskExecutor(), 2);
+
+        Assert.assertNull(reader.read());
+    }
+
+    // Reads everything from a reader that is also a StepExecutionListener, the way a step would, from the top.
+    private static <T, R extends ItemStreamReader<T> & StepExecutionListener> List<T> readAll(final R reader)
+            throws Exception {
+
+        return readAll(reader, new ExecutionContext());
+    }
+
+    // Reads everything from a reader, opened with an ExecutionContext the way a step would open it.
+    private static <T, R extends ItemStreamReader<T> & StepExecutionListener> List<T> readAll(final R reader,
+                                                                                                final ExecutionContext executionContext)
+            throws Exception {
+
+        // The StepExecution is not used.
+        reader.beforeStep(Mockito.mock(StepExecution.class));
+        reader.open(executionContext);
+
+        final List<T> values = new ArrayList<>();
+        for (T value = reader.read(); Objects.nonNull(value); value = reader.read()) {
+            values.add(value);
+        }
+
+        reader.afterStep(Mockito.mock(StepExecution.class));
+        return values;
+    }
+
+    // Reads the records before the restart, then saves the position the way a commit does.
+    private static <T, R extends ItemStreamReader<T> & StepExecutionListener> void readSome(final R reader,
+                                                                                            final ExecutionContext executionContext)
+            throws Exception {
+
+        reader.beforeStep(Mockito.mock(StepExecution.class));
+        reader.open(executionContext);
+        for (int i = 0; i < RECORDS_BEFORE_RESTART; i++) {
+            reader.read();
+        }
+        reader.update(executionContext);
+        reader.afterStep(Mockito.mock(StepExecution.class));
+    }
+
+    private static List<String> gtins(final List<Album> albums) {
+
+        return albums.stream().map(Album::getGtin14).collect(Collectors.toList());
+    }
+}
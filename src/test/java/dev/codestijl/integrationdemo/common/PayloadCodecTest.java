@@ -0,0 +1,54 @@
+package dev.codestijl.integrationdemo.common;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests PayloadCodec.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class PayloadCodecTest {
+
+    /**
+     * Compresses and decompresses repetitive JSON with DEFLATE. The result should be the original bytes, and the
+     * compressed bytes should be much smaller.
+     *
+     * @throws IOException If the streams can't be read.
+     */
+    @Test
+    public void deflate_roundTrip_returnsOriginalBytes() throws IOException {
+
+        final byte[] original = "{\"albumName\":\"album\",\"artist\":\"artist\",\"gtin-14\":\"00000000000001\"},\n".repeat(1_000)
+                .getBytes(StandardCharsets.UTF_8);
+
+        final byte[] compressed;
+        try (InputStream inputStream = PayloadCodec.DEFLATE.compress(new ByteArrayInputStream(original))) {
+            compressed = inputStream.readAllBytes();
+        }
+
+        Assert.assertTrue(compressed.length * 10 < original.length);
+
+        try (InputStream inputStream = PayloadCodec.DEFLATE.decompress(new ByteArrayInputStream(compressed))) {
+            Assert.assertArrayEquals(original, inputStream.readAllBytes());
+        }
+    }
+
+    /**
+     * Looks up codecs by the names saved with a batch. No name should mean NONE, so batches saved before compression
+     * was added are read as text.
+     */
+    @Test
+    public void of_names_returnsCodec() {
+
+        Assert.assertEquals(PayloadCodec.NONE, PayloadCodec.of(null));
+        Assert.assertEquals(PayloadCodec.NONE, PayloadCodec.of(" "));
+        Assert.assertEquals(PayloadCodec.DEFLATE, PayloadCodec.of("deflate"));
+    }
+}
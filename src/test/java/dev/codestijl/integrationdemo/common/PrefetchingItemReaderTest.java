@@ -0,0 +1,195 @@
+package dev.codestijl.integrationdemo.common;
+
+import dev.codestijl.integrationdemo.entity.Album;
+import dev.codestijl.integrationdemo.loadalbum.ClobAlbumReader;
+import dev.codestijl.integrationdemo.loadbatch.BatchTasklet;
+import dev.codestijl.integrationdemo.metrics.MetricNames;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+/**
+ * Tests PrefetchingItemReader.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+@SpringBootTest
+// These test propagate the signature from calling read() and execute().
+@SuppressWarnings("PMD.SignatureDeclareThrowsException")
+public class PrefetchingItemReaderTest {
+
+    private static final String STEP_NAME = "LOAD-ALBUM";
+
+    // Far fewer than the buffer holds, so the reader it wraps is well ahead of the step when it commits.
+    private static final int RECORDS_BEFORE_RESTART = 123;
+    private static final int LARGE_CAPACITY = 500;
+
+    @Autowired
+    private DataSource dataSource;
+
+    /**
+     * Loads the large test file into a batch and reads it with ClobAlbumReader, and again with a PrefetchingItemReader
+     * around one with a small buffer. Both should return the same Albums in the same order, and the occupancy of the
+     * buffer should be recorded at every read.
+     *
+     * @throws Exception Any error thrown by the readers or the BatchTasklet.
+     */
+    @Test
+    public void read_largeFile_matchesClobJsonReader() throws Exception {
+
+        final UUID batchId = this.loadLargeFile();
+        final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        final List<Album> expected = readAll(new ClobAlbumReader(this.dataSource, batchId), new ExecutionContext());
+        final List<Album> actual = readAll(prefetching(new ClobAlbumReader(this.dataSource, batchId), 8, meterRegistry),
+                new ExecutionContext());
+
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(gtins(expected), gtins(actual));
+        Assert.assertEquals(expected.size() + 1, meterRegistry.get(MetricNames.PREFETCH_OCCUPANCY).summary().count());
+    }
+
+    /**
+     * Reads part of the large file through a PrefetchingItemReader with a large buffer, saves the position the way a
+     * commit does, and restarts a ClobAlbumReader from it. It should return the albums after the ones the step took,
+     * not after the ones that had been read ahead.
+     *
+     * @throws Exception Any error thrown by the readers or the BatchTasklet.
+     */
+    @Test
+    public void read_restarted_returnsAlbumsAfterThoseTaken() throws Exception {
+
+        final UUID batchId = this.loadLargeFile();
+
+        final List<Album> all = readAll(new ClobAlbumReader(this.dataSource, batchId), new ExecutionContext());
+        final List<String> expected = gtins(all.subList(RECORDS_BEFORE_RESTART, all.size()));
+
+        final ExecutionContext executionContext = new ExecutionContext();
+        final PrefetchingItemReader<Album> failedReader = prefetching(new ClobAlbumReader(this.dataSource, batchId),
+                LARGE_CAPACITY, new SimpleMeterRegistry());
+        failedReader.beforeStep(stepExecution());
+        failedReader.open(executionContext);
+        for (int i = 0; i < RECORDS_BEFORE_RESTART; i++) {
+            failedReader.read();
+        }
+        failedReader.update(executionContext);
+        failedReader.afterStep(stepExecution());
+
+        Assert.assertEquals(expected, gtins(readAll(new ClobAlbumReader(this.dataSource, batchId), executionContext)));
+    }
+
+    /**
+     * Reads JSON whose second record has a property that isn't in the class. The first record should be returned, and
+     * then the error should be thrown on the step's thread as the reader it wraps threw it.
+     *
+     * @throws Exception Any error thrown by the reader.
+     */
+    @Test
+    public void read_delegateFails_returnsRecordsThenThrows() throws Exception {
+
+        final PrefetchingItemReader<ClobJsonReaderTest.JsonTestClass> reader = prefetching(new ClobJsonReader<>(this.dataSource,
+                "SELECT CAST('[{\"id\": 1, \"values\": []}, {\"id\": 2, \"extra\": true}]' AS CLOB)",
+                ClobJsonReaderTest.JsonTestClass.class), 4, new SimpleMeterRegistry());
+
+        reader.beforeStep(stepExecution());
+        reader.open(new ExecutionContext());
+
+        Assert.assertEquals(1, reader.read().getId());
+        Assert.assertThrows(RuntimeJsonMappingException.class, reader::read);
+        Assert.assertNull(reader.read());
+
+        reader.afterStep(stepExecution());
+    }
+
+    /**
+     * Ends the step after one read while the read-ahead thread is waiting for room in a buffer of one. The thread
+     * should stop rather than hold up the step, and the gauge of the buffer should be removed.
+     *
+     * @throws Exception Any error thrown by the readers or the BatchTasklet.
+     */
+    @Test
+    public void afterStep_beforeEnd_stopsReadingAhead() throws Exception {
+
+        final UUID batchId = this.loadLargeFile();
+        final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        final PrefetchingItemReader<Album> reader = prefetching(new ClobAlbumReader(this.dataSource, batchId), 1, meterRegistry);
+        reader.beforeStep(stepExecution());
+        reader.open(new ExecutionContext());
+
+        Assert.assertNotNull(reader.read());
+        Assert.assertNotNull(meterRegistry.find(MetricNames.PREFETCH_BUFFERED).gauge());
+
+        reader.afterStep(stepExecution());
+        reader.close();
+
+        Assert.assertNull(meterRegistry.find(MetricNames.PREFETCH_BUFFERED).gauge());
+    }
+
+    private UUID loadLargeFile() throws Exception {
+
+        final UUID batchId = IdUtils.newId();
+        new BatchTasklet(this.dataSource, "/large-file.json", batchId)
+                .execute(new StepContribution(Mockito.mock(StepExecution.class)), Mockito.mock(ChunkContext.class));
+
+        return batchId;
+    }
+
+    private static <T> PrefetchingItemReader<T> prefetching(final ItemStreamReader<T> delegate, final int capacity,
+                                                            final MeterRegistry meterRegistry) {
+
+        return new PrefetchingItemReader<>(delegate, new SimpleAsyncTaskExecutor(), capacity, meterRegistry);
+    }
+
+    // The meters are tagged with the name of the step.
+    private static StepExecution stepExecution() {
+
+        return new StepExecution(STEP_NAME, new JobExecution(1L));
+    }
+
+    // Reads everything from a reader, opened with an ExecutionContext the way a step would open it.
+    private static <T, R extends ItemStreamReader<T> & StepExecutionListener> List<T> readAll(final R reader,
+                                                                                              final ExecutionContext executionContext)
+            throws Exception {
+
+        reader.beforeStep(stepExecution());
+        reader.open(executionContext);
+
+        final List<T> values = new ArrayList<>();
+        for (T value = reader.read(); Objects.nonNull(value); value = reader.read()) {
+            values.add(value);
+        }
+
+        reader.afterStep(stepExecution());
+        reader.close();
+
+        return values;
+    }
+
+    private static List<String> gtins(final List<Album> albums) {
+
+        return albums.stream().map(Album::getGtin14).collect(Collectors.toList());
+    }
+}
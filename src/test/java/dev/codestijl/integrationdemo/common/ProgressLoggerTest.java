@@ -0,0 +1,54 @@
+package dev.codestijl.integrationdemo.common;
+
+import java.util.stream.IntStream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests ProgressLogger.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class ProgressLoggerTest {
+
+    private static final int INCREMENTS = 100_000;
+
+    /**
+     * Counts from many threads at once. The counter should have every increment.
+     */
+    @Test
+    public void incrementCount_manyThreads_countsEveryIncrement() {
+
+        final Counter counter = new SimpleMeterRegistry().counter("test.processed");
+        final ProgressLogger progressLogger = ProgressLogger.builder()
+                .setCounter(counter)
+                .setLogAt(INCREMENTS)
+                .build();
+
+        IntStream.range(0, INCREMENTS).parallel().forEach(i -> progressLogger.incrementCount());
+
+        Assert.assertEquals(INCREMENTS, counter.count(), 0.0);
+    }
+
+    /**
+     * Resets the count. The counter should keep counting from where it was.
+     */
+    @Test
+    public void reset_counterKeepsCounting() {
+
+        final Counter counter = new SimpleMeterRegistry().counter("test.processed");
+        final ProgressLogger progressLogger = ProgressLogger.builder()
+                .setCounter(counter)
+                .build();
+
+        progressLogger.incrementCount(3);
+        progressLogger.reset();
+        progressLogger.incrementCount(2);
+
+        Assert.assertEquals(5, counter.count(), 0.0);
+    }
+}
@@ -10,7 +10,9 @@ import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import javax.sql.DataSource;
 
 import org.junit.Assert;
@@ -32,7 +34,7 @@ import org.springframework.jdbc.core.JdbcTemplate;
 public class AlbumDaoTest {
 
     // This is in the test data.
-    private static final String BATCH_ID = "bb439ecb-776b-457a-9ab8-759687193958";
+    private static final UUID BATCH_ID = UUID.fromString("bb439ecb-776b-457a-9ab8-759687193958");
 
     @Autowired
     private DataSource dataSource;
@@ -46,7 +48,7 @@ public class AlbumDaoTest {
 
         final AlbumDao albumDao = new AlbumDao(new JdbcTemplate(this.dataSource));
 
-        final String albumId = IdUtils.newId();
+        final UUID albumId = IdUtils.newId();
 
         final Album album = albumFromId(albumId);
 
@@ -65,7 +67,7 @@ public class AlbumDaoTest {
 
         final AlbumDao albumDao = new AlbumDao(new JdbcTemplate(this.dataSource));
 
-        final String[] albumIds = {IdUtils.newId(), IdUtils.newId(), IdUtils.newId(), IdUtils.newId()};
+        final UUID[] albumIds = {IdUtils.newId(), IdUtils.newId(), IdUtils.newId(), IdUtils.newId()};
 
         final List<Album> toInsert = Arrays.stream(albumIds)
                 .map(AlbumDaoTest::albumFromId)
@@ -77,6 +79,40 @@ public class AlbumDaoTest {
         Arrays.stream(albumIds).forEach(a -> checkAlbumById(albumDao, a));
     }
 
+    /**
+     * Calls insert with InsertMode.MULTI_ROW and more Albums than fit in one statement. Every Album should be
+     * inserted and counted, including the ones left over after the full statements.
+     */
+    @Test
+    public void insert_multiRow_savesEveryAlbum() {
+
+        final AlbumDao albumDao = new AlbumDao(new JdbcTemplate(this.dataSource), InsertMode.MULTI_ROW, 3, 65_535);
+
+        final List<UUID> albumIds = IntStream.range(0, 7).mapToObj(i -> IdUtils.newId()).collect(Collectors.toList());
+
+        final int rowsInserted = albumDao.insert(albumIds.stream().map(AlbumDaoTest::albumFromId).collect(Collectors.toList()));
+        Assert.assertEquals(albumIds.size(), rowsInserted);
+
+        albumIds.forEach(a -> checkAlbumById(albumDao, a));
+    }
+
+    /**
+     * Calls insert with InsertMode.BULK_LOAD. Every Album should be inserted and counted, with its create and last
+     * update times set by the DB.
+     */
+    @Test
+    public void insert_bulkLoad_savesEveryAlbum() {
+
+        final AlbumDao albumDao = new AlbumDao(new JdbcTemplate(this.dataSource), InsertMode.BULK_LOAD, 1, 65_535);
+
+        final List<UUID> albumIds = IntStream.range(0, 5).mapToObj(i -> IdUtils.newId()).collect(Collectors.toList());
+
+        final int rowsInserted = albumDao.insert(albumIds.stream().map(AlbumDaoTest::albumFromId).collect(Collectors.toList()));
+        Assert.assertEquals(albumIds.size(), rowsInserted);
+
+        albumIds.forEach(a -> checkAlbumById(albumDao, a));
+    }
+
     /**
      * Calls update passing in a single Album. This will make sure the status is updated (the only updatable
      * field) and the last update time is adjusted.
@@ -84,7 +120,7 @@ public class AlbumDaoTest {
     @Test
     public void update_updatesSingleAlbum() {
 
-        final String albumId = "6ddc6095-6979-4132-8e1f-f88472f55f8c";
+        final UUID albumId = UUID.fromString("6ddc6095-6979-4132-8e1f-f88472f55f8c");
 
         final AlbumDao albumDao = new AlbumDao(new JdbcTemplate(this.dataSource));
 
@@ -103,11 +139,11 @@ public class AlbumDaoTest {
     @Test
     public void update_updatesMultipleAlbums() {
 
-        final String[] albumIds = {
-            "8299a1f3-1194-4b20-85fb-ced161ac67ec",
-            "e3a9a73e-288b-470b-bd1d-5cd1b35bf99b",
-            "3bee4104-441c-48da-956a-cdfcd3e77b43",
-            "5abc0800-86d5-47b3-b80a-e4a939d9db84"
+        final UUID[] albumIds = {
+            UUID.fromString("8299a1f3-1194-4b20-85fb-ced161ac67ec"),
+            UUID.fromString("e3a9a73e-288b-470b-bd1d-5cd1b35bf99b"),
+            UUID.fromString("3bee4104-441c-48da-956a-cdfcd3e77b43"),
+            UUID.fromString("5abc0800-86d5-47b3-b80a-e4a939d9db84")
         };
 
         final AlbumDao albumDao = new AlbumDao(new JdbcTemplate(this.dataSource));
@@ -125,26 +161,26 @@ public class AlbumDaoTest {
                 .forEach(a -> checkAlbumStatusUpdateById(albumDao, a, Status.PENDING));
     }
 
-    private static Album updateAlbumStatusById(final AlbumDao albumDao, final String albumId, final Status newStatus) {
+    private static Album updateAlbumStatusById(final AlbumDao albumDao, final UUID albumId, final Status newStatus) {
 
         final Album album = albumDao.findById(albumId)
                 .orElseThrow(() -> new IllegalStateException(String.format("Album %s is missing from test data.", albumId)));
         return album.setStatus(newStatus);
     }
 
-    private static String artistNameFromId(final String albumId) {
+    private static String artistNameFromId(final UUID albumId) {
         return String.format("TEST ARTIST %s", albumId);
     }
 
-    private static String albumNameFromId(final String albumId) {
+    private static String albumNameFromId(final UUID albumId) {
         return String.format("TEST ALBUM %s", albumId);
     }
 
-    private static String g14FromId(final String albumId) {
-        return albumId.substring(0, 14);
+    private static String g14FromId(final UUID albumId) {
+        return albumId.toString().substring(0, 14);
     }
 
-    private static Album albumFromId(final String albumId) {
+    private static Album albumFromId(final UUID albumId) {
 
         return new Album().setAlbumId(albumId)
                 .setAlbumName(albumNameFromId(albumId))
@@ -154,7 +190,7 @@ public class AlbumDaoTest {
                 .setStatus(Status.COMPLETE);
     }
 
-    private static void checkAlbumById(final AlbumDao albumDao, final String albumId) {
+    private static void checkAlbumById(final AlbumDao albumDao, final UUID albumId) {
 
         final Optional<Album> toCompare = albumDao.findById(albumId);
 
@@ -170,7 +206,7 @@ public class AlbumDaoTest {
         Assert.assertTrue(toCompare.get().getCreateTime().isAfter(Instant.now().minus(1, ChronoUnit.MINUTES)));
     }
 
-    private static void checkAlbumStatusUpdateById(final AlbumDao albumDao, final String albumId, final Status expectedStatus) {
+    private static void checkAlbumStatusUpdateById(final AlbumDao albumDao, final UUID albumId, final Status expectedStatus) {
 
         final Album album = albumDao.findById(albumId)
                 .orElseThrow(() -> new IllegalStateException(String.format("Album %s is missing from test data after update.", albumId)));
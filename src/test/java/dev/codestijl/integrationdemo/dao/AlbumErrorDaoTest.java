@@ -8,6 +8,7 @@ import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import javax.sql.DataSource;
 
@@ -27,8 +28,8 @@ import org.springframework.jdbc.core.JdbcTemplate;
 public class AlbumErrorDaoTest {
 
     // This is in the test data.
-    private static final String BATCH_ID = "bb439ecb-776b-457a-9ab8-759687193958";
-    private static final String ALBUM_ID = "6ddc6095-6979-4132-8e1f-f88472f55f8c";
+    private static final UUID BATCH_ID = UUID.fromString("bb439ecb-776b-457a-9ab8-759687193958");
+    private static final UUID ALBUM_ID = UUID.fromString("6ddc6095-6979-4132-8e1f-f88472f55f8c");
 
     @Autowired
     private DataSource dataSource;
@@ -39,7 +40,7 @@ public class AlbumErrorDaoTest {
     @Test
     public void insert_insertsSingleRecord() {
 
-        final String errorId = IdUtils.newId();
+        final UUID errorId = IdUtils.newId();
 
         final AlbumError albumError = albumErrorFrom(errorId);
 
@@ -57,7 +58,7 @@ public class AlbumErrorDaoTest {
     @Test
     public void insert_insertsMultipleRecords() {
 
-        final String[] errorIds = {IdUtils.newId(), IdUtils.newId(), IdUtils.newId(), IdUtils.newId()};
+        final UUID[] errorIds = {IdUtils.newId(), IdUtils.newId(), IdUtils.newId(), IdUtils.newId()};
 
         final List<AlbumError> albumErrors = Arrays.stream(errorIds)
                 .map(AlbumErrorDaoTest::albumErrorFrom)
@@ -72,11 +73,11 @@ public class AlbumErrorDaoTest {
                 .forEach(e -> checkAlbumErrorById(albumErrorDao, e));
     }
 
-    private static String errorTextFrom(final String errorId) {
+    private static String errorTextFrom(final UUID errorId) {
         return String.format("ERROR TEXT FOR %s.", errorId);
     }
 
-    private static AlbumError albumErrorFrom(final String errorId) {
+    private static AlbumError albumErrorFrom(final UUID errorId) {
 
         return new AlbumError()
                 .setErrorId(errorId)
@@ -85,7 +86,7 @@ public class AlbumErrorDaoTest {
                 .setErrorText(errorTextFrom(errorId));
     }
 
-    private static void checkAlbumErrorById(final AlbumErrorDao albumErrorDao, final String errorId) {
+    private static void checkAlbumErrorById(final AlbumErrorDao albumErrorDao, final UUID errorId) {
 
         final Optional<AlbumError> albumError = albumErrorDao.findById(errorId);
 
@@ -0,0 +1,65 @@
+package dev.codestijl.integrationdemo.dao;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+
+import com.mysql.cj.jdbc.JdbcStatement;
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.SQLWarningException;
+
+/**
+ * Tests BulkLoad.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class BulkLoadTest {
+
+    private static final String SQL = "LOAD DATA LOCAL INFILE 'stream' INTO TABLE STAGE.SONG";
+    private static final byte[] CSV = "\"a\",\"b\"\n\"c\",\"d\"\n".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Streams a load that raises no warnings. It should return the rows loaded.
+     *
+     * @throws SQLException Any error thrown by the mocked Statement.
+     */
+    @Test
+    public void streamLoad_noWarnings_returnsRowsLoaded() throws SQLException {
+
+        try (Statement statement = statement(null)) {
+            Assert.assertEquals(Integer.valueOf(2), new BulkLoad.StreamLoad(SQL, CSV).doInStatement(statement));
+        }
+    }
+
+    /**
+     * Streams a load that raises a warning, the way MySQL reports a value it truncated. It should fail rather than
+     * return the rows loaded.
+     *
+     * @throws SQLException Any error thrown by the mocked Statement.
+     */
+    @Test
+    public void streamLoad_warning_throws() throws SQLException {
+
+        final BulkLoad.StreamLoad streamLoad = new BulkLoad.StreamLoad(SQL, CSV);
+
+        try (Statement statement = statement(new SQLWarning("Data truncated for column 'SONG_NAME' at row 2", "01000", 1265))) {
+            final SQLWarningException exception = Assert.assertThrows(SQLWarningException.class, () -> streamLoad.doInStatement(statement));
+            Assert.assertTrue(exception.getMessage().contains("Data truncated for column 'SONG_NAME' at row 2"));
+        }
+    }
+
+    // A Statement that loads both rows and then reports the warning, if there is one.
+    private static Statement statement(final SQLWarning warning) throws SQLException {
+
+        final Statement statement = Mockito.mock(Statement.class);
+        Mockito.when(statement.unwrap(JdbcStatement.class)).thenReturn(Mockito.mock(JdbcStatement.class));
+        Mockito.when(statement.executeUpdate(SQL)).thenReturn(2);
+        Mockito.when(statement.getWarnings()).thenReturn(warning);
+
+        return statement;
+    }
+}
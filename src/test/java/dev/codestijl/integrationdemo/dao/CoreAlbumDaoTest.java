@@ -0,0 +1,165 @@
+package dev.codestijl.integrationdemo.dao;
+
+import dev.codestijl.integrationdemo.common.IdUtils;
+import dev.codestijl.integrationdemo.entity.CoreAlbum;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.sql.DataSource;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Tests CoreAlbumDao.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+// This file begins all test GTINs with 97.
+@SpringBootTest
+public class CoreAlbumDaoTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    /**
+     * Calls findByGtin14s with a mix of GTIN-14s that are and are not in the CT_ALBUM table. Only the ones
+     * in the table should come back, keyed by their GTIN-14.
+     */
+    @Test
+    public void findByGtin14s_someExist_returnsOnlyExisting() {
+
+        final CoreAlbumDao coreAlbumDao = new CoreAlbumDao(new JdbcTemplate(this.dataSource));
+
+        coreAlbumDao.insert(List.of(coreAlbumFrom("97000000000001"), coreAlbumFrom("97000000000002")));
+
+        final Map<String, CoreAlbum> found = coreAlbumDao.findByGtin14s(List.of("97000000000001", "97000000000002", "97000000000003"));
+
+        Assert.assertEquals(2, found.size());
+        Assert.assertEquals("ALBUM 97000000000001", found.get("97000000000001").getAlbumName());
+        Assert.assertEquals("ALBUM 97000000000002", found.get("97000000000002").getAlbumName());
+        Assert.assertFalse(found.containsKey("97000000000003"));
+    }
+
+    /**
+     * Calls findByGtin14s with more GTIN-14s than fit in a single query. All the ones in the table
+     * should still come back.
+     */
+    @Test
+    public void findByGtin14s_moreThanOneQuery_returnsAll() {
+
+        final CoreAlbumDao coreAlbumDao = new CoreAlbumDao(new JdbcTemplate(this.dataSource));
+
+        final List<String> gtins = IntStream.range(0, 2_500)
+                .mapToObj(i -> String.format("9710%010d", i))
+                .collect(Collectors.toList());
+
+        coreAlbumDao.insert(gtins.stream().map(CoreAlbumDaoTest::coreAlbumFrom).collect(Collectors.toList()));
+
+        Assert.assertEquals(gtins.size(), coreAlbumDao.findByGtin14s(gtins).size());
+    }
+
+    /**
+     * Calls findByGtin14s with an empty list. It should return an empty map.
+     */
+    @Test
+    public void findByGtin14s_empty_returnsEmpty() {
+
+        final CoreAlbumDao coreAlbumDao = new CoreAlbumDao(new JdbcTemplate(this.dataSource));
+
+        Assert.assertTrue(coreAlbumDao.findByGtin14s(List.of()).isEmpty());
+    }
+
+    /**
+     * Inserts albums and then reads every GTIN-14 in the table. The count should include the new albums and
+     * their GTIN-14s should be passed to the action.
+     */
+    @Test
+    public void forEachGtin14_afterInsert_includesNewGtins() {
+
+        final CoreAlbumDao coreAlbumDao = new CoreAlbumDao(new JdbcTemplate(this.dataSource));
+
+        final int countBefore = coreAlbumDao.count();
+        coreAlbumDao.insert(List.of(coreAlbumFrom("97200000000001"), coreAlbumFrom("97200000000002")));
+
+        final List<String> gtins = new ArrayList<>();
+        coreAlbumDao.forEachGtin14(gtins::add);
+
+        Assert.assertEquals(countBefore + 2, coreAlbumDao.count());
+        Assert.assertEquals(coreAlbumDao.count(), gtins.size());
+        Assert.assertTrue(gtins.containsAll(List.of("97200000000001", "97200000000002")));
+    }
+
+    /**
+     * Inserts albums and then reads the GTIN-14s of each of three partitions of the table. Each GTIN-14 should be in
+     * exactly one partition, and each partition's count should match the GTIN-14s read from it.
+     */
+    @Test
+    public void forEachGtin14_partitions_splitTableWithoutOverlap() {
+
+        final CoreAlbumDao coreAlbumDao = new CoreAlbumDao(new JdbcTemplate(this.dataSource));
+        coreAlbumDao.insert(IntStream.range(0, 30)
+                .mapToObj(i -> coreAlbumFrom(String.format("9740%010d", i)))
+                .collect(Collectors.toList()));
+
+        final List<String> all = new ArrayList<>();
+        coreAlbumDao.forEachGtin14(all::add);
+
+        final Set<String> partitioned = new HashSet<>();
+        final List<String> gtins = new ArrayList<>();
+        for (int partition = 0; partition < 3; partition++) {
+
+            gtins.clear();
+            coreAlbumDao.forEachGtin14(partition, 3, gtins::add);
+
+            Assert.assertEquals(coreAlbumDao.count(partition, 3), gtins.size());
+            gtins.forEach(gtin14 -> Assert.assertTrue(partitioned.add(gtin14)));
+        }
+
+        Assert.assertEquals(new HashSet<>(all), partitioned);
+    }
+
+    /**
+     * Upserts a mix of albums that are and are not in the CT_ALBUM table, including the same new GTIN-14
+     * twice. The new ones should be inserted, the rest updated, and updated rows should keep their ID.
+     */
+    @Test
+    public void upsert_someExist_insertsAndUpdates() {
+
+        final CoreAlbumDao coreAlbumDao = new CoreAlbumDao(new JdbcTemplate(this.dataSource));
+
+        final CoreAlbum existing = coreAlbumFrom("97300000000001");
+        coreAlbumDao.insert(existing);
+
+        final UpsertCounts upsertCounts = coreAlbumDao.upsert(List.of(
+                coreAlbumFrom("97300000000001").setAlbumName("UPDATED"),
+                coreAlbumFrom("97300000000002"),
+                coreAlbumFrom("97300000000002").setAlbumName("UPDATED AGAIN")));
+
+        Assert.assertEquals(1, upsertCounts.getInserted());
+        Assert.assertEquals(2, upsertCounts.getUpdated());
+
+        final CoreAlbum updated = coreAlbumDao.findByGtin14("97300000000001").orElseThrow();
+        Assert.assertEquals(existing.getAlbumId(), updated.getAlbumId());
+        Assert.assertEquals("UPDATED", updated.getAlbumName());
+        Assert.assertEquals("UPDATED AGAIN", coreAlbumDao.findByGtin14("97300000000002").orElseThrow().getAlbumName());
+    }
+
+    private static CoreAlbum coreAlbumFrom(final String gtin14) {
+
+        return new CoreAlbum().setAlbumId(IdUtils.newId())
+                .setGtin14(gtin14)
+                .setAlbumName(String.format("ALBUM %s", gtin14))
+                .setArtistName(String.format("ARTIST %s", gtin14))
+                .setSourceAlbumId(IdUtils.newId());
+    }
+}
@@ -0,0 +1,32 @@
+package dev.codestijl.integrationdemo.dao;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests CsvRows.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class CsvRowsTest {
+
+    /**
+     * Writes a row with quotes, a comma, a line break, a backslash, the word NULL, and a null. Every value but the
+     * null should be quoted, with its quotes doubled and everything else left as it is.
+     *
+     * @throws IOException If the row can't be written.
+     */
+    @Test
+    public void write_specialCharacters_quotesEveryValue() throws IOException {
+
+        final StringWriter writer = new StringWriter();
+
+        CsvRows.write(writer, "Say \"Hi\", Bye", "Line 1\nLine 2", "AC\\DC", "NULL", null);
+
+        Assert.assertEquals("\"Say \"\"Hi\"\", Bye\",\"Line 1\nLine 2\",\"AC\\DC\",\"NULL\",NULL\n", writer.toString());
+    }
+}
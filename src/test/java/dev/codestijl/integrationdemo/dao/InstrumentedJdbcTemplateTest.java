@@ -0,0 +1,95 @@
+package dev.codestijl.integrationdemo.dao;
+
+import dev.codestijl.integrationdemo.common.IdUtils;
+import dev.codestijl.integrationdemo.entity.Song;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.sql.DataSource;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Tests InstrumentedJdbcTemplate.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+@SpringBootTest
+public class InstrumentedJdbcTemplateTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    /**
+     * Runs a batch of three updates. They should be recorded as one execution of a batch of three.
+     */
+    @Test
+    public void batchUpdate_recordsBatchSize() {
+
+        final StatementStats statementStats = new StatementStats();
+        final InstrumentedJdbcTemplate jdbcTemplate = new InstrumentedJdbcTemplate(this.dataSource, statementStats, 0);
+
+        jdbcTemplate.batchUpdate("UPDATE STAGE.ALBUM SET ALBUM_NAME = ALBUM_NAME WHERE ALBUM_ID = ?",
+                List.of(new Object[] {"missing-1"}, new Object[] {"missing-2"}, new Object[] {"missing-3"}));
+
+        final List<StatementSummary> summaries = statementStats.summarize();
+        Assert.assertEquals(1, summaries.size());
+        Assert.assertEquals(1, summaries.get(0).getExecutions());
+        Assert.assertEquals(3, summaries.get(0).getStatements());
+        Assert.assertEquals(0, summaries.get(0).getRows());
+        Assert.assertTrue(summaries.get(0).getMaxNanos() > 0);
+    }
+
+    /**
+     * Runs a query with IN lists of two sizes. They should be recorded as the same statement, with a row for each
+     * result.
+     */
+    @Test
+    public void query_inLists_recordedAsOneStatement() {
+
+        final StatementStats statementStats = new StatementStats();
+        final InstrumentedJdbcTemplate jdbcTemplate = new InstrumentedJdbcTemplate(this.dataSource, statementStats, 0);
+
+        jdbcTemplate.queryForObject("SELECT COUNT(*) FROM STAGE.ALBUM WHERE ALBUM_ID IN (?, ?)", Integer.class, "a", "b");
+        jdbcTemplate.queryForObject("SELECT COUNT(*) FROM STAGE.ALBUM WHERE ALBUM_ID IN (?,?,?)", Integer.class, "a", "b", "c");
+
+        final List<StatementSummary> summaries = statementStats.summarize();
+        Assert.assertEquals(1, summaries.size());
+        Assert.assertEquals("SELECT COUNT(*) FROM STAGE.ALBUM WHERE ALBUM_ID IN (?, ...)", summaries.get(0).getSql());
+        Assert.assertEquals(2, summaries.get(0).getExecutions());
+        Assert.assertEquals(2, summaries.get(0).getRows());
+    }
+
+    /**
+     * Inserts eight songs with multi-row INSERTs of three rows each, which takes a batch of two full statements and
+     * one of the two rows left over. They should be recorded as one statement, whatever their length.
+     */
+    @Test
+    public void insert_multiRow_recordedAsOneStatement() {
+
+        final StatementStats statementStats = new StatementStats();
+        final InstrumentedJdbcTemplate jdbcTemplate = new InstrumentedJdbcTemplate(this.dataSource, statementStats, 0);
+        final SongDao songDao = new SongDao(jdbcTemplate, InsertMode.MULTI_ROW, 3, 65_535);
+
+        // This album is in the test data.
+        final UUID albumId = UUID.fromString("6ddc6095-6979-4132-8e1f-f88472f55f8c");
+        final List<Song> songs = IntStream.range(0, 8)
+                .mapToObj(i -> new Song().setSongId(IdUtils.newId()).setAlbumId(albumId).setSongName("SONG " + i))
+                .collect(Collectors.toList());
+
+        Assert.assertEquals(8, songDao.insert(songs));
+
+        final List<StatementSummary> summaries = statementStats.summarize();
+        Assert.assertEquals(1, summaries.size());
+        Assert.assertEquals("INSERT INTO STAGE.SONG (SONG_ID, ALBUM_ID, CREATE_TIME, SONG_NAME) VALUES (?, ?, ?, ?), ...",
+                summaries.get(0).getSql());
+        Assert.assertEquals(2, summaries.get(0).getExecutions());
+        Assert.assertEquals(8, summaries.get(0).getRows());
+    }
+}
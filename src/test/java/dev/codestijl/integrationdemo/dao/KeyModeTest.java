@@ -0,0 +1,144 @@
+package dev.codestijl.integrationdemo.dao;
+
+import dev.codestijl.integrationdemo.common.IdUtils;
+import dev.codestijl.integrationdemo.entity.Album;
+import dev.codestijl.integrationdemo.entity.Status;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.sql.DataSource;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+/**
+ * Tests KeyMode, and the DAOs on a DB keyed with BINARY(16).
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+@SpringBootTest
+public class KeyModeTest {
+
+    private static final String INSERT_BATCH_SQL = "INSERT INTO STAGE.BATCH (BATCH_ID, CREATE_TIME, PAYLOAD) "
+            + "VALUES (?, CURRENT_TIMESTAMP, 'TEST DATA')";
+
+    private static final int ALBUMS_PER_MODE = 3;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private EmbeddedDatabase binaryDatabase;
+
+    /**
+     * Creates a DB of its own from binary-key-schema.sql.
+     */
+    @BeforeEach
+    public void createBinaryDatabase() {
+
+        this.binaryDatabase = new EmbeddedDatabaseBuilder().generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .addScripts("binary-key-schema.sql", "binary-key-data.sql")
+                .build();
+    }
+
+    /**
+     * Drops the binary DB.
+     */
+    @AfterEach
+    public void shutdownBinaryDatabase() {
+
+        this.binaryDatabase.shutdown();
+    }
+
+    /**
+     * Turns a UUID into bytes and back. It should come back the same, with its bytes most significant first.
+     */
+    @Test
+    public void toBytes_fromBytes_roundTrips() {
+
+        final UUID id = UUID.fromString("00112233-4455-6677-8899-aabbccddeeff");
+
+        final byte[] bytes = KeyMode.toBytes(id);
+
+        Assert.assertEquals(16, bytes.length);
+        Assert.assertEquals(0x00, bytes[0]);
+        Assert.assertEquals((byte) 0xff, bytes[15]);
+        Assert.assertEquals(id, KeyMode.fromBytes(bytes));
+    }
+
+    /**
+     * Gets the CSV value of a UUID with leading zeros in both halves. BINARY should write all 32 hex digits, and
+     * CHAR the canonical string.
+     */
+    @Test
+    public void csvValue_leadingZeros_writesEveryDigit() {
+
+        final UUID id = new UUID(1, 0xabL);
+
+        Assert.assertEquals("000000000000000100000000000000ab", KeyMode.BINARY.csvValue(id));
+        Assert.assertEquals("00000000-0000-0001-0000-0000000000ab", KeyMode.CHAR.csvValue(id));
+        Assert.assertNull(KeyMode.BINARY.csvValue(null));
+    }
+
+    /**
+     * Calls of on the test DB, created from the CHAR(36) schema, and on a DB created from the BINARY(16) schema.
+     * Each should get its own mode.
+     */
+    @Test
+    public void of_schema_detectsKeyMode() {
+
+        Assert.assertEquals(KeyMode.CHAR, KeyMode.of(this.dataSource));
+        Assert.assertEquals(KeyMode.BINARY, KeyMode.of(this.binaryDatabase));
+    }
+
+    /**
+     * Inserts Albums into a DB keyed with BINARY(16) with every InsertMode. Each Album should be found by its
+     * ID, with the same IDs it was inserted with.
+     */
+    @Test
+    public void insert_binaryKeys_findsSameIds() {
+
+        final UUID batchId = IdUtils.newId();
+        new JdbcTemplate(this.binaryDatabase).update(INSERT_BATCH_SQL, (Object) KeyMode.toBytes(batchId));
+
+        Assert.assertEquals(ALBUMS_PER_MODE, this.insertAndFind(InsertMode.BATCH, batchId));
+        Assert.assertEquals(ALBUMS_PER_MODE, this.insertAndFind(InsertMode.MULTI_ROW, batchId));
+        Assert.assertEquals(ALBUMS_PER_MODE, this.insertAndFind(InsertMode.BULK_LOAD, batchId));
+    }
+
+    // Returns how many of the inserted Albums are found by their IDs with the same IDs and name.
+    private long insertAndFind(final InsertMode insertMode, final UUID batchId) {
+
+        final AlbumDao albumDao = new AlbumDao(new JdbcTemplate(this.binaryDatabase), insertMode, 2, 65_535);
+
+        final List<Album> albums = IntStream.range(0, ALBUMS_PER_MODE)
+                .mapToObj(i -> new Album().setAlbumId(IdUtils.newId())
+                        .setBatchId(batchId)
+                        .setGtin14(String.format("9600000000000%d", i))
+                        .setAlbumName(insertMode + " album " + i)
+                        .setArtist("artist")
+                        .setStatus(Status.PENDING))
+                .collect(Collectors.toList());
+
+        Assert.assertEquals(albums.size(), albumDao.insert(albums));
+
+        return albums.stream()
+                .filter(album -> albumDao.findById(album.getAlbumId())
+                        .filter(found -> album.getAlbumId().equals(found.getAlbumId()))
+                        .filter(found -> batchId.equals(found.getBatchId()))
+                        .filter(found -> album.getAlbumName().equals(found.getAlbumName()))
+                        .isPresent())
+                .count();
+    }
+}
@@ -0,0 +1,106 @@
+package dev.codestijl.integrationdemo.dao;
+
+import dev.codestijl.integrationdemo.entity.Song;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+import javax.sql.DataSource;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+
+/**
+ * Tests MultiRowInsert.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class MultiRowInsertTest {
+
+    private static final List<String> COLUMNS = List.of("ID", "NAME");
+
+    private static final MultiRowInsert.RowSetter<String> NO_VALUES = (preparedStatement, firstIndex, value) -> { };
+
+    /**
+     * Inserts more rows than fit in one statement, with a driver that doesn't know the count of each statement in
+     * the batch. Each full statement should be counted as all of its rows, and the rows left over should go in one
+     * shorter statement.
+     */
+    @Test
+    public void insert_successNoInfo_countsEveryRow() {
+
+        final JdbcTemplate jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        Mockito.when(jdbcTemplate.batchUpdate(ArgumentMatchers.anyString(), ArgumentMatchers.any(BatchPreparedStatementSetter.class)))
+                .thenReturn(new int[] {Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO});
+        Mockito.when(jdbcTemplate.update(ArgumentMatchers.anyString(), ArgumentMatchers.any(PreparedStatementSetter.class))).thenReturn(1);
+
+        final MultiRowInsert<String> multiRowInsert = new MultiRowInsert<>(jdbcTemplate, "T", COLUMNS, NO_VALUES, 3, 100);
+
+        Assert.assertEquals(7, multiRowInsert.insert(List.of("a", "b", "c", "d", "e", "f", "g")));
+        Mockito.verify(jdbcTemplate).batchUpdate(ArgumentMatchers.eq("INSERT INTO T (ID, NAME) VALUES (?, ?), (?, ?), (?, ?)"),
+                ArgumentMatchers.any(BatchPreparedStatementSetter.class));
+        Mockito.verify(jdbcTemplate).update(ArgumentMatchers.eq("INSERT INTO T (ID, NAME) VALUES (?, ?)"),
+                ArgumentMatchers.any(PreparedStatementSetter.class));
+    }
+
+    /**
+     * Asks for more rows in a statement than the limit on bind variables allows. The limit should win.
+     */
+    @Test
+    public void getRowsPerStatement_overMaxParameters_keepsUnderMax() {
+
+        final MultiRowInsert<String> multiRowInsert = new MultiRowInsert<>(Mockito.mock(JdbcTemplate.class), "T", COLUMNS, NO_VALUES, 100, 9);
+
+        Assert.assertEquals(4, multiRowInsert.getRowsPerStatement());
+    }
+
+    /**
+     * Inserts with InsertMode.MULTI_ROW into a DB this application doesn't know. The DAO should fall back to a
+     * batch of single-row inserts.
+     *
+     * @throws SQLException If the mocks can't be set up.
+     */
+    @Test
+    // The Connection is a mock, so there is nothing to close.
+    @SuppressWarnings("PMD.CloseResource")
+    public void insert_unsupportedDatabase_fallsBackToBatch() throws SQLException {
+
+        final DatabaseMetaData metaData = Mockito.mock(DatabaseMetaData.class);
+        Mockito.when(metaData.getDatabaseProductName()).thenReturn("PostgreSQL");
+        final Connection connection = Mockito.mock(Connection.class);
+        Mockito.when(connection.getMetaData()).thenReturn(metaData);
+
+        // The DB is keyed with CHAR(36).
+        final ResultSetMetaData probeMetaData = Mockito.mock(ResultSetMetaData.class);
+        Mockito.when(probeMetaData.getColumnType(1)).thenReturn(Types.CHAR);
+        final ResultSet probe = Mockito.mock(ResultSet.class);
+        Mockito.when(probe.getMetaData()).thenReturn(probeMetaData);
+        final Statement statement = Mockito.mock(Statement.class);
+        Mockito.when(statement.executeQuery(ArgumentMatchers.anyString())).thenReturn(probe);
+        Mockito.when(connection.createStatement()).thenReturn(statement);
+        final DataSource dataSource = Mockito.mock(DataSource.class);
+        Mockito.when(dataSource.getConnection()).thenReturn(connection);
+
+        final JdbcTemplate jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        Mockito.when(jdbcTemplate.getDataSource()).thenReturn(dataSource);
+        Mockito.when(jdbcTemplate.batchUpdate(ArgumentMatchers.anyString(), ArgumentMatchers.any(BatchPreparedStatementSetter.class)))
+                .thenReturn(new int[] {1, 1});
+
+        final SongDao songDao = new SongDao(jdbcTemplate, InsertMode.MULTI_ROW, 10, 100);
+
+        Assert.assertEquals(2, songDao.insert(List.of(new Song(), new Song())));
+        Mockito.verify(jdbcTemplate).batchUpdate(ArgumentMatchers.eq("INSERT INTO STAGE.SONG (SONG_ID, ALBUM_ID, CREATE_TIME, SONG_NAME) "
+                + "VALUES (?, ?, ?, ?)"), ArgumentMatchers.any(BatchPreparedStatementSetter.class));
+    }
+}
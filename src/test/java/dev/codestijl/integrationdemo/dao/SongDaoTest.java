@@ -0,0 +1,55 @@
+package dev.codestijl.integrationdemo.dao;
+
+import dev.codestijl.integrationdemo.common.IdUtils;
+import dev.codestijl.integrationdemo.entity.Song;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Tests SongDao.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+@SpringBootTest
+public class SongDaoTest {
+
+    // This is in the test data.
+    private static final UUID ALBUM_ID = UUID.fromString("6ddc6095-6979-4132-8e1f-f88472f55f8c");
+
+    private static final String SELECT_SQL = "SELECT SONG_NAME FROM STAGE.SONG WHERE SONG_ID = ?";
+
+    @Autowired
+    private DataSource dataSource;
+
+    /**
+     * Calls insert with InsertMode.BULK_LOAD and song names with everything that could break the CSV. Every song
+     * should be inserted, counted, and read back with exactly the name it was given.
+     */
+    @Test
+    public void insert_bulkLoad_keepsNamesExactly() {
+
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSource);
+        final SongDao songDao = new SongDao(jdbcTemplate, InsertMode.BULK_LOAD, 1, 65_535);
+
+        final List<String> names = List.of("Say \"Hi\", Bye", "\"Quoted\"", "Line 1\nLine 2", "Line 1\r\nLine 2", "AC\\DC",
+                "NULL", "  Padded  ", "Tab\tSeparated", "Sigur Rós – Ágætis byrjun ✓", "'Single'", ",");
+        final List<Song> songs = names.stream()
+                .map(name -> new Song().setSongId(IdUtils.newId()).setAlbumId(ALBUM_ID).setSongName(name))
+                .collect(Collectors.toList());
+
+        Assert.assertEquals(names.size(), songDao.insert(songs));
+
+        songs.forEach(song -> Assert.assertEquals(song.getSongName(),
+                jdbcTemplate.queryForObject(SELECT_SQL, String.class, song.getSongId().toString())));
+    }
+}
@@ -0,0 +1,99 @@
+package dev.codestijl.integrationdemo.dao;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.List;
+import javax.sql.DataSource;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+/**
+ * Tests SqlDialect.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class SqlDialectTest {
+
+    /**
+     * Builds a MySQL upsert. It should be an INSERT that updates only the update columns on a duplicate key.
+     */
+    @Test
+    public void upsertSql_mysql_returnsOnDuplicateKeyUpdate() {
+
+        final String sql = SqlDialect.MYSQL.upsertSql("T", "K",
+                List.of(new SqlDialect.Column("ID", "CHAR(36)"), new SqlDialect.Column("K", "CHAR(14)"), new SqlDialect.Column("V", "INT")),
+                List.of("V"));
+
+        Assert.assertEquals("INSERT INTO T (ID, K, V) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE V = VALUES(V)", sql);
+    }
+
+    /**
+     * Builds a MySQL bulk load. It should read quoted CSV without an escape character and set the time columns.
+     */
+    @Test
+    public void bulkLoadSql_mysql_returnsLoadDataLocalInfile() {
+
+        final String sql = SqlDialect.MYSQL.bulkLoadSql("T", List.of("ID", "V"), List.of(), List.of("CREATED"), "stream");
+
+        Assert.assertEquals("LOAD DATA LOCAL INFILE 'stream' INTO TABLE T CHARACTER SET utf8mb4 FIELDS TERMINATED BY ',' "
+                + "OPTIONALLY ENCLOSED BY '\"' ESCAPED BY '' LINES TERMINATED BY '\\n' (ID, V) SET CREATED = CURRENT_TIMESTAMP", sql);
+        Assert.assertFalse(SqlDialect.MYSQL.isBulkLoadFromFile());
+    }
+
+    /**
+     * Builds a MySQL bulk load with a hex column. The column should be read into a user variable and unhexed.
+     */
+    @Test
+    public void bulkLoadSql_mysqlHexColumn_unhexesColumn() {
+
+        final String sql = SqlDialect.MYSQL.bulkLoadSql("T", List.of("ID", "V"), List.of("ID"), List.of("CREATED"), "stream");
+
+        Assert.assertTrue(sql.endsWith("(@ID, V) SET ID = UNHEX(@ID), CREATED = CURRENT_TIMESTAMP"));
+    }
+
+    /**
+     * Looks up the dialect for the product names the MySQL and H2 drivers report. Each should map to its dialect.
+     */
+    @Test
+    public void ofProductName_knownProducts_returnsDialect() {
+
+        Assert.assertEquals(SqlDialect.MYSQL, SqlDialect.ofProductName("MySQL"));
+        Assert.assertEquals(SqlDialect.MYSQL, SqlDialect.ofProductName("MariaDB"));
+        Assert.assertEquals(SqlDialect.H2, SqlDialect.ofProductName("H2"));
+    }
+
+    /**
+     * Looks up the dialect for a database that isn't supported. It should throw an exception.
+     */
+    @Test
+    public void ofProductName_unknownProduct_throwsException() {
+
+        Assert.assertThrows(IllegalStateException.class, () -> SqlDialect.ofProductName("Oracle"));
+    }
+
+    /**
+     * Looks up the dialect of the same DataSource twice. It should only read the metadata of the database once.
+     *
+     * @throws SQLException Any error thrown by the mocked DataSource.
+     */
+    @Test
+    public void of_sameDataSource_readsMetaDataOnce() throws SQLException {
+
+        final DataSource dataSource = Mockito.mock(DataSource.class);
+        try (Connection connection = Mockito.mock(Connection.class)) {
+
+            final DatabaseMetaData metaData = Mockito.mock(DatabaseMetaData.class);
+            Mockito.when(metaData.getDatabaseProductName()).thenReturn("H2");
+            Mockito.when(connection.getMetaData()).thenReturn(metaData);
+            Mockito.when(dataSource.getConnection()).thenReturn(connection);
+
+            Assert.assertEquals(SqlDialect.H2, SqlDialect.of(dataSource));
+            Assert.assertEquals(SqlDialect.H2, SqlDialect.of(dataSource));
+            Mockito.verify(dataSource, Mockito.times(1)).getConnection();
+        }
+    }
+}
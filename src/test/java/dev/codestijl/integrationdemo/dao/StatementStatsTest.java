@@ -0,0 +1,64 @@
+package dev.codestijl.integrationdemo.dao;
+
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests StatementStats.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class StatementStatsTest {
+
+    // The most rows of SONG's four columns MultiRowInsert puts in one statement under MySQL's 65,535 bind variables.
+    private static final int MAX_SONG_ROWS = 65_535 / 4;
+
+    private static final String SONG_INSERT = "INSERT INTO STAGE.SONG (SONG_ID, ALBUM_ID, CREATE_TIME, SONG_NAME) VALUES ";
+    private static final String SONG_ROW = "(?, ?, ?, ?)";
+
+    /**
+     * Normalizes a multi-row INSERT of SONG with as many rows as MultiRowInsert allows. It should be keyed by its first
+     * row and an ellipsis.
+     */
+    @Test
+    public void normalize_multiRowInsertAtRowCap_collapsesRows() {
+
+        final String sql = SONG_INSERT + String.join(", ", Collections.nCopies(MAX_SONG_ROWS, SONG_ROW));
+
+        Assert.assertEquals(SONG_INSERT + SONG_ROW + ", ...", StatementStats.normalize(sql));
+        Assert.assertEquals(SONG_INSERT + SONG_ROW + ", ...", StatementStats.normalize(sql));
+    }
+
+    /**
+     * Normalizes an INSERT of a single row. It should be left alone.
+     */
+    @Test
+    public void normalize_singleRow_unchanged() {
+
+        Assert.assertEquals(SONG_INSERT + SONG_ROW, StatementStats.normalize(SONG_INSERT + SONG_ROW));
+    }
+
+    /**
+     * Normalizes queries with IN lists of different sizes and spacing, and in lower case. Each list should be
+     * collapsed to one parameter and an ellipsis, while words that only end with IN are left alone.
+     */
+    @Test
+    public void normalize_inLists_collapsed() {
+
+        Assert.assertEquals("SELECT * FROM CORE.CT_ALBUM WHERE GTIN_14 IN (?, ...) AND INDEX_ID IN (?, ...)",
+                StatementStats.normalize("SELECT * FROM CORE.CT_ALBUM WHERE GTIN_14 IN (?) AND INDEX_ID in ( ? ,?,  ? )"));
+        Assert.assertEquals("SELECT * FROM T JOIN (?, ?) X", StatementStats.normalize("SELECT * FROM T JOIN (?, ?) X"));
+    }
+
+    /**
+     * Normalizes a null statement. It should be keyed as unknown.
+     */
+    @Test
+    public void normalize_null_unknown() {
+
+        Assert.assertEquals("<unknown>", StatementStats.normalize(null));
+    }
+}
@@ -0,0 +1,191 @@
+package dev.codestijl.integrationdemo.generator;
+
+import dev.codestijl.integrationdemo.entity.Album;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests CatalogGenerator.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class CatalogGeneratorTest {
+
+    private static final int ALBUMS = 10_000;
+    private static final int GTIN_14_LENGTH = 14;
+    private static final int MAX_NAME_LENGTH = 100;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * Generates a catalog with the default settings. It should read back as Albums, one per line, with the counts
+     * the stats report and the songs per album and name lengths of the defaults.
+     *
+     * @throws IOException If the catalog can't be generated or read.
+     */
+    @Test
+    public void generate_defaultSpec_readsBackAsAlbums() throws IOException {
+
+        final CatalogSpec spec = CatalogSpec.builder().setAlbums(ALBUMS).setInvalidRate(0).build();
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        final CatalogStats stats = new CatalogGenerator(spec).generate(outputStream);
+        final List<Album> albums = readAlbums(outputStream);
+
+        Assert.assertEquals(ALBUMS, stats.getAlbums());
+        Assert.assertEquals(ALBUMS, albums.size());
+        Assert.assertEquals(stats.getSongs(), albums.stream().mapToLong(album -> album.getSongs().size()).sum());
+        Assert.assertEquals(ALBUMS + 2, outputStream.toString(StandardCharsets.UTF_8).split("\n").length);
+
+        for (final Album album : albums) {
+            Assert.assertTrue(album.getSongs().size() >= spec.getMinSongs() && album.getSongs().size() <= spec.getMaxSongs());
+            Assert.assertTrue(album.getAlbumName().length() >= 1 && album.getAlbumName().length() <= MAX_NAME_LENGTH);
+            Assert.assertFalse(album.getAlbumName().isBlank());
+            Assert.assertTrue(album.getGtin14().matches("\\d{14}"));
+        }
+
+        // Without duplicates, every GTIN-14 is different.
+        Assert.assertEquals(ALBUMS, gtins(albums).size());
+    }
+
+    /**
+     * Generates the same spec twice, and then with a different seed. The same seed should write the same bytes, and
+     * a different one should not.
+     *
+     * @throws IOException If the catalog can't be generated.
+     */
+    @Test
+    public void generate_sameSeed_writesSameBytes() throws IOException {
+
+        final CatalogSpec.Builder builder = CatalogSpec.builder().setAlbums(1_000).setDuplicateWithinBatchRate(0.1);
+
+        final byte[] first = generate(builder.build());
+        final byte[] second = generate(builder.build());
+        final byte[] otherSeed = generate(builder.setSeed(2).build());
+
+        Assert.assertArrayEquals(first, second);
+        Assert.assertFalse(java.util.Arrays.equals(first, otherSeed));
+    }
+
+    /**
+     * Generates a batch with GTIN-14s duplicated within it. The number of distinct GTIN-14s should be short by
+     * exactly the duplicates the stats report, and they should be close to the rate.
+     *
+     * @throws IOException If the catalog can't be generated or read.
+     */
+    @Test
+    public void generate_duplicatesWithinBatch_repeatsGtins() throws IOException {
+
+        final CatalogSpec spec = CatalogSpec.builder().setAlbums(ALBUMS).setInvalidRate(0).setDuplicateWithinBatchRate(0.1).build();
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        final CatalogStats stats = new CatalogGenerator(spec).generate(outputStream);
+        final Set<String> gtins = gtins(readAlbums(outputStream));
+
+        Assert.assertEquals(ALBUMS - stats.getDuplicatesWithinBatch(), gtins.size());
+        Assert.assertTrue(stats.getDuplicatesWithinBatch() > 800 && stats.getDuplicatesWithinBatch() < 1_200);
+    }
+
+    /**
+     * Generates two batches from the same seed, with the second one repeating GTIN-14s from the first. The GTIN-14s
+     * the batches have in common should be exactly the duplicates the stats report.
+     *
+     * @throws IOException If the catalogs can't be generated or read.
+     */
+    @Test
+    public void generate_duplicatesAcrossBatches_repeatsGtinsOfEarlierBatch() throws IOException {
+
+        final CatalogSpec.Builder builder = CatalogSpec.builder().setAlbums(ALBUMS).setInvalidRate(0).setDuplicateAcrossBatchRate(0.3);
+
+        final ByteArrayOutputStream firstBatch = new ByteArrayOutputStream();
+        final CatalogStats firstStats = new CatalogGenerator(builder.build()).generate(firstBatch);
+
+        final ByteArrayOutputStream secondBatch = new ByteArrayOutputStream();
+        final CatalogStats secondStats = new CatalogGenerator(builder.setBatch(1).build()).generate(secondBatch);
+
+        final Set<String> firstGtins = gtins(readAlbums(firstBatch));
+        final List<Album> secondAlbums = readAlbums(secondBatch);
+
+        // The first batch has no earlier batch to repeat.
+        Assert.assertEquals(0, firstStats.getDuplicatesAcrossBatches());
+        Assert.assertEquals(secondStats.getDuplicatesAcrossBatches(),
+                secondAlbums.stream().filter(album -> firstGtins.contains(album.getGtin14())).count());
+        Assert.assertTrue(secondStats.getDuplicatesAcrossBatches() > 2_700 && secondStats.getDuplicatesAcrossBatches() < 3_300);
+    }
+
+    /**
+     * Generates a catalog where every album is invalid. Each album should break exactly one rule, and the counts of
+     * each kind should match the stats.
+     *
+     * @throws IOException If the catalog can't be generated or read.
+     */
+    @Test
+    public void generate_allInvalid_breaksOneRulePerAlbum() throws IOException {
+
+        final CatalogSpec spec = CatalogSpec.builder().setAlbums(ALBUMS).setInvalidRate(1).build();
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        final CatalogStats stats = new CatalogGenerator(spec).generate(outputStream);
+        final List<Album> albums = readAlbums(outputStream);
+
+        final long badGtins = albums.stream().filter(album -> album.getGtin14().length() != GTIN_14_LENGTH).count();
+        final long longAlbumNames = albums.stream().filter(album -> album.getAlbumName().length() > MAX_NAME_LENGTH).count();
+        final long longArtistNames = albums.stream().filter(album -> album.getArtist().length() > MAX_NAME_LENGTH).count();
+
+        Assert.assertEquals(ALBUMS, stats.getInvalid());
+        Assert.assertEquals(ALBUMS, badGtins + longAlbumNames + longArtistNames);
+        Assert.assertEquals(stats.getInvalidGtins(), badGtins);
+        Assert.assertEquals(stats.getInvalidAlbumNames(), longAlbumNames);
+        Assert.assertEquals(stats.getInvalidArtistNames(), longArtistNames);
+    }
+
+    /**
+     * Generates a catalog with no albums. It should be an empty JSON array.
+     *
+     * @throws IOException If the catalog can't be generated.
+     */
+    @Test
+    public void generate_noAlbums_writesEmptyArray() throws IOException {
+
+        Assert.assertEquals("[]", new String(generate(CatalogSpec.builder().setAlbums(0).build()), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Builds a spec with duplicate rates that add up to more than 1. The build should fail.
+     */
+    @Test
+    public void build_duplicateRatesOverOne_throwsException() {
+
+        final CatalogSpec.Builder builder = CatalogSpec.builder().setDuplicateWithinBatchRate(0.6).setDuplicateAcrossBatchRate(0.6);
+
+        Assert.assertThrows(IllegalArgumentException.class, builder::build);
+    }
+
+    private static byte[] generate(final CatalogSpec spec) throws IOException {
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new CatalogGenerator(spec).generate(outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private static List<Album> readAlbums(final ByteArrayOutputStream outputStream) throws IOException {
+
+        return OBJECT_MAPPER.readerFor(Album.class).<Album>readValues(outputStream.toByteArray()).readAll();
+    }
+
+    private static Set<String> gtins(final List<Album> albums) {
+
+        return albums.stream().map(Album::getGtin14).collect(Collectors.toCollection(HashSet::new));
+    }
+}
@@ -0,0 +1,75 @@
+package dev.codestijl.integrationdemo.generator;
+
+import java.util.SplittableRandom;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests LengthDistribution.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class LengthDistributionTest {
+
+    private static final int SAMPLES = 10_000;
+
+    /**
+     * Parses a uniform distribution and draws from it. Every length should be in range, and both ends should come
+     * up.
+     */
+    @Test
+    public void parse_uniform_drawsFromMinToMax() {
+
+        final LengthDistribution lengthDistribution = LengthDistribution.parse("uniform:5:10");
+        final SplittableRandom random = new SplittableRandom(1);
+
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            final int length = lengthDistribution.next(random);
+            min = Math.min(min, length);
+            max = Math.max(max, length);
+        }
+
+        Assert.assertEquals(5, min);
+        Assert.assertEquals(10, max);
+        Assert.assertEquals("uniform:5:10", lengthDistribution.toString());
+    }
+
+    /**
+     * Parses a normal distribution and draws from it. The lengths should be clamped to the min and max and average
+     * close to the mean.
+     */
+    @Test
+    public void parse_normal_drawsAroundMean() {
+
+        final LengthDistribution lengthDistribution = LengthDistribution.parse("normal:50:30:20:100");
+        final SplittableRandom random = new SplittableRandom(1);
+
+        long total = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            final int length = lengthDistribution.next(random);
+            Assert.assertTrue(length >= 20 && length <= 100);
+            total += length;
+        }
+
+        // Clamping the short lengths to 20 pulls the mean up a little.
+        final double mean = (double) total / SAMPLES;
+        Assert.assertTrue(mean > 50 && mean < 56);
+        Assert.assertEquals(lengthDistribution.toString(), LengthDistribution.parse(lengthDistribution.toString()).toString());
+    }
+
+    /**
+     * Parses strings that aren't distributions. Each should fail.
+     */
+    @Test
+    public void parse_notADistribution_throwsException() {
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> LengthDistribution.parse("uniform:5"));
+        Assert.assertThrows(IllegalArgumentException.class, () -> LengthDistribution.parse("poisson:5:10"));
+        Assert.assertThrows(IllegalArgumentException.class, () -> LengthDistribution.parse("uniform:10:5"));
+        Assert.assertThrows(IllegalArgumentException.class, () -> LengthDistribution.parse("uniform:1:5000"));
+    }
+}
@@ -0,0 +1,80 @@
+package dev.codestijl.integrationdemo.jfr;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+
+/**
+ * Tests JfrChunkListener.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class JfrChunkListenerTest {
+
+    /**
+     * Runs a chunk while recording. The recording should have a ChunkEvent with the items of the chunk only.
+     *
+     * @param directory A temporary directory for the recording.
+     * @throws IOException If the recording can't be written or read.
+     */
+    @Test
+    public void afterChunk_recording_recordsChunkItems(@TempDir final Path directory) throws IOException {
+
+        final JfrChunkListener listener = new JfrChunkListener();
+        final StepExecution stepExecution = new StepExecution("LOAD-ALBUM", new JobExecution(1L), 1L);
+        final ChunkContext chunkContext = new ChunkContext(new StepContext(stepExecution));
+        final Path file = directory.resolve("chunk.jfr");
+
+        stepExecution.setReadCount(100);
+        stepExecution.setWriteCount(100);
+
+        try (Recording recording = new Recording()) {
+
+            recording.enable(ChunkEvent.NAME);
+            recording.start();
+
+            listener.beforeChunk(chunkContext);
+            stepExecution.setReadCount(150);
+            stepExecution.setWriteCount(148);
+            stepExecution.setFilterCount(2);
+            listener.afterChunk(chunkContext);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        final List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Assert.assertEquals(1, events.size());
+        Assert.assertEquals("LOAD-ALBUM", events.get(0).getString("step"));
+        Assert.assertEquals(50, events.get(0).getInt("itemsRead"));
+        Assert.assertEquals(48, events.get(0).getInt("itemsWritten"));
+        Assert.assertEquals(2, events.get(0).getInt("itemsFiltered"));
+        Assert.assertFalse(events.get(0).getBoolean("failed"));
+    }
+
+    /**
+     * Runs a chunk without recording. Nothing should be left on the chunk.
+     */
+    @Test
+    public void beforeChunk_notRecording_keepsNothing() {
+
+        final JfrChunkListener listener = new JfrChunkListener();
+        final ChunkContext chunkContext = new ChunkContext(new StepContext(new StepExecution("LOAD-ALBUM", new JobExecution(1L), 1L)));
+
+        listener.beforeChunk(chunkContext);
+
+        Assert.assertEquals(0, chunkContext.attributeNames().length);
+    }
+}
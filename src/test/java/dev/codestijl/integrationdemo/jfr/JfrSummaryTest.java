@@ -0,0 +1,63 @@
+package dev.codestijl.integrationdemo.jfr;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import jdk.jfr.Recording;
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests JfrSummary.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class JfrSummaryTest {
+
+    private static final String SQL = "UPDATE STAGE.ALBUM SET STATUS_CD = ? WHERE ALBUM_ID = ?";
+
+    /**
+     * Summarizes a recording with events from two partitions of a step. They should be reported together under the
+     * step.
+     *
+     * @param directory A temporary directory for the recording.
+     * @throws IOException If the recording can't be written or read.
+     */
+    @Test
+    public void summarize_partitions_reportedUnderStep(@TempDir final Path directory) throws IOException {
+
+        final Path file = directory.resolve("job.jfr");
+
+        try (Recording recording = new Recording()) {
+
+            recording.enable(ChunkEvent.NAME);
+            recording.enable(StatementEvent.NAME);
+            recording.enable(ValidationFailureEvent.NAME);
+            recording.start();
+
+            recordPartition("LOAD-CORE-WORKER:partition0");
+            recordPartition("LOAD-CORE-WORKER:partition1");
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        final String report = JfrSummary.summarize(file, 5);
+
+        Assert.assertTrue(report.contains("Step LOAD-CORE-WORKER"));
+        Assert.assertFalse(report.contains("partition"));
+        Assert.assertTrue(report.contains("Chunks: 2 (0 failed)"));
+        Assert.assertTrue(report.contains("20 items read, 18 written"));
+        Assert.assertTrue(report.contains("Validation failures: 2"));
+        Assert.assertTrue(report.contains(SQL));
+    }
+
+    private static void recordPartition(final String step) {
+
+        new ChunkEvent().setStep(step).setItemsRead(10).setItemsWritten(9).commit();
+        new StatementEvent().setStep(step).setSql(SQL).setRows(9).setBatchSize(9).commit();
+        new ValidationFailureEvent().setStep(step).setErrors("Album name is required.").commit();
+    }
+}
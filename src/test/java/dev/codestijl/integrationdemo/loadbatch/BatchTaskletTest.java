@@ -1,10 +1,20 @@
 package dev.codestijl.integrationdemo.loadbatch;
 
+import dev.codestijl.integrationdemo.common.PayloadCodec;
+import dev.codestijl.integrationdemo.entity.Album;
+import dev.codestijl.integrationdemo.loadalbum.ClobAlbumReader;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.UUID;
 import javax.sql.DataSource;
 
 import org.junit.Assert;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mockito;
+import org.springframework.batch.core.JobExecution;
 import org.springframework.batch.core.StepContribution;
 import org.springframework.batch.core.StepExecution;
 import org.springframework.batch.core.scope.context.ChunkContext;
@@ -20,8 +30,8 @@ import org.springframework.jdbc.core.JdbcTemplate;
  * @since 1.0.0
  */
 @SpringBootTest
-// execute's signature is throws Exception.
-@SuppressWarnings("PMD.AvoidCatchingGenericException")
+// execute's signature is throws Exception. The map of a row is only used by one thread.
+@SuppressWarnings({"PMD.AvoidCatchingGenericException", "PMD.SignatureDeclareThrowsException", "PMD.UseConcurrentHashMap"})
 public class BatchTaskletTest {
 
     @Autowired
@@ -34,7 +44,7 @@ public class BatchTaskletTest {
     @Test
     public void execute_loadsData() {
 
-        final BatchTasklet batchTasklet = new BatchTasklet(this.dataSource, "/clob-load-test.txt", "5558880003a");
+        final BatchTasklet batchTasklet = new BatchTasklet(this.dataSource, "/clob-load-test.txt", batchId("5558880003a"));
 
         final StepExecution mockStepExecution = Mockito.mock(StepExecution.class);
         final StepContribution stepContribution = new StepContribution(mockStepExecution);
@@ -50,7 +60,8 @@ public class BatchTaskletTest {
 
         final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSource);
 
-        final String savedValue = jdbcTemplate.queryForObject("SELECT PAYLOAD FROM STAGE.BATCH WHERE BATCH_ID = '5558880003a'", String.class);
+        final String savedValue = jdbcTemplate.queryForObject(
+                "SELECT PAYLOAD FROM STAGE.BATCH WHERE BATCH_ID = '00000000-0000-0000-0000-05558880003a'", String.class);
         Assert.assertEquals("TEST FILE.", savedValue);
     }
 
@@ -60,7 +71,7 @@ public class BatchTaskletTest {
     @Test
     public void execute_loadsLargeFile() {
 
-        final BatchTasklet batchTasklet = new BatchTasklet(this.dataSource, "/large-file.json", "5558880003b");
+        final BatchTasklet batchTasklet = new BatchTasklet(this.dataSource, "/large-file.json", batchId("5558880003b"));
 
         final StepExecution mockStepExecution = Mockito.mock(StepExecution.class);
         final StepContribution stepContribution = new StepContribution(mockStepExecution);
@@ -74,4 +85,75 @@ public class BatchTaskletTest {
             Assert.fail(e.getLocalizedMessage());
         }
     }
+
+    /**
+     * Calls execute with a file on the filesystem. The file should be loaded into the CLOB, and the bytes loaded
+     * and the rate they were loaded at should be saved with the step.
+     *
+     * @param directory A temporary directory to write the file in.
+     * @throws Exception If the file can't be written or the tasklet fails.
+     */
+    @Test
+    public void execute_fileOnFileSystem_loadsDataAndReportsRate(@TempDir final Path directory) throws Exception {
+
+        final Path path = Files.writeString(directory.resolve("batch.json"), "[{\"albumName\":\"Homögenic\"}]");
+        final BatchTasklet batchTasklet = new BatchTasklet(this.dataSource, BatchTasklet.FILE_PREFIX + path, batchId("5558880003c"));
+
+        final StepExecution stepExecution = new StepExecution("LOAD-BATCH", new JobExecution(1L));
+        final StepContribution stepContribution = new StepContribution(stepExecution);
+
+        Assert.assertEquals(RepeatStatus.FINISHED, batchTasklet.execute(stepContribution, Mockito.mock(ChunkContext.class)));
+        Assert.assertEquals(1, stepContribution.getWriteCount());
+        Assert.assertEquals(Files.size(path), stepExecution.getExecutionContext().getLong(BatchTasklet.BYTES_LOADED_KEY));
+        Assert.assertTrue(stepExecution.getExecutionContext().getLong(BatchTasklet.BYTES_PER_SECOND_KEY) > 0);
+
+        final String savedValue = new JdbcTemplate(this.dataSource)
+                .queryForObject("SELECT PAYLOAD FROM STAGE.BATCH WHERE BATCH_ID = '00000000-0000-0000-0000-05558880003c'", String.class);
+        Assert.assertEquals(Files.readString(path), savedValue);
+    }
+
+    /**
+     * Loads the large file twice, once compressed with DEFLATE. The compressed batch should be stored in the
+     * compressed column with its codec, be much smaller, and read back as the same Albums.
+     *
+     * @throws Exception If the tasklet or the reader fails.
+     */
+    @Test
+    public void execute_deflate_storesCompressedPayload() throws Exception {
+
+        final ChunkContext chunkContext = Mockito.mock(ChunkContext.class);
+        new BatchTasklet(this.dataSource, "/large-file.json", batchId("5558880003d"))
+                .execute(new StepContribution(Mockito.mock(StepExecution.class)), chunkContext);
+        new BatchTasklet(this.dataSource, "/large-file.json", batchId("5558880003e"), PayloadCodec.DEFLATE)
+                .execute(new StepContribution(Mockito.mock(StepExecution.class)), chunkContext);
+
+        final Map<String, Object> batch = new JdbcTemplate(this.dataSource).queryForMap(
+                "SELECT PAYLOAD, PAYLOAD_CODEC, LENGTH(PAYLOAD_COMPRESSED) AS COMPRESSED_SIZE FROM STAGE.BATCH WHERE BATCH_ID = ?",
+                "00000000-0000-0000-0000-05558880003e");
+        Assert.assertNull(batch.get("PAYLOAD"));
+        Assert.assertEquals(PayloadCodec.DEFLATE.name(), batch.get("PAYLOAD_CODEC"));
+        Assert.assertTrue(((Number) batch.get("COMPRESSED_SIZE")).longValue() * 2 < 881_021);
+
+        Assert.assertEquals(this.readGtins(batchId("5558880003d")), this.readGtins(batchId("5558880003e")));
+    }
+
+    // The batch IDs in these tests only differ in their last few digits.
+    private static UUID batchId(final String suffix) {
+
+        return UUID.fromString("00000000-0000-0000-0000-0" + suffix);
+    }
+
+    private String readGtins(final UUID batchId) throws Exception {
+
+        final ClobAlbumReader clobAlbumReader = new ClobAlbumReader(this.dataSource, batchId);
+        clobAlbumReader.beforeStep(Mockito.mock(StepExecution.class));
+
+        final StringBuilder gtins = new StringBuilder();
+        for (Album album = clobAlbumReader.read(); album != null; album = clobAlbumReader.read()) {
+            gtins.append(album.getGtin14()).append(',');
+        }
+
+        clobAlbumReader.afterStep(Mockito.mock(StepExecution.class));
+        return gtins.toString();
+    }
 }
@@ -0,0 +1,83 @@
+package dev.codestijl.integrationdemo.loadbatch;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests MappedFileReader.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class MappedFileReaderTest {
+
+    /**
+     * Reads a file of multi-byte characters through windows so small that characters are split between them. The
+     * text read should be the same as the text written, and every byte should be counted.
+     *
+     * @param directory A temporary directory to write the file in.
+     * @throws IOException If the file can't be written or read.
+     */
+    @Test
+    public void read_charsSplitAcrossWindows_returnsSameText(@TempDir final Path directory) throws IOException {
+
+        final String text = "{\"albumName\":\"Björk – Homögenic 🎵\"}\n".repeat(50);
+        final Path path = Files.writeString(directory.resolve("albums.json"), text, StandardCharsets.UTF_8);
+
+        final StringWriter read = new StringWriter();
+        try (MappedFileReader mappedFileReader = new MappedFileReader(path, StandardCharsets.UTF_8, 17)) {
+
+            mappedFileReader.transferTo(read);
+
+            Assert.assertEquals(Files.size(path), mappedFileReader.getSize());
+            Assert.assertEquals(Files.size(path), mappedFileReader.getBytesRead());
+        }
+
+        Assert.assertEquals(text, read.toString());
+    }
+
+    /**
+     * Reads an empty file. It should be at its end straight away.
+     *
+     * @param directory A temporary directory to write the file in.
+     * @throws IOException If the file can't be written or read.
+     */
+    @Test
+    public void read_emptyFile_returnsEndOfFile(@TempDir final Path directory) throws IOException {
+
+        final Path path = Files.createFile(directory.resolve("empty.json"));
+
+        try (MappedFileReader mappedFileReader = new MappedFileReader(path, StandardCharsets.UTF_8, 17)) {
+            Assert.assertEquals(-1, mappedFileReader.read());
+        }
+    }
+
+    /**
+     * Reads a character that takes a surrogate pair one char at a time. Both chars of the pair should be returned.
+     *
+     * @param directory A temporary directory to write the file in.
+     * @throws IOException If the file can't be written or read.
+     */
+    @Test
+    public void read_oneCharAtATime_returnsSurrogatePair(@TempDir final Path directory) throws IOException {
+
+        final String text = "a🎵b";
+        final Path path = Files.writeString(directory.resolve("note.json"), text, StandardCharsets.UTF_8);
+
+        final StringBuilder read = new StringBuilder();
+        try (MappedFileReader mappedFileReader = new MappedFileReader(path, StandardCharsets.UTF_8, 16)) {
+            for (int current = mappedFileReader.read(); current != -1; current = mappedFileReader.read()) {
+                read.append((char) current);
+            }
+        }
+
+        Assert.assertEquals(text, read.toString());
+    }
+}
@@ -0,0 +1,149 @@
+package dev.codestijl.integrationdemo.loadcore;
+
+import dev.codestijl.integrationdemo.entity.Album;
+import dev.codestijl.integrationdemo.entity.Song;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+/**
+ * Tests AlbumHandoff.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class AlbumHandoffTest {
+
+    private static final String PRODUCER = "LOAD-ALBUM-PIPELINED";
+    private static final int PARTITIONS = 3;
+    private static final int ALBUM_COUNT = 60;
+
+    /**
+     * Publishes a chunk of albums with songs and takes them from every partition. Each partition should get only the
+     * albums with GTIN-14s that hash to it, in the order they were published, without their songs.
+     */
+    @Test
+    public void publish_albums_routedByGtinInOrder() throws InterruptedException {
+
+        final AlbumHandoff albumHandoff = new AlbumHandoff(Mockito.mock(JobRepository.class), PRODUCER, PARTITIONS, 4);
+        final List<Album> albums = albums(ALBUM_COUNT);
+
+        albumHandoff.publish(albums);
+        albumHandoff.finish(BatchStatus.COMPLETED);
+
+        for (int partition = 0; partition < PARTITIONS; partition++) {
+
+            final int expectedPartition = partition;
+            final List<String> expected = albums.stream()
+                    .map(Album::getGtin14)
+                    .filter(gtin14 -> albumHandoff.partitionOf(gtin14) == expectedPartition)
+                    .collect(Collectors.toList());
+
+            final List<Album> taken = albumHandoff.take(partition);
+            Assert.assertEquals(expected, taken.stream().map(Album::getGtin14).collect(Collectors.toList()));
+            Assert.assertTrue(taken.stream().allMatch(album -> album.getSongs().isEmpty()));
+            Assert.assertNull(albumHandoff.take(partition));
+        }
+    }
+
+    /**
+     * Takes from a partition while LOAD-ALBUM is still running on another thread. It should wait for each chunk, and
+     * return null only once LOAD-ALBUM has finished and every chunk has been taken.
+     */
+    @Test
+    public void take_whileProducing_returnsEveryChunkThenNull() throws InterruptedException, ExecutionException {
+
+        final AlbumHandoff albumHandoff = new AlbumHandoff(Mockito.mock(JobRepository.class), PRODUCER, 1, 1);
+        final List<Album> albums = albums(ALBUM_COUNT);
+
+        final Future<?> producer = new SimpleAsyncTaskExecutor().submit(() -> {
+            for (final Album album : albums) {
+                albumHandoff.publish(List.of(album));
+            }
+            albumHandoff.finish(BatchStatus.COMPLETED);
+            return null;
+        });
+
+        final List<Album> taken = new ArrayList<>();
+        List<Album> chunk = albumHandoff.take(0);
+        while (chunk != null) {
+            taken.addAll(chunk);
+            chunk = albumHandoff.take(0);
+        }
+        producer.get();
+
+        Assert.assertEquals(albums.stream().map(Album::getGtin14).collect(Collectors.toList()),
+                taken.stream().map(Album::getGtin14).collect(Collectors.toList()));
+    }
+
+    /**
+     * Publishes more chunks than a partition's queue holds after the partition has stopped. It should drop them all
+     * rather than wait for a partition that will never take them.
+     */
+    @Test
+    public void publish_stoppedPartition_doesNotWait() throws InterruptedException {
+
+        final AlbumHandoff albumHandoff = new AlbumHandoff(Mockito.mock(JobRepository.class), PRODUCER, 1, 1);
+        albumHandoff.stop(0);
+
+        for (final Album album : albums(ALBUM_COUNT)) {
+            albumHandoff.publish(List.of(album));
+        }
+        albumHandoff.finish(BatchStatus.COMPLETED);
+
+        Assert.assertNull(albumHandoff.take(0));
+    }
+
+    /**
+     * Starts a job that is restarted after LOAD-ALBUM completed, and then one that runs LOAD-ALBUM. The first should
+     * start out finished and the second should start out waiting for LOAD-ALBUM, with nothing left from before.
+     */
+    @Test
+    public void beforeJob_producerCompletedBefore_startsFinished() throws InterruptedException {
+
+        final JobInstance jobInstance = new JobInstance(1L, "LOAD");
+        final StepExecution producerExecution = new StepExecution(PRODUCER, new JobExecution(jobInstance, 1L, new JobParameters(), null));
+        producerExecution.setStatus(BatchStatus.COMPLETED);
+
+        final JobRepository jobRepository = Mockito.mock(JobRepository.class);
+        Mockito.when(jobRepository.getLastStepExecution(ArgumentMatchers.eq(jobInstance), ArgumentMatchers.eq(PRODUCER)))
+                .thenReturn(producerExecution);
+
+        final AlbumHandoff albumHandoff = new AlbumHandoff(jobRepository, PRODUCER, 1, 4);
+        albumHandoff.publish(albums(1));
+
+        albumHandoff.beforeJob(new JobExecution(jobInstance, 2L, new JobParameters(), null));
+        Assert.assertEquals(BatchStatus.COMPLETED, albumHandoff.getProducerStatus());
+        Assert.assertNull(albumHandoff.take(0));
+
+        albumHandoff.beforeJob(new JobExecution(new JobInstance(2L, "LOAD"), 3L, new JobParameters(), null));
+        Assert.assertNull(albumHandoff.getProducerStatus());
+    }
+
+    private static List<Album> albums(final int count) {
+
+        return IntStream.range(0, count)
+                .mapToObj(i -> {
+                    final Album album = new Album().setGtin14(String.format("%014d", i)).setAlbumName("Album " + i);
+                    album.getSongs().add(new Song().setSongName("Song " + i));
+                    return album;
+                })
+                .collect(Collectors.toList());
+    }
+}
@@ -1,17 +1,25 @@
 package dev.codestijl.integrationdemo.loadcore;
 
+import dev.codestijl.integrationdemo.common.BoundedCache;
+import dev.codestijl.integrationdemo.common.IdUtils;
+import dev.codestijl.integrationdemo.dao.CoreAlbumDao;
 import dev.codestijl.integrationdemo.entity.Album;
+import dev.codestijl.integrationdemo.entity.CoreAlbum;
 import dev.codestijl.integrationdemo.entity.Status;
 
+import java.util.List;
+import java.util.UUID;
 import javax.sql.DataSource;
 
 import org.junit.Assert;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.batch.core.JobExecution;
 import org.springframework.batch.core.StepExecution;
 import org.springframework.batch.core.scope.context.ChunkContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 /**
  * Tests AlbumToCoreProcessor.
@@ -23,6 +31,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 @SpringBootTest
 public class AlbumToCoreProcessorTest {
 
+    private static final String STEP_NAME = "LOAD-CORE-WORKER";
+
     @Autowired
     private DataSource dataSource;
 
@@ -36,14 +46,14 @@ public class AlbumToCoreProcessorTest {
 
         final AlbumToCoreProcessor albumToCoreProcessor = new AlbumToCoreProcessor(this.dataSource);
 
-        final Album testAlbum = new Album().setAlbumId("23432343223")
+        final Album testAlbum = new Album().setAlbumId(IdUtils.newId())
                 .setAlbumName("album one")
                 .setArtist("artist one")
-                .setBatchId("23423423423")
+                .setBatchId(IdUtils.newId())
                 .setGtin14("99203927593820")
                 .setStatus(Status.PENDING);
 
-        albumToCoreProcessor.beforeStep(Mockito.mock(StepExecution.class));
+        albumToCoreProcessor.beforeStep(new StepExecution(STEP_NAME, new JobExecution(1L)));
         albumToCoreProcessor.beforeChunk(Mockito.mock(ChunkContext.class));
 
         final CoreAlbumWrapper firstWrapper = albumToCoreProcessor.process(testAlbum);
@@ -56,5 +66,181 @@ public class AlbumToCoreProcessorTest {
         Assert.assertNotNull(secondWrapper);
         Assert.assertFalse(secondWrapper.isInsert());
         Assert.assertEquals(testAlbum.getAlbumName(), secondWrapper.getCoreAlbum().getAlbumName());
+
+        // The update has to be to the album that will be inserted.
+        Assert.assertEquals(firstWrapper.getCoreAlbum().getAlbumId(), secondWrapper.getCoreAlbum().getAlbumId());
+        Assert.assertEquals("album one", firstWrapper.getCoreAlbum().getAlbumName());
+    }
+
+    /**
+     * Writes an album through the CoreAlbumWriter and then processes an album with the same GTIN. The
+     * album should be found in the cache the writer wrote to and marked for update.
+     */
+    @Test
+    public void process_albumInCache_returnsUpdate() {
+
+        final BoundedCache<String, CoreAlbum> cache = new BoundedCache<>(10, 60);
+        final AlbumToCoreProcessor albumToCoreProcessor = new AlbumToCoreProcessor(this.dataSource, LookupMode.CHUNK, cache);
+        final CoreAlbumWriter coreAlbumWriter = new CoreAlbumWriter(this.dataSource, cache);
+
+        final Album testAlbum = new Album().setAlbumId(IdUtils.newId())
+                .setAlbumName("album four")
+                .setArtist("artist four")
+                .setBatchId(IdUtils.newId())
+                .setGtin14("99100000000004")
+                .setStatus(Status.PENDING);
+
+        albumToCoreProcessor.beforeStep(new StepExecution(STEP_NAME, new JobExecution(1L)));
+        albumToCoreProcessor.beforeChunk(Mockito.mock(ChunkContext.class));
+        coreAlbumWriter.beforeChunk(Mockito.mock(ChunkContext.class));
+        albumToCoreProcessor.afterRead(testAlbum);
+
+        final CoreAlbumWrapper firstWrapper = albumToCoreProcessor.process(testAlbum);
+        coreAlbumWriter.write(List.of(firstWrapper));
+        Assert.assertEquals(0, cache.size());
+        coreAlbumWriter.afterChunk(Mockito.mock(ChunkContext.class));
+        Assert.assertEquals(1, cache.size());
+
+        albumToCoreProcessor.beforeChunk(Mockito.mock(ChunkContext.class));
+        albumToCoreProcessor.afterRead(testAlbum);
+
+        final CoreAlbumWrapper secondWrapper = albumToCoreProcessor.process(testAlbum);
+        Assert.assertFalse(secondWrapper.isInsert());
+        Assert.assertEquals(firstWrapper.getCoreAlbum().getAlbumId(), secondWrapper.getCoreAlbum().getAlbumId());
+        Assert.assertEquals(1, cache.getStatistics().getHits());
+    }
+
+    /**
+     * Reads two albums in CHUNK lookup mode, one that is already in the core DB and one that is not. The
+     * existing album should be marked for update with its existing ID and the new one should be marked
+     * for insert.
+     */
+    @Test
+    public void process_chunkLookup_findsExistingAlbums() {
+
+        final UUID existingId = IdUtils.newId();
+        new CoreAlbumDao(new JdbcTemplate(this.dataSource)).insert(new CoreAlbum().setAlbumId(existingId)
+                .setGtin14("99100000000001")
+                .setAlbumName("existing album")
+                .setArtistName("existing artist")
+                .setSourceAlbumId(IdUtils.newId()));
+
+        final AlbumToCoreProcessor albumToCoreProcessor = new AlbumToCoreProcessor(this.dataSource, LookupMode.CHUNK);
+
+        final Album existingAlbum = new Album().setAlbumId(IdUtils.newId())
+                .setAlbumName("album two")
+                .setArtist("artist two")
+                .setBatchId(IdUtils.newId())
+                .setGtin14("99100000000001")
+                .setStatus(Status.PENDING);
+        final Album newAlbum = new Album().setAlbumId(IdUtils.newId())
+                .setAlbumName("album three")
+                .setArtist("artist three")
+                .setBatchId(IdUtils.newId())
+                .setGtin14("99100000000002")
+                .setStatus(Status.PENDING);
+
+        albumToCoreProcessor.beforeStep(new StepExecution(STEP_NAME, new JobExecution(1L)));
+        albumToCoreProcessor.beforeChunk(Mockito.mock(ChunkContext.class));
+        albumToCoreProcessor.afterRead(existingAlbum);
+        albumToCoreProcessor.afterRead(newAlbum);
+
+        final CoreAlbumWrapper existingWrapper = albumToCoreProcessor.process(existingAlbum);
+        Assert.assertFalse(existingWrapper.isInsert());
+        Assert.assertEquals(existingId, existingWrapper.getCoreAlbum().getAlbumId());
+        Assert.assertEquals("album two", existingWrapper.getCoreAlbum().getAlbumName());
+
+        final CoreAlbumWrapper newWrapper = albumToCoreProcessor.process(newAlbum);
+        Assert.assertTrue(newWrapper.isInsert());
+    }
+
+    /**
+     * Reads two albums with the Bloom filter turned on, one that is already in the core DB and one that is
+     * not. The existing album should still be found, the lookup of the new album should be skipped, and the
+     * skip should be saved with the step.
+     */
+    @Test
+    public void process_bloomFilter_skipsLookupOfNewAlbum() {
+
+        final UUID existingId = IdUtils.newId();
+        new CoreAlbumDao(new JdbcTemplate(this.dataSource)).insert(new CoreAlbum().setAlbumId(existingId)
+                .setGtin14("99200000000001")
+                .setAlbumName("existing album")
+                .setArtistName("existing artist")
+                .setSourceAlbumId(IdUtils.newId()));
+
+        final AlbumToCoreProcessor albumToCoreProcessor = new AlbumToCoreProcessor(this.dataSource, LookupMode.CHUNK,
+                BoundedCache.disabled(), 0.0001);
+
+        final Album existingAlbum = new Album().setAlbumId(IdUtils.newId())
+                .setAlbumName("album five")
+                .setArtist("artist five")
+                .setBatchId(IdUtils.newId())
+                .setGtin14("99200000000001")
+                .setStatus(Status.PENDING);
+        final Album newAlbum = new Album().setAlbumId(IdUtils.newId())
+                .setAlbumName("album six")
+                .setArtist("artist six")
+                .setBatchId(IdUtils.newId())
+                .setGtin14("99200000000002")
+                .setStatus(Status.PENDING);
+
+        final StepExecution stepExecution = new StepExecution(STEP_NAME, new JobExecution(1L));
+
+        albumToCoreProcessor.beforeStep(stepExecution);
+        albumToCoreProcessor.beforeChunk(Mockito.mock(ChunkContext.class));
+        albumToCoreProcessor.afterRead(existingAlbum);
+        albumToCoreProcessor.afterRead(newAlbum);
+
+        final CoreAlbumWrapper existingWrapper = albumToCoreProcessor.process(existingAlbum);
+        Assert.assertFalse(existingWrapper.isInsert());
+        Assert.assertEquals(existingId, existingWrapper.getCoreAlbum().getAlbumId());
+
+        final CoreAlbumWrapper newWrapper = albumToCoreProcessor.process(newAlbum);
+        Assert.assertTrue(newWrapper.isInsert());
+
+        albumToCoreProcessor.afterStep(stepExecution);
+        Assert.assertEquals(1, stepExecution.getExecutionContext().getInt(AlbumToCoreProcessor.LOOKUPS_SKIPPED_KEY));
+        Assert.assertEquals(0, stepExecution.getExecutionContext().getDouble(AlbumToCoreProcessor.MEASURED_FP_RATE_KEY), 0);
+    }
+
+    /**
+     * Processes an album in UPSERT mode whose GTIN is already in the core DB. It should be marked for upsert
+     * without being looked up, and writing it should update the existing album.
+     */
+    @Test
+    public void process_upsert_updatesExistingAlbumWithoutLookup() {
+
+        final CoreAlbumDao coreAlbumDao = new CoreAlbumDao(new JdbcTemplate(this.dataSource));
+        final UUID existingId = IdUtils.newId();
+        coreAlbumDao.insert(new CoreAlbum().setAlbumId(existingId)
+                .setGtin14("99300000000001")
+                .setAlbumName("existing album")
+                .setArtistName("existing artist")
+                .setSourceAlbumId(IdUtils.newId()));
+
+        final AlbumToCoreProcessor albumToCoreProcessor = new AlbumToCoreProcessor(this.dataSource, LookupMode.UPSERT);
+        final CoreAlbumWriter coreAlbumWriter = new CoreAlbumWriter(this.dataSource);
+
+        final Album album = new Album().setAlbumId(IdUtils.newId())
+                .setAlbumName("album seven")
+                .setArtist("artist seven")
+                .setBatchId(IdUtils.newId())
+                .setGtin14("99300000000001")
+                .setStatus(Status.PENDING);
+
+        albumToCoreProcessor.beforeStep(new StepExecution(STEP_NAME, new JobExecution(1L)));
+        albumToCoreProcessor.beforeChunk(Mockito.mock(ChunkContext.class));
+        albumToCoreProcessor.afterRead(album);
+
+        final CoreAlbumWrapper wrapper = albumToCoreProcessor.process(album);
+        Assert.assertTrue(wrapper.isUpsert());
+        Assert.assertFalse(wrapper.isInsert());
+
+        coreAlbumWriter.write(List.of(wrapper));
+
+        final CoreAlbum written = coreAlbumDao.findByGtin14("99300000000001").orElseThrow();
+        Assert.assertEquals(existingId, written.getAlbumId());
+        Assert.assertEquals("album seven", written.getAlbumName());
     }
 }
@@ -1,6 +1,7 @@
 package dev.codestijl.integrationdemo.loadcore;
 
 import dev.codestijl.integrationdemo.common.CollectionUtils;
+import dev.codestijl.integrationdemo.common.IdUtils;
 import dev.codestijl.integrationdemo.common.ValidationException;
 import dev.codestijl.integrationdemo.entity.CoreAlbum;
 
@@ -15,8 +16,13 @@ import org.junit.jupiter.api.Test;
  * @author darren
  * @since 1.0.0
  */
+// There is a test for each rule, and each side of its limits.
+@SuppressWarnings("PMD.TooManyMethods")
 public class CoreAlbumValidatorTest {
 
+    // A character outside the BMP, which Java stores as two chars.
+    private static final String EMOJI = new String(Character.toChars(0x1F600));
+
     private final CoreAlbumValidator validator = new CoreAlbumValidator();
 
     /**
@@ -28,9 +34,9 @@ public class CoreAlbumValidatorTest {
 
         final CoreAlbum coreAlbum = new CoreAlbum()
                 .setAlbumName("album 1")
-                .setAlbumId("1235")
+                .setAlbumId(IdUtils.newId())
                 .setArtistName("artist 1")
-                .setSourceAlbumId("33657");
+                .setSourceAlbumId(IdUtils.newId());
 
         final ValidationException exception = Assert.assertThrows(ValidationException.class, () -> this.validator.validate(coreAlbum));
         Assert.assertTrue(exception.getErrors().stream().anyMatch(m -> Objects.equals(m, "GTIN-14 name is required.")));
@@ -45,10 +51,10 @@ public class CoreAlbumValidatorTest {
 
         final CoreAlbum coreAlbum = new CoreAlbum()
                 .setAlbumName("album 2")
-                .setAlbumId("56889")
+                .setAlbumId(IdUtils.newId())
                 .setArtistName("artist 2")
                 .setGtin14("12345")
-                .setSourceAlbumId("56987");
+                .setSourceAlbumId(IdUtils.newId());
 
         final ValidationException exception = Assert.assertThrows(ValidationException.class, () -> this.validator.validate(coreAlbum));
         Assert.assertTrue(exception.getErrors().stream().anyMatch(m -> Objects.equals(m, "GTIN-14 must be 14 characters long.")));
@@ -63,10 +69,10 @@ public class CoreAlbumValidatorTest {
 
         final CoreAlbum coreAlbum = new CoreAlbum()
                 .setAlbumName("album 3")
-                .setAlbumId("369874")
+                .setAlbumId(IdUtils.newId())
                 .setArtistName("artist 3")
                 .setGtin14("123456789012345")
-                .setSourceAlbumId("125478");
+                .setSourceAlbumId(IdUtils.newId());
 
         final ValidationException exception = Assert.assertThrows(ValidationException.class, () -> this.validator.validate(coreAlbum));
         Assert.assertTrue(exception.getErrors().stream().anyMatch(m -> Objects.equals(m, "GTIN-14 must be 14 characters long.")));
@@ -80,10 +86,10 @@ public class CoreAlbumValidatorTest {
     public void validate_noAlbumName_throwsException() {
 
         final CoreAlbum coreAlbum = new CoreAlbum()
-                .setAlbumId("78965442")
+                .setAlbumId(IdUtils.newId())
                 .setArtistName("artist 4")
                 .setGtin14("12345678901234")
-                .setSourceAlbumId("366547");
+                .setSourceAlbumId(IdUtils.newId());
 
         final ValidationException exception = Assert.assertThrows(ValidationException.class, () -> this.validator.validate(coreAlbum));
         Assert.assertTrue(exception.getErrors().stream().anyMatch(m -> Objects.equals(m, "Album name is required.")));
@@ -98,10 +104,49 @@ public class CoreAlbumValidatorTest {
 
         final CoreAlbum coreAlbum = new CoreAlbum()
                 .setAlbumName("dafdjoiejfkew0dafdkjadjklflkvdkjakjdfdaekljdkalijelkelksckjiciodkelskidoielksjnbviuoiesliewbgjkljseiu")
-                .setAlbumId("789512")
+                .setAlbumId(IdUtils.newId())
                 .setArtistName("artist 5")
                 .setGtin14("12345678901234")
-                .setSourceAlbumId("896145");
+                .setSourceAlbumId(IdUtils.newId());
+
+        final ValidationException exception = Assert.assertThrows(ValidationException.class, () -> this.validator.validate(coreAlbum));
+        Assert.assertTrue(exception.getErrors().stream().anyMatch(m -> Objects.equals(m, "Album name must be 100 characters or fewer.")));
+    }
+
+    /**
+     * Calls validate with an albumName of 100 emoji, each of which is two chars in Java but one character in the DB,
+     * and ensures it does not fail.
+     */
+    @Test
+    public void validate_supplementaryCharacterAlbumName_passes() {
+
+        final CoreAlbum coreAlbum = new CoreAlbum()
+                .setAlbumName(EMOJI.repeat(100))
+                .setAlbumId(IdUtils.newId())
+                .setArtistName("artist 5")
+                .setGtin14("31415926535897")
+                .setSourceAlbumId(IdUtils.newId());
+
+        try {
+            this.validator.validate(coreAlbum);
+        } catch (ValidationException e) {
+            Assert.fail(String.format("Failed validation: %s.", CollectionUtils.asString(e.getErrors())));
+        }
+    }
+
+    /**
+     * Calls validate with an albumName of 101 emoji and ensures the validation fails
+     * with the correct error message.
+     */
+    @Test
+    public void validate_longSupplementaryCharacterAlbumName_throwsException() {
+
+        final CoreAlbum coreAlbum = new CoreAlbum()
+                .setAlbumName(EMOJI.repeat(101))
+                .setAlbumId(IdUtils.newId())
+                .setArtistName("artist 5")
+                .setGtin14("27182818284590")
+                .setSourceAlbumId(IdUtils.newId());
 
         final ValidationException exception = Assert.assertThrows(ValidationException.class, () -> this.validator.validate(coreAlbum));
         Assert.assertTrue(exception.getErrors().stream().anyMatch(m -> Objects.equals(m, "Album name must be 100 characters or fewer.")));
@@ -116,9 +161,9 @@ public class CoreAlbumValidatorTest {
 
         final CoreAlbum coreAlbum = new CoreAlbum()
                 .setAlbumName("album 6")
-                .setAlbumId("561348")
+                .setAlbumId(IdUtils.newId())
                 .setGtin14("43210987654321")
-                .setSourceAlbumId("1457");
+                .setSourceAlbumId(IdUtils.newId());
 
         final ValidationException exception = Assert.assertThrows(ValidationException.class, () -> this.validator.validate(coreAlbum));
         Assert.assertTrue(exception.getErrors().stream().anyMatch(m -> Objects.equals(m, "Artist name is required.")));
@@ -133,10 +178,10 @@ public class CoreAlbumValidatorTest {
 
         final CoreAlbum coreAlbum = new CoreAlbum()
                 .setAlbumName("album 7")
-                .setAlbumId("457878")
+                .setAlbumId(IdUtils.newId())
                 .setArtistName("dfklanmveiowhhgacm;,vnaioewnfklamdlkasdhiohwvdm,a;kjdkjwklen.dsjklsjnds.,dmelkls,kdlsl.ke,d.slke.klss")
                 .setGtin14("78945862310456")
-                .setSourceAlbumId("36987");
+                .setSourceAlbumId(IdUtils.newId());
 
         final ValidationException exception = Assert.assertThrows(ValidationException.class, () -> this.validator.validate(coreAlbum));
         Assert.assertTrue(exception.getErrors().stream().anyMatch(m -> Objects.equals(m, "Artist name must be 100 characters or fewer.")));
@@ -151,7 +196,7 @@ public class CoreAlbumValidatorTest {
 
         final CoreAlbum coreAlbum = new CoreAlbum()
                 .setAlbumName("album 8")
-                .setAlbumId("12388")
+                .setAlbumId(IdUtils.newId())
                 .setArtistName("artist 8")
                 .setGtin14("98756213504598");
 
@@ -170,7 +215,7 @@ public class CoreAlbumValidatorTest {
                 .setAlbumName("album 9")
                 .setGtin14("89546512302589")
                 .setArtistName("artist 9")
-                .setSourceAlbumId("13323");
+                .setSourceAlbumId(IdUtils.newId());
 
         final ValidationException exception = Assert.assertThrows(ValidationException.class, () -> this.validator.validate(coreAlbum));
         Assert.assertTrue(exception.getErrors().stream().anyMatch(m -> Objects.equals(m, "Album ID is required.")));
@@ -187,8 +232,8 @@ public class CoreAlbumValidatorTest {
                 .setAlbumName("dsajkdkl;fjakljdfkajklvmndkljakldjsfkdjlskdlksjlkds.,dkljlskdklskljdfkvkjdlskwoinvskdjkjkdlkjvmlksje")
                 .setGtin14("56987453212569")
                 .setArtistName("a;dkjfak;djsfkajkl;mnvakljewnvkldjskladklsjfga;kdnvklamnkl;dfjakdjfkajsd;kfj;kldjflksdjflksdjlkjfljd")
-                .setAlbumId("13323")
-                .setSourceAlbumId("24554");
+                .setAlbumId(IdUtils.newId())
+                .setSourceAlbumId(IdUtils.newId());
 
         try {
             this.validator.validate(coreAlbum);
@@ -0,0 +1,111 @@
+package dev.codestijl.integrationdemo.loadcore;
+
+import dev.codestijl.integrationdemo.common.IdUtils;
+import dev.codestijl.integrationdemo.dao.AlbumDao;
+import dev.codestijl.integrationdemo.entity.Album;
+import dev.codestijl.integrationdemo.entity.Status;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.sql.DataSource;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Tests GtinHashPartitioner and the AlbumReader that reads its partitions.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+// This file begins all test GTINs with 97.
+// The reader is declared to throw Exception, so the tests have to as well. The maps are only used by one thread.
+@SuppressWarnings({"PMD.SignatureDeclareThrowsException", "PMD.UseConcurrentHashMap"})
+@SpringBootTest
+public class GtinHashPartitionerTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    /**
+     * Partitions with a grid size of 3. There should be 3 partitions, each with its own index and the number of
+     * partitions.
+     */
+    @Test
+    public void partition_gridSizeThree_returnsThreePartitions() {
+
+        final Map<String, ExecutionContext> partitions = new GtinHashPartitioner().partition(3);
+
+        Assert.assertEquals(3, partitions.size());
+        for (int partition = 0; partition < 3; partition++) {
+
+            final ExecutionContext executionContext = partitions.get(GtinHashPartitioner.PARTITION_KEY + partition);
+            Assert.assertEquals(partition, executionContext.getInt(GtinHashPartitioner.PARTITION_KEY));
+            Assert.assertEquals(3, executionContext.getInt(GtinHashPartitioner.PARTITIONS_KEY));
+        }
+    }
+
+    /**
+     * Reads a batch of albums, including one with a GTIN-14 that is too short, in 3 partitions. Every album should be read by
+     * exactly one partition, and albums with the same GTIN-14 should be read by the same partition.
+     */
+    @Test
+    public void read_threePartitions_readsEachAlbumOnce() throws Exception {
+
+        final UUID batchId = IdUtils.newId();
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSource);
+        jdbcTemplate.update("INSERT INTO STAGE.BATCH (BATCH_ID, CREATE_TIME, PAYLOAD) VALUES (?, CURRENT_TIMESTAMP, 'TEST DATA')",
+                batchId.toString());
+
+        final List<Album> albums = IntStream.range(0, 60)
+                .mapToObj(index -> new Album().setAlbumId(IdUtils.newId())
+                        .setBatchId(batchId)
+                        .setGtin14(index == 0 ? "97" : String.format("97%012d", index % 50))
+                        .setAlbumName("album")
+                        .setArtist("artist")
+                        .setStatus(Status.PENDING))
+                .collect(Collectors.toList());
+        new AlbumDao(jdbcTemplate).insert(albums);
+
+        final List<UUID> readIds = new ArrayList<>();
+        final Set<String> gtinsSeen = new HashSet<>();
+
+        for (int partition = 0; partition < 3; partition++) {
+
+            final List<Album> partitionAlbums = this.readPartition(batchId, partition, 3);
+            Assert.assertFalse(partitionAlbums.isEmpty());
+
+            final Set<String> partitionGtins = partitionAlbums.stream().map(Album::getGtin14).collect(Collectors.toSet());
+            partitionGtins.forEach(gtin -> Assert.assertTrue("GTIN in two partitions: " + gtin, gtinsSeen.add(gtin)));
+            partitionAlbums.forEach(album -> readIds.add(album.getAlbumId()));
+        }
+
+        Assert.assertEquals(albums.size(), readIds.size());
+        Assert.assertEquals(albums.stream().map(Album::getAlbumId).collect(Collectors.toSet()), new HashSet<>(readIds));
+    }
+
+    private List<Album> readPartition(final UUID batchId, final int partition, final int partitions) throws Exception {
+
+        final AlbumReader albumReader = new AlbumReader(this.dataSource, batchId, partition, partitions);
+        albumReader.afterPropertiesSet();
+        albumReader.open(new ExecutionContext());
+
+        final List<Album> albums = new ArrayList<>();
+        for (Album album = albumReader.read(); album != null; album = albumReader.read()) {
+            albums.add(album);
+        }
+        albumReader.close();
+
+        return albums;
+    }
+}
@@ -0,0 +1,65 @@
+package dev.codestijl.integrationdemo.loadcore;
+
+import dev.codestijl.integrationdemo.common.IdStrategy;
+import dev.codestijl.integrationdemo.common.IdUtils;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+
+/**
+ * Tests LoadCoreModeDecider.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class LoadCoreModeDeciderTest {
+
+    /**
+     * Decides with the loadCoreMode job parameter set to SET in lower case. It should return SET.
+     */
+    @Test
+    public void decide_setParameter_returnsSet() {
+
+        final JobParameters jobParameters = new JobParametersBuilder()
+                .addString(LoadCoreModeDecider.LOAD_CORE_MODE_PARAMETER, "set")
+                .toJobParameters();
+
+        Assert.assertEquals("SET", new LoadCoreModeDecider().decide(new JobExecution(1L, jobParameters), null).getName());
+    }
+
+    /**
+     * Decides without the loadCoreMode job parameter. It should return ROW.
+     */
+    @Test
+    public void decide_noParameter_returnsRow() {
+
+        Assert.assertEquals("ROW", new LoadCoreModeDecider().decide(new JobExecution(1L, new JobParameters()), null).getName());
+    }
+
+    /**
+     * Decides with the loadCoreMode job parameter set to PIPELINED and RANDOM IDs. It should fail, since the albums
+     * with the same GTIN-14 may not be loaded in ID order.
+     */
+    @Test
+    public void decide_pipelinedRandomIds_throws() {
+
+        final JobParameters jobParameters = new JobParametersBuilder()
+                .addString(LoadCoreModeDecider.LOAD_CORE_MODE_PARAMETER, "PIPELINED")
+                .toJobParameters();
+        final IdStrategy strategy = IdUtils.getStrategy();
+
+        try {
+            IdUtils.setStrategy(IdStrategy.RANDOM);
+            final LoadCoreModeDecider loadCoreModeDecider = new LoadCoreModeDecider();
+            Assert.assertThrows(IllegalStateException.class, () -> loadCoreModeDecider.decide(new JobExecution(1L, jobParameters), null));
+
+            IdUtils.setStrategy(IdStrategy.TIME_ORDERED);
+            Assert.assertEquals("PIPELINED", new LoadCoreModeDecider().decide(new JobExecution(1L, jobParameters), null).getName());
+        } finally {
+            IdUtils.setStrategy(strategy);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package dev.codestijl.integrationdemo.loadcore;
+
+import dev.codestijl.integrationdemo.entity.Album;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.repository.JobRepository;
+
+/**
+ * Tests PipelinedAlbumReader.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class PipelinedAlbumReaderTest {
+
+    private static final String PRODUCER = "LOAD-ALBUM-PIPELINED";
+
+    /**
+     * Reads the albums of two chunks after LOAD-ALBUM completed. It should read every album in order and then null.
+     */
+    @Test
+    public void read_producerCompleted_readsAllThenNull() throws InterruptedException {
+
+        final AlbumHandoff albumHandoff = new AlbumHandoff(Mockito.mock(JobRepository.class), PRODUCER, 1, 4);
+        albumHandoff.publish(List.of(album("1"), album("2")));
+        albumHandoff.publish(List.of(album("3")));
+        albumHandoff.finish(BatchStatus.COMPLETED);
+
+        final PipelinedAlbumReader reader = new PipelinedAlbumReader(albumHandoff, 0);
+
+        Assert.assertEquals("1", reader.read().getGtin14());
+        Assert.assertEquals("2", reader.read().getGtin14());
+        Assert.assertEquals("3", reader.read().getGtin14());
+        Assert.assertNull(reader.read());
+    }
+
+    /**
+     * Reads the albums of a chunk after LOAD-ALBUM failed. It should read the album that was published and then fail,
+     * rather than end as if every album had been loaded.
+     */
+    @Test
+    public void read_producerFailed_throwsAfterPublishedAlbums() throws InterruptedException {
+
+        final AlbumHandoff albumHandoff = new AlbumHandoff(Mockito.mock(JobRepository.class), PRODUCER, 1, 4);
+        albumHandoff.publish(List.of(album("1")));
+        albumHandoff.finish(BatchStatus.FAILED);
+
+        final PipelinedAlbumReader reader = new PipelinedAlbumReader(albumHandoff, 0);
+
+        Assert.assertEquals("1", reader.read().getGtin14());
+        Assert.assertThrows(IllegalStateException.class, reader::read);
+    }
+
+    private static Album album(final String gtin14) {
+
+        return new Album().setGtin14(gtin14);
+    }
+}
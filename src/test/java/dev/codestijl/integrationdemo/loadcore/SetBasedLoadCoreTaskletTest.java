@@ -0,0 +1,243 @@
+package dev.codestijl.integrationdemo.loadcore;
+
+import dev.codestijl.integrationdemo.common.IdUtils;
+import dev.codestijl.integrationdemo.dao.AlbumDao;
+import dev.codestijl.integrationdemo.dao.CoreAlbumDao;
+import dev.codestijl.integrationdemo.dao.KeyMode;
+import dev.codestijl.integrationdemo.entity.Album;
+import dev.codestijl.integrationdemo.entity.CoreAlbum;
+import dev.codestijl.integrationdemo.entity.Status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+/**
+ * Tests SetBasedLoadCoreTasklet.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+// This file begins all test GTINs with 98. Albums loaded in ROW mode have GTINs that begin
+// with 9810 and IDs that begin with 1. Albums loaded in SET mode have GTINs that begin with
+// 9820 and IDs that begin with 2. Otherwise, the two are the same. The albums whose new IDs
+// are checked have GTINs that begin with 9840 and IDs that begin with 4.
+// The reader and the tasklet are declared to throw Exception, so the tests have to as well.
+@SuppressWarnings("PMD.SignatureDeclareThrowsException")
+@SpringBootTest
+public class SetBasedLoadCoreTaskletTest {
+
+    private static final String ROW_GTIN_PREFIX = "9810";
+    private static final String SET_GTIN_PREFIX = "9820";
+    private static final String ID_GTIN_PREFIX = "9840";
+    private static final String ARTIST = "artist";
+
+    @Autowired
+    private DataSource dataSource;
+
+    /**
+     * Loads the same albums with the ROW mode and with the SET mode. The batch includes an album already in the
+     * core DB, a new album, a GTIN that appears twice, and albums that fail validation. Both modes should leave
+     * the core albums, the errors, and the statuses of the staged albums the same.
+     */
+    @Test
+    public void execute_sameAlbumsAsRowMode_producesSameResults() throws Exception {
+
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSource);
+        final UUID rowBatchId = this.stageBatch(jdbcTemplate, ROW_GTIN_PREFIX, "1");
+        final UUID setBatchId = this.stageBatch(jdbcTemplate, SET_GTIN_PREFIX, "2");
+
+        this.loadWithRowMode(rowBatchId);
+
+        final StepContribution stepContribution = new StepContribution(new StepExecution("LOAD-CORE-SET", new JobExecution(1L)));
+        new SetBasedLoadCoreTasklet(this.dataSource, setBatchId).execute(stepContribution, Mockito.mock(ChunkContext.class));
+
+        Assert.assertEquals(7, stepContribution.getWriteCount());
+
+        final List<String> rowCoreAlbums = coreAlbums(jdbcTemplate, ROW_GTIN_PREFIX);
+        Assert.assertEquals(3, rowCoreAlbums.size());
+        Assert.assertEquals(rowCoreAlbums, coreAlbums(jdbcTemplate, SET_GTIN_PREFIX));
+
+        final List<String> rowErrors = errors(jdbcTemplate, rowBatchId);
+        Assert.assertEquals(3, rowErrors.size());
+        Assert.assertEquals(rowErrors, errors(jdbcTemplate, setBatchId));
+
+        Assert.assertEquals(statuses(jdbcTemplate, rowBatchId), statuses(jdbcTemplate, setBatchId));
+    }
+
+    /**
+     * Loads a batch on a DB keyed with BINARY(16), with one good album and one that fails validation. The good
+     * album should be in the core DB with the staged album as its source, and both staged albums should have
+     * their statuses set.
+     */
+    @Test
+    public void execute_binaryKeys_loadsCore() throws Exception {
+
+        final EmbeddedDatabase binaryDatabase = new EmbeddedDatabaseBuilder().generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .addScripts("binary-key-schema.sql", "binary-key-data.sql")
+                .build();
+
+        try {
+            final JdbcTemplate jdbcTemplate = new JdbcTemplate(binaryDatabase);
+            final UUID batchId = IdUtils.newId();
+            jdbcTemplate.update("INSERT INTO STAGE.BATCH (BATCH_ID, CREATE_TIME, PAYLOAD) VALUES (?, CURRENT_TIMESTAMP, 'TEST DATA')",
+                    (Object) KeyMode.toBytes(batchId));
+
+            final Album good = album(batchId, "3", 1, "98300000000001", "good album", ARTIST);
+            final Album bad = album(batchId, "3", 2, "9830", "short gtin", ARTIST);
+            final AlbumDao albumDao = new AlbumDao(jdbcTemplate);
+            albumDao.insert(List.of(good, bad));
+
+            final StepContribution stepContribution = new StepContribution(new StepExecution("LOAD-CORE-SET", new JobExecution(1L)));
+            new SetBasedLoadCoreTasklet(binaryDatabase, batchId).execute(stepContribution, Mockito.mock(ChunkContext.class));
+
+            Assert.assertEquals(2, stepContribution.getWriteCount());
+
+            final CoreAlbum coreAlbum = new CoreAlbumDao(jdbcTemplate).findByGtin14s(List.of("98300000000001")).get("98300000000001");
+            Assert.assertEquals(good.getAlbumId(), coreAlbum.getSourceAlbumId());
+            Assert.assertNotNull(coreAlbum.getAlbumId());
+
+            Assert.assertEquals(Status.COMPLETE, albumDao.findById(good.getAlbumId()).map(Album::getStatus).orElse(null));
+            Assert.assertEquals(Status.ERROR, albumDao.findById(bad.getAlbumId()).map(Album::getStatus).orElse(null));
+        } finally {
+            binaryDatabase.shutdown();
+        }
+    }
+
+    /**
+     * Loads a batch with the SET mode and TIME_ORDERED IDs. The new core albums and errors should have version 7
+     * IDs made after the load started, in the order the albums were staged.
+     */
+    @Test
+    public void execute_timeOrderedIds_makesAscendingVersion7Ids() throws Exception {
+
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSource);
+        final UUID batchId = this.stageBatch(jdbcTemplate, ID_GTIN_PREFIX, "4");
+        final String before = IdUtils.newId().toString();
+
+        final StepContribution stepContribution = new StepContribution(new StepExecution("LOAD-CORE-SET", new JobExecution(1L)));
+        new SetBasedLoadCoreTasklet(this.dataSource, batchId).execute(stepContribution, Mockito.mock(ChunkContext.class));
+
+        final List<String> coreAlbumIds = jdbcTemplate.queryForList("SELECT ALBUM_ID FROM CORE.CT_ALBUM "
+                + "WHERE GTIN_14 LIKE ? AND CREATE_TIME = LAST_UPDATE_TIME ORDER BY SOURCE_ALBUM_ID", String.class, ID_GTIN_PREFIX + "%");
+        final List<String> errorIds = jdbcTemplate.queryForList("SELECT ERROR_ID FROM STAGE.ALBUM_ERROR WHERE BATCH_ID = ? "
+                + "ORDER BY ALBUM_ID", String.class, batchId.toString());
+
+        Assert.assertEquals(2, coreAlbumIds.size());
+        Assert.assertEquals(3, errorIds.size());
+        for (final List<String> ids : List.of(coreAlbumIds, errorIds)) {
+            Assert.assertTrue(ids.stream().allMatch(id -> UUID.fromString(id).version() == 7 && id.compareTo(before) > 0));
+            Assert.assertEquals(ids.stream().sorted().collect(Collectors.toList()), ids);
+        }
+    }
+
+    // Stages a batch and puts one of its GTINs in the core DB. Returns the batch ID.
+    private UUID stageBatch(final JdbcTemplate jdbcTemplate, final String gtinPrefix, final String idPrefix) {
+
+        final UUID batchId = IdUtils.newId();
+        jdbcTemplate.update("INSERT INTO STAGE.BATCH (BATCH_ID, CREATE_TIME, PAYLOAD) VALUES (?, CURRENT_TIMESTAMP, 'TEST DATA')",
+                batchId.toString());
+
+        new CoreAlbumDao(jdbcTemplate).insert(new CoreAlbum().setAlbumId(UUID.fromString(idPrefix + "0000000-0000-0000-0000-000000000000"))
+                .setGtin14(gtinPrefix + "0000000001")
+                .setAlbumName("existing album")
+                .setArtistName("existing artist")
+                .setSourceAlbumId(IdUtils.newId()));
+
+        final List<Album> albums = List.of(
+                album(batchId, idPrefix, 1, gtinPrefix + "0000000001", "updated album", "updated artist"),
+                album(batchId, idPrefix, 2, gtinPrefix + "0000000002", "new album", "new artist"),
+                album(batchId, idPrefix, 3, gtinPrefix + "0000000003", "first duplicate", ARTIST),
+                album(batchId, idPrefix, 4, gtinPrefix + "0000000003", "second duplicate", ARTIST),
+                album(batchId, idPrefix, 5, gtinPrefix + "12", "short gtin", ARTIST),
+                album(batchId, idPrefix, 6, gtinPrefix + "0000000006", "a".repeat(101), ARTIST),
+                album(batchId, idPrefix, 7, gtinPrefix + "0000000000007", "long gtin", "b".repeat(101)));
+
+        new AlbumDao(jdbcTemplate).insert(albums);
+
+        return batchId;
+    }
+
+    // Runs the batch through the reader, processor, and writers the same way the LOAD-CORE step does.
+    private void loadWithRowMode(final UUID batchId) throws Exception {
+
+        final AlbumReader albumReader = new AlbumReader(this.dataSource, batchId);
+        final AlbumToCoreProcessor albumToCoreProcessor = new AlbumToCoreProcessor(this.dataSource, LookupMode.CHUNK);
+
+        albumReader.afterPropertiesSet();
+        albumReader.open(new ExecutionContext());
+        albumToCoreProcessor.beforeStep(new StepExecution("test", new JobExecution(1L)));
+        albumToCoreProcessor.beforeChunk(Mockito.mock(ChunkContext.class));
+
+        final List<Album> albums = new ArrayList<>();
+        for (Album album = albumReader.read(); album != null; album = albumReader.read()) {
+            albumToCoreProcessor.afterRead(album);
+            albums.add(album);
+        }
+        albumReader.close();
+
+        final List<CoreAlbumWrapper> wrappers = albums.stream().map(albumToCoreProcessor::process).collect(Collectors.toList());
+
+        new AlbumWriter(this.dataSource).write(wrappers);
+        new CoreAlbumWriter(this.dataSource).write(wrappers);
+        new AlbumErrorWriter(this.dataSource).write(wrappers);
+    }
+
+    private static Album album(final UUID batchId, final String idPrefix, final int number, final String gtin14, final String albumName,
+                               final String artist) {
+
+        return new Album().setAlbumId(UUID.fromString(String.format("%s0000000-0000-0000-0000-%012d", idPrefix, number)))
+                .setBatchId(batchId)
+                .setGtin14(gtin14)
+                .setAlbumName(albumName)
+                .setArtist(artist)
+                .setStatus(Status.PENDING);
+    }
+
+    // The IDs and GTINs are returned without their prefixes so the two modes can be compared.
+    private static List<String> coreAlbums(final JdbcTemplate jdbcTemplate, final String gtinPrefix) {
+
+        final String sql = "SELECT ALBUM_ID, GTIN_14, ALBUM_NAME, ARTIST_NAME, SOURCE_ALBUM_ID FROM CORE.CT_ALBUM "
+                + "WHERE GTIN_14 LIKE ? ORDER BY GTIN_14";
+
+        // Only the album that was already in the DB has a known ID.
+        return jdbcTemplate.query(sql, (rs, rowNum) -> String.join("|",
+                rs.getString("ALBUM_ID").endsWith("0000000-0000-0000-0000-000000000000") ? "existing" : "new",
+                rs.getString("GTIN_14").substring(gtinPrefix.length()),
+                rs.getString("ALBUM_NAME"),
+                rs.getString("ARTIST_NAME"),
+                rs.getString("SOURCE_ALBUM_ID").substring(1)), gtinPrefix + "%");
+    }
+
+    private static List<String> errors(final JdbcTemplate jdbcTemplate, final UUID batchId) {
+
+        final String sql = "SELECT ALBUM_ID, ERROR_TEXT FROM STAGE.ALBUM_ERROR WHERE BATCH_ID = ? ORDER BY ALBUM_ID";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> rs.getString("ALBUM_ID").substring(1) + "|" + rs.getString("ERROR_TEXT"),
+                batchId.toString());
+    }
+
+    private static List<String> statuses(final JdbcTemplate jdbcTemplate, final UUID batchId) {
+
+        final String sql = "SELECT ALBUM_ID, STATUS_CD FROM STAGE.ALBUM WHERE BATCH_ID = ? ORDER BY ALBUM_ID";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> rs.getString("ALBUM_ID").substring(1) + "|" + rs.getString("STATUS_CD").trim(),
+                batchId.toString());
+    }
+}
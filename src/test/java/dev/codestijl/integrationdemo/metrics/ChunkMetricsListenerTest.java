@@ -0,0 +1,108 @@
+package dev.codestijl.integrationdemo.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+
+/**
+ * Tests ChunkMetricsListener.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class ChunkMetricsListenerTest {
+
+    private static final String STEP = "LOAD-ALBUM";
+    private static final double DELTA = 0.0;
+
+    /**
+     * Runs two chunks of a step. The counters should have the counts of the step after the last chunk, and the chunk
+     * timer should have timed both chunks.
+     */
+    @Test
+    public void afterChunk_twoChunks_publishesStepCounts() {
+
+        final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final ChunkMetricsListener listener = new ChunkMetricsListener(meterRegistry);
+        final StepExecution stepExecution = new StepExecution(STEP, new JobExecution(1L), 1L);
+        final ChunkContext chunkContext = new ChunkContext(new StepContext(stepExecution));
+
+        listener.beforeStep(stepExecution);
+
+        listener.beforeChunk(chunkContext);
+        stepExecution.setReadCount(10);
+        stepExecution.setWriteCount(8);
+        stepExecution.setFilterCount(2);
+        listener.afterChunk(chunkContext);
+
+        listener.beforeChunk(chunkContext);
+        stepExecution.setReadCount(20);
+        stepExecution.setWriteCount(18);
+        listener.afterChunk(chunkContext);
+
+        Assert.assertEquals(20, itemCount(meterRegistry, STEP, "read"), DELTA);
+        Assert.assertEquals(18, itemCount(meterRegistry, STEP, "written"), DELTA);
+        Assert.assertEquals(2, itemCount(meterRegistry, STEP, "filtered"), DELTA);
+        Assert.assertEquals(2, meterRegistry.get(MetricNames.CHUNK).tag(MetricNames.STEP_TAG, STEP)
+                .tag(MetricNames.OUTCOME_TAG, "success").timer().count());
+    }
+
+    /**
+     * Runs the step of a partition. Its meters should be tagged with the step it runs and the partition, and the
+     * step should be timed once it ends.
+     */
+    @Test
+    public void afterStep_partition_tagsStepAndPartition() {
+
+        final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final ChunkMetricsListener listener = new ChunkMetricsListener(meterRegistry);
+        final StepExecution stepExecution = new StepExecution("LOAD-CORE-WORKER:partition1", new JobExecution(1L), 2L);
+
+        listener.beforeStep(stepExecution);
+        stepExecution.setWriteCount(5);
+        stepExecution.setExitStatus(ExitStatus.COMPLETED);
+        listener.afterStep(stepExecution);
+
+        Assert.assertEquals(1, meterRegistry.get(MetricNames.STEP).tag(MetricNames.STEP_TAG, "LOAD-CORE-WORKER")
+                .tag(MetricNames.PARTITION_TAG, "partition1").tag(MetricNames.STATUS_TAG, "COMPLETED").timer().count());
+        Assert.assertEquals(5, itemCount(meterRegistry, "LOAD-CORE-WORKER", "written"), DELTA);
+        Assert.assertTrue(meterRegistry.get(MetricNames.STEP_ITEMS_PER_SECOND).tag(MetricNames.PARTITION_TAG, "partition1")
+                .gauge().value() > 0);
+    }
+
+    /**
+     * Fails a chunk. It should be timed as an error and not counted.
+     */
+    @Test
+    public void afterChunkError_timesFailedChunk() {
+
+        final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final ChunkMetricsListener listener = new ChunkMetricsListener(meterRegistry);
+        final StepExecution stepExecution = new StepExecution(STEP, new JobExecution(1L), 3L);
+        final ChunkContext chunkContext = new ChunkContext(new StepContext(stepExecution));
+
+        listener.beforeStep(stepExecution);
+        listener.beforeChunk(chunkContext);
+        stepExecution.setReadCount(10);
+        listener.afterChunkError(chunkContext);
+
+        Assert.assertEquals(1, meterRegistry.get(MetricNames.CHUNK).tag(MetricNames.OUTCOME_TAG, "error").timer().count());
+        Assert.assertEquals(0, meterRegistry.get(MetricNames.CHUNK).tag(MetricNames.OUTCOME_TAG, "success").timer().count());
+        Assert.assertEquals(0, itemCount(meterRegistry, STEP, "read"), DELTA);
+    }
+
+    private static double itemCount(final MeterRegistry meterRegistry, final String step, final String type) {
+
+        return meterRegistry.get(MetricNames.STEP_ITEMS)
+                .tag(MetricNames.STEP_TAG, step)
+                .tag(MetricNames.TYPE_TAG, type)
+                .counter()
+                .count();
+    }
+}
@@ -0,0 +1,143 @@
+package dev.codestijl.integrationdemo.metrics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.junit.Assert;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Tests MetricsExporter.
+ *
+ * @author darren
+ * @since 1.0.0
+ */
+public class MetricsExporterTest {
+
+    private static final int INTERVAL_SECONDS = 60;
+
+    private final ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+
+    /**
+     * Starts the TaskScheduler the exporter writes the file on.
+     */
+    @BeforeEach
+    public void startScheduler() {
+
+        this.taskScheduler.initialize();
+    }
+
+    /**
+     * Stops the TaskScheduler.
+     */
+    @AfterEach
+    public void stopScheduler() {
+
+        this.taskScheduler.shutdown();
+    }
+
+    /**
+     * Closes an exporter that writes to a file long before the first interval. The file should still have the
+     * metrics.
+     *
+     * @param directory A temporary directory for the file.
+     * @throws IOException If the file can't be read.
+     */
+    @Test
+    public void close_filePath_writesMetrics(@TempDir final Path directory) throws IOException {
+
+        final PrometheusMeterRegistry meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        final Path file = directory.resolve("metrics.prom");
+
+        final MetricsExporter metricsExporter = new MetricsExporter(meterRegistry, 0, file.toString(), INTERVAL_SECONDS,
+                this.taskScheduler);
+        try {
+            meterRegistry.counter("test.rows").increment(3);
+        } finally {
+            metricsExporter.close();
+        }
+
+        Assert.assertTrue(Files.readString(file).contains("test_rows_total 3.0"));
+    }
+
+    /**
+     * Serves the metrics on a port. They should be returned from /metrics.
+     *
+     * @throws IOException If the metrics can't be read.
+     */
+    @Test
+    public void serve_port_returnsMetrics() throws IOException {
+
+        final PrometheusMeterRegistry meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        meterRegistry.counter("test.rows").increment(5);
+
+        final int port;
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            port = serverSocket.getLocalPort();
+        }
+
+        final MetricsExporter metricsExporter = new MetricsExporter(meterRegistry, port, null, INTERVAL_SECONDS, this.taskScheduler);
+        try {
+
+            final HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + "/metrics").openConnection();
+            try (InputStream inputStream = connection.getInputStream()) {
+
+                Assert.assertEquals(200, connection.getResponseCode());
+                Assert.assertTrue(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8).contains("test_rows_total 5.0"));
+            } finally {
+                connection.disconnect();
+            }
+        } finally {
+            metricsExporter.close();
+        }
+    }
+
+    /**
+     * Ends the job while the exporter serves the metrics and writes them to a file. The file should have the final
+     * metrics, the port should no longer be served, and closing the exporter again should do nothing.
+     *
+     * @param directory A temporary directory for the file.
+     * @throws IOException If the file can't be read.
+     */
+    @Test
+    public void afterJob_portAndFilePath_writesMetricsAndStopsServing(@TempDir final Path directory) throws IOException {
+
+        final PrometheusMeterRegistry meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        final Path file = directory.resolve("metrics.prom");
+
+        final int port;
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            port = serverSocket.getLocalPort();
+        }
+
+        final MetricsExporter metricsExporter = new MetricsExporter(meterRegistry, port, file.toString(), INTERVAL_SECONDS,
+                this.taskScheduler);
+        try {
+            meterRegistry.counter("test.rows").increment(7);
+            metricsExporter.afterJob(new JobExecution(1L));
+
+            Assert.assertTrue(Files.readString(file).contains("test_rows_total 7.0"));
+            Files.delete(file);
+
+            final URL url = new URL("http://localhost:" + port + "/metrics");
+            Assert.assertThrows(IOException.class, () -> url.openConnection().getInputStream().close());
+        } finally {
+            metricsExporter.close();
+        }
+
+        Assert.assertFalse(Files.exists(file));
+    }
+}
@@ -10,7 +10,9 @@ CREATE TABLE STATUS (
 CREATE TABLE BATCH (
                        BATCH_ID CHAR(36) NOT NULL PRIMARY KEY,
                        CREATE_TIME TIMESTAMP NOT NULL,
-                       PAYLOAD CLOB
+                       PAYLOAD CLOB,
+                       PAYLOAD_CODEC VARCHAR(10),
+                       PAYLOAD_COMPRESSED BLOB
 );
 
 CREATE TABLE ALBUM (
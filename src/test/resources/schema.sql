@@ -1,3 +1,4 @@
 RUNSCRIPT FROM 'classpath:/single-result-reader-schema.sql';
 RUNSCRIPT FROM 'classpath:/clob-json-reader-schema.sql';
-RUNSCRIPT FROM 'classpath:/integration-schema.sql';
\ No newline at end of file
+RUNSCRIPT FROM 'classpath:/integration-schema.sql';
+RUNSCRIPT FROM 'classpath:/job-repository-schema.sql';